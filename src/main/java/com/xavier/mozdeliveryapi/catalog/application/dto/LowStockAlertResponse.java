@@ -0,0 +1,45 @@
+package com.xavier.mozdeliveryapi.catalog.application.dto;
+
+import java.time.Instant;
+
+import com.xavier.mozdeliveryapi.catalog.domain.entity.Product;
+import com.xavier.mozdeliveryapi.catalog.domain.event.ProductLowStockChangedEvent;
+
+/**
+ * Response DTO pushed to merchants when a product becomes low on stock or
+ * recovers from it.
+ */
+public record LowStockAlertResponse(
+    String productId,
+    String productName,
+    Integer currentStock,
+    Integer lowStockThreshold,
+    boolean lowStock,
+    Instant occurredAt
+) {
+
+    public static LowStockAlertResponse from(ProductLowStockChangedEvent event) {
+        return new LowStockAlertResponse(
+            event.productId().toString(),
+            event.productName(),
+            event.currentStock(),
+            event.lowStockThreshold(),
+            event.lowStock(),
+            event.occurredAt()
+        );
+    }
+
+    /**
+     * Alert for a product that is already low when a merchant subscribes.
+     */
+    public static LowStockAlertResponse current(Product product, Instant now) {
+        return new LowStockAlertResponse(
+            product.getProductId().toString(),
+            product.getName(),
+            product.getStockInfo().currentStock(),
+            product.getStockInfo().lowStockThreshold(),
+            true,
+            now
+        );
+    }
+}
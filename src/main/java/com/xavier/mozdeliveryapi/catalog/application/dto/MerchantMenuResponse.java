@@ -0,0 +1,30 @@
+package com.xavier.mozdeliveryapi.catalog.application.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for a merchant's full public menu.
+ */
+public record MerchantMenuResponse(
+    String merchantId,
+    List<MenuCatalog> catalogs
+) {
+
+    /**
+     * A visible catalog with its visible categories.
+     */
+    public record MenuCatalog(
+        CatalogResponse catalog,
+        List<MenuCategory> categories
+    ) {
+    }
+
+    /**
+     * A visible category with its available products.
+     */
+    public record MenuCategory(
+        CategoryResponse category,
+        List<ProductResponse> products
+    ) {
+    }
+}
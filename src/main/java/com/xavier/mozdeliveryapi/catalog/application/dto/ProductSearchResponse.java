@@ -0,0 +1,43 @@
+package com.xavier.mozdeliveryapi.catalog.application.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductAvailability;
+
+/**
+ * Response DTO for a product search with its facet counts.
+ */
+public record ProductSearchResponse(
+    int total,
+    List<Hit> hits,
+    Facets facets
+) {
+
+    /**
+     * A matching product, best matches first.
+     */
+    public record Hit(
+        String productId,
+        String merchantId,
+        String categoryId,
+        String name,
+        BigDecimal price,
+        String currency,
+        ProductAvailability availability,
+        double score
+    ) {
+    }
+
+    /**
+     * Matching product counts per facet value. Each facet is counted with the
+     * other facets' filters applied but not its own.
+     */
+    public record Facets(
+        Map<String, Integer> verticals,
+        Map<String, Integer> priceRanges,
+        Map<String, Integer> availability
+    ) {
+    }
+}
@@ -7,6 +7,7 @@ import com.xavier.mozdeliveryapi.catalog.application.dto.CategoryResponse;
 import com.xavier.mozdeliveryapi.catalog.application.dto.CreateCatalogRequest;
 import com.xavier.mozdeliveryapi.catalog.application.dto.CreateCategoryRequest;
 import com.xavier.mozdeliveryapi.catalog.application.dto.CreateProductRequest;
+import com.xavier.mozdeliveryapi.catalog.application.dto.MerchantMenuResponse;
 import com.xavier.mozdeliveryapi.catalog.application.dto.ProductResponse;
 import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CatalogStatus;
 
@@ -49,4 +50,7 @@ public interface CatalogApplicationService {
     List<ProductResponse> getAvailableCategoryProducts(String categoryId);
     List<ProductResponse> getLowStockProducts(String merchantId);
     void deleteProduct(String productId);
+    
+    // Menu operations
+    MerchantMenuResponse getMerchantMenu(String merchantId);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.xavier.mozdeliveryapi.catalog.application.usecase;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -12,8 +13,10 @@ import com.xavier.mozdeliveryapi.catalog.application.dto.CategoryResponse;
 import com.xavier.mozdeliveryapi.catalog.application.dto.CreateCatalogRequest;
 import com.xavier.mozdeliveryapi.catalog.application.dto.CreateCategoryRequest;
 import com.xavier.mozdeliveryapi.catalog.application.dto.CreateProductRequest;
+import com.xavier.mozdeliveryapi.catalog.application.dto.MerchantMenuResponse;
 import com.xavier.mozdeliveryapi.catalog.application.dto.ProductResponse;
 import com.xavier.mozdeliveryapi.catalog.application.mapper.CatalogMapper;
+import com.xavier.mozdeliveryapi.catalog.application.usecase.port.CatalogViewInvalidator;
 import com.xavier.mozdeliveryapi.catalog.domain.entity.Catalog;
 import com.xavier.mozdeliveryapi.catalog.domain.entity.Category;
 import com.xavier.mozdeliveryapi.catalog.domain.entity.Product;
@@ -41,13 +44,15 @@ public class CatalogApplicationServiceImpl implements CatalogApplicationService
     private final ProductService productService;
     private final CatalogMapper catalogMapper;
     private final DomainEventPublisher eventPublisher;
+    private final List<CatalogViewInvalidator> viewInvalidators;
     
-    public CatalogApplicationServiceImpl(CatalogService catalogService, CategoryService categoryService, ProductService productService, CatalogMapper catalogMapper, DomainEventPublisher eventPublisher) {
+    public CatalogApplicationServiceImpl(CatalogService catalogService, CategoryService categoryService, ProductService productService, CatalogMapper catalogMapper, DomainEventPublisher eventPublisher, List<CatalogViewInvalidator> viewInvalidators) {
         this.catalogService = Objects.requireNonNull(catalogService, "Catalog service cannot be null");
         this.categoryService = Objects.requireNonNull(categoryService, "Category service cannot be null");
         this.productService = Objects.requireNonNull(productService, "Product service cannot be null");
         this.catalogMapper = Objects.requireNonNull(catalogMapper, "Catalog mapper cannot be null");
         this.eventPublisher = Objects.requireNonNull(eventPublisher, "Event publisher cannot be null");
+        this.viewInvalidators = List.copyOf(Objects.requireNonNull(viewInvalidators, "View invalidators cannot be null"));
     }
     
     @Override
@@ -175,7 +180,10 @@ public class CatalogApplicationServiceImpl implements CatalogApplicationService
         Objects.requireNonNull(catalogId, "Catalog ID cannot be null");
         
         CatalogId id = CatalogId.of(catalogId);
+        Catalog catalog = catalogService.getCatalog(id); // Get catalog before deletion for cache invalidation
         catalogService.deleteCatalog(id);
+        
+        viewInvalidators.forEach(invalidator -> invalidator.catalogChanged(catalog.getMerchantId(), id));
     }
     
     // Category operations
@@ -292,7 +300,10 @@ public class CatalogApplicationServiceImpl implements CatalogApplicationService
         Objects.requireNonNull(categoryId, "Category ID cannot be null");
         
         CategoryId id = CategoryId.of(categoryId);
+        Category category = categoryService.getCategory(id); // Get category before deletion for cache invalidation
         categoryService.deleteCategory(id);
+        
+        viewInvalidators.forEach(invalidator -> invalidator.categoryChanged(category.getMerchantId(), category.getCatalogId(), id));
     }
     
     @Override
@@ -468,11 +479,42 @@ public class CatalogApplicationServiceImpl implements CatalogApplicationService
         publishDomainEvents(product);
     }
     
+    // Menu operations
+    
+    @Override
+    @Transactional(readOnly = true)
+    public MerchantMenuResponse getMerchantMenu(String merchantId) {
+        Objects.requireNonNull(merchantId, "Merchant ID cannot be null");
+        
+        MerchantId id = MerchantId.of(merchantId);
+        // One query per level for the whole merchant, grouped here, instead of one per catalog and category
+        Map<CatalogId, List<Category>> categoriesByCatalog = categoryService.getVisibleMerchantCategories(id).stream()
+            .collect(Collectors.groupingBy(Category::getCatalogId));
+        Map<CategoryId, List<Product>> productsByCategory = productService.getAvailableMerchantProducts(id).stream()
+            .collect(Collectors.groupingBy(Product::getCategoryId));
+        
+        List<MerchantMenuResponse.MenuCatalog> catalogs = catalogService.getVisibleMerchantCatalogs(id).stream()
+            .map(catalog -> new MerchantMenuResponse.MenuCatalog(
+                catalogMapper.toCatalogResponse(catalog),
+                categoriesByCatalog.getOrDefault(catalog.getCatalogId(), List.of()).stream()
+                    .map(category -> new MerchantMenuResponse.MenuCategory(
+                        catalogMapper.toCategoryResponse(category),
+                        productsByCategory.getOrDefault(category.getCategoryId(), List.of()).stream()
+                            .map(catalogMapper::toProductResponse)
+                            .collect(Collectors.toList())))
+                    .collect(Collectors.toList())))
+            .collect(Collectors.toList());
+        
+        return new MerchantMenuResponse(id.toString(), catalogs);
+    }
+    
     /**
      * Publish domain events from an aggregate.
+     * Cached views are dropped for every write, since not every change raises an event.
      */
     private void publishDomainEvents(Catalog catalog) {
-        catalog.getDomainEvents().forEach(eventPublisher::publish);
+        viewInvalidators.forEach(invalidator -> invalidator.catalogChanged(catalog.getMerchantId(), catalog.getCatalogId()));
+        eventPublisher.publishAll(catalog.getDomainEvents());
         catalog.clearDomainEvents();
     }
     
@@ -480,7 +522,8 @@ public class CatalogApplicationServiceImpl implements CatalogApplicationService
      * Publish domain events from a category.
      */
     private void publishDomainEvents(Category category) {
-        category.getDomainEvents().forEach(eventPublisher::publish);
+        viewInvalidators.forEach(invalidator -> invalidator.categoryChanged(category.getMerchantId(), category.getCatalogId(), category.getCategoryId()));
+        eventPublisher.publishAll(category.getDomainEvents());
         category.clearDomainEvents();
     }
     
@@ -488,7 +531,8 @@ public class CatalogApplicationServiceImpl implements CatalogApplicationService
      * Publish domain events from a product.
      */
     private void publishDomainEvents(Product product) {
-        product.getDomainEvents().forEach(eventPublisher::publish);
+        viewInvalidators.forEach(invalidator -> invalidator.productChanged(product.getMerchantId(), product.getCategoryId(), product.getProductId()));
+        eventPublisher.publishAll(product.getDomainEvents());
         product.clearDomainEvents();
     }
 }
\ No newline at end of file
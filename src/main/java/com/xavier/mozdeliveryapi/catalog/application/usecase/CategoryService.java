@@ -47,6 +47,11 @@ public interface CategoryService {
      */
     List<Category> getVisibleCatalogCategories(CatalogId catalogId);
     
+    /**
+     * Get visible categories of all catalogs of a merchant (for public browsing).
+     */
+    List<Category> getVisibleMerchantCategories(MerchantId merchantId);
+    
     /**
      * Delete a category.
      */
@@ -107,6 +107,14 @@ public class CategoryServiceImpl implements CategoryService {
         return categoryRepository.findVisibleByCatalogId(catalogId);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public List<Category> getVisibleMerchantCategories(MerchantId merchantId) {
+        Objects.requireNonNull(merchantId, "Merchant ID cannot be null");
+        
+        return categoryRepository.findVisibleByMerchantId(merchantId);
+    }
+    
     @Override
     public void deleteCategory(CategoryId categoryId) {
         Objects.requireNonNull(categoryId, "Category ID cannot be null");
@@ -60,6 +60,11 @@ public interface ProductService {
      */
     List<Product> getAvailableCategoryProducts(CategoryId categoryId);
     
+    /**
+     * Get available products of all categories of a merchant (for public browsing).
+     */
+    List<Product> getAvailableMerchantProducts(MerchantId merchantId);
+    
     /**
      * Get low stock products for a merchant.
      */
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.xavier.mozdeliveryapi.catalog.application.usecase.port.ProductRepository;
+import com.xavier.mozdeliveryapi.catalog.application.usecase.port.StockLevelRepository;
 import com.xavier.mozdeliveryapi.catalog.domain.entity.Product;
 import com.xavier.mozdeliveryapi.catalog.domain.exception.ProductNotFoundException;
 import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CategoryId;
@@ -26,10 +27,13 @@ public class ProductServiceImpl implements ProductService {
     
     private final ProductRepository productRepository;
     private final CategoryRepositoryHelper categoryHelper;
+    private final StockLevelRepository stockLevelRepository;
     
-    public ProductServiceImpl(ProductRepository productRepository, CategoryRepositoryHelper categoryHelper) {
+    public ProductServiceImpl(ProductRepository productRepository, CategoryRepositoryHelper categoryHelper,
+                              StockLevelRepository stockLevelRepository) {
         this.productRepository = Objects.requireNonNull(productRepository, "ProductRepository cannot be null");
         this.categoryHelper = Objects.requireNonNull(categoryHelper, "CategoryRepositoryHelper cannot be null");
+        this.stockLevelRepository = Objects.requireNonNull(stockLevelRepository, "StockLevelRepository cannot be null");
     }
     
     @Override
@@ -92,6 +96,13 @@ public class ProductServiceImpl implements ProductService {
         Product product = getProduct(productId);
         product.updateStockInfo(stockInfo);
         
+        // Saving a product leaves the stock level columns alone, so set them explicitly
+        if (stockInfo.trackStock()) {
+            stockLevelRepository.setLevel(productId, stockInfo.currentStock(), stockInfo.lowStockThreshold());
+        } else {
+            stockLevelRepository.setLevel(productId, null, null);
+        }
+        
         return productRepository.save(product);
     }
     
@@ -140,6 +151,14 @@ public class ProductServiceImpl implements ProductService {
         return productRepository.findAvailableByCategoryId(categoryId);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> getAvailableMerchantProducts(MerchantId merchantId) {
+        Objects.requireNonNull(merchantId, "Merchant ID cannot be null");
+        
+        return productRepository.findAvailableByMerchantId(merchantId);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public List<Product> getLowStockProducts(MerchantId merchantId) {
@@ -0,0 +1,57 @@
+package com.xavier.mozdeliveryapi.catalog.application.usecase;
+
+import java.util.Map;
+import java.util.OptionalInt;
+
+import com.xavier.mozdeliveryapi.catalog.domain.exception.InsufficientStockException;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.OrderId;
+
+/**
+ * Holds product stock for orders between checkout and payment.
+ *
+ * Products that do not track stock are always available and are never held.
+ */
+public interface StockReservationService {
+    
+    /**
+     * Hold the given quantities for an order, all of them or none. Reserving
+     * again for the same order replaces its previous hold. When called inside
+     * a transaction, the hold is dropped if the transaction rolls back.
+     *
+     * @throws InsufficientStockException if any product has too little stock left
+     */
+    void reserve(OrderId orderId, Map<ProductId, Integer> quantities);
+    
+    /**
+     * Return an order's held stock, e.g. when the order is cancelled.
+     *
+     * @return whether the order had a hold
+     */
+    boolean release(OrderId orderId);
+    
+    /**
+     * Turn an order's hold into a sale once it has been paid for. If the hold
+     * is gone, because it expired or the instance restarted, the quantities
+     * are taken from stock now instead, all of them or none.
+     *
+     * @return whether the order had a hold
+     * @throws InsufficientStockException if there was no hold and a product
+     *                                    has too little stock left
+     */
+    boolean confirm(OrderId orderId, Map<ProductId, Integer> quantities);
+    
+    /**
+     * Move an order's hold to another order, e.g. when a guest order is
+     * converted into a customer order.
+     *
+     * @return whether the source order had a hold
+     */
+    boolean transfer(OrderId fromOrderId, OrderId toOrderId);
+    
+    /**
+     * Get the stock of a product that is neither sold nor held, or empty if the
+     * product does not track stock.
+     */
+    OptionalInt getAvailableStock(ProductId productId);
+}
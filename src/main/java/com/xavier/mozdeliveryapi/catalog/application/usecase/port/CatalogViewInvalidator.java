@@ -0,0 +1,35 @@
+package com.xavier.mozdeliveryapi.catalog.application.usecase.port;
+
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CatalogId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CategoryId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+/**
+ * Port for dropping cached read views when catalog aggregates change.
+ */
+public interface CatalogViewInvalidator {
+
+    /**
+     * Drop the views of a catalog and of the merchant's catalog list.
+     */
+    void catalogChanged(MerchantId merchantId, CatalogId catalogId);
+
+    /**
+     * Drop the views of a category and of the lists that contain it.
+     */
+    void categoryChanged(MerchantId merchantId, CatalogId catalogId, CategoryId categoryId);
+
+    /**
+     * Drop the views of a product and of its category's product list.
+     */
+    void productChanged(MerchantId merchantId, CategoryId categoryId, ProductId productId);
+
+    /**
+     * Drop the views that show a product's stock. Stock moves with every sale,
+     * so views that do not show it may ignore this.
+     */
+    default void stockChanged(MerchantId merchantId, CategoryId categoryId, ProductId productId) {
+        productChanged(merchantId, categoryId, productId);
+    }
+}
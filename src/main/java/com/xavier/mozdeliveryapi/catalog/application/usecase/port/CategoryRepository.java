@@ -38,6 +38,11 @@ public interface CategoryRepository {
      */
     List<Category> findByMerchantId(MerchantId merchantId);
     
+    /**
+     * Find visible categories for a merchant (for public browsing).
+     */
+    List<Category> findVisibleByMerchantId(MerchantId merchantId);
+    
     /**
      * Check if category exists.
      */
@@ -34,6 +34,11 @@ public interface ProductRepository {
      */
     List<Product> findAvailableByCategoryId(CategoryId categoryId);
     
+    /**
+     * Find available products for a merchant (for public browsing).
+     */
+    List<Product> findAvailableByMerchantId(MerchantId merchantId);
+    
     /**
      * Find all products for a merchant.
      */
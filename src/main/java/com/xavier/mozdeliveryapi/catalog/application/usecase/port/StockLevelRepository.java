@@ -0,0 +1,44 @@
+package com.xavier.mozdeliveryapi.catalog.application.usecase.port;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+
+/**
+ * Port for the on-hand stock counters, which are stored apart from the rest of
+ * the product so they can change without rewriting it.
+ *
+ * Implementations keep each product's low stock flag in step with its level
+ * and publish a ProductLowStockChangedEvent whenever the flag flips.
+ */
+public interface StockLevelRepository {
+
+    /**
+     * Find the on-hand stock of the given products; products that do not track
+     * stock are left out.
+     */
+    Map<ProductId, Integer> findOnHand(Collection<ProductId> productIds);
+
+    /**
+     * Set the on-hand stock and low stock threshold of a product, or clear them
+     * when the product stops tracking stock.
+     */
+    void setLevel(ProductId productId, Integer onHand, Integer lowStockThreshold);
+
+    /**
+     * Take units off a product's on-hand stock for the calling instance to
+     * sell: {@code wanted} units if that many are left, otherwise
+     * {@code minimum}. Runs in its own transaction, so the units stay taken
+     * even if the caller's transaction rolls back.
+     *
+     * @return the units taken, or 0 if fewer than {@code minimum} are left or
+     *         the product does not track stock
+     */
+    int lease(ProductId productId, int wanted, int minimum);
+
+    /**
+     * Put leased units that were not sold back on the on-hand stock of each product.
+     */
+    void returnLeased(Map<ProductId, Integer> quantities);
+}
@@ -0,0 +1,37 @@
+package com.xavier.mozdeliveryapi.catalog.domain.event;
+
+import java.time.Instant;
+
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+import com.xavier.mozdeliveryapi.shared.domain.event.DomainEvent;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+/**
+ * Domain event published when a product's stock crosses its low stock
+ * threshold, in either direction.
+ */
+public record ProductLowStockChangedEvent(
+    ProductId productId,
+    MerchantId merchantId,
+    String productName,
+    Integer currentStock,
+    Integer lowStockThreshold,
+    boolean lowStock,
+    Instant occurredAt
+) implements DomainEvent {
+
+    @Override
+    public Instant getOccurredOn() {
+        return occurredAt;
+    }
+
+    @Override
+    public String getAggregateId() {
+        return productId.toString();
+    }
+
+    @Override
+    public String getEventType() {
+        return lowStock ? "ProductLowStock" : "ProductStockRecovered";
+    }
+}
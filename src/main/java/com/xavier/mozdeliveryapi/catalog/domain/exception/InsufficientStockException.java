@@ -0,0 +1,26 @@
+package com.xavier.mozdeliveryapi.catalog.domain.exception;
+
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+
+/**
+ * Exception thrown when a product does not have enough stock left to reserve.
+ */
+public class InsufficientStockException extends RuntimeException {
+    
+    private final ProductId productId;
+    private final int requested;
+    
+    public InsufficientStockException(ProductId productId, int requested) {
+        super("Insufficient stock for product " + productId + ": requested " + requested);
+        this.productId = productId;
+        this.requested = requested;
+    }
+    
+    public ProductId getProductId() {
+        return productId;
+    }
+    
+    public int getRequested() {
+        return requested;
+    }
+}
@@ -0,0 +1,413 @@
+package com.xavier.mozdeliveryapi.catalog.infra.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xavier.mozdeliveryapi.catalog.application.usecase.port.CatalogViewInvalidator;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CatalogId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CategoryId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read-through cache of the merchant, catalog, category and product views
+ * served by the public browsing endpoints.
+ *
+ * Views are held ready to serialise in a bounded near cache of lock-striped
+ * LRU segments, and optionally in a shared Redis tier behind it. Concurrent
+ * misses for a key wait for a single load instead of all hitting the database.
+ * Catalog writes drop the affected views as they happen and again after their
+ * transaction commits. On this node, a load that overlaps an invalidation is
+ * served but not cached. Loads on other nodes cannot see that invalidation, so
+ * Redis views are versioned instead: an invalidation moves the key to a new
+ * version, and a view loaded under the old one is never read again even if it
+ * is written afterwards. Near entries live for a short TTL, which bounds how
+ * long another node can serve a view from its own near cache after a write.
+ */
+public class CatalogViewCache implements CatalogViewInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogViewCache.class);
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final int maxEntriesPerSegment;
+    private final long ttlNanos;
+    private final Duration remoteTtl;
+    private final CatalogViewStore remoteStore;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter nearHits;
+    private final Counter nearMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter remoteErrors;
+    private final Counter loads;
+    private final Counter coalesced;
+    private final Counter sizeEvictions;
+    private final Counter invalidations;
+
+    public CatalogViewCache(int maxEntries, Duration ttl, Duration remoteTtl, Optional<CatalogViewStore> remoteStore,
+                            ObjectMapper objectMapper, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        Objects.requireNonNull(ttl, "TTL cannot be null");
+        Objects.requireNonNull(remoteStore, "Remote store cannot be null");
+        Objects.requireNonNull(meterRegistry, "Meter registry cannot be null");
+        if (maxEntries < SEGMENTS) {
+            throw new IllegalArgumentException("Max entries must be at least " + SEGMENTS);
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        this.maxEntriesPerSegment = maxEntries / SEGMENTS;
+        this.ttlNanos = ttl.toNanos();
+        this.remoteTtl = Objects.requireNonNull(remoteTtl, "Remote TTL cannot be null");
+        this.remoteStore = remoteStore.orElse(null);
+        this.objectMapper = Objects.requireNonNull(objectMapper, "Object mapper cannot be null");
+        this.nanoClock = Objects.requireNonNull(nanoClock, "Clock cannot be null");
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+
+        this.nearHits = Counter.builder("catalog.cache.requests")
+            .tag("tier", "near")
+            .tag("result", "hit")
+            .description("View lookups served by the near cache")
+            .register(meterRegistry);
+        this.nearMisses = Counter.builder("catalog.cache.requests")
+            .tag("tier", "near")
+            .tag("result", "miss")
+            .description("View lookups not found in the near cache")
+            .register(meterRegistry);
+        this.remoteHits = Counter.builder("catalog.cache.requests")
+            .tag("tier", "redis")
+            .tag("result", "hit")
+            .description("Near cache misses served by Redis")
+            .register(meterRegistry);
+        this.remoteMisses = Counter.builder("catalog.cache.requests")
+            .tag("tier", "redis")
+            .tag("result", "miss")
+            .description("Near cache misses not found in Redis")
+            .register(meterRegistry);
+        this.remoteErrors = Counter.builder("catalog.cache.redis.errors")
+            .description("Redis reads and writes that failed and were skipped")
+            .register(meterRegistry);
+        this.loads = Counter.builder("catalog.cache.loads")
+            .description("Views loaded from the catalog services")
+            .register(meterRegistry);
+        this.coalesced = Counter.builder("catalog.cache.coalesced")
+            .description("Lookups that waited for a load already in flight")
+            .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("catalog.cache.evictions")
+            .tag("cause", "size")
+            .description("Views evicted to stay within the size bound")
+            .register(meterRegistry);
+        this.invalidations = Counter.builder("catalog.cache.evictions")
+            .tag("cause", "invalidated")
+            .description("Views dropped because the catalog changed")
+            .register(meterRegistry);
+        meterRegistry.gauge("catalog.cache.size", this, CatalogViewCache::size);
+        meterRegistry.gauge("catalog.cache.hit.ratio", this, CatalogViewCache::hitRatio);
+    }
+
+    public static String merchantKey(String merchantId) {
+        return "merchant:" + normalize(merchantId);
+    }
+
+    public static String merchantCatalogsKey(String merchantId) {
+        return "merchant:" + normalize(merchantId) + ":catalogs";
+    }
+
+    public static String catalogKey(String catalogId) {
+        return "catalog:" + normalize(catalogId);
+    }
+
+    public static String catalogCategoriesKey(String catalogId) {
+        return "catalog:" + normalize(catalogId) + ":categories";
+    }
+
+    public static String categoryKey(String categoryId) {
+        return "category:" + normalize(categoryId);
+    }
+
+    public static String categoryProductsKey(String categoryId) {
+        return "category:" + normalize(categoryId) + ":products";
+    }
+
+    public static String productKey(String productId) {
+        return "product:" + normalize(productId);
+    }
+
+    /**
+     * Get the view for a key, loading it on a miss.
+     *
+     * A {@code null} view means there is nothing to show. It is passed to the callers
+     * waiting for the load but not cached, so an entity created later is seen at once.
+     * Exceptions thrown by the loader are passed to every caller waiting for it and
+     * are not cached either.
+     */
+    public <T> T get(String key, TypeReference<T> type, Supplier<T> loader) {
+        Objects.requireNonNull(key, "Key cannot be null");
+        Objects.requireNonNull(type, "Type cannot be null");
+        Objects.requireNonNull(loader, "Loader cannot be null");
+
+        Entry cached = getNear(key);
+        if (cached != null) {
+            nearHits.increment();
+            return cast(cached.view);
+        }
+        nearMisses.increment();
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loading.putIfAbsent(key, load);
+        if (inFlight != null) {
+            coalesced.increment();
+            return await(inFlight);
+        }
+
+        try {
+            long loadGeneration = generation.get();
+            T view = loadThroughRemote(key, type, loader, loadGeneration);
+            if (view != null && generation.get() == loadGeneration) {
+                putNear(key, view);
+            }
+            load.complete(view);
+            return view;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    @Override
+    public void catalogChanged(MerchantId merchantId, CatalogId catalogId) {
+        Objects.requireNonNull(merchantId, "Merchant ID cannot be null");
+        Objects.requireNonNull(catalogId, "Catalog ID cannot be null");
+        invalidate(List.of(
+            catalogKey(catalogId.toString()),
+            catalogCategoriesKey(catalogId.toString()),
+            merchantCatalogsKey(merchantId.toString())));
+    }
+
+    @Override
+    public void categoryChanged(MerchantId merchantId, CatalogId catalogId, CategoryId categoryId) {
+        Objects.requireNonNull(catalogId, "Catalog ID cannot be null");
+        Objects.requireNonNull(categoryId, "Category ID cannot be null");
+        invalidate(List.of(
+            categoryKey(categoryId.toString()),
+            categoryProductsKey(categoryId.toString()),
+            catalogKey(catalogId.toString()),
+            catalogCategoriesKey(catalogId.toString())));
+    }
+
+    @Override
+    public void productChanged(MerchantId merchantId, CategoryId categoryId, ProductId productId) {
+        Objects.requireNonNull(categoryId, "Category ID cannot be null");
+        Objects.requireNonNull(productId, "Product ID cannot be null");
+        invalidate(List.of(
+            productKey(productId.toString()),
+            categoryProductsKey(categoryId.toString())));
+    }
+
+    /**
+     * Drop views now and, inside a transaction, again once it commits, so a
+     * reader cannot cache data the transaction has not yet made visible.
+     */
+    public void invalidate(List<String> keys) {
+        Objects.requireNonNull(keys, "Keys cannot be null");
+        evict(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(keys);
+                }
+            });
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public double hitRatio() {
+        double lookups = nearHits.count() + nearMisses.count();
+        return lookups == 0 ? 0.0 : nearHits.count() / lookups;
+    }
+
+    private <T> T loadThroughRemote(String key, TypeReference<T> type, Supplier<T> loader, long loadGeneration) {
+        String version = null;
+        if (remoteStore != null) {
+            try {
+                version = remoteStore.version(key);
+                Optional<String> json = remoteStore.get(key, version);
+                if (json.isPresent()) {
+                    remoteHits.increment();
+                    return objectMapper.readValue(json.get(), type);
+                }
+                remoteMisses.increment();
+            } catch (JsonProcessingException | RuntimeException e) {
+                remoteErrors.increment();
+                logger.warn("Failed to read catalog view {} from Redis: {}", key, e.getMessage());
+            }
+        }
+
+        T view = loader.get();
+        loads.increment();
+        // Stored under the version read before loading, so a change made meanwhile on any node hides it
+        if (view != null && version != null && generation.get() == loadGeneration) {
+            try {
+                remoteStore.put(key, version, objectMapper.writeValueAsString(view), remoteTtl);
+            } catch (JsonProcessingException | RuntimeException e) {
+                remoteErrors.increment();
+                logger.warn("Failed to write catalog view {} to Redis: {}", key, e.getMessage());
+            }
+        }
+        return view;
+    }
+
+    private void evict(List<String> keys) {
+        generation.incrementAndGet();
+        int evicted = 0;
+        for (String key : keys) {
+            Segment segment = segmentFor(key);
+            segment.lock.lock();
+            try {
+                if (segment.entries.remove(key) != null) {
+                    evicted++;
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+            // Later lookups start a fresh load rather than joining one that may read old data
+            CompletableFuture<Object> inFlight = loading.get(key);
+            if (inFlight != null) {
+                loading.remove(key, inFlight);
+            }
+        }
+        invalidations.increment(evicted);
+
+        if (remoteStore != null) {
+            try {
+                // Versions outlive every view stored under the ones they replace, even a view
+                // written just after the change, so an expired version cannot revive one
+                remoteStore.invalidate(keys, remoteTtl.multipliedBy(2));
+            } catch (RuntimeException e) {
+                remoteErrors.increment();
+                logger.warn("Failed to invalidate catalog views {} in Redis: {}", keys, e.getMessage());
+            }
+        }
+    }
+
+    private Entry getNear(String key) {
+        Segment segment = segmentFor(key);
+        long now = nanoClock.getAsLong();
+        segment.lock.lock();
+        try {
+            Entry entry = segment.entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAtNanos - now <= 0) {
+                segment.entries.remove(key);
+                return null;
+            }
+            return entry;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    private void putNear(String key, Object view) {
+        Segment segment = segmentFor(key);
+        Entry entry = new Entry(view, nanoClock.getAsLong() + ttlNanos);
+        segment.lock.lock();
+        try {
+            segment.entries.put(key, entry);
+            if (segment.entries.size() > maxEntriesPerSegment) {
+                Iterator<Entry> eldest = segment.entries.values().iterator();
+                eldest.next();
+                eldest.remove();
+                sizeEvictions.increment();
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    private static <T> T await(CompletableFuture<Object> inFlight) {
+        try {
+            return cast(inFlight.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object view) {
+        return (T) view;
+    }
+
+    private static String normalize(String id) {
+        Objects.requireNonNull(id, "ID cannot be null");
+        return id.toLowerCase(Locale.ROOT);  // UUIDs arrive in either case but are stored lower case
+    }
+
+    private Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    private record Entry(Object view, long expiresAtNanos) {}
+}
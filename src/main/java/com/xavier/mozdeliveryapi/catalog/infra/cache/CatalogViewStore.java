@@ -0,0 +1,35 @@
+package com.xavier.mozdeliveryapi.catalog.infra.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Shared tier of the catalog view cache, holding views serialised as JSON.
+ *
+ * Views are stored under the version their key had when the load started.
+ * Invalidating a key moves it to a new version, so a view that any node
+ * loaded before the change may still be written but is never read again.
+ */
+public interface CatalogViewStore {
+
+    /**
+     * Get the current version of a key.
+     */
+    String version(String key);
+
+    /**
+     * Get the JSON stored for a version of a key, if any.
+     */
+    Optional<String> get(String key, String version);
+
+    /**
+     * Store the JSON for a version of a key until the TTL passes.
+     */
+    void put(String key, String version, String json, Duration ttl);
+
+    /**
+     * Move the given keys to new versions, remembered for at least the TTL.
+     */
+    void invalidate(Collection<String> keys, Duration versionTtl);
+}
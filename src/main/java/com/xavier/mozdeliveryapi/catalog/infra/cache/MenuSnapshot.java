@@ -0,0 +1,107 @@
+package com.xavier.mozdeliveryapi.catalog.infra.cache;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Immutable, pre-serialised JSON snapshot of a merchant's public menu.
+ *
+ * The snapshot is versioned by a strong ETag derived from its content, so a
+ * rebuild that produces the same menu keeps the same ETag. The gzip
+ * representation, when present, carries its own ETag as required for a
+ * different content coding. Body arrays are shared and must not be modified.
+ */
+public final class MenuSnapshot {
+
+    private static final String GZIP_SUFFIX = "-gzip";
+
+    private final String merchantId;
+    private final String contentHash;
+    private final byte[] json;
+    private final byte[] gzip;
+    private final Instant builtAt;
+
+    MenuSnapshot(String merchantId, String contentHash, byte[] json, byte[] gzip, Instant builtAt) {
+        this.merchantId = Objects.requireNonNull(merchantId, "Merchant ID cannot be null");
+        this.contentHash = Objects.requireNonNull(contentHash, "Content hash cannot be null");
+        this.json = Objects.requireNonNull(json, "JSON cannot be null");
+        this.gzip = gzip;
+        this.builtAt = Objects.requireNonNull(builtAt, "Built at cannot be null");
+    }
+
+    public String getMerchantId() {
+        return merchantId;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    public boolean hasGzip() {
+        return gzip != null;
+    }
+
+    /**
+     * Get the quoted strong ETag of the identity or gzip representation.
+     */
+    public String getETag(boolean gzipped) {
+        return "\"" + contentHash + (gzipped ? GZIP_SUFFIX : "") + "\"";
+    }
+
+    /**
+     * Get the body of the identity or gzip representation.
+     */
+    public byte[] getBody(boolean gzipped) {
+        if (gzipped && gzip == null) {
+            throw new IllegalStateException("Snapshot has no gzip representation");
+        }
+        return gzipped ? gzip : json;
+    }
+
+    /**
+     * Check whether an {@code If-None-Match} header matches either representation.
+     * Uses the weak comparison the header calls for.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(getETag(false)) || tag.equals(getETag(true))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether an {@code Accept-Encoding} header allows gzip.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzipAccepted = null;
+        boolean anyAccepted = false;
+        for (String candidate : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = candidate.split(";");
+            String coding = parts[0].trim();
+            boolean refused = parts.length > 1 && parts[1].trim().matches("q=0(\\.0{0,3})?");
+            if (coding.equals("gzip")) {
+                gzipAccepted = !refused;
+            } else if (coding.equals("*")) {
+                anyAccepted = !refused;
+            }
+        }
+        // An explicit gzip entry wins over the wildcard
+        return gzipAccepted != null ? gzipAccepted : anyAccepted;
+    }
+}
@@ -0,0 +1,240 @@
+package com.xavier.mozdeliveryapi.catalog.infra.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xavier.mozdeliveryapi.catalog.application.dto.MerchantMenuResponse;
+import com.xavier.mozdeliveryapi.catalog.application.usecase.port.CatalogViewInvalidator;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CatalogId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CategoryId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Store of pre-serialised public menu snapshots, one per merchant.
+ *
+ * A snapshot is built once, serialised to JSON and optionally gzipped, and then
+ * served as bytes until a catalog, category or product of the merchant
+ * changes; only that merchant's menu is rebuilt, on its next read. Concurrent
+ * reads of a missing menu wait for a single build. A build that overlaps a
+ * change to its merchant's menu is served but not stored.
+ *
+ * Changes are only seen by the node that made them, so snapshots also expire
+ * after a TTL, which bounds how long another node serves an old menu and ETag.
+ */
+public class MenuSnapshotCache implements CatalogViewInvalidator {
+
+    private static final int MIN_GZIP_BYTES = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final boolean compress;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+
+    private final Map<String, MenuSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<MenuSnapshot>> building = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter builds;
+
+    public MenuSnapshotCache(ObjectMapper objectMapper, boolean compress, int maxEntries, Duration ttl,
+                             MeterRegistry meterRegistry, Clock clock) {
+        Objects.requireNonNull(ttl, "TTL cannot be null");
+        Objects.requireNonNull(meterRegistry, "Meter registry cannot be null");
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        this.objectMapper = Objects.requireNonNull(objectMapper, "Object mapper cannot be null");
+        this.compress = compress;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = Objects.requireNonNull(clock, "Clock cannot be null");
+
+        this.hits = Counter.builder("catalog.menu.snapshots.requests")
+            .tag("result", "hit")
+            .description("Menu reads served by an existing snapshot")
+            .register(meterRegistry);
+        this.misses = Counter.builder("catalog.menu.snapshots.requests")
+            .tag("result", "miss")
+            .description("Menu reads that needed a snapshot to be built")
+            .register(meterRegistry);
+        this.builds = Counter.builder("catalog.menu.snapshots.builds")
+            .description("Menu snapshots built and serialised")
+            .register(meterRegistry);
+        meterRegistry.gauge("catalog.menu.snapshots.size", snapshots, Map::size);
+    }
+
+    /**
+     * Get the snapshot of a merchant's menu, building it on a miss.
+     */
+    public MenuSnapshot get(String merchantId, Supplier<MerchantMenuResponse> menuBuilder) {
+        Objects.requireNonNull(merchantId, "Merchant ID cannot be null");
+        Objects.requireNonNull(menuBuilder, "Menu builder cannot be null");
+        String key = merchantId.toLowerCase(Locale.ROOT);
+
+        MenuSnapshot snapshot = snapshots.get(key);
+        if (snapshot != null && clock.instant().isBefore(snapshot.getBuiltAt().plus(ttl))) {
+            hits.increment();
+            return snapshot;
+        }
+        if (snapshot != null) {
+            snapshots.remove(key, snapshot);
+        }
+        misses.increment();
+
+        CompletableFuture<MenuSnapshot> build = new CompletableFuture<>();
+        CompletableFuture<MenuSnapshot> inFlight = building.putIfAbsent(key, build);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+
+        try {
+            MenuSnapshot built = serialise(key, menuBuilder.get());
+            builds.increment();
+            // Store only if no change to this menu removed the build in the meantime
+            building.computeIfPresent(key, (k, current) -> {
+                if (current == build) {
+                    store(k, built);
+                    return null;
+                }
+                return current;
+            });
+            build.complete(built);
+            return built;
+        } catch (RuntimeException | Error e) {
+            building.remove(key, build);
+            build.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void catalogChanged(MerchantId merchantId, CatalogId catalogId) {
+        invalidate(merchantId);
+    }
+
+    @Override
+    public void categoryChanged(MerchantId merchantId, CatalogId catalogId, CategoryId categoryId) {
+        invalidate(merchantId);
+    }
+
+    @Override
+    public void productChanged(MerchantId merchantId, CategoryId categoryId, ProductId productId) {
+        invalidate(merchantId);
+    }
+
+    /**
+     * Drop a merchant's snapshot now and, inside a transaction, again once it commits.
+     */
+    public void invalidate(MerchantId merchantId) {
+        Objects.requireNonNull(merchantId, "Merchant ID cannot be null");
+        String key = merchantId.toString();
+        evict(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(key);
+                }
+            });
+        }
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+
+    private void evict(String key) {
+        // Under the same lock as the store in get, so a build cannot store after this
+        building.compute(key, (k, current) -> {
+            snapshots.remove(k);
+            return null;
+        });
+    }
+
+    private void store(String key, MenuSnapshot snapshot) {
+        if (snapshots.size() >= maxEntries && !snapshots.containsKey(key)) {
+            Iterator<String> keys = snapshots.keySet().iterator();
+            if (keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        snapshots.put(key, snapshot);
+    }
+
+    private MenuSnapshot serialise(String merchantId, MerchantMenuResponse menu) {
+        Objects.requireNonNull(menu, "Menu cannot be null");
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(menu);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialise menu of merchant " + merchantId, e);
+        }
+        byte[] gzip = compress && json.length >= MIN_GZIP_BYTES ? gzip(json) : null;
+        if (gzip != null && gzip.length >= json.length) {
+            gzip = null;
+        }
+        return new MenuSnapshot(merchantId, contentHash(json), json, gzip, clock.instant());
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to compress menu", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String contentHash(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static MenuSnapshot await(CompletableFuture<MenuSnapshot> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.xavier.mozdeliveryapi.catalog.infra.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis tier of the catalog view cache, shared by every node. A key's version
+ * lives under {@code version:<key>} and its views under {@code <key>@<version>}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.catalog.cache.redis", name = "enabled", havingValue = "true")
+public class RedisCatalogViewStore implements CatalogViewStore {
+
+    private static final String VERSION_PREFIX = "version:";
+    private static final String INITIAL_VERSION = "0";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+
+    public RedisCatalogViewStore(StringRedisTemplate redisTemplate,
+                                 @Value("${app.catalog.cache.redis.key-prefix:catalog-view:}") String keyPrefix) {
+        this.redisTemplate = Objects.requireNonNull(redisTemplate, "Redis template cannot be null");
+        this.keyPrefix = Objects.requireNonNull(keyPrefix, "Key prefix cannot be null");
+    }
+
+    @Override
+    public String version(String key) {
+        String version = redisTemplate.opsForValue().get(keyPrefix + VERSION_PREFIX + key);
+        return version != null ? version : INITIAL_VERSION;
+    }
+
+    @Override
+    public Optional<String> get(String key, String version) {
+        return Optional.ofNullable(redisTemplate.opsForValue().get(keyPrefix + key + "@" + version));
+    }
+
+    @Override
+    public void put(String key, String version, String json, Duration ttl) {
+        redisTemplate.opsForValue().set(keyPrefix + key + "@" + version, json, ttl);
+    }
+
+    @Override
+    public void invalidate(Collection<String> keys, Duration versionTtl) {
+        // Random rather than counted, so a version that expired is never handed out again
+        for (String key : keys) {
+            redisTemplate.opsForValue().set(keyPrefix + VERSION_PREFIX + key, UUID.randomUUID().toString(), versionTtl);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Read-through caches for catalog infrastructure.
+ *
+ * Contains the near cache and the optional Redis tier that hold the views
+ * served by the public browsing endpoints.
+ */
+package com.xavier.mozdeliveryapi.catalog.infra.cache;
@@ -0,0 +1,54 @@
+package com.xavier.mozdeliveryapi.catalog.infra.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xavier.mozdeliveryapi.catalog.infra.cache.CatalogViewCache;
+import com.xavier.mozdeliveryapi.catalog.infra.cache.CatalogViewStore;
+import com.xavier.mozdeliveryapi.catalog.infra.cache.MenuSnapshotCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration for the catalog view cache and the public menu snapshots.
+ */
+@Configuration
+public class CatalogCacheConfig {
+
+    /**
+     * Near cache of public catalog views, backed by Redis when
+     * {@code app.catalog.cache.redis.enabled} is set.
+     */
+    @Bean
+    public CatalogViewCache catalogViewCache(
+            @Value("${app.catalog.cache.max-entries:10000}") int maxEntries,
+            @Value("${app.catalog.cache.ttl:PT30S}") Duration ttl,
+            @Value("${app.catalog.cache.redis.ttl:PT10M}") Duration remoteTtl,
+            Optional<CatalogViewStore> remoteStore,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        return new CatalogViewCache(maxEntries, ttl, remoteTtl, remoteStore, objectMapper, meterRegistry,
+            System::nanoTime);
+    }
+    
+    /**
+     * Pre-serialised public menu snapshots, gzipped when
+     * {@code app.catalog.menu-snapshot.compression-enabled} is set.
+     */
+    @Bean
+    public MenuSnapshotCache menuSnapshotCache(
+            @Value("${app.catalog.menu-snapshot.compression-enabled:true}") boolean compressionEnabled,
+            @Value("${app.catalog.menu-snapshot.max-entries:10000}") int maxEntries,
+            @Value("${app.catalog.menu-snapshot.ttl:PT30S}") Duration ttl,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        return new MenuSnapshotCache(objectMapper, compressionEnabled, maxEntries, ttl, meterRegistry,
+            Clock.systemUTC());
+    }
+}
@@ -0,0 +1,40 @@
+package com.xavier.mozdeliveryapi.catalog.infra.config;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.xavier.mozdeliveryapi.catalog.infra.search.ProductSearchIndex;
+import com.xavier.mozdeliveryapi.catalog.infra.search.ProductSearchService;
+import com.xavier.mozdeliveryapi.geospatial.application.usecase.GeospatialService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration for the embedded product search.
+ */
+@Configuration
+public class CatalogSearchConfig {
+
+    /**
+     * Product index, faceted into the price ranges bounded by
+     * {@code app.catalog.search.price-bounds}.
+     */
+    @Bean
+    public ProductSearchIndex productSearchIndex(
+            @Value("${app.catalog.search.price-bounds:100,250,500,1000}") BigDecimal[] priceBounds) {
+        return new ProductSearchIndex(List.of(priceBounds));
+    }
+
+    @Bean
+    public ProductSearchService productSearchService(
+            ProductSearchIndex productSearchIndex,
+            GeospatialService geospatialService,
+            @Value("${app.catalog.search.max-results:100}") int maxResults,
+            MeterRegistry meterRegistry) {
+        return new ProductSearchService(productSearchIndex, geospatialService, maxResults, meterRegistry);
+    }
+}
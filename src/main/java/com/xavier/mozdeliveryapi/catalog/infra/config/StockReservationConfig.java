@@ -0,0 +1,38 @@
+package com.xavier.mozdeliveryapi.catalog.infra.config;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.xavier.mozdeliveryapi.catalog.application.usecase.port.StockLevelRepository;
+import com.xavier.mozdeliveryapi.catalog.infra.stock.StockReservationEngine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration for stock reservations.
+ */
+@Configuration
+public class StockReservationConfig {
+
+    /**
+     * Reservation engine holding stock for {@code app.catalog.stock.hold-ttl};
+     * hot counters are split into {@code app.catalog.stock.stripes} stripes,
+     * one per available processor by default, and stock is leased from the
+     * database {@code app.catalog.stock.lease-block} units at a time.
+     */
+    @Bean
+    public StockReservationEngine stockReservationEngine(
+            StockLevelRepository stockLevelRepository,
+            @Value("${app.catalog.stock.hold-ttl:PT15M}") Duration holdTtl,
+            @Value("${app.catalog.stock.stripes:0}") int stripes,
+            @Value("${app.catalog.stock.lease-block:20}") int leaseBlock,
+            MeterRegistry meterRegistry) {
+        int stripeCount = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+        return new StockReservationEngine(stockLevelRepository, holdTtl, stripeCount, leaseBlock, meterRegistry,
+            Clock.systemUTC());
+    }
+}
@@ -18,9 +18,11 @@ import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
 public class CatalogRepositoryImpl implements CatalogRepository {
     
     private final JpaCatalogRepository jpaRepository;
+    private final CategoryRepositoryHelper categoryHelper;
     
-    public CatalogRepositoryImpl(JpaCatalogRepository jpaRepository) {
+    public CatalogRepositoryImpl(JpaCatalogRepository jpaRepository, CategoryRepositoryHelper categoryHelper) {
         this.jpaRepository = jpaRepository;
+        this.categoryHelper = categoryHelper;
     }
     
     @Override
@@ -79,5 +81,6 @@ public class CatalogRepositoryImpl implements CatalogRepository {
     @Override
     public void deleteById(CatalogId catalogId) {
         jpaRepository.deleteById(catalogId.value());
+        categoryHelper.evictCatalog(catalogId);
     }
 }
\ No newline at end of file
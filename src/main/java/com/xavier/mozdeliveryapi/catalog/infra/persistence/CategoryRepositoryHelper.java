@@ -1,25 +1,52 @@
 package com.xavier.mozdeliveryapi.catalog.infra.persistence;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CatalogId;
 import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CategoryId;
+import com.xavier.mozdeliveryapi.catalog.infra.persistence.JpaCategoryRepository.CategoryOwnership;
 import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
 
 /**
  * Helper component to resolve merchant ID from category relationships.
+ *
+ * A category never moves to another catalog and a catalog never changes
+ * merchant, so resolved owners are cached until the category or catalog is
+ * deleted. A miss costs one joined query, and a batch of categories is resolved
+ * with one query for all of the misses.
  */
 @Component
 public class CategoryRepositoryHelper {
     
     private final JpaCategoryRepository categoryRepository;
     private final JpaCatalogRepository catalogRepository;
+    private final int maxEntries;
     
-    public CategoryRepositoryHelper(JpaCategoryRepository categoryRepository, JpaCatalogRepository catalogRepository) {
+    private final Map<UUID, Owner> categoryOwners = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> catalogMerchants = new ConcurrentHashMap<>();
+    
+    public CategoryRepositoryHelper(JpaCategoryRepository categoryRepository, JpaCatalogRepository catalogRepository,
+                                    @Value("${app.catalog.owner-cache.max-entries:50000}") int maxEntries) {
         this.categoryRepository = Objects.requireNonNull(categoryRepository, "JpaCategoryRepository cannot be null");
         this.catalogRepository = Objects.requireNonNull(catalogRepository, "JpaCatalogRepository cannot be null");
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        this.maxEntries = maxEntries;
     }
     
     /**
@@ -27,14 +54,47 @@ public class CategoryRepositoryHelper {
      */
     public MerchantId getMerchantIdForCategory(CategoryId categoryId) {
         Objects.requireNonNull(categoryId, "Category ID cannot be null");
-        
-        CategoryEntity categoryEntity = categoryRepository.findById(categoryId.value())
-            .orElseThrow(() -> new IllegalArgumentException("Category not found: " + categoryId));
-        
-        CatalogEntity catalogEntity = catalogRepository.findById(categoryEntity.getCatalogId())
-            .orElseThrow(() -> new IllegalArgumentException("Catalog not found for category: " + categoryId));
-        
-        return MerchantId.of(catalogEntity.getMerchantId());
+    
+        Owner owner = categoryOwners.get(categoryId.value());
+        if (owner != null) {
+            return MerchantId.of(owner.merchantId());
+        }
+        MerchantId merchantId = getMerchantIdsForCategories(Set.of(categoryId)).get(categoryId);
+        if (merchantId == null) {
+            throw new IllegalArgumentException("Category not found: " + categoryId);
+        }
+        return merchantId;
+    }
+    
+    /**
+     * Get merchant IDs for a set of categories.
+     * Categories that do not exist are left out of the returned map.
+     */
+    public Map<CategoryId, MerchantId> getMerchantIdsForCategories(Collection<CategoryId> categoryIds) {
+        Objects.requireNonNull(categoryIds, "Category IDs cannot be null");
+    
+        Map<CategoryId, MerchantId> merchantIds = new HashMap<>();
+        Set<UUID> missing = new HashSet<>();
+        for (CategoryId categoryId : categoryIds) {
+            Owner owner = categoryOwners.get(categoryId.value());
+            if (owner != null) {
+                merchantIds.put(categoryId, MerchantId.of(owner.merchantId()));
+            } else {
+                missing.add(categoryId.value());
+            }
+        }
+        if (missing.isEmpty()) {
+            return merchantIds;
+        }
+    
+        List<CategoryOwnership> loaded = categoryRepository.findOwnershipByIdIn(missing);
+        for (CategoryOwnership ownership : loaded) {
+            Owner owner = new Owner(ownership.getCatalogId(), ownership.getMerchantId());
+            put(categoryOwners, ownership.getCategoryId(), owner);
+            put(catalogMerchants, owner.catalogId(), owner.merchantId());
+            merchantIds.put(CategoryId.of(ownership.getCategoryId()), MerchantId.of(owner.merchantId()));
+        }
+        return merchantIds;
     }
     
     /**
@@ -42,10 +102,73 @@ public class CategoryRepositoryHelper {
      */
     public MerchantId getMerchantIdForCatalog(CatalogId catalogId) {
         Objects.requireNonNull(catalogId, "Catalog ID cannot be null");
-        
-        CatalogEntity catalogEntity = catalogRepository.findById(catalogId.value())
-            .orElseThrow(() -> new IllegalArgumentException("Catalog not found: " + catalogId));
-        
-        return MerchantId.of(catalogEntity.getMerchantId());
+    
+        UUID merchantId = catalogMerchants.get(catalogId.value());
+        if (merchantId == null) {
+            CatalogEntity catalogEntity = catalogRepository.findById(catalogId.value())
+                .orElseThrow(() -> new IllegalArgumentException("Catalog not found: " + catalogId));
+            merchantId = catalogEntity.getMerchantId();
+            put(catalogMerchants, catalogId.value(), merchantId);
+        }
+    
+        return MerchantId.of(merchantId);
+    }
+    
+    /**
+     * Remember the owner of a category that has just been saved, when its catalog's merchant is known.
+     * Inside a transaction this waits for the commit, so a rolled back category is never cached.
+     */
+    public void remember(CategoryId categoryId, CatalogId catalogId) {
+        Objects.requireNonNull(categoryId, "Category ID cannot be null");
+        Objects.requireNonNull(catalogId, "Catalog ID cannot be null");
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cacheOwner(categoryId, catalogId);
+                }
+            });
+        } else {
+            cacheOwner(categoryId, catalogId);
+        }
     }
-}
\ No newline at end of file
+    
+    
+    /**
+     * Forget the owner of a deleted category.
+     */
+    public void evictCategory(CategoryId categoryId) {
+        Objects.requireNonNull(categoryId, "Category ID cannot be null");
+        categoryOwners.remove(categoryId.value());
+    }
+    
+    /**
+     * Forget the owner of a deleted catalog and of the categories it held.
+     */
+    public void evictCatalog(CatalogId catalogId) {
+        Objects.requireNonNull(catalogId, "Catalog ID cannot be null");
+        catalogMerchants.remove(catalogId.value());
+        categoryOwners.values().removeIf(owner -> owner.catalogId().equals(catalogId.value()));
+    }
+    
+    private void cacheOwner(CategoryId categoryId, CatalogId catalogId) {
+        UUID merchantId = catalogMerchants.get(catalogId.value());
+        if (merchantId != null) {
+            put(categoryOwners, categoryId.value(), new Owner(catalogId.value(), merchantId));
+        }
+    }
+    
+    private <V> void put(Map<UUID, V> cache, UUID key, V value) {
+        if (cache.size() >= maxEntries) {
+            // Owners never go stale, so dropping any entry only costs a later query
+            Iterator<UUID> keys = cache.keySet().iterator();
+            if (keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        cache.put(key, value);
+    }
+    
+    private record Owner(UUID catalogId, UUID merchantId) {}
+}
@@ -39,6 +39,7 @@ public class CategoryRepositoryImpl implements CategoryRepository {
             .orElse(new CategoryEntity(category));
         
         CategoryEntity saved = jpaRepository.save(entity);
+        categoryHelper.remember(category.getCategoryId(), category.getCatalogId());
         return saved.toDomain(category.getMerchantId());
     }
     
@@ -88,6 +89,16 @@ public class CategoryRepositoryImpl implements CategoryRepository {
             .collect(Collectors.toList());
     }
     
+    @Override
+    public List<Category> findVisibleByMerchantId(MerchantId merchantId) {
+        Objects.requireNonNull(merchantId, "Merchant ID cannot be null");
+        
+        return jpaRepository.findVisibleByMerchantIdOrderByDisplayOrderAsc(merchantId.value())
+            .stream()
+            .map(entity -> entity.toDomain(merchantId))
+            .collect(Collectors.toList());
+    }
+    
     @Override
     public boolean existsById(CategoryId categoryId) {
         Objects.requireNonNull(categoryId, "Category ID cannot be null");
@@ -116,5 +127,6 @@ public class CategoryRepositoryImpl implements CategoryRepository {
         Objects.requireNonNull(categoryId, "Category ID cannot be null");
         
         jpaRepository.deleteById(categoryId.value());
+        categoryHelper.evictCategory(categoryId);
     }
 }
\ No newline at end of file
@@ -27,7 +27,7 @@ public interface JpaCatalogRepository extends JpaRepository<CatalogEntity, UUID>
     /**
      * Find visible catalogs for a merchant (for public browsing).
      */
-    @Query("SELECT c FROM CatalogEntity c WHERE c.merchantId = :merchantId AND c.status = 'ACTIVE' ORDER BY c.displayOrder ASC, c.name ASC")
+    @Query("SELECT c FROM CatalogEntity c WHERE c.merchantId = :merchantId AND c.status = 'ACTIVE' ORDER BY c.displayOrder ASC, c.name ASC, c.id ASC")
     List<CatalogEntity> findVisibleByMerchantId(@Param("merchantId") UUID merchantId);
     
     /**
@@ -1,5 +1,6 @@
 package com.xavier.mozdeliveryapi.catalog.infra.persistence;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -40,6 +41,12 @@ public interface JpaCategoryRepository extends JpaRepository<CategoryEntity, UUI
     @Query("SELECT c FROM CategoryEntity c JOIN CatalogEntity cat ON c.catalogId = cat.id WHERE cat.merchantId = :merchantId ORDER BY c.displayOrder ASC")
     List<CategoryEntity> findByMerchantIdOrderByDisplayOrderAsc(@Param("merchantId") UUID merchantId);
     
+    /**
+     * Find visible categories by merchant ID through catalog relationship.
+     */
+    @Query("SELECT c FROM CategoryEntity c JOIN CatalogEntity cat ON c.catalogId = cat.id WHERE cat.merchantId = :merchantId AND c.isVisible = true ORDER BY c.displayOrder ASC, c.id ASC")
+    List<CategoryEntity> findVisibleByMerchantIdOrderByDisplayOrderAsc(@Param("merchantId") UUID merchantId);
+    
     /**
      * Check if category exists for merchant.
      */
@@ -50,4 +57,21 @@ public interface JpaCategoryRepository extends JpaRepository<CategoryEntity, UUI
      * Check if category exists for catalog.
      */
     boolean existsByIdAndCatalogId(UUID categoryId, UUID catalogId);
+    
+    /**
+     * Find the catalog and merchant owning each of the given categories in one query.
+     */
+    @Query("SELECT c.id AS categoryId, cat.id AS catalogId, cat.merchantId AS merchantId " +
+           "FROM CategoryEntity c JOIN CatalogEntity cat ON c.catalogId = cat.id " +
+           "WHERE c.id IN :categoryIds")
+    List<CategoryOwnership> findOwnershipByIdIn(@Param("categoryIds") Collection<UUID> categoryIds);
+    
+    /**
+     * Projection of the catalog and merchant a category belongs to.
+     */
+    interface CategoryOwnership {
+        UUID getCategoryId();
+        UUID getCatalogId();
+        UUID getMerchantId();
+    }
 }
\ No newline at end of file
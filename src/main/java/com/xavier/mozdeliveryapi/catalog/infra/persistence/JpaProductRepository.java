@@ -1,9 +1,11 @@
 package com.xavier.mozdeliveryapi.catalog.infra.persistence;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -27,6 +29,17 @@ public interface JpaProductRepository extends JpaRepository<ProductEntity, UUID>
     @Query("SELECT p FROM ProductEntity p WHERE p.categoryId = :categoryId AND p.isVisible = true AND p.availability = 'AVAILABLE'")
     List<ProductEntity> findAvailableByCategoryId(@Param("categoryId") UUID categoryId);
     
+    /**
+     * Find available products of all categories of a merchant (for public browsing),
+     * in a fixed order so an unchanged menu serialises to the same bytes.
+     */
+    @Query("SELECT p FROM ProductEntity p " +
+           "JOIN CategoryEntity c ON p.categoryId = c.id " +
+           "JOIN CatalogEntity cat ON c.catalogId = cat.id " +
+           "WHERE cat.merchantId = :merchantId AND p.isVisible = true AND p.availability = 'AVAILABLE' " +
+           "ORDER BY c.displayOrder, c.id, p.createdAt, p.id")
+    List<ProductEntity> findAvailableByMerchantId(@Param("merchantId") UUID merchantId);
+    
     /**
      * Find all products for categories belonging to a merchant.
      */
@@ -48,19 +61,90 @@ public interface JpaProductRepository extends JpaRepository<ProductEntity, UUID>
     
     /**
      * Find low stock products for a merchant.
-     * Products are considered low stock if they track stock and current stock <= low stock threshold.
+     * Served by the partial index on products that are currently low.
      */
     @Query(value = "SELECT p.* FROM products p " +
            "JOIN categories c ON p.category_id = c.id " +
            "JOIN catalogs cat ON c.catalog_id = cat.id " +
            "WHERE cat.merchant_id = :merchantId " +
-           "AND p.stock_info IS NOT NULL " +
-           "AND (p.stock_info ->> 'trackStock')::boolean = true " +
-           "AND (p.stock_info ->> 'lowStockThreshold') IS NOT NULL " +
-           "AND (p.stock_info ->> 'currentStock')::int <= (p.stock_info ->> 'lowStockThreshold')::int",
+           "AND p.low_stock_since IS NOT NULL",
            nativeQuery = true)
     List<ProductEntity> findLowStockByMerchantId(@Param("merchantId") UUID merchantId);
     
+    /**
+     * Find the on-hand stock of the given products that track stock.
+     */
+    @Query("SELECT p.id, p.stockOnHand FROM ProductEntity p WHERE p.id IN :ids AND p.stockOnHand IS NOT NULL")
+    List<Object[]> findStockOnHand(@Param("ids") Collection<UUID> ids);
+    
+    /**
+     * Set the on-hand stock and low stock threshold of a product, or clear them
+     * when the product stops tracking stock.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE products SET stock_on_hand = :onHand, low_stock_threshold = :threshold, " +
+           "stock_info = CASE WHEN :onHand IS NULL THEN stock_info " +
+           "ELSE jsonb_set(stock_info, '{currentStock}', to_jsonb(CAST(:onHand AS int))) END " +
+           "WHERE id = :id",
+           nativeQuery = true)
+    int updateStockLevel(@Param("id") UUID id, @Param("onHand") Integer onHand,
+                         @Param("threshold") Integer threshold);
+    
+    /**
+     * Take units off a product's on-hand stock if at least that many are left.
+     *
+     * @return 1 if the units were taken, 0 otherwise
+     */
+    @Modifying
+    @Query(value = "UPDATE products SET stock_on_hand = stock_on_hand - :quantity, " +
+           "stock_info = jsonb_set(stock_info, '{currentStock}', to_jsonb(stock_on_hand - :quantity)) " +
+           "WHERE id = :id AND stock_on_hand >= :quantity",
+           nativeQuery = true)
+    int leaseStockOnHand(@Param("id") UUID id, @Param("quantity") int quantity);
+    
+    /**
+     * Put units back on a product's on-hand stock.
+     */
+    @Modifying
+    @Query(value = "UPDATE products SET stock_on_hand = stock_on_hand + :quantity, " +
+           "stock_info = jsonb_set(stock_info, '{currentStock}', to_jsonb(stock_on_hand + :quantity)) " +
+           "WHERE id = :id AND stock_on_hand IS NOT NULL",
+           nativeQuery = true)
+    int returnStockOnHand(@Param("id") UUID id, @Param("quantity") int quantity);
+    
+    /**
+     * Flag a product as low on stock if it has just reached its threshold.
+     *
+     * @return 1 if the product became low, 0 otherwise
+     */
+    @Modifying
+    @Query(value = "UPDATE products SET low_stock_since = NOW() " +
+           "WHERE id = :id AND low_stock_since IS NULL AND stock_on_hand <= low_stock_threshold",
+           nativeQuery = true)
+    int markLowStock(@Param("id") UUID id);
+    
+    /**
+     * Clear the low stock flag of a product that is no longer at or below its threshold.
+     *
+     * @return 1 if the product stopped being low, 0 otherwise
+     */
+    @Modifying
+    @Query(value = "UPDATE products SET low_stock_since = NULL " +
+           "WHERE id = :id AND low_stock_since IS NOT NULL " +
+           "AND (stock_on_hand IS NULL OR low_stock_threshold IS NULL OR stock_on_hand > low_stock_threshold)",
+           nativeQuery = true)
+    int clearLowStock(@Param("id") UUID id);
+    
+    /**
+     * Find the merchant, name, stock levels and category of the given products.
+     */
+    @Query("SELECT p.id, cat.merchantId, p.name, p.stockOnHand, p.lowStockThreshold, p.categoryId " +
+           "FROM ProductEntity p " +
+           "JOIN CategoryEntity c ON p.categoryId = c.id " +
+           "JOIN CatalogEntity cat ON c.catalogId = cat.id " +
+           "WHERE p.id IN :ids")
+    List<Object[]> findStockLevels(@Param("ids") Collection<UUID> ids);
+    
     /**
      * Check if product belongs to merchant.
      */
@@ -57,6 +57,17 @@ public class ProductEntity {
     @Column(name = "stock_info", columnDefinition = "jsonb")
     private StockInfoData stockInfo;
     
+    // Written on insert and then only through the stock queries, so saving a
+    // product never overwrites decrements applied since it was loaded
+    @Column(name = "stock_on_hand", updatable = false)
+    private Integer stockOnHand;
+    
+    @Column(name = "low_stock_threshold", updatable = false)
+    private Integer lowStockThreshold;
+    
+    @Column(name = "low_stock_since", updatable = false)
+    private Instant lowStockSince;
+    
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "modifiers", columnDefinition = "jsonb")
     private List<ProductModifierData> modifiers;
@@ -122,6 +133,15 @@ public class ProductEntity {
     public StockInfoData getStockInfo() { return stockInfo; }
     public void setStockInfo(StockInfoData stockInfo) { this.stockInfo = stockInfo; }
     
+    public Integer getStockOnHand() { return stockOnHand; }
+    public void setStockOnHand(Integer stockOnHand) { this.stockOnHand = stockOnHand; }
+    
+    public Integer getLowStockThreshold() { return lowStockThreshold; }
+    public void setLowStockThreshold(Integer lowStockThreshold) { this.lowStockThreshold = lowStockThreshold; }
+    
+    public Instant getLowStockSince() { return lowStockSince; }
+    public void setLowStockSince(Instant lowStockSince) { this.lowStockSince = lowStockSince; }
+    
     public List<ProductModifierData> getModifiers() { return modifiers; }
     public void setModifiers(List<ProductModifierData> modifiers) { this.modifiers = modifiers; }
     
@@ -30,7 +30,7 @@ public class ProductMapper {
      * Convert Product domain object to ProductEntity.
      */
     public ProductEntity toEntity(Product product, MerchantId merchantId) {
-        return new ProductEntity(
+        ProductEntity entity = new ProductEntity(
             product.getProductId().value(),
             product.getCategoryId().value(),
             product.getName(),
@@ -45,6 +45,13 @@ public class ProductMapper {
             product.getCreatedAt(),
             product.getUpdatedAt()
         );
+        StockInfo stockInfo = product.getStockInfo();
+        if (stockInfo != null && stockInfo.trackStock()) {
+            entity.setStockOnHand(stockInfo.currentStock());
+            entity.setLowStockThreshold(stockInfo.lowStockThreshold());
+            entity.setLowStockSince(stockInfo.isLowStock() ? product.getUpdatedAt() : null);
+        }
+        return entity;
     }
     
     /**
@@ -60,7 +67,7 @@ public class ProductMapper {
             entity.getImageUrls() != null ? new ArrayList<>(entity.getImageUrls()) : new ArrayList<>(),
             Money.of(entity.getBasePrice(), Currency.valueOf(entity.getCurrency())),
             entity.getAvailability(),
-            fromStockInfoData(entity.getStockInfo()),
+            fromStockInfoData(entity.getStockInfo(), entity.getStockOnHand()),
             fromModifierDataList(entity.getModifiers()),
             entity.getIsVisible(),
             entity.getCreatedAt(),
@@ -85,16 +92,18 @@ public class ProductMapper {
     }
     
     /**
-     * Convert StockInfoData to StockInfo.
+     * Convert StockInfoData to StockInfo, taking the current stock from the
+     * on-hand column when it is set.
      */
-    private StockInfo fromStockInfoData(StockInfoData data) {
+    private StockInfo fromStockInfoData(StockInfoData data, Integer stockOnHand) {
         if (data == null) {
             return StockInfo.noTracking();
         }
         
+        boolean trackStock = data.getTrackStock() != null ? data.getTrackStock() : false;
         return new StockInfo(
-            data.getTrackStock() != null ? data.getTrackStock() : false,
-            data.getCurrentStock(),
+            trackStock,
+            trackStock && stockOnHand != null ? stockOnHand : data.getCurrentStock(),
             data.getLowStockThreshold(),
             data.getMaxStock()
         );
@@ -78,6 +78,16 @@ public class ProductRepositoryImpl implements ProductRepository {
             .collect(Collectors.toList());
     }
     
+    @Override
+    public List<Product> findAvailableByMerchantId(MerchantId merchantId) {
+        Objects.requireNonNull(merchantId, "Merchant ID cannot be null");
+        
+        return jpaRepository.findAvailableByMerchantId(merchantId.value())
+            .stream()
+            .map(entity -> mapper.toDomain(entity, merchantId))
+            .collect(Collectors.toList());
+    }
+    
     @Override
     public List<Product> findByMerchantId(MerchantId merchantId) {
         Objects.requireNonNull(merchantId, "Merchant ID cannot be null");
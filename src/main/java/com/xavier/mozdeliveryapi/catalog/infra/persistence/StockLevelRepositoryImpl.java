@@ -0,0 +1,159 @@
+package com.xavier.mozdeliveryapi.catalog.infra.persistence;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.xavier.mozdeliveryapi.catalog.application.usecase.port.CatalogViewInvalidator;
+import com.xavier.mozdeliveryapi.catalog.application.usecase.port.StockLevelRepository;
+import com.xavier.mozdeliveryapi.catalog.domain.event.ProductLowStockChangedEvent;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CategoryId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+/**
+ * Implementation of StockLevelRepository on the products.stock_on_hand column.
+ * The column holds the units no instance has leased yet.
+ *
+ * The low stock flag is flipped by conditional updates on the product row, so
+ * when several instances change the same product only the one that actually
+ * flips it publishes the event. The event only feeds live views, so it goes
+ * straight to this node's listeners rather than through the outbox. Every
+ * stock change also drops the cached views that show the product's stock.
+ */
+@Repository
+public class StockLevelRepositoryImpl implements StockLevelRepository {
+    
+    private final JpaProductRepository jpaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final List<CatalogViewInvalidator> viewInvalidators;
+    
+    public StockLevelRepositoryImpl(JpaProductRepository jpaRepository, ApplicationEventPublisher eventPublisher,
+                                    List<CatalogViewInvalidator> viewInvalidators) {
+        this.jpaRepository = Objects.requireNonNull(jpaRepository, "JpaProductRepository cannot be null");
+        this.eventPublisher = Objects.requireNonNull(eventPublisher, "Event publisher cannot be null");
+        this.viewInvalidators = List.copyOf(Objects.requireNonNull(viewInvalidators, 
+            "View invalidators cannot be null"));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Map<ProductId, Integer> findOnHand(Collection<ProductId> productIds) {
+        Objects.requireNonNull(productIds, "Product IDs cannot be null");
+        
+        Map<ProductId, Integer> onHand = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return onHand;
+        }
+        for (Object[] row : jpaRepository.findStockOnHand(
+                productIds.stream().map(ProductId::value).collect(Collectors.toSet()))) {
+            onHand.put(ProductId.of((UUID) row[0]), ((Number) row[1]).intValue());
+        }
+        return onHand;
+    }
+    
+    @Override
+    @Transactional
+    public void setLevel(ProductId productId, Integer onHand, Integer lowStockThreshold) {
+        Objects.requireNonNull(productId, "Product ID cannot be null");
+        if (onHand != null && onHand < 0) {
+            throw new IllegalArgumentException("On-hand stock cannot be negative");
+        }
+        if (lowStockThreshold != null && lowStockThreshold < 0) {
+            throw new IllegalArgumentException("Low stock threshold cannot be negative");
+        }
+        
+        jpaRepository.updateStockLevel(productId.value(), onHand, onHand != null ? lowStockThreshold : null);
+        
+        UUID id = productId.value();
+        if (jpaRepository.markLowStock(id) > 0) {
+            publishChanges(Set.of(id), Set.of(id), true);
+        } else if (jpaRepository.clearLowStock(id) > 0) {
+            publishChanges(Set.of(id), Set.of(id), false);
+        } else {
+            publishChanges(Set.of(id), Set.of(), false);
+        }
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int lease(ProductId productId, int wanted, int minimum) {
+        Objects.requireNonNull(productId, "Product ID cannot be null");
+        if (minimum <= 0 || wanted < minimum) {
+            throw new IllegalArgumentException("Lease must be positive and want at least its minimum");
+        }
+        
+        UUID id = productId.value();
+        int leased;
+        if (jpaRepository.leaseStockOnHand(id, wanted) > 0) {
+            leased = wanted;
+        } else if (wanted > minimum && jpaRepository.leaseStockOnHand(id, minimum) > 0) {
+            leased = minimum;
+        } else {
+            return 0;
+        }
+        
+        // Leasing can only take a product below its threshold, never back above it
+        publishChanges(Set.of(id), jpaRepository.markLowStock(id) > 0 ? Set.of(id) : Set.of(), true);
+        return leased;
+    }
+    
+    @Override
+    @Transactional
+    public void returnLeased(Map<ProductId, Integer> quantities) {
+        Objects.requireNonNull(quantities, "Quantities cannot be null");
+        
+        Set<UUID> changed = new HashSet<>();
+        Set<UUID> noLongerLow = new HashSet<>();
+        quantities.forEach((productId, quantity) -> {
+            if (quantity > 0 && jpaRepository.returnStockOnHand(productId.value(), quantity) > 0) {
+                changed.add(productId.value());
+                if (jpaRepository.clearLowStock(productId.value()) > 0) {
+                    noLongerLow.add(productId.value());
+                }
+            }
+        });
+        if (!changed.isEmpty()) {
+            publishChanges(changed, noLongerLow, false);
+        }
+    }
+    
+    /**
+     * Drop the views of every changed product and announce the ones whose low
+     * stock flag flipped.
+     */
+    private void publishChanges(Set<UUID> changed, Set<UUID> flipped, boolean lowStock) {
+        Instant now = Instant.now();
+        List<ProductLowStockChangedEvent> events = new ArrayList<>(flipped.size());
+        for (Object[] row : jpaRepository.findStockLevels(changed)) {
+            ProductId productId = ProductId.of((UUID) row[0]);
+            MerchantId merchantId = MerchantId.of((UUID) row[1]);
+            CategoryId categoryId = CategoryId.of((UUID) row[5]);
+            viewInvalidators.forEach(invalidator -> invalidator.stockChanged(merchantId, categoryId, productId));
+            if (flipped.contains(productId.value())) {
+                events.add(new ProductLowStockChangedEvent(
+                    productId,
+                    merchantId,
+                    (String) row[2],
+                    (Integer) row[3],
+                    (Integer) row[4],
+                    lowStock,
+                    now));
+            }
+        }
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
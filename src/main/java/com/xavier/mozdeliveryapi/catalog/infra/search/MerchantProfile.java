@@ -0,0 +1,28 @@
+package com.xavier.mozdeliveryapi.catalog.infra.search;
+
+import java.util.Locale;
+import java.util.Objects;
+
+import com.xavier.mozdeliveryapi.merchant.application.dto.MerchantResponse;
+import com.xavier.mozdeliveryapi.merchant.domain.valueobject.Vertical;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+/**
+ * The merchant attributes the search index filters and facets on.
+ */
+public record MerchantProfile(
+    MerchantId merchantId,
+    Vertical vertical,
+    String city
+) {
+
+    public MerchantProfile {
+        Objects.requireNonNull(merchantId, "Merchant ID cannot be null");
+        Objects.requireNonNull(vertical, "Vertical cannot be null");
+        city = city == null ? "" : city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static MerchantProfile from(MerchantResponse merchant) {
+        return new MerchantProfile(MerchantId.of(merchant.merchantId()), merchant.vertical(), merchant.city());
+    }
+}
@@ -0,0 +1,137 @@
+package com.xavier.mozdeliveryapi.catalog.infra.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Text analysis for product search: lower-casing, accent folding, stop word
+ * removal and a light Portuguese stemmer.
+ *
+ * The stemmer follows the plural, feminine, diminutive and final vowel steps
+ * of RSLP, which is enough to conflate "pizzas"/"pizza" and
+ * "bolinho"/"bolo" without the over-stemming of the full algorithm.
+ */
+public final class PortugueseAnalyzer {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "o", "as", "os", "e", "de", "da", "do", "das", "dos", "em", "no", "na", "nos", "nas",
+        "com", "para", "por", "um", "uma", "uns", "umas", "ao", "aos", "ou");
+
+    private PortugueseAnalyzer() {
+    }
+
+    /**
+     * Split text into lower-case, accent-free tokens, dropping stop words.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD))
+            .replaceAll("");
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Tokenize and stem text.
+     */
+    public static List<String> analyze(String text) {
+        List<String> tokens = tokenize(text);
+        tokens.replaceAll(PortugueseAnalyzer::stem);
+        return tokens;
+    }
+
+    /**
+     * Stem a token produced by {@link #tokenize(String)}.
+     */
+    public static String stem(String token) {
+        if (token.length() < 4 || Character.isDigit(token.charAt(0))) {
+            return token;
+        }
+        String stem = reducePlural(token);
+        stem = reduceFeminine(stem);
+        stem = reduceDiminutive(stem);
+        // Final vowel step, which also conflates the remaining gender pairs
+        int last = stem.length() - 1;
+        if (stem.length() > 3 && (stem.charAt(last) == 'a' || stem.charAt(last) == 'e' || stem.charAt(last) == 'o')) {
+            stem = stem.substring(0, last);
+        }
+        return stem;
+    }
+
+    private static String reducePlural(String token) {
+        if (!token.endsWith("s")) {
+            return token;
+        }
+        if (token.endsWith("oes") || token.endsWith("aes")) {
+            return replaceSuffix(token, 3, "ao");
+        }
+        if (token.endsWith("ais") && token.length() > 4) {
+            return replaceSuffix(token, 3, "al");
+        }
+        if (token.endsWith("eis") && token.length() > 4) {
+            return replaceSuffix(token, 3, "el");
+        }
+        if (token.endsWith("ois")) {
+            return replaceSuffix(token, 3, "ol");
+        }
+        if (token.endsWith("ns")) {
+            return replaceSuffix(token, 2, "m");
+        }
+        if (token.endsWith("res") && token.length() > 5) {
+            return replaceSuffix(token, 3, "r");
+        }
+        if (token.endsWith("ss") || token.endsWith("us") || token.endsWith("is")) {
+            return token;
+        }
+        return token.substring(0, token.length() - 1);
+    }
+
+    private static String reduceFeminine(String token) {
+        if (!token.endsWith("a") || token.length() < 5) {
+            return token;
+        }
+        if (token.endsWith("inha")) {
+            return replaceSuffix(token, 4, "inho");
+        }
+        if (token.endsWith("eira")) {
+            return replaceSuffix(token, 4, "eiro");
+        }
+        if (token.endsWith("ora")) {
+            return replaceSuffix(token, 3, "or");
+        }
+        for (String suffix : new String[] {"osa", "ica", "ada", "ida", "iva"}) {
+            if (token.endsWith(suffix)) {
+                return replaceSuffix(token, 1, "o");
+            }
+        }
+        return token;
+    }
+
+    private static String reduceDiminutive(String token) {
+        if (token.endsWith("zinho") && token.length() > 7) {
+            return token.substring(0, token.length() - 5);
+        }
+        if (token.endsWith("inho") && token.length() > 6) {
+            return replaceSuffix(token, 4, "o");
+        }
+        return token;
+    }
+
+    private static String replaceSuffix(String token, int length, String replacement) {
+        return token.substring(0, token.length() - length) + replacement;
+    }
+}
@@ -0,0 +1,61 @@
+package com.xavier.mozdeliveryapi.catalog.infra.search;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+import com.xavier.mozdeliveryapi.catalog.domain.entity.Product;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CategoryId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductAvailability;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductModifier;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductModifierOption;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+/**
+ * The searchable fields of a public product.
+ */
+public record ProductDocument(
+    ProductId productId,
+    MerchantId merchantId,
+    CategoryId categoryId,
+    String name,
+    String description,
+    String modifiers,
+    BigDecimal price,
+    String currency,
+    ProductAvailability availability
+) {
+
+    public ProductDocument {
+        Objects.requireNonNull(productId, "Product ID cannot be null");
+        Objects.requireNonNull(merchantId, "Merchant ID cannot be null");
+        Objects.requireNonNull(categoryId, "Category ID cannot be null");
+        Objects.requireNonNull(name, "Name cannot be null");
+        Objects.requireNonNull(price, "Price cannot be null");
+        Objects.requireNonNull(availability, "Availability cannot be null");
+    }
+
+    /**
+     * Create a document from a product, flattening modifier and option names into one field.
+     */
+    public static ProductDocument from(Product product) {
+        StringBuilder modifiers = new StringBuilder();
+        for (ProductModifier modifier : product.getModifiers()) {
+            modifiers.append(modifier.name()).append(' ');
+            for (ProductModifierOption option : modifier.options()) {
+                modifiers.append(option.name()).append(' ');
+            }
+        }
+        return new ProductDocument(
+            product.getProductId(),
+            product.getMerchantId(),
+            product.getCategoryId(),
+            product.getName(),
+            product.getDescription(),
+            modifiers.toString(),
+            product.getPrice().amount(),
+            product.getCurrency().getCode(),
+            product.getAvailability()
+        );
+    }
+}
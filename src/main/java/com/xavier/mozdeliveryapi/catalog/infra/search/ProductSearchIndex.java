@@ -0,0 +1,814 @@
+package com.xavier.mozdeliveryapi.catalog.infra.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.xavier.mozdeliveryapi.catalog.application.dto.ProductSearchResponse;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductAvailability;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+import com.xavier.mozdeliveryapi.merchant.domain.valueobject.Vertical;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+/**
+ * In-memory inverted index over public products.
+ *
+ * Terms are the stems of a product's name, description and modifier names,
+ * each posting recording the fields the term occurs in. Every query token
+ * must match, either exactly, as a prefix (last token only) or, when the stem
+ * is unknown, within one or two edits. Candidates are taken from the rarest
+ * token and checked against the others, so the cost follows the most
+ * selective token rather than the index size.
+ *
+ * A rebuild numbers documents by city and merchant, so a city or service
+ * area filter only walks the matching ranges of each posting list. Updates
+ * replace documents by appending a new one and marking the old one dead;
+ * appended documents are always scanned and dead postings are dropped when
+ * the index is rebuilt with {@link #replaceAll}. Searches run under a shared
+ * lock, updates under an exclusive one.
+ */
+public class ProductSearchIndex {
+
+    private static final byte NAME = 1;
+    private static final byte DESCRIPTION = 2;
+    private static final byte MODIFIERS = 4;
+
+    private static final double PREFIX_WEIGHT = 0.8;
+    private static final double ONE_EDIT_WEIGHT = 0.6;
+    private static final double TWO_EDITS_WEIGHT = 0.4;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MAX_LINEAR_MERGE = 8;
+    private static final ProductAvailability[] AVAILABILITIES = ProductAvailability.values();
+
+    private final BigDecimal[] priceBounds;
+    private final List<String> priceLabels;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+
+    /**
+     * @param priceBounds ascending upper bounds of the price ranges; the last range is open-ended
+     */
+    public ProductSearchIndex(List<BigDecimal> priceBounds) {
+        Objects.requireNonNull(priceBounds, "Price bounds cannot be null");
+        this.priceBounds = priceBounds.toArray(BigDecimal[]::new);
+        if (this.priceBounds.length > Byte.MAX_VALUE - 1) {
+            throw new IllegalArgumentException("Too many price bounds");
+        }
+        for (int i = 1; i < this.priceBounds.length; i++) {
+            if (this.priceBounds[i].compareTo(this.priceBounds[i - 1]) <= 0) {
+                throw new IllegalArgumentException("Price bounds must be ascending");
+            }
+        }
+        List<String> labels = new ArrayList<>();
+        String lower = "0";
+        for (BigDecimal bound : this.priceBounds) {
+            String upper = bound.stripTrailingZeros().toPlainString();
+            labels.add(lower + "-" + upper);
+            lower = upper;
+        }
+        labels.add(lower + "+");
+        this.priceLabels = List.copyOf(labels);
+    }
+
+    /**
+     * Replace the whole index, dropping dead documents. The new index is built
+     * before the lock is taken, so searches keep running meanwhile.
+     */
+    public void replaceAll(Collection<MerchantProfile> merchants, Collection<ProductDocument> products) {
+        State rebuilt = new State();
+        Map<MerchantId, MerchantProfile> profiles = new HashMap<>();
+        for (MerchantProfile merchant : merchants) {
+            profiles.put(merchant.merchantId(), merchant);
+        }
+        List<ProductDocument> ordered = new ArrayList<>(products.size());
+        for (ProductDocument product : products) {
+            if (profiles.containsKey(product.merchantId())) {
+                ordered.add(product);
+            }
+        }
+        // Number the documents by city and merchant so each merchant owns one contiguous range
+        ordered.sort(Comparator.comparing((ProductDocument product) -> profiles.get(product.merchantId()).city())
+            .thenComparing(product -> product.merchantId().value()));
+        for (ProductDocument product : ordered) {
+            rebuilt.add(profiles.get(product.merchantId()), product, priceBucket(product.price()));
+        }
+        rebuilt.seal();
+        lock.writeLock().lock();
+        try {
+            state = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace all products of a merchant.
+     */
+    public void replaceMerchant(MerchantProfile merchant, Collection<ProductDocument> products) {
+        Objects.requireNonNull(merchant, "Merchant cannot be null");
+        lock.writeLock().lock();
+        try {
+            state.removeMerchant(merchant.merchantId());
+            for (ProductDocument product : products) {
+                state.add(merchant, product, priceBucket(product.price()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a product, replacing its previous version.
+     */
+    public void upsert(MerchantProfile merchant, ProductDocument product) {
+        Objects.requireNonNull(merchant, "Merchant cannot be null");
+        Objects.requireNonNull(product, "Product cannot be null");
+        lock.writeLock().lock();
+        try {
+            state.add(merchant, product, priceBucket(product.price()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(ProductId productId) {
+        Objects.requireNonNull(productId, "Product ID cannot be null");
+        lock.writeLock().lock();
+        try {
+            state.remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeMerchant(MerchantId merchantId) {
+        Objects.requireNonNull(merchantId, "Merchant ID cannot be null");
+        lock.writeLock().lock();
+        try {
+            state.removeMerchant(merchantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the indexed profile of a merchant, if any of its products are indexed.
+     */
+    public Optional<MerchantProfile> getMerchant(MerchantId merchantId) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = state.merchantOrdinals.get(merchantId);
+            return ordinal == null || state.merchantProducts.get(ordinal).isEmpty()
+                ? Optional.empty() : Optional.of(state.merchants.get(ordinal));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return state.liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int deadCount() {
+        lock.readLock().lock();
+        try {
+            return state.products.size() - state.liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<String> getPriceRanges() {
+        return priceLabels;
+    }
+
+    /**
+     * Search the index.
+     */
+    public ProductSearchResponse search(ProductSearchQuery query) {
+        Objects.requireNonNull(query, "Query cannot be null");
+        int priceFilter = -1;
+        if (query.priceRange() != null) {
+            priceFilter = priceLabels.indexOf(query.priceRange());
+            if (priceFilter < 0) {
+                throw new IllegalArgumentException("Unknown price range: " + query.priceRange());
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            return search(state, query, priceFilter);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private ProductSearchResponse search(State state, ProductSearchQuery query, int priceFilter) {
+        BitSet allowedMerchants = allowedMerchants(state, query);
+        List<String> tokens = PortugueseAnalyzer.tokenize(query.text());
+
+        List<List<Expansion>> expansions = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            List<Expansion> tokenExpansions = expand(state, tokens.get(i), i == tokens.size() - 1);
+            if (tokenExpansions.isEmpty()) {
+                return emptyResponse();
+            }
+            expansions.add(tokenExpansions);
+        }
+        // Start from the rarest token so the candidate set is as small as possible
+        expansions.sort(Comparator.comparingLong(ProductSearchIndex::documentFrequency));
+
+        Candidates candidates = expansions.isEmpty()
+            ? allDocuments(state, allowedMerchants)
+            : union(state, expansions.get(0), allowedMerchants);
+        for (int i = 1; i < expansions.size() && candidates.size > 0; i++) {
+            candidates = intersect(state, candidates, expansions.get(i));
+        }
+
+        int[] verticalCounts = new int[Vertical.values().length];
+        int[] priceCounts = new int[priceLabels.size()];
+        int[] availabilityCounts = new int[ProductAvailability.values().length];
+        PriorityQueue<ScoredDocument> top = new PriorityQueue<>(ScoredDocument.WORST_FIRST);
+        int total = 0;
+
+        for (int i = 0; i < candidates.size; i++) {
+            int doc = candidates.docs[i];
+            Vertical vertical = state.merchants.get(state.docMerchants[doc]).vertical();
+            ProductAvailability availability = AVAILABILITIES[state.docAvailability[doc]];
+            int priceBucket = state.docPriceBuckets[doc];
+            boolean verticalMatches = query.vertical() == null || query.vertical() == vertical;
+            boolean priceMatches = priceFilter < 0 || priceFilter == priceBucket;
+            boolean availabilityMatches = query.availability() == null || query.availability() == availability;
+
+            if (priceMatches && availabilityMatches) {
+                verticalCounts[vertical.ordinal()]++;
+            }
+            if (verticalMatches && availabilityMatches) {
+                priceCounts[priceBucket]++;
+            }
+            if (verticalMatches && priceMatches) {
+                availabilityCounts[availability.ordinal()]++;
+            }
+            if (verticalMatches && priceMatches && availabilityMatches) {
+                total++;
+                top.add(new ScoredDocument(doc, candidates.scores[i]));
+                if (top.size() > query.limit()) {
+                    top.poll();
+                }
+            }
+        }
+
+        List<ProductSearchResponse.Hit> hits = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ScoredDocument scored = top.poll();
+            ProductDocument product = state.products.get(scored.doc());
+            hits.add(new ProductSearchResponse.Hit(
+                product.productId().toString(),
+                product.merchantId().toString(),
+                product.categoryId().toString(),
+                product.name(),
+                product.price(),
+                product.currency(),
+                product.availability(),
+                scored.score()));
+        }
+        Collections.reverse(hits);
+
+        return new ProductSearchResponse(total, hits, new ProductSearchResponse.Facets(
+            counts(Vertical.values(), verticalCounts),
+            counts(priceLabels.toArray(String[]::new), priceCounts),
+            counts(ProductAvailability.values(), availabilityCounts)));
+    }
+
+    private BitSet allowedMerchants(State state, ProductSearchQuery query) {
+        if (query.city() == null && query.servingMerchants() == null) {
+            return null;
+        }
+        BitSet allowed = new BitSet(state.merchants.size());
+        for (int ordinal = 0; ordinal < state.merchants.size(); ordinal++) {
+            MerchantProfile merchant = state.merchants.get(ordinal);
+            if ((query.city() == null || query.city().equals(merchant.city()))
+                    && (query.servingMerchants() == null || query.servingMerchants().contains(merchant.merchantId()))) {
+                allowed.set(ordinal);
+            }
+        }
+        return allowed;
+    }
+
+    private List<Expansion> expand(State state, String token, boolean last) {
+        List<Expansion> expansions = new ArrayList<>();
+        String stem = PortugueseAnalyzer.stem(token);
+        Postings exact = state.terms.get(stem);
+        if (exact != null) {
+            expansions.add(new Expansion(exact, 1.0));
+        }
+
+        // The last token may still be being typed, so it also matches as a prefix
+        if (last && token.length() >= 2) {
+            List<Postings> prefixed = new ArrayList<>();
+            for (Map.Entry<String, Postings> entry : state.terms.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+                if (entry.getValue() != exact) {
+                    prefixed.add(entry.getValue());
+                }
+            }
+            if (prefixed.size() > MAX_PREFIX_EXPANSIONS) {
+                prefixed.sort(Comparator.comparingInt((Postings postings) -> postings.size).reversed());
+                prefixed = prefixed.subList(0, MAX_PREFIX_EXPANSIONS);
+            }
+            for (Postings postings : prefixed) {
+                expansions.add(new Expansion(postings, PREFIX_WEIGHT));
+            }
+        }
+
+        if (exact == null) {
+            int maxEdits = token.length() >= 8 ? 2 : token.length() >= 4 ? 1 : 0;
+            if (maxEdits > 0) {
+                // Typos in the first letter are rare, which keeps the scan to one letter's terms
+                char first = stem.charAt(0);
+                NavigableMap<String, Postings> sameInitial = state.terms.subMap(
+                    String.valueOf(first), true, String.valueOf((char) (first + 1)), false);
+                for (Map.Entry<String, Postings> entry : sameInitial.entrySet()) {
+                    String term = entry.getKey();
+                    if (Math.abs(term.length() - stem.length()) > maxEdits) {
+                        continue;
+                    }
+                    int edits = editDistance(stem, term, maxEdits);
+                    if (edits <= maxEdits) {
+                        expansions.add(new Expansion(entry.getValue(), edits == 1 ? ONE_EDIT_WEIGHT : TWO_EDITS_WEIGHT));
+                    }
+                }
+            }
+        }
+        return expansions;
+    }
+
+    private static long documentFrequency(List<Expansion> expansions) {
+        long total = 0;
+        for (Expansion expansion : expansions) {
+            total += expansion.postings().size;
+        }
+        return total;
+    }
+
+    private Candidates allDocuments(State state, BitSet allowedMerchants) {
+        Candidates candidates = new Candidates(state.liveCount);
+        int[] ranges = state.ranges(allowedMerchants);
+        for (int r = 0; r < ranges.length; r += 2) {
+            for (int doc = state.live.nextSetBit(ranges[r]); doc >= 0 && doc < ranges[r + 1];
+                 doc = state.live.nextSetBit(doc + 1)) {
+                if (allowedMerchants == null || allowedMerchants.get(state.docMerchants[doc])) {
+                    candidates.add(doc, 0.0);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private Candidates union(State state, List<Expansion> expansions, BitSet allowedMerchants) {
+        double liveCount = Math.max(1, state.liveCount);
+        Cursor[] cursors = new Cursor[expansions.size()];
+        int capacity = 0;
+        for (int e = 0; e < cursors.length; e++) {
+            Postings postings = expansions.get(e).postings();
+            cursors[e] = new Cursor(postings, expansions.get(e).weight() * idf(liveCount, postings.size));
+            capacity += postings.size;
+        }
+        Candidates candidates = new Candidates(Math.min(capacity, state.liveCount));
+
+        // Merge the posting lists in document order within each allowed range, keeping each
+        // document's best score. A handful of lists is merged by scanning their heads, more through a heap.
+        int[] ranges = state.ranges(allowedMerchants);
+        Cursor[] active = new Cursor[cursors.length];
+        for (int r = 0; r < ranges.length; r += 2) {
+            int end = ranges[r + 1];
+            int count = 0;
+            for (Cursor cursor : cursors) {
+                if (cursor.seek(ranges[r]) && cursor.doc() < end) {
+                    active[count++] = cursor;
+                }
+            }
+            if (count <= MAX_LINEAR_MERGE) {
+                mergeLinear(state, active, count, end, allowedMerchants, candidates);
+            } else {
+                mergeHeap(state, active, count, end, allowedMerchants, candidates);
+            }
+        }
+        return candidates;
+    }
+
+    private static void mergeLinear(State state, Cursor[] active, int count, int end, BitSet allowedMerchants,
+                                    Candidates candidates) {
+        while (count > 0) {
+            int doc = Integer.MAX_VALUE;
+            for (int c = 0; c < count; c++) {
+                doc = Math.min(doc, active[c].doc());
+            }
+            double score = 0.0;
+            for (int c = count - 1; c >= 0; c--) {
+                Cursor cursor = active[c];
+                if (cursor.doc() == doc) {
+                    score = Math.max(score, cursor.score());
+                    if (!cursor.next() || cursor.doc() >= end) {
+                        active[c] = active[--count];
+                    }
+                }
+            }
+            if (state.isCandidate(doc, allowedMerchants)) {
+                candidates.add(doc, score);
+            }
+        }
+    }
+
+    private static void mergeHeap(State state, Cursor[] active, int count, int end, BitSet allowedMerchants,
+                                  Candidates candidates) {
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(count, (left, right) -> Integer.compare(left.doc(), right.doc()));
+        heap.addAll(Arrays.asList(active).subList(0, count));
+        while (!heap.isEmpty()) {
+            Cursor cursor = heap.poll();
+            int doc = cursor.doc();
+            double score = cursor.score();
+            if (cursor.next() && cursor.doc() < end) {
+                heap.add(cursor);
+            }
+            while (!heap.isEmpty() && heap.peek().doc() == doc) {
+                Cursor same = heap.poll();
+                score = Math.max(score, same.score());
+                if (same.next() && same.doc() < end) {
+                    heap.add(same);
+                }
+            }
+            if (state.isCandidate(doc, allowedMerchants)) {
+                candidates.add(doc, score);
+            }
+        }
+    }
+
+    private Candidates intersect(State state, Candidates candidates, List<Expansion> expansions) {
+        double liveCount = Math.max(1, state.liveCount);
+        double[] idfs = new double[expansions.size()];
+        int[] positions = new int[expansions.size()];
+        for (int e = 0; e < expansions.size(); e++) {
+            idfs[e] = expansions.get(e).weight() * idf(liveCount, expansions.get(e).postings().size);
+        }
+
+        Candidates matched = new Candidates(candidates.size);
+        for (int i = 0; i < candidates.size; i++) {
+            int doc = candidates.docs[i];
+            double best = 0.0;
+            for (int e = 0; e < expansions.size(); e++) {
+                Postings postings = expansions.get(e).postings();
+                // Candidates are in document order, so each list is only walked forward
+                int position = postings.advance(positions[e], doc);
+                positions[e] = position;
+                if (position < postings.size && postings.docs[position] == doc) {
+                    best = Math.max(best, idfs[e] * fieldWeight(postings.fields[position]));
+                }
+            }
+            if (best > 0.0) {
+                matched.add(doc, candidates.scores[i] + best);
+            }
+        }
+        return matched;
+    }
+
+    private static double idf(double liveCount, int documentFrequency) {
+        return Math.log(1.0 + liveCount / Math.max(1, documentFrequency));
+    }
+
+    private static double fieldWeight(byte fields) {
+        double weight = 0.0;
+        if ((fields & NAME) != 0) {
+            weight += 3.0;
+        }
+        if ((fields & DESCRIPTION) != 0) {
+            weight += 1.0;
+        }
+        if ((fields & MODIFIERS) != 0) {
+            weight += 0.5;
+        }
+        return weight;
+    }
+
+    /**
+     * Optimal string alignment distance, giving up once it exceeds {@code max}.
+     */
+    static int editDistance(String a, String b, int max) {
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    private int priceBucket(BigDecimal price) {
+        for (int i = 0; i < priceBounds.length; i++) {
+            if (price.compareTo(priceBounds[i]) < 0) {
+                return i;
+            }
+        }
+        return priceBounds.length;
+    }
+
+    private ProductSearchResponse emptyResponse() {
+        return new ProductSearchResponse(0, List.of(), new ProductSearchResponse.Facets(
+            Map.of(), Map.of(), Map.of()));
+    }
+
+    private static Map<String, Integer> counts(Object[] values, int[] counts) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (counts[i] > 0) {
+                result.put(values[i] instanceof Enum<?> value ? value.name() : values[i].toString(), counts[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Mutable index contents, guarded by the index lock.
+     */
+    private static final class State {
+
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        private final List<ProductDocument> products = new ArrayList<>();
+        private final BitSet live = new BitSet();
+        private final Map<ProductId, Integer> docByProduct = new HashMap<>();
+        // Per-document filter fields, kept in flat arrays so candidate scans stay cache friendly
+        private int[] docMerchants = new int[16];
+        private byte[] docPriceBuckets = new byte[16];
+        private byte[] docAvailability = new byte[16];
+        private final List<MerchantProfile> merchants = new ArrayList<>();
+        private final Map<MerchantId, Integer> merchantOrdinals = new HashMap<>();
+        private final List<Set<ProductId>> merchantProducts = new ArrayList<>();
+        private int liveCount;
+        // Document ranges of each merchant as numbered by the last rebuild; later documents follow sortedEnd
+        private int[] merchantStarts = new int[0];
+        private int[] merchantEnds = new int[0];
+        private int sortedEnd;
+
+        void add(MerchantProfile merchant, ProductDocument product, int priceBucket) {
+            if (!merchant.merchantId().equals(product.merchantId())) {
+                throw new IllegalArgumentException("Product does not belong to merchant " + merchant.merchantId());
+            }
+            remove(product.productId());
+            int ordinal = merchantOrdinals.computeIfAbsent(merchant.merchantId(), id -> {
+                merchants.add(merchant);
+                merchantProducts.add(new HashSet<>());
+                return merchants.size() - 1;
+            });
+            merchants.set(ordinal, merchant);
+
+            int doc = products.size();
+            products.add(product);
+            if (doc == docMerchants.length) {
+                docMerchants = Arrays.copyOf(docMerchants, doc * 2);
+                docPriceBuckets = Arrays.copyOf(docPriceBuckets, doc * 2);
+                docAvailability = Arrays.copyOf(docAvailability, doc * 2);
+            }
+            docMerchants[doc] = ordinal;
+            docPriceBuckets[doc] = (byte) priceBucket;
+            docAvailability[doc] = (byte) product.availability().ordinal();
+            live.set(doc);
+            liveCount++;
+            docByProduct.put(product.productId(), doc);
+            merchantProducts.get(ordinal).add(product.productId());
+
+            Map<String, Byte> fields = new HashMap<>();
+            collect(fields, product.name(), NAME);
+            collect(fields, product.description(), DESCRIPTION);
+            collect(fields, product.modifiers(), MODIFIERS);
+            for (Map.Entry<String, Byte> entry : fields.entrySet()) {
+                terms.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue());
+            }
+        }
+
+        /**
+         * Record the document range of each merchant once a rebuild has added
+         * its documents in merchant order.
+         */
+        void seal() {
+            merchantStarts = new int[merchants.size()];
+            merchantEnds = new int[merchants.size()];
+            Arrays.fill(merchantStarts, -1);
+            for (int doc = 0; doc < products.size(); doc++) {
+                int ordinal = docMerchants[doc];
+                if (merchantStarts[ordinal] < 0) {
+                    merchantStarts[ordinal] = doc;
+                }
+                merchantEnds[ordinal] = doc + 1;
+            }
+            sortedEnd = products.size();
+        }
+
+        /**
+         * Document ranges, as start and end pairs, that can hold documents of the
+         * allowed merchants: their rebuilt ranges plus everything added since.
+         */
+        int[] ranges(BitSet allowedMerchants) {
+            if (allowedMerchants == null) {
+                return new int[] {0, Integer.MAX_VALUE};
+            }
+            int[] ranges = new int[8];
+            int size = 0;
+            // Ordinals of a rebuild follow document order, so the ranges come out sorted
+            for (int ordinal = allowedMerchants.nextSetBit(0); ordinal >= 0 && ordinal < merchantStarts.length;
+                 ordinal = allowedMerchants.nextSetBit(ordinal + 1)) {
+                if (merchantStarts[ordinal] < 0) {
+                    continue;
+                }
+                if (size > 0 && ranges[size - 1] == merchantStarts[ordinal]) {
+                    ranges[size - 1] = merchantEnds[ordinal];
+                    continue;
+                }
+                if (size + 4 > ranges.length) {
+                    ranges = Arrays.copyOf(ranges, ranges.length * 2);
+                }
+                ranges[size++] = merchantStarts[ordinal];
+                ranges[size++] = merchantEnds[ordinal];
+            }
+            ranges[size++] = sortedEnd;
+            ranges[size++] = Integer.MAX_VALUE;
+            return Arrays.copyOf(ranges, size);
+        }
+
+        /**
+         * Check that a document is live and belongs to an allowed merchant.
+         */
+        boolean isCandidate(int doc, BitSet allowedMerchants) {
+            return live.get(doc) && (allowedMerchants == null || allowedMerchants.get(docMerchants[doc]));
+        }
+
+        void remove(ProductId productId) {
+            Integer doc = docByProduct.remove(productId);
+            if (doc != null) {
+                live.clear(doc);
+                liveCount--;
+                merchantProducts.get(docMerchants[doc]).remove(productId);
+            }
+        }
+
+        void removeMerchant(MerchantId merchantId) {
+            Integer ordinal = merchantOrdinals.get(merchantId);
+            if (ordinal != null) {
+                for (ProductId productId : List.copyOf(merchantProducts.get(ordinal))) {
+                    remove(productId);
+                }
+            }
+        }
+
+        private static void collect(Map<String, Byte> fields, String text, byte field) {
+            for (String stem : PortugueseAnalyzer.analyze(text)) {
+                fields.merge(stem, field, (left, right) -> (byte) (left | right));
+            }
+        }
+    }
+
+    private record Expansion(Postings postings, double weight) {
+    }
+
+    private record ScoredDocument(int doc, double score) {
+
+        static final Comparator<ScoredDocument> WORST_FIRST = Comparator
+            .comparingDouble(ScoredDocument::score)
+            .thenComparing(Comparator.comparingInt(ScoredDocument::doc).reversed());
+    }
+
+    /**
+     * Posting list of one term: ascending document numbers and the fields the term occurs in.
+     */
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+        private byte[] fields = new byte[4];
+        private int size;
+
+        void add(int doc, byte field) {
+            if (size == docs.length) {
+                int capacity = size + (size >> 1) + 1;
+                docs = Arrays.copyOf(docs, capacity);
+                fields = Arrays.copyOf(fields, capacity);
+            }
+            docs[size] = doc;
+            fields[size] = field;
+            size++;
+        }
+
+        /**
+         * Find the first position at or after {@code from} holding a document not below {@code target}.
+         */
+        int advance(int from, int target) {
+            int bound = 1;
+            while (from + bound < size && docs[from + bound] < target) {
+                bound <<= 1;
+            }
+            int index = Arrays.binarySearch(docs, from, Math.min(from + bound + 1, size), target);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    /**
+     * Walks one posting list during a union.
+     */
+    private static final class Cursor {
+
+        private final Postings postings;
+        private final double idf;
+        private int position;
+
+        Cursor(Postings postings, double idf) {
+            this.postings = postings;
+            this.idf = idf;
+        }
+
+        int doc() {
+            return postings.docs[position];
+        }
+
+        double score() {
+            return idf * fieldWeight(postings.fields[position]);
+        }
+
+        boolean next() {
+            return ++position < postings.size;
+        }
+
+        /**
+         * Move to the first document not below {@code target}.
+         */
+        boolean seek(int target) {
+            if (position < postings.size) {
+                position = postings.advance(position, target);
+            }
+            return position < postings.size;
+        }
+    }
+
+    /**
+     * Candidate documents in ascending order with their scores so far.
+     */
+    private static final class Candidates {
+
+        private int[] docs;
+        private double[] scores;
+        private int size;
+
+        Candidates(int capacity) {
+            docs = new int[Math.max(capacity, 1)];
+            scores = new double[docs.length];
+        }
+
+        void add(int doc, double score) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            docs[size] = doc;
+            scores[size] = score;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.xavier.mozdeliveryapi.catalog.infra.search;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.xavier.mozdeliveryapi.catalog.application.usecase.port.CatalogRepository;
+import com.xavier.mozdeliveryapi.catalog.application.usecase.port.CatalogViewInvalidator;
+import com.xavier.mozdeliveryapi.catalog.application.usecase.port.CategoryRepository;
+import com.xavier.mozdeliveryapi.catalog.application.usecase.port.ProductRepository;
+import com.xavier.mozdeliveryapi.catalog.domain.entity.Catalog;
+import com.xavier.mozdeliveryapi.catalog.domain.entity.Category;
+import com.xavier.mozdeliveryapi.catalog.domain.entity.Product;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CatalogId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CategoryId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+import com.xavier.mozdeliveryapi.merchant.application.dto.MerchantResponse;
+import com.xavier.mozdeliveryapi.merchant.application.usecase.MerchantApplicationService;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+/**
+ * Keeps the product search index in step with the catalog.
+ *
+ * Product changes re-index that product and catalog or category changes
+ * re-index the merchant, once the change has committed. A product is indexed
+ * while it, its category and its catalog are visible and its merchant is
+ * publicly visible. The whole index is rebuilt at startup and then
+ * periodically, which also picks up merchant changes and drops dead postings.
+ */
+@Component
+public class ProductSearchIndexer implements CatalogViewInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndexer.class);
+
+    private final ProductSearchIndex index;
+    private final MerchantApplicationService merchantService;
+    private final CatalogRepository catalogRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+
+    private final Set<MerchantId> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    public ProductSearchIndexer(ProductSearchIndex index,
+                                MerchantApplicationService merchantService,
+                                CatalogRepository catalogRepository,
+                                CategoryRepository categoryRepository,
+                                ProductRepository productRepository) {
+        this.index = Objects.requireNonNull(index, "Index cannot be null");
+        this.merchantService = Objects.requireNonNull(merchantService, "Merchant service cannot be null");
+        this.catalogRepository = Objects.requireNonNull(catalogRepository, "Catalog repository cannot be null");
+        this.categoryRepository = Objects.requireNonNull(categoryRepository, "Category repository cannot be null");
+        this.productRepository = Objects.requireNonNull(productRepository, "Product repository cannot be null");
+    }
+
+    /**
+     * Rebuild the whole index (at startup, then hourly by default).
+     */
+    @Scheduled(initialDelayString = "${app.catalog.search.initial-delay-ms:0}",
+               fixedDelayString = "${app.catalog.search.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        rebuilding = true;
+        try {
+            List<MerchantProfile> merchants = new ArrayList<>();
+            List<ProductDocument> products = new ArrayList<>();
+            for (MerchantResponse merchant : merchantService.getAllPublicMerchants()) {
+                MerchantProfile profile = MerchantProfile.from(merchant);
+                merchants.add(profile);
+                products.addAll(listedProducts(profile.merchantId()));
+            }
+            index.replaceAll(merchants, products);
+            logger.info("Rebuilt product search index with {} products of {} merchants",
+                products.size(), merchants.size());
+        } catch (Exception e) {
+            logger.error("Error rebuilding product search index", e);
+        } finally {
+            rebuilding = false;
+        }
+
+        // Changes that landed while the rebuild was reading may be missing from it
+        for (MerchantId merchantId : List.copyOf(changedDuringRebuild)) {
+            changedDuringRebuild.remove(merchantId);
+            reindexMerchant(merchantId);
+        }
+    }
+
+    @Override
+    public void catalogChanged(MerchantId merchantId, CatalogId catalogId) {
+        afterCommit(() -> reindexMerchant(merchantId));
+    }
+
+    @Override
+    public void categoryChanged(MerchantId merchantId, CatalogId catalogId, CategoryId categoryId) {
+        afterCommit(() -> reindexMerchant(merchantId));
+    }
+
+    @Override
+    public void productChanged(MerchantId merchantId, CategoryId categoryId, ProductId productId) {
+        afterCommit(() -> reindexProduct(merchantId, productId));
+    }
+
+    @Override
+    public void stockChanged(MerchantId merchantId, CategoryId categoryId, ProductId productId) {
+        // Stock is not indexed
+    }
+
+    /**
+     * Re-index all products of a merchant.
+     */
+    public void reindexMerchant(MerchantId merchantId) {
+        Objects.requireNonNull(merchantId, "Merchant ID cannot be null");
+        markChanged(merchantId);
+        try {
+            Optional<MerchantProfile> merchant = loadMerchant(merchantId);
+            if (merchant.isEmpty()) {
+                index.removeMerchant(merchantId);
+                return;
+            }
+            index.replaceMerchant(merchant.get(), listedProducts(merchantId));
+        } catch (Exception e) {
+            logger.error("Error re-indexing products of merchant {}", merchantId, e);
+        }
+    }
+
+    /**
+     * Re-index one product.
+     */
+    public void reindexProduct(MerchantId merchantId, ProductId productId) {
+        Objects.requireNonNull(merchantId, "Merchant ID cannot be null");
+        Objects.requireNonNull(productId, "Product ID cannot be null");
+        markChanged(merchantId);
+        try {
+            Optional<MerchantProfile> merchant = index.getMerchant(merchantId).or(() -> loadMerchant(merchantId));
+            Optional<Product> product = productRepository.findById(productId);
+            if (merchant.isPresent() && product.isPresent() && isListed(product.get())) {
+                index.upsert(merchant.get(), ProductDocument.from(product.get()));
+            } else {
+                index.remove(productId);
+            }
+        } catch (Exception e) {
+            logger.error("Error re-indexing product {}", productId, e);
+        }
+    }
+
+    private List<ProductDocument> listedProducts(MerchantId merchantId) {
+        Set<CatalogId> visibleCatalogs = new HashSet<>();
+        for (Catalog catalog : catalogRepository.findVisibleByMerchantId(merchantId)) {
+            visibleCatalogs.add(catalog.getCatalogId());
+        }
+        Set<CategoryId> listedCategories = new HashSet<>();
+        for (Category category : categoryRepository.findByMerchantId(merchantId)) {
+            if (category.isVisible() && visibleCatalogs.contains(category.getCatalogId())) {
+                listedCategories.add(category.getCategoryId());
+            }
+        }
+
+        List<ProductDocument> documents = new ArrayList<>();
+        for (Product product : productRepository.findByMerchantId(merchantId)) {
+            if (product.isVisible() && listedCategories.contains(product.getCategoryId())) {
+                documents.add(ProductDocument.from(product));
+            }
+        }
+        return documents;
+    }
+
+    private boolean isListed(Product product) {
+        return product.isVisible() && categoryRepository.findById(product.getCategoryId())
+            .filter(Category::isVisible)
+            .flatMap(category -> catalogRepository.findById(category.getCatalogId()))
+            .filter(Catalog::isVisible)
+            .isPresent();
+    }
+
+    private Optional<MerchantProfile> loadMerchant(MerchantId merchantId) {
+        return merchantService.getPublicMerchant(merchantId.toString()).map(MerchantProfile::from);
+    }
+
+    private void markChanged(MerchantId merchantId) {
+        if (rebuilding) {
+            changedDuringRebuild.add(merchantId);
+        }
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.xavier.mozdeliveryapi.catalog.infra.search;
+
+import java.util.Locale;
+import java.util.Set;
+
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductAvailability;
+import com.xavier.mozdeliveryapi.merchant.domain.valueobject.Vertical;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+/**
+ * A product search: free text plus optional filters. Null filters match everything;
+ * {@code servingMerchants} restricts results to merchants whose service area
+ * covers the customer.
+ */
+public record ProductSearchQuery(
+    String text,
+    String city,
+    Vertical vertical,
+    String priceRange,
+    ProductAvailability availability,
+    Set<MerchantId> servingMerchants,
+    int limit
+) {
+
+    public ProductSearchQuery {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        text = text == null ? "" : text;
+        city = city == null || city.isBlank() ? null : city.trim().toLowerCase(Locale.ROOT);
+        servingMerchants = servingMerchants == null ? null : Set.copyOf(servingMerchants);
+    }
+
+    /**
+     * Create a text-only query.
+     */
+    public static ProductSearchQuery of(String text, int limit) {
+        return new ProductSearchQuery(text, null, null, null, null, null, limit);
+    }
+}
@@ -0,0 +1,69 @@
+package com.xavier.mozdeliveryapi.catalog.infra.search;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.xavier.mozdeliveryapi.catalog.application.dto.ProductSearchResponse;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductAvailability;
+import com.xavier.mozdeliveryapi.geospatial.application.usecase.GeospatialService;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+import com.xavier.mozdeliveryapi.merchant.domain.valueobject.Vertical;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Public product search over the in-memory index.
+ *
+ * A customer location restricts results to merchants with an active service
+ * area covering it; merchants serve from the service areas of the tenant
+ * with the same ID.
+ */
+public class ProductSearchService {
+
+    private final ProductSearchIndex index;
+    private final GeospatialService geospatialService;
+    private final int maxResults;
+    private final Timer latency;
+
+    public ProductSearchService(ProductSearchIndex index, GeospatialService geospatialService, int maxResults,
+                                MeterRegistry meterRegistry) {
+        Objects.requireNonNull(meterRegistry, "Meter registry cannot be null");
+        if (maxResults <= 0) {
+            throw new IllegalArgumentException("Max results must be positive");
+        }
+        this.index = Objects.requireNonNull(index, "Index cannot be null");
+        this.geospatialService = Objects.requireNonNull(geospatialService, "Geospatial service cannot be null");
+        this.maxResults = maxResults;
+        this.latency = Timer.builder("catalog.search.latency")
+            .description("Time to answer a product search from the index")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        meterRegistry.gauge("catalog.search.documents", index, ProductSearchIndex::size);
+    }
+
+    /**
+     * Search public products. All filters are optional, but latitude and
+     * longitude must be given together.
+     */
+    public ProductSearchResponse search(String text, String city, Vertical vertical, String priceRange,
+                                        ProductAvailability availability, Double latitude, Double longitude,
+                                        int limit) {
+        if ((latitude == null) != (longitude == null)) {
+            throw new IllegalArgumentException("Latitude and longitude must be given together");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return latency.record(() -> {
+            Set<MerchantId> servingMerchants = latitude == null ? null
+                : geospatialService.findTenantsServingLocation(Location.of(latitude, longitude)).stream()
+                    .map(tenantId -> MerchantId.of(tenantId.value()))
+                    .collect(Collectors.toSet());
+            return index.search(new ProductSearchQuery(text, city, vertical, priceRange, availability,
+                servingMerchants, Math.min(limit, maxResults)));
+        });
+    }
+}
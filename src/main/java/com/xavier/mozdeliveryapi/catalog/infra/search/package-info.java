@@ -0,0 +1,8 @@
+/**
+ * Embedded product search for catalog infrastructure.
+ *
+ * Contains the in-memory inverted index over public products, its
+ * Portuguese analyzer and the indexer that keeps it in step with catalog
+ * changes.
+ */
+package com.xavier.mozdeliveryapi.catalog.infra.search;
@@ -0,0 +1,437 @@
+package com.xavier.mozdeliveryapi.catalog.infra.stock;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.xavier.mozdeliveryapi.catalog.application.usecase.StockReservationService;
+import com.xavier.mozdeliveryapi.catalog.application.usecase.port.StockLevelRepository;
+import com.xavier.mozdeliveryapi.catalog.domain.exception.InsufficientStockException;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.OrderId;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Stock reservations served from in-memory counters over leased stock.
+ *
+ * Each instance leases units of a product off its on-hand stock in blocks,
+ * with a conditional update that never takes the column below zero, and
+ * serves reservations from a {@link StripedStockCounter} of the units it
+ * holds, so reserving only waits on the database when the lease runs out.
+ * Instances can never hand out more units together than the column held.
+ * Sold units are gone from the column as soon as they are leased; released
+ * and expired holds go back to the counter, and every flush returns the
+ * units the instance holds but nobody reserved. Leased units therefore never
+ * stay away from other instances for longer than one flush interval.
+ *
+ * The column is the stock that no instance holds, so a level set by hand
+ * leaves leases taken before it in place. If the process dies, the units it
+ * had leased but not sold are lost from the column, leaving on-hand stock
+ * too low, never too high; a clean shutdown returns them, held units
+ * included.
+ *
+ * Whether a product tracks stock is remembered either way and re-read on
+ * every flush, so untracked products cost no query per order.
+ */
+public class StockReservationEngine implements StockReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationEngine.class);
+
+    private static final int RELOAD_BATCH_SIZE = 1000;
+
+    private final StockLevelRepository stockLevelRepository;
+    private final Duration holdTtl;
+    private final int stripeCount;
+    private final int leaseBlock;
+    private final Clock clock;
+
+    private final Map<ProductId, LeasedStock> stock = new ConcurrentHashMap<>();
+    private final Set<ProductId> untracked = ConcurrentHashMap.newKeySet();
+    private final Map<OrderId, Hold> holds = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    private final Counter reserved;
+    private final Counter rejected;
+    private final Counter released;
+    private final Counter expired;
+    private final Counter confirmed;
+    private final Counter confirmedWithoutHold;
+    private final Counter leases;
+
+    public StockReservationEngine(StockLevelRepository stockLevelRepository, Duration holdTtl, int stripeCount,
+                                  int leaseBlock, MeterRegistry meterRegistry, Clock clock) {
+        Objects.requireNonNull(meterRegistry, "Meter registry cannot be null");
+        if (holdTtl == null || holdTtl.isNegative() || holdTtl.isZero()) {
+            throw new IllegalArgumentException("Hold TTL must be positive");
+        }
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        if (leaseBlock <= 0) {
+            throw new IllegalArgumentException("Lease block must be positive");
+        }
+        this.stockLevelRepository = Objects.requireNonNull(stockLevelRepository,
+            "Stock level repository cannot be null");
+        this.holdTtl = holdTtl;
+        this.stripeCount = stripeCount;
+        this.leaseBlock = leaseBlock;
+        this.clock = Objects.requireNonNull(clock, "Clock cannot be null");
+
+        this.reserved = Counter.builder("catalog.stock.reservations")
+            .tag("result", "reserved")
+            .description("Orders whose items were all reserved")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("catalog.stock.reservations")
+            .tag("result", "rejected")
+            .description("Orders refused for lack of stock")
+            .register(meterRegistry);
+        this.released = Counter.builder("catalog.stock.holds.ended")
+            .tag("outcome", "released")
+            .description("Holds returned to stock")
+            .register(meterRegistry);
+        this.expired = Counter.builder("catalog.stock.holds.ended")
+            .tag("outcome", "expired")
+            .description("Holds returned to stock after their TTL")
+            .register(meterRegistry);
+        this.confirmed = Counter.builder("catalog.stock.holds.ended")
+            .tag("outcome", "confirmed")
+            .description("Holds turned into sales")
+            .register(meterRegistry);
+        this.confirmedWithoutHold = Counter.builder("catalog.stock.sales.without_hold")
+            .description("Paid orders whose hold was gone, so their items were taken from stock at payment")
+            .register(meterRegistry);
+        this.leases = Counter.builder("catalog.stock.leases")
+            .description("Blocks of stock leased from the database")
+            .register(meterRegistry);
+        meterRegistry.gauge("catalog.stock.holds.active", holds, Map::size);
+    }
+
+    @Override
+    public void reserve(OrderId orderId, Map<ProductId, Integer> quantities) {
+        Objects.requireNonNull(orderId, "Order ID cannot be null");
+        validate(quantities);
+
+        release(orderId);
+        Map<ProductId, Integer> taken = take(quantities);
+        if (taken.isEmpty()) {
+            return;
+        }
+
+        Hold hold = new Hold(Map.copyOf(taken), clock.instant().plus(holdTtl));
+        holds.put(orderId, hold);
+        reserved.increment();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK && holds.remove(orderId, hold)) {
+                        returnUnits(hold.quantities());
+                        released.increment();
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public boolean release(OrderId orderId) {
+        Objects.requireNonNull(orderId, "Order ID cannot be null");
+
+        Hold hold = holds.remove(orderId);
+        if (hold == null) {
+            return false;
+        }
+        returnUnits(hold.quantities());
+        released.increment();
+        return true;
+    }
+
+    @Override
+    public boolean confirm(OrderId orderId, Map<ProductId, Integer> quantities) {
+        Objects.requireNonNull(orderId, "Order ID cannot be null");
+        validate(quantities);
+
+        // Held units already left the database when they were leased
+        Hold hold = holds.remove(orderId);
+        final Map<ProductId, Integer> sold;
+        if (hold != null) {
+            sold = hold.quantities();
+            confirmed.increment();
+        } else {
+            sold = take(quantities);
+            if (!sold.isEmpty()) {
+                confirmedWithoutHold.increment();
+                logger.warn("Order {} was paid for without a stock hold; took its items from stock", orderId);
+            }
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A rolled-back payment sold nothing: put the hold back, or return what was taken for it
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_ROLLED_BACK) {
+                        return;
+                    }
+                    if (hold != null) {
+                        holds.putIfAbsent(orderId, hold);
+                    } else {
+                        returnUnits(sold);
+                    }
+                }
+            });
+        }
+        return hold != null;
+    }
+
+    @Override
+    public boolean transfer(OrderId fromOrderId, OrderId toOrderId) {
+        Objects.requireNonNull(fromOrderId, "Source order ID cannot be null");
+        Objects.requireNonNull(toOrderId, "Target order ID cannot be null");
+
+        Hold hold = holds.remove(fromOrderId);
+        if (hold == null) {
+            return false;
+        }
+        release(toOrderId);
+        holds.put(toOrderId, hold);
+        return true;
+    }
+
+    /**
+     * Get the units this instance holds unreserved plus the unleased stock as of
+     * the last flush or lease.
+     */
+    @Override
+    public OptionalInt getAvailableStock(ProductId productId) {
+        Objects.requireNonNull(productId, "Product ID cannot be null");
+
+        LeasedStock leased = tracked(List.of(productId)).get(productId);
+        return leased == null ? OptionalInt.empty()
+            : OptionalInt.of(leased.counter.available() + leased.unleased);
+    }
+
+    /**
+     * Return the units nobody reserved and pick up stock changes made elsewhere.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.stock.flush-interval-ms:1000}")
+    public void flush() {
+        synchronized (flushLock) {
+            Map<ProductId, Integer> idle = new HashMap<>();
+            stock.forEach((productId, leased) -> {
+                int units = leased.counter.takeAll();
+                if (units > 0) {
+                    idle.put(productId, units);
+                }
+            });
+            if (!idle.isEmpty()) {
+                try {
+                    stockLevelRepository.returnLeased(idle);
+                } catch (Exception e) {
+                    logger.error("Error returning leased stock of {} products, retrying on next flush", 
+                        idle.size(), e);
+                    returnUnits(idle);
+                }
+            }
+
+            try {
+                reconcile();
+            } catch (Exception e) {
+                logger.error("Error re-reading on-hand stock", e);
+            }
+        }
+    }
+
+    /**
+     * Return the stock of holds that outlived their TTL.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.stock.expiry-interval-ms:30000}")
+    public void expireHolds() {
+        Instant now = clock.instant();
+        holds.forEach((orderId, hold) -> {
+            if (hold.expiresAt().isBefore(now) && holds.remove(orderId, hold)) {
+                returnUnits(hold.quantities());
+                expired.increment();
+            }
+        });
+    }
+
+    /**
+     * Give every leased unit back, held ones included; orders paid for later
+     * take their items from stock again.
+     */
+    @PreDestroy
+    public void shutdown() {
+        List.copyOf(holds.keySet()).forEach(this::release);
+        flush();
+    }
+
+    public int getActiveHoldCount() {
+        return holds.size();
+    }
+
+    private void reconcile() {
+        List<ProductId> productIds = new ArrayList<>(stock.keySet());
+        productIds.addAll(untracked);
+        for (int from = 0; from < productIds.size(); from += RELOAD_BATCH_SIZE) {
+            List<ProductId> batch = productIds.subList(from, Math.min(from + RELOAD_BATCH_SIZE, productIds.size()));
+            Map<ProductId, Integer> onHand = stockLevelRepository.findOnHand(batch);
+            for (ProductId productId : batch) {
+                Integer current = onHand.get(productId);
+                LeasedStock leased = stock.get(productId);
+                if (current == null) {
+                    // Stopped tracking stock, or never did; leased units no longer matter
+                    untracked.add(productId);
+                    if (leased != null) {
+                        stock.remove(productId, leased);
+                    }
+                } else if (leased != null) {
+                    leased.unleased = current;
+                } else {
+                    untracked.remove(productId);
+                    stock.putIfAbsent(productId, new LeasedStock(new StripedStockCounter(0, stripeCount), current));
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the leased stock of the products that track stock, reading only the
+     * products seen for the first time.
+     */
+    private Map<ProductId, LeasedStock> tracked(Iterable<ProductId> productIds) {
+        Map<ProductId, LeasedStock> found = new HashMap<>();
+        List<ProductId> unknown = new ArrayList<>();
+        for (ProductId productId : productIds) {
+            LeasedStock leased = stock.get(productId);
+            if (leased != null) {
+                found.put(productId, leased);
+            } else if (!untracked.contains(productId)) {
+                unknown.add(productId);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            Map<ProductId, Integer> onHand = stockLevelRepository.findOnHand(unknown);
+            for (ProductId productId : unknown) {
+                Integer current = onHand.get(productId);
+                if (current == null) {
+                    untracked.add(productId);
+                } else {
+                    found.put(productId, stock.computeIfAbsent(productId,
+                        id -> new LeasedStock(new StripedStockCounter(0, stripeCount), current)));
+                }
+            }
+        }
+        return found;
+    }
+
+    private static void validate(Map<ProductId, Integer> quantities) {
+        Objects.requireNonNull(quantities, "Quantities cannot be null");
+        quantities.forEach((productId, quantity) -> {
+            Objects.requireNonNull(productId, "Product ID cannot be null");
+            if (quantity == null || quantity <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for product " + productId);
+            }
+        });
+    }
+
+    /**
+     * Take the quantities of tracked products from their leased stock, leasing
+     * more when it runs short, all of them or none.
+     *
+     * @return what was taken
+     * @throws InsufficientStockException if a product has too little stock left
+     */
+    private Map<ProductId, Integer> take(Map<ProductId, Integer> quantities) {
+        Map<ProductId, LeasedStock> tracked = tracked(quantities.keySet());
+        Map<ProductId, Integer> taken = new LinkedHashMap<>();
+        for (Map.Entry<ProductId, Integer> entry : quantities.entrySet()) {
+            LeasedStock leased = tracked.get(entry.getKey());
+            if (leased == null) {
+                continue;
+            }
+            int quantity = entry.getValue();
+            if (!leased.counter.tryTake(quantity) && !leaseAndTake(entry.getKey(), leased, quantity)) {
+                returnUnits(taken);
+                rejected.increment();
+                throw new InsufficientStockException(entry.getKey(), quantity);
+            }
+            taken.put(entry.getKey(), quantity);
+        }
+        return taken;
+    }
+
+    /**
+     * Lease at least the shortfall, and a whole block if the database has it,
+     * then take the quantity. One lease per product is in flight at a time.
+     */
+    private boolean leaseAndTake(ProductId productId, LeasedStock leased, int quantity) {
+        leased.leaseLock.lock();
+        try {
+            // Another taker may have leased while this one waited
+            if (leased.counter.tryTake(quantity)) {
+                return true;
+            }
+            int shortfall = quantity - leased.counter.available();
+            int units = stockLevelRepository.lease(productId, Math.max(shortfall, leaseBlock), shortfall);
+            if (units == 0) {
+                return false;
+            }
+            leases.increment();
+            leased.unleased = Math.max(leased.unleased - units, 0);
+            leased.counter.add(units);
+            return leased.counter.tryTake(quantity);
+        } finally {
+            leased.leaseLock.unlock();
+        }
+    }
+
+    private void returnUnits(Map<ProductId, Integer> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            LeasedStock leased = stock.get(productId);
+            if (leased != null) {
+                leased.counter.add(quantity);
+            }
+        });
+    }
+
+    /**
+     * Units of a product leased to this instance, and the stock left unleased
+     * as last seen.
+     */
+    private static final class LeasedStock {
+
+        private final StripedStockCounter counter;
+        private final ReentrantLock leaseLock = new ReentrantLock();
+        private volatile int unleased;
+
+        LeasedStock(StripedStockCounter counter, int unleased) {
+            this.counter = counter;
+            this.unleased = unleased;
+        }
+    }
+
+    private record Hold(Map<ProductId, Integer> quantities, Instant expiresAt) {
+    }
+}
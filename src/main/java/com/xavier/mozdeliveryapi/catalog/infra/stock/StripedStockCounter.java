@@ -0,0 +1,143 @@
+package com.xavier.mozdeliveryapi.catalog.infra.stock;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Units of one product that can still be reserved.
+ *
+ * An uncontended counter is a single atomic integer. The first failed
+ * compare-and-set spreads its units over stripes that each sit on their own
+ * cache line, and takers start from the stripe of their thread, so concurrent
+ * reservations of a hot product mostly update different memory. Units only
+ * ever move between stripes, never appear or vanish, so the counter cannot
+ * oversell. A take can fall short while other takers are still collecting
+ * units, so it is retried while the total would cover it.
+ */
+final class StripedStockCounter {
+
+    // Ints per stripe, keeping neighbouring stripes on separate cache lines
+    private static final int PADDING = 16;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final int stripeCount;
+    private final AtomicInteger base;
+    private volatile AtomicIntegerArray stripes;
+
+    StripedStockCounter(int available, int stripeCount) {
+        if (available < 0) {
+            throw new IllegalArgumentException("Available stock cannot be negative");
+        }
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        this.stripeCount = stripeCount;
+        this.base = new AtomicInteger(available);
+    }
+
+    /**
+     * Take {@code quantity} units, all or none.
+     */
+    boolean tryTake(int quantity) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            int taken = collect(quantity);
+            if (taken == quantity) {
+                return true;
+            }
+            add(taken);
+            if (available() < quantity) {
+                return false;
+            }
+            Thread.onSpinWait();
+        }
+        return false;
+    }
+
+    /**
+     * Return units.
+     */
+    void add(int quantity) {
+        if (quantity <= 0) {
+            return;
+        }
+        AtomicIntegerArray cells = stripes;
+        if (cells != null) {
+            cells.addAndGet(home() * PADDING, quantity);
+        } else {
+            base.addAndGet(quantity);
+        }
+    }
+
+    /**
+     * Take every unit that is not being taken right now.
+     *
+     * @return the units taken
+     */
+    int takeAll() {
+        return collect(Integer.MAX_VALUE);
+    }
+
+    int available() {
+        int total = base.get();
+        AtomicIntegerArray cells = stripes;
+        if (cells != null) {
+            for (int i = 0; i < stripeCount; i++) {
+                total += cells.get(i * PADDING);
+            }
+        }
+        return Math.max(total, 0);
+    }
+
+    private int collect(int quantity) {
+        int taken = 0;
+        AtomicIntegerArray cells = stripes;
+        if (cells != null) {
+            int home = home();
+            for (int i = 0; i < stripeCount && taken < quantity; i++) {
+                taken += takeUpTo(cells, ((home + i) % stripeCount) * PADDING, quantity - taken);
+            }
+        }
+        while (taken < quantity) {
+            int current = base.get();
+            if (current <= 0) {
+                break;
+            }
+            int take = Math.min(current, quantity - taken);
+            if (base.compareAndSet(current, current - take)) {
+                taken += take;
+            } else if (stripes == null && stripeCount > 1) {
+                inflate();
+            }
+        }
+        return taken;
+    }
+
+    private static int takeUpTo(AtomicIntegerArray cells, int index, int wanted) {
+        while (true) {
+            int current = cells.get(index);
+            if (current <= 0) {
+                return 0;
+            }
+            int take = Math.min(current, wanted);
+            if (cells.compareAndSet(index, current, current - take)) {
+                return take;
+            }
+        }
+    }
+
+    private synchronized void inflate() {
+        if (stripes != null) {
+            return;
+        }
+        AtomicIntegerArray cells = new AtomicIntegerArray(stripeCount * PADDING);
+        stripes = cells;
+        int units = base.getAndSet(0);
+        for (int i = 0; i < stripeCount; i++) {
+            cells.addAndGet(i * PADDING, units / stripeCount + (i < units % stripeCount ? 1 : 0));
+        }
+    }
+
+    private int home() {
+        return (int) Math.floorMod(Thread.currentThread().threadId(), (long) stripeCount);
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Stock reservation infrastructure for the catalog.
+ *
+ * Holds the in-memory stock counters that orders reserve from, filled by
+ * leasing blocks of on-hand stock from the database.
+ */
+package com.xavier.mozdeliveryapi.catalog.infra.stock;
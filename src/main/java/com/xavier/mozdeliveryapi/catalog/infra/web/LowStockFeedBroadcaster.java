@@ -0,0 +1,273 @@
+package com.xavier.mozdeliveryapi.catalog.infra.web;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.xavier.mozdeliveryapi.catalog.application.dto.LowStockAlertResponse;
+import com.xavier.mozdeliveryapi.catalog.application.usecase.port.ProductRepository;
+import com.xavier.mozdeliveryapi.catalog.domain.entity.Product;
+import com.xavier.mozdeliveryapi.catalog.domain.event.ProductLowStockChangedEvent;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+/**
+ * Pushes low stock alerts to the merchant's open backoffice sessions.
+ *
+ * A new subscriber first gets an alert for every product that is currently
+ * low, then one whenever a product crosses its threshold, once the change has
+ * committed. Each subscriber holds at most one pending alert per product, so a
+ * slow client gets the latest state of each product instead of every flip.
+ */
+@Component
+public class LowStockFeedBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockFeedBroadcaster.class);
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxSubscribersPerMerchant;
+    private final Map<MerchantId, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter alerts;
+    private final Counter conflated;
+
+    public LowStockFeedBroadcaster(ProductRepository productRepository,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.catalog.low-stock.max-subscribers-per-merchant:50}") int maxSubscribersPerMerchant) {
+        this.productRepository = Objects.requireNonNull(productRepository, "Product repository cannot be null");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "Object mapper cannot be null");
+        Objects.requireNonNull(meterRegistry, "Meter registry cannot be null");
+        if (maxSubscribersPerMerchant <= 0) {
+            throw new IllegalArgumentException("Max subscribers per merchant must be positive");
+        }
+        this.maxSubscribersPerMerchant = maxSubscribersPerMerchant;
+
+        this.alerts = Counter.builder("catalog.low_stock.alerts")
+            .description("Low stock threshold crossings pushed to merchants")
+            .register(meterRegistry);
+        this.conflated = Counter.builder("catalog.low_stock.conflated")
+            .description("Alerts replaced before a slow subscriber received them")
+            .register(meterRegistry);
+        meterRegistry.gauge("catalog.low_stock.subscribers", topics,
+                            map -> map.values().stream().mapToInt(Set::size).sum());
+    }
+
+    /**
+     * Receives low stock alerts as serialized JSON.
+     */
+    public interface AlertSink {
+
+        void send(String alertJson) throws IOException;
+
+        /**
+         * Called once the subscription is dropped.
+         */
+        default void complete() {
+        }
+    }
+
+    /**
+     * Handle returned to a subscriber; cancel it when the client goes away.
+     */
+    public interface Subscription {
+
+        void cancel();
+    }
+
+    /**
+     * Subscribe to a merchant's low stock alerts. Products that are low right
+     * now are sent straight away.
+     *
+     * @throws IllegalStateException if the merchant already has the maximum number of subscribers
+     */
+    public Subscription subscribe(MerchantId merchantId, AlertSink sink) {
+        Objects.requireNonNull(merchantId, "Merchant ID cannot be null");
+        Objects.requireNonNull(sink, "Sink cannot be null");
+
+        Subscriber subscriber = new Subscriber(merchantId, sink);
+        topics.compute(merchantId, (id, subscribers) -> {
+            Set<Subscriber> target = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            if (target.size() >= maxSubscribersPerMerchant) {
+                throw new IllegalStateException("Too many low stock subscribers for merchant: " + merchantId);
+            }
+            target.add(subscriber);
+            return target;
+        });
+
+        // Registered before reading, so a crossing in between is not missed; it
+        // also wins over the snapshot because it is newer
+        try {
+            Instant now = Instant.now();
+            for (Product product : productRepository.findLowStockByMerchantId(merchantId)) {
+                subscriber.offerIfAbsent(product.getProductId().toString(),
+                                         serialize(LowStockAlertResponse.current(product, now)));
+            }
+        } catch (RuntimeException e) {
+            subscriber.cancel();
+            throw e;
+        }
+        return subscriber::cancel;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLowStockChanged(ProductLowStockChangedEvent event) {
+        alerts.increment();
+        Set<Subscriber> subscribers = topics.get(event.merchantId());
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        String payload = serialize(LowStockAlertResponse.from(event));
+        subscribers.forEach(subscriber -> subscriber.offer(event.productId().toString(), payload));
+    }
+
+    int getSubscriberCount(MerchantId merchantId) {
+        Set<Subscriber> subscribers = topics.get(merchantId);
+        return subscribers == null ? 0 : subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        topics.values().forEach(subscribers -> subscribers.forEach(Subscriber::finish));
+        senders.shutdown();
+    }
+
+    private String serialize(LowStockAlertResponse alert) {
+        try {
+            return objectMapper.writeValueAsString(alert);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize low stock alert for product: " + alert.productId(), e);
+        }
+    }
+
+    /**
+     * One client. Holds the newest undelivered alert per product and drains
+     * them on a virtual thread, so a blocked socket never stalls the publisher.
+     */
+    private final class Subscriber {
+
+        private final MerchantId merchantId;
+        private final AlertSink sink;
+        private final Map<String, String> pending = new LinkedHashMap<>();  // guarded by this
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(MerchantId merchantId, AlertSink sink) {
+            this.merchantId = merchantId;
+            this.sink = sink;
+        }
+
+        void offer(String productId, String payload) {
+            if (closed.get()) {
+                return;
+            }
+            synchronized (this) {
+                if (pending.put(productId, payload) != null) {
+                    conflated.increment();
+                }
+            }
+            scheduleDrain();
+        }
+
+        void offerIfAbsent(String productId, String payload) {
+            if (closed.get()) {
+                return;
+            }
+            synchronized (this) {
+                pending.putIfAbsent(productId, payload);
+            }
+            scheduleDrain();
+        }
+
+        void cancel() {
+            close();
+        }
+
+        private boolean close() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            topics.computeIfPresent(merchantId, (id, subscribers) -> {
+                subscribers.remove(this);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+            synchronized (this) {
+                pending.clear();
+            }
+            return true;
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private String poll() {
+            synchronized (this) {
+                Iterator<String> iterator = pending.values().iterator();
+                if (!iterator.hasNext()) {
+                    return null;
+                }
+                String payload = iterator.next();
+                iterator.remove();
+                return payload;
+            }
+        }
+
+        private boolean hasPending() {
+            synchronized (this) {
+                return !pending.isEmpty();
+            }
+        }
+
+        private void drain() {
+            try {
+                String payload;
+                while (!closed.get() && (payload = poll()) != null) {
+                    sink.send(payload);
+                }
+            } catch (Exception e) {
+                logger.debug("Dropping low stock subscriber after send failure: {}", e.getMessage());
+                finish();
+                return;
+            } finally {
+                draining.set(false);
+            }
+
+            if (hasPending() && !closed.get()) {
+                scheduleDrain();
+            }
+        }
+
+        private void finish() {
+            if (!close()) {
+                return;
+            }
+            try {
+                sink.complete();
+            } catch (Exception e) {
+                logger.debug("Error completing low stock subscriber: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.xavier.mozdeliveryapi.catalog.infra.web;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,10 +19,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.xavier.mozdeliveryapi.catalog.application.dto.CreateProductRequest;
 import com.xavier.mozdeliveryapi.catalog.application.dto.ProductResponse;
 import com.xavier.mozdeliveryapi.catalog.application.usecase.CatalogApplicationService;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -35,10 +42,20 @@ import jakarta.validation.Valid;
 @Tag(name = "Product Management", description = "Product management operations for merchants")
 public class ProductController {
     
+    private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
+    
+    /**
+     * Low stock streams are closed after this long; clients reconnect and get the current low items again.
+     */
+    static final Duration STREAM_TIMEOUT = Duration.ofMinutes(30);
+    
     private final CatalogApplicationService catalogApplicationService;
+    private final LowStockFeedBroadcaster lowStockFeedBroadcaster;
     
-    public ProductController(CatalogApplicationService catalogApplicationService) {
+    public ProductController(CatalogApplicationService catalogApplicationService,
+                             LowStockFeedBroadcaster lowStockFeedBroadcaster) {
         this.catalogApplicationService = catalogApplicationService;
+        this.lowStockFeedBroadcaster = lowStockFeedBroadcaster;
     }
     
     /**
@@ -235,4 +252,45 @@ public class ProductController {
         List<ProductResponse> response = catalogApplicationService.getLowStockProducts(merchantId);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Stream low stock alerts for a merchant.
+     */
+    @Operation(summary = "Stream low stock alerts", description = "Server-sent events for every product that is low on stock, then one whenever a product crosses its low stock threshold")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Low stock stream opened"),
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "503", description = "Too many subscribers for this merchant")
+    })
+    @GetMapping(value = "/merchant/{merchantId}/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAuthority('SCOPE_catalog:read')")
+    public ResponseEntity<SseEmitter> streamLowStockProducts(
+            @Parameter(description = "Merchant ID") @PathVariable String merchantId) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT.toMillis());
+        
+        try {
+            LowStockFeedBroadcaster.Subscription subscription = lowStockFeedBroadcaster.subscribe(
+                MerchantId.of(merchantId),
+                new LowStockFeedBroadcaster.AlertSink() {
+                    @Override
+                    public void send(String alertJson) throws IOException {
+                        emitter.send(SseEmitter.event().name("low-stock").data(alertJson, MediaType.APPLICATION_JSON));
+                    }
+                    
+                    @Override
+                    public void complete() {
+                        emitter.complete();
+                    }
+                });
+            
+            emitter.onCompletion(subscription::cancel);
+            emitter.onTimeout(subscription::cancel);
+            emitter.onError(error -> subscription.cancel());
+            return ResponseEntity.ok(emitter);
+            
+        } catch (IllegalStateException e) {
+            logger.warn("Rejecting low stock stream: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
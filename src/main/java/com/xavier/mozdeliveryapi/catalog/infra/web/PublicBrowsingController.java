@@ -1,21 +1,34 @@
 package com.xavier.mozdeliveryapi.catalog.infra.web;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.xavier.mozdeliveryapi.catalog.application.dto.CatalogResponse;
 import com.xavier.mozdeliveryapi.catalog.application.dto.CategoryResponse;
 import com.xavier.mozdeliveryapi.catalog.application.dto.ProductResponse;
+import com.xavier.mozdeliveryapi.catalog.application.dto.ProductSearchResponse;
 import com.xavier.mozdeliveryapi.catalog.application.usecase.CatalogApplicationService;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductAvailability;
+import com.xavier.mozdeliveryapi.catalog.infra.cache.CatalogViewCache;
+import com.xavier.mozdeliveryapi.catalog.infra.cache.MenuSnapshot;
+import com.xavier.mozdeliveryapi.catalog.infra.cache.MenuSnapshotCache;
+import com.xavier.mozdeliveryapi.catalog.infra.search.ProductSearchService;
 import com.xavier.mozdeliveryapi.merchant.application.dto.MerchantResponse;
 import com.xavier.mozdeliveryapi.merchant.application.usecase.MerchantApplicationService;
 import com.xavier.mozdeliveryapi.merchant.domain.valueobject.Vertical;
@@ -28,7 +41,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 
 /**
  * REST controller for public browsing APIs (no authentication required).
- * Provides merchant discovery, catalog browsing, and location-based filtering.
+ * Provides merchant discovery, catalog browsing, product search, and location-based filtering.
+ * Merchant and catalog views are read through the catalog view cache, and full
+ * menus are served from pre-serialised snapshots with ETag revalidation.
  */
 @RestController
 @RequestMapping("/api/public")
@@ -38,14 +53,31 @@ public class PublicBrowsingController {
     
     private static final Logger logger = LoggerFactory.getLogger(PublicBrowsingController.class);
     
+    private static final TypeReference<MerchantResponse> MERCHANT_VIEW = new TypeReference<>() {};
+    private static final TypeReference<CatalogResponse> CATALOG_VIEW = new TypeReference<>() {};
+    private static final TypeReference<List<CatalogResponse>> CATALOG_LIST_VIEW = new TypeReference<>() {};
+    private static final TypeReference<CategoryResponse> CATEGORY_VIEW = new TypeReference<>() {};
+    private static final TypeReference<List<CategoryResponse>> CATEGORY_LIST_VIEW = new TypeReference<>() {};
+    private static final TypeReference<ProductResponse> PRODUCT_VIEW = new TypeReference<>() {};
+    private static final TypeReference<List<ProductResponse>> PRODUCT_LIST_VIEW = new TypeReference<>() {};
+    
     private final MerchantApplicationService merchantService;
     private final CatalogApplicationService catalogService;
+    private final CatalogViewCache viewCache;
+    private final MenuSnapshotCache menuSnapshots;
+    private final ProductSearchService searchService;
     
     public PublicBrowsingController(
             MerchantApplicationService merchantService,
-            CatalogApplicationService catalogService) {
+            CatalogApplicationService catalogService,
+            CatalogViewCache viewCache,
+            MenuSnapshotCache menuSnapshots,
+            ProductSearchService searchService) {
         this.merchantService = merchantService;
         this.catalogService = catalogService;
+        this.viewCache = viewCache;
+        this.menuSnapshots = menuSnapshots;
+        this.searchService = searchService;
     }
     
     // ========== Merchant Discovery APIs ==========
@@ -89,7 +121,7 @@ public class PublicBrowsingController {
     public ResponseEntity<MerchantResponse> getMerchant(@PathVariable String merchantId) {
         logger.debug("Getting public merchant info: {}", merchantId);
         
-        return merchantService.getPublicMerchant(merchantId)
+        return getPublicMerchant(merchantId)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
@@ -142,14 +174,63 @@ public class PublicBrowsingController {
         logger.debug("Getting visible catalogs for merchant: {}", merchantId);
         
         // First verify merchant exists and is publicly visible
-        if (merchantService.getPublicMerchant(merchantId).isEmpty()) {
+        if (getPublicMerchant(merchantId).isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
-        List<CatalogResponse> catalogs = catalogService.getVisibleMerchantCatalogs(merchantId);
+        List<CatalogResponse> catalogs = viewCache.get(CatalogViewCache.merchantCatalogsKey(merchantId),
+            CATALOG_LIST_VIEW, () -> catalogService.getVisibleMerchantCatalogs(merchantId));
         return ResponseEntity.ok(catalogs);
     }
     
+    /**
+     * Get a merchant's full public menu from its pre-serialised snapshot.
+     * An unchanged menu is revalidated with {@code If-None-Match} and answered with 304.
+     */
+    @Operation(summary = "Get merchant menu", description = "Get all visible catalogs, categories and available products of a merchant")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Menu retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "Menu not modified"),
+        @ApiResponse(responseCode = "404", description = "Merchant not found")
+    })
+    @GetMapping("/merchants/{merchantId}/menu")
+    public ResponseEntity<byte[]> getMerchantMenu(
+            @PathVariable String merchantId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        logger.debug("Getting menu for merchant: {}", merchantId);
+        
+        MenuSnapshot menu;
+        try {
+            if (getPublicMerchant(merchantId).isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            menu = menuSnapshots.get(merchantId, () -> catalogService.getMerchantMenu(merchantId));
+        } catch (IllegalArgumentException e) {
+            logger.debug("Merchant not found or not accessible: {}", merchantId);
+            return ResponseEntity.notFound().build();
+        }
+        
+        boolean gzipped = menu.hasGzip() && MenuSnapshot.acceptsGzip(acceptEncoding);
+        if (menu.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(menu.getETag(gzipped))
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .build();
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(menu.getETag(gzipped))
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzipped) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(menu.getBody(gzipped));
+    }
+    
     /**
      * Get catalog details.
      */
@@ -163,7 +244,7 @@ public class PublicBrowsingController {
         logger.debug("Getting catalog: {}", catalogId);
         
         try {
-            CatalogResponse catalog = catalogService.getCatalog(catalogId);
+            CatalogResponse catalog = getCatalogView(catalogId);
             // Only return if catalog is visible (active status)
             if (catalog.status().name().equals("ACTIVE")) {
                 return ResponseEntity.ok(catalog);
@@ -190,12 +271,13 @@ public class PublicBrowsingController {
         
         try {
             // First verify catalog exists and is visible
-            CatalogResponse catalog = catalogService.getCatalog(catalogId);
+            CatalogResponse catalog = getCatalogView(catalogId);
             if (!catalog.status().name().equals("ACTIVE")) {
                 return ResponseEntity.notFound().build();
             }
             
-            List<CategoryResponse> categories = catalogService.getVisibleCatalogCategories(catalogId);
+            List<CategoryResponse> categories = viewCache.get(CatalogViewCache.catalogCategoriesKey(catalogId),
+                CATEGORY_LIST_VIEW, () -> catalogService.getVisibleCatalogCategories(catalogId));
             return ResponseEntity.ok(categories);
         } catch (Exception e) {
             logger.debug("Catalog not found or not accessible: {}", catalogId);
@@ -216,7 +298,7 @@ public class PublicBrowsingController {
         logger.debug("Getting category: {}", categoryId);
         
         try {
-            CategoryResponse category = catalogService.getCategory(categoryId);
+            CategoryResponse category = getCategoryView(categoryId);
             // Only return if category is visible
             if (category.visible()) {
                 return ResponseEntity.ok(category);
@@ -243,12 +325,13 @@ public class PublicBrowsingController {
         
         try {
             // First verify category exists and is visible
-            CategoryResponse category = catalogService.getCategory(categoryId);
+            CategoryResponse category = getCategoryView(categoryId);
             if (!category.visible()) {
                 return ResponseEntity.notFound().build();
             }
             
-            List<ProductResponse> products = catalogService.getAvailableCategoryProducts(categoryId);
+            List<ProductResponse> products = viewCache.get(CatalogViewCache.categoryProductsKey(categoryId),
+                PRODUCT_LIST_VIEW, () -> catalogService.getAvailableCategoryProducts(categoryId));
             return ResponseEntity.ok(products);
         } catch (Exception e) {
             logger.debug("Category not found or not accessible: {}", categoryId);
@@ -256,6 +339,35 @@ public class PublicBrowsingController {
         }
     }
     
+    /**
+     * Search products by text with facet counts.
+     */
+    @Operation(summary = "Search products", description = "Search public products by name, description and modifiers, with vertical, price range and availability facets")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Search completed"),
+        @ApiResponse(responseCode = "400", description = "Invalid search parameters")
+    })
+    @GetMapping("/products/search")
+    public ResponseEntity<ProductSearchResponse> searchProducts(
+            @Parameter(description = "Search text") @RequestParam(required = false) String q,
+            @Parameter(description = "Filter by merchant city") @RequestParam(required = false) String city,
+            @Parameter(description = "Filter by vertical") @RequestParam(required = false) Vertical vertical,
+            @Parameter(description = "Filter by price range, e.g. 100-250") @RequestParam(required = false) String priceRange,
+            @Parameter(description = "Filter by availability") @RequestParam(required = false) ProductAvailability availability,
+            @Parameter(description = "Customer latitude, to keep merchants serving it") @RequestParam(required = false) Double lat,
+            @Parameter(description = "Customer longitude, to keep merchants serving it") @RequestParam(required = false) Double lng,
+            @Parameter(description = "Maximum number of hits") @RequestParam(defaultValue = "20") int limit) {
+        
+        logger.debug("Searching products - Query: {}, City: {}, Vertical: {}", q, city, vertical);
+        
+        try {
+            return ResponseEntity.ok(searchService.search(q, city, vertical, priceRange, availability, lat, lng, limit));
+        } catch (IllegalArgumentException e) {
+            logger.debug("Invalid product search: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     /**
      * Get product details.
      */
@@ -269,7 +381,8 @@ public class PublicBrowsingController {
         logger.debug("Getting product: {}", productId);
         
         try {
-            ProductResponse product = catalogService.getProduct(productId);
+            ProductResponse product = viewCache.get(CatalogViewCache.productKey(productId),
+                PRODUCT_VIEW, () -> catalogService.getProduct(productId));
             // Only return if product is available
             if (product.availability().name().equals("AVAILABLE")) {
                 return ResponseEntity.ok(product);
@@ -281,4 +394,19 @@ public class PublicBrowsingController {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+    
+    private Optional<MerchantResponse> getPublicMerchant(String merchantId) {
+        return Optional.ofNullable(viewCache.get(CatalogViewCache.merchantKey(merchantId),
+            MERCHANT_VIEW, () -> merchantService.getPublicMerchant(merchantId).orElse(null)));
+    }
+    
+    private CatalogResponse getCatalogView(String catalogId) {
+        return viewCache.get(CatalogViewCache.catalogKey(catalogId), CATALOG_VIEW,
+            () -> catalogService.getCatalog(catalogId));
+    }
+    
+    private CategoryResponse getCategoryView(String categoryId) {
+        return viewCache.get(CatalogViewCache.categoryKey(categoryId), CATEGORY_VIEW,
+            () -> catalogService.getCategory(categoryId));
+    }
+}
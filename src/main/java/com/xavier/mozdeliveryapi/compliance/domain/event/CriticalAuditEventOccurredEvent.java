@@ -13,7 +13,7 @@ import com.xavier.mozdeliveryapi.compliance.domain.valueobject.AuditSeverity;
  */
 public record CriticalAuditEventOccurredEvent(
     AuditLogId auditLogId,
-    AuditEventType eventType,
+    AuditEventType auditEventType,
     AuditSeverity severity,
     String description,
     Instant occurredOn
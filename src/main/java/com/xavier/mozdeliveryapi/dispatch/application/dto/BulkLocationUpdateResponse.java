@@ -0,0 +1,15 @@
+package com.xavier.mozdeliveryapi.dispatch.application.dto;
+
+import java.util.List;
+
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryPersonId;
+
+/**
+ * Response to a batch of courier location samples.
+ */
+public record BulkLocationUpdateResponse(
+    DeliveryPersonId deliveryPersonId,
+    int received,
+    List<TrackingResponse> activeDeliveries
+) {
+}
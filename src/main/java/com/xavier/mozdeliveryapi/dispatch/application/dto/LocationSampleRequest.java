@@ -0,0 +1,49 @@
+package com.xavier.mozdeliveryapi.dispatch.application.dto;
+
+import java.time.Instant;
+
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.LocationHistory;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+/**
+ * A single timestamped GPS sample reported by a courier device. Validate it
+ * before converting it; the constraints are what make the conversion safe.
+ */
+public record LocationSampleRequest(
+    @NotNull(message = "Latitude is required")
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90 degrees")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90 degrees")
+    Double latitude,
+    
+    @NotNull(message = "Longitude is required")
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180 degrees")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180 degrees")
+    Double longitude,
+    
+    @NotNull(message = "Timestamp is required")
+    Instant timestamp,
+    
+    @PositiveOrZero(message = "Accuracy cannot be negative")
+    Double accuracy,
+    
+    @PositiveOrZero(message = "Speed cannot be negative")
+    Double speed
+) {
+    
+    public static final double DEFAULT_ACCURACY = 10.0;
+    public static final double DEFAULT_SPEED = 0.0;
+    
+    public LocationHistory toLocationHistory() {
+        return LocationHistory.of(
+            Location.of(latitude, longitude),
+            timestamp,
+            accuracy != null ? accuracy : DEFAULT_ACCURACY,
+            speed != null ? speed : DEFAULT_SPEED
+        );
+    }
+}
@@ -0,0 +1,41 @@
+package com.xavier.mozdeliveryapi.dispatch.application.usecase;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.xavier.mozdeliveryapi.dispatch.application.dto.AssignDeliveryRequest;
+import com.xavier.mozdeliveryapi.dispatch.domain.entity.Delivery;
+
+/**
+ * Micro-batching dispatcher: orders collected during a short window are
+ * assigned to couriers together so each order does not greedily take the
+ * courier another order needed more.
+ */
+public interface BatchDispatchService {
+    
+    /**
+     * Queue an order for the next batch.
+     * 
+     * @param request the order to dispatch
+     * @return completes with the created delivery, or exceptionally with a
+     *         {@code DeliveryAssignmentException} if no courier could be matched
+     *         after the configured number of batches. Cancelling it withdraws
+     *         the order unless a batch is already saving its delivery, in
+     *         which case {@code cancel} returns {@code false} and the future
+     *         still completes shortly.
+     */
+    CompletableFuture<Delivery> submit(AssignDeliveryRequest request);
+    
+    /**
+     * Solve and commit every queued order now. Unmatched orders stay queued for
+     * the next batch until they run out of attempts.
+     * 
+     * @return the deliveries created by this batch
+     */
+    List<Delivery> dispatchPending();
+    
+    /**
+     * Number of orders waiting for the next batch.
+     */
+    int getPendingCount();
+}
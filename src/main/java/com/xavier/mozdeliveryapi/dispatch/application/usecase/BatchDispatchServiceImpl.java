@@ -0,0 +1,359 @@
+package com.xavier.mozdeliveryapi.dispatch.application.usecase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import com.xavier.mozdeliveryapi.dispatch.application.dto.AssignDeliveryRequest;
+import com.xavier.mozdeliveryapi.dispatch.application.usecase.port.DeliveryPersonRepository;
+import com.xavier.mozdeliveryapi.dispatch.application.usecase.port.DeliveryRepository;
+import com.xavier.mozdeliveryapi.dispatch.domain.entity.Delivery;
+import com.xavier.mozdeliveryapi.dispatch.domain.entity.DeliveryPerson;
+import com.xavier.mozdeliveryapi.dispatch.domain.exception.DeliveryAssignmentException;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryAssignment;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryId;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryPersonId;
+import com.xavier.mozdeliveryapi.geospatial.application.usecase.port.RouteOptimizer;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Route;
+import com.xavier.mozdeliveryapi.tenant.domain.valueobject.TenantId;
+
+/**
+ * Implementation of the batch dispatcher. Each batch is solved per tenant as a
+ * min-cost matching of orders to couriers, where the cost of a pair is
+ * {@code 1 - DeliveryAssignment#getAssignmentScore()}. A courier takes at most
+ * one order per batch; orders left over wait for the next batch.
+ * <p>
+ * The future handed to the submitter is claimed before its delivery is saved.
+ * Cancelling it succeeds only while it is unclaimed, so an order whose
+ * submitter gave up is never persisted, and a claimed order is always
+ * completed or, if its save fails, released.
+ */
+public class BatchDispatchServiceImpl implements BatchDispatchService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BatchDispatchServiceImpl.class);
+    
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    
+    /**
+     * Only the best-scored couriers of each order enter the matching, which keeps
+     * the cost matrix small at peak without changing the result in practice.
+     */
+    public static final int DEFAULT_CANDIDATES_PER_ORDER = 10;
+    
+    // Cost of pairs that are not allowed; any real pair costs at most 1.0
+    private static final double INFEASIBLE = 1_000_000.0;
+    
+    private final DeliveryRepository deliveryRepository;
+    private final DeliveryPersonRepository deliveryPersonRepository;
+    private final DeliveryAssignmentService assignmentService;
+    private final RouteOptimizer routeOptimizer;
+    private final int maxAttempts;
+    private final int candidatesPerOrder;
+    private final Queue<PendingOrder> pending = new ConcurrentLinkedQueue<>();
+    
+    private final DistributionSummary batchSize;
+    private final Timer solveLatency;
+    private final DistributionSummary pickupDistance;
+    private final Counter unassignedOrders;
+    
+    public BatchDispatchServiceImpl(DeliveryRepository deliveryRepository,
+                                    DeliveryPersonRepository deliveryPersonRepository,
+                                    DeliveryAssignmentService assignmentService,
+                                    RouteOptimizer routeOptimizer,
+                                    MeterRegistry meterRegistry) {
+        this(deliveryRepository, deliveryPersonRepository, assignmentService, routeOptimizer, meterRegistry,
+             DEFAULT_MAX_ATTEMPTS, DEFAULT_CANDIDATES_PER_ORDER);
+    }
+    
+    public BatchDispatchServiceImpl(DeliveryRepository deliveryRepository,
+                                    DeliveryPersonRepository deliveryPersonRepository,
+                                    DeliveryAssignmentService assignmentService,
+                                    RouteOptimizer routeOptimizer,
+                                    MeterRegistry meterRegistry,
+                                    int maxAttempts,
+                                    int candidatesPerOrder) {
+        this.deliveryRepository = Objects.requireNonNull(deliveryRepository, 
+                                                        "Delivery repository cannot be null");
+        this.deliveryPersonRepository = Objects.requireNonNull(deliveryPersonRepository, 
+                                                              "Delivery person repository cannot be null");
+        this.assignmentService = Objects.requireNonNull(assignmentService, 
+                                                       "Assignment service cannot be null");
+        this.routeOptimizer = Objects.requireNonNull(routeOptimizer, 
+                                                    "Route optimizer cannot be null");
+        Objects.requireNonNull(meterRegistry, "Meter registry cannot be null");
+        
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Max attempts must be positive");
+        }
+        if (candidatesPerOrder <= 0) {
+            throw new IllegalArgumentException("Candidates per order must be positive");
+        }
+        this.maxAttempts = maxAttempts;
+        this.candidatesPerOrder = candidatesPerOrder;
+        
+        this.batchSize = DistributionSummary.builder("dispatch.batch.size")
+            .description("Orders solved per dispatch batch")
+            .register(meterRegistry);
+        this.solveLatency = Timer.builder("dispatch.batch.solve")
+            .description("Time to score and match one dispatch batch")
+            .register(meterRegistry);
+        this.pickupDistance = DistributionSummary.builder("dispatch.batch.pickup.distance")
+            .description("Courier to pickup distance of batch assignments")
+            .baseUnit("meters")
+            .register(meterRegistry);
+        this.unassignedOrders = Counter.builder("dispatch.batch.unassigned")
+            .description("Orders that exhausted their batch attempts without a courier")
+            .register(meterRegistry);
+    }
+    
+    @Override
+    public CompletableFuture<Delivery> submit(AssignDeliveryRequest request) {
+        Objects.requireNonNull(request, "Request cannot be null");
+        
+        PendingOrder order = new PendingOrder(request, new ClaimableResult());
+        pending.add(order);
+        return order.result;
+    }
+    
+    @Override
+    public synchronized List<Delivery> dispatchPending() {
+        List<PendingOrder> batch = new ArrayList<>();
+        for (PendingOrder order = pending.poll(); order != null; order = pending.poll()) {
+            // Submitters that gave up cancel their future
+            if (!order.result.isDone()) {
+                batch.add(order);
+            }
+        }
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+        batchSize.record(batch.size());
+        
+        Map<TenantId, List<PendingOrder>> byTenant = new LinkedHashMap<>();
+        for (PendingOrder order : batch) {
+            byTenant.computeIfAbsent(order.request.tenantId(), id -> new ArrayList<>()).add(order);
+        }
+        
+        List<Delivery> created = new ArrayList<>(batch.size());
+        for (List<PendingOrder> orders : byTenant.values()) {
+            try {
+                Map<PendingOrder, DeliveryAssignment> matches = solveLatency.record(() -> match(orders));
+                created.addAll(commit(orders, matches));
+            } catch (RuntimeException e) {
+                // One tenant's failure must not strand its orders or the other tenants' batches
+                logger.warn("Dispatch batch failed for tenant {}; retrying its orders", 
+                    orders.get(0).request.tenantId(), e);
+                for (PendingOrder order : orders) {
+                    if (!order.result.isDone()) {
+                        retryOrFail(order, e);
+                    }
+                }
+            }
+        }
+        return created;
+    }
+    
+    @Override
+    public int getPendingCount() {
+        return pending.size();
+    }
+    
+    /**
+     * Score every order against its best couriers and solve the matching.
+     */
+    private Map<PendingOrder, DeliveryAssignment> match(List<PendingOrder> orders) {
+        List<Map<DeliveryPersonId, DeliveryAssignment>> candidates = new ArrayList<>(orders.size());
+        Map<DeliveryPersonId, Integer> columns = new LinkedHashMap<>();
+        
+        for (PendingOrder order : orders) {
+            AssignDeliveryRequest request = order.request;
+            Map<DeliveryPersonId, DeliveryAssignment> byCourier = new HashMap<>();
+            assignmentService.getAllPossibleAssignments(request.tenantId(), request.orderId(),
+                    request.pickupLocation(), request.deliveryLocation(),
+                    request.orderWeight(), request.orderVolume()).stream()
+                .limit(candidatesPerOrder)
+                .forEach(assignment -> {
+                    byCourier.put(assignment.deliveryPersonId(), assignment);
+                    columns.putIfAbsent(assignment.deliveryPersonId(), columns.size());
+                });
+            candidates.add(byCourier);
+        }
+        
+        double[][] cost = new double[orders.size()][columns.size()];
+        for (int row = 0; row < orders.size(); row++) {
+            Arrays.fill(cost[row], INFEASIBLE);
+            for (DeliveryAssignment assignment : candidates.get(row).values()) {
+                cost[row][columns.get(assignment.deliveryPersonId())] = 1.0 - assignment.getAssignmentScore();
+            }
+        }
+        
+        List<DeliveryPersonId> couriers = new ArrayList<>(columns.keySet());
+        int[] assignment = MinCostAssignment.solve(cost);
+        
+        Map<PendingOrder, DeliveryAssignment> matches = new HashMap<>();
+        for (int row = 0; row < orders.size(); row++) {
+            int column = assignment[row];
+            if (column >= 0 && cost[row][column] < INFEASIBLE) {
+                matches.put(orders.get(row), candidates.get(row).get(couriers.get(column)));
+            }
+        }
+        return matches;
+    }
+    
+    /**
+     * Create the matched deliveries, save them in one pass and re-queue the rest.
+     * Couriers take on their new load only once the deliveries are saved, so a
+     * failed save leaves them as they were.
+     */
+    private List<Delivery> commit(List<PendingOrder> orders, Map<PendingOrder, DeliveryAssignment> matches) {
+        List<Delivery> deliveries = new ArrayList<>(matches.size());
+        List<PendingOrder> committed = new ArrayList<>(matches.size());
+        List<DeliveryPerson> couriers = new ArrayList<>(matches.size());
+        
+        // Highest scores first, so a courier whose state changed mid-batch fails the weaker order
+        List<PendingOrder> matched = orders.stream()
+            .filter(matches::containsKey)
+            .sorted(Comparator.comparingDouble(
+                (PendingOrder order) -> matches.get(order).getAssignmentScore()).reversed())
+            .toList();
+        
+        List<Delivery> saved;
+        try {
+            for (PendingOrder order : matched) {
+                AssignDeliveryRequest request = order.request;
+                DeliveryAssignment assignment = matches.get(order);
+                DeliveryPerson deliveryPerson = deliveryPersonRepository.findById(assignment.deliveryPersonId())
+                    .orElse(null);
+                // A courier takes at most one order per batch, so its stored load is still current
+                if (deliveryPerson == null
+                        || !deliveryPerson.canAcceptDelivery(request.orderWeight(), request.orderVolume())) {
+                    continue;
+                }
+                
+                Route route = routeOptimizer.optimizeRoute(
+                    deliveryPerson.getCurrentLocation(),
+                    List.of(request.pickupLocation()),
+                    request.deliveryLocation()
+                );
+                Delivery delivery = new Delivery(
+                    DeliveryId.generate(),
+                    request.tenantId(),
+                    request.orderId(),
+                    deliveryPerson.getDeliveryPersonId(),
+                    route,
+                    request.orderWeight(),
+                    request.orderVolume()
+                );
+                
+                // The submitter may have given up since the batch was drawn
+                if (!order.result.claim()) {
+                    continue;
+                }
+                deliveries.add(delivery);
+                couriers.add(deliveryPerson);
+                committed.add(order);
+            }
+            
+            saved = deliveryRepository.saveAll(deliveries);
+        } catch (RuntimeException e) {
+            committed.forEach(order -> order.result.release());
+            throw e;
+        }
+        
+        // Saved deliveries are final: complete them before anything else can fail and re-queue them
+        for (int i = 0; i < committed.size(); i++) {
+            PendingOrder order = committed.get(i);
+            order.result.complete(saved.get(i));
+            pickupDistance.record(matches.get(order).distanceToPickup().toMeters());
+        }
+        for (int i = 0; i < committed.size(); i++) {
+            AssignDeliveryRequest request = committed.get(i).request;
+            DeliveryPerson deliveryPerson = couriers.get(i);
+            deliveryPerson.assignDelivery(request.orderWeight(), request.orderVolume());
+            deliveryPersonRepository.save(deliveryPerson);
+        }
+        
+        for (PendingOrder order : orders) {
+            if (!order.result.isDone()) {
+                retryOrFail(order, null);
+            }
+        }
+        return saved;
+    }
+    
+    private void retryOrFail(PendingOrder order, Throwable cause) {
+        order.attempts++;
+        if (order.attempts < maxAttempts) {
+            pending.add(order);
+            return;
+        }
+        unassignedOrders.increment();
+        order.result.completeExceptionally(new DeliveryAssignmentException(
+            "No available delivery person found for order: " + order.request.orderId(), cause));
+    }
+    
+    /**
+     * Queued order with the future its submitter waits on. Identity-based so the
+     * same order may appear in several batches.
+     */
+    private static final class PendingOrder {
+        
+        private final AssignDeliveryRequest request;
+        private final ClaimableResult result;
+        private int attempts;
+        
+        PendingOrder(AssignDeliveryRequest request, ClaimableResult result) {
+            this.request = request;
+            this.result = result;
+        }
+    }
+    
+    /**
+     * Submitter's future. The dispatcher claims it before saving the delivery;
+     * cancelling fails while it is claimed, and a cancellation attempted then
+     * takes effect if the claim is released without a delivery.
+     */
+    private static final class ClaimableResult extends CompletableFuture<Delivery> {
+        
+        private static final int OPEN = 0;
+        private static final int CLAIMED = 1;
+        private static final int ABANDONED = 2;
+        
+        private final AtomicInteger state = new AtomicInteger(OPEN);
+        private volatile boolean cancelRequested;
+        
+        boolean claim() {
+            return state.compareAndSet(OPEN, CLAIMED);
+        }
+        
+        void release() {
+            state.compareAndSet(CLAIMED, OPEN);
+            if (cancelRequested) {
+                cancel(false);
+            }
+        }
+        
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            cancelRequested = true;
+            return state.compareAndSet(OPEN, ABANDONED) && super.cancel(mayInterruptIfRunning);
+        }
+    }
+}
@@ -95,9 +95,9 @@ public class DeliveryAssignmentServiceImpl implements DeliveryAssignmentService
         
         // Increase priority for shorter distances (faster delivery)
         Distance deliveryDistance = pickupLocation.distanceTo(deliveryLocation);
-        if (deliveryDistance.getKilometers().doubleValue() < 5.0) {
+        if (deliveryDistance.toKilometers() < 5.0) {
             priority += 2; // Short distance orders get higher priority
-        } else if (deliveryDistance.getKilometers().doubleValue() > 20.0) {
+        } else if (deliveryDistance.toKilometers() > 20.0) {
             priority -= 1; // Long distance orders get lower priority
         }
         
@@ -9,6 +9,7 @@ import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
 import com.xavier.mozdeliveryapi.shared.domain.valueobject.OrderId;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryId;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryPersonId;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.LocationHistory;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.TrackingUpdate;
 
 /**
@@ -41,16 +42,14 @@ public interface DeliveryTrackingService {
     List<TrackingUpdate> getActiveTrackingUpdatesForPerson(DeliveryPersonId deliveryPersonId);
     
     /**
-     * Update delivery location and recalculate estimated arrival time.
+     * Update delivery location and recalculate estimated arrival time. A sample older
+     * than the courier's latest recorded one leaves the delivery where it is.
      * 
      * @param deliveryId the delivery ID
-     * @param newLocation the new location
-     * @param accuracy the location accuracy in meters
-     * @param speed the current speed in km/h
+     * @param sample the location sample, at the time it was taken
      * @return updated tracking information
      */
-    TrackingUpdate updateDeliveryLocation(DeliveryId deliveryId, Location newLocation, 
-                                         double accuracy, double speed);
+    TrackingUpdate updateDeliveryLocation(DeliveryId deliveryId, LocationHistory sample);
     
     /**
      * Update delivery location with default accuracy.
@@ -61,6 +60,17 @@ public interface DeliveryTrackingService {
      */
     TrackingUpdate updateDeliveryLocation(DeliveryId deliveryId, Location newLocation);
     
+    /**
+     * Apply a batch of location samples from a delivery person. The whole trail goes
+     * to the location tracker, while the delivery person and their active deliveries
+     * are moved to the newest sample and saved once for the batch.
+     * 
+     * @param deliveryPersonId the delivery person ID
+     * @param trail the samples, in any order
+     * @return updated tracking information for the person's active deliveries
+     */
+    List<TrackingUpdate> updateDeliveryPersonTrail(DeliveryPersonId deliveryPersonId, List<LocationHistory> trail);
+    
     /**
      * Calculate estimated arrival time for a delivery based on current location and route.
      * 
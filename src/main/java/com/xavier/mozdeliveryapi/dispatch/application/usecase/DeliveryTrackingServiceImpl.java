@@ -2,6 +2,7 @@ package com.xavier.mozdeliveryapi.dispatch.application.usecase;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -14,6 +15,7 @@ import com.xavier.mozdeliveryapi.dispatch.domain.entity.DeliveryPerson;
 import com.xavier.mozdeliveryapi.dispatch.domain.exception.DeliveryNotFoundException;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryId;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryPersonId;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.LocationHistory;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.TrackingUpdate;
 import com.xavier.mozdeliveryapi.order.domain.entity.Order;
 import com.xavier.mozdeliveryapi.dispatch.application.usecase.port.DeliveryRepository;
@@ -71,20 +73,23 @@ public class DeliveryTrackingServiceImpl implements DeliveryTrackingService {
     }
     
     @Override
-    public TrackingUpdate updateDeliveryLocation(DeliveryId deliveryId, Location newLocation, 
-                                                double accuracy, double speed) {
+    public TrackingUpdate updateDeliveryLocation(DeliveryId deliveryId, LocationHistory sample) {
         Objects.requireNonNull(deliveryId, "Delivery ID cannot be null");
-        Objects.requireNonNull(newLocation, "New location cannot be null");
+        Objects.requireNonNull(sample, "Location sample cannot be null");
         
         Delivery delivery = deliveryRepository.findById(deliveryId)
             .orElseThrow(() -> new DeliveryNotFoundException("Delivery not found: " + deliveryId));
         
+        // Update delivery person location in location tracker; a late sample is already stale
+        if (!locationTracker.updateLocation(delivery.getDeliveryPersonId(), sample)) {
+            return TrackingUpdate.from(delivery);
+        }
+        
+        Location newLocation = sample.location();
+        
         // Update delivery location
         delivery.updateLocation(newLocation);
         
-        // Update delivery person location in location tracker
-        locationTracker.updateLocation(delivery.getDeliveryPersonId(), newLocation, accuracy, speed);
-        
         // Update delivery person entity location
         DeliveryPerson deliveryPerson = deliveryPersonRepository
             .findById(delivery.getDeliveryPersonId())
@@ -101,7 +106,49 @@ public class DeliveryTrackingServiceImpl implements DeliveryTrackingService {
     
     @Override
     public TrackingUpdate updateDeliveryLocation(DeliveryId deliveryId, Location newLocation) {
-        return updateDeliveryLocation(deliveryId, newLocation, DEFAULT_LOCATION_ACCURACY, 0.0);
+        Objects.requireNonNull(newLocation, "New location cannot be null");
+        return updateDeliveryLocation(deliveryId,
+            LocationHistory.of(newLocation, Instant.now(), DEFAULT_LOCATION_ACCURACY, 0.0));
+    }
+    
+    @Override
+    public List<TrackingUpdate> updateDeliveryPersonTrail(DeliveryPersonId deliveryPersonId, 
+                                                          List<LocationHistory> trail) {
+        Objects.requireNonNull(deliveryPersonId, "Delivery person ID cannot be null");
+        Objects.requireNonNull(trail, "Trail cannot be null");
+        
+        List<LocationHistory> ordered = trail.stream()
+            .sorted(Comparator.comparing(LocationHistory::timestamp))
+            .toList();
+        
+        // Checked before recording, so an unknown courier leaves nothing in the tracker
+        DeliveryPerson deliveryPerson = deliveryPersonRepository
+            .findById(deliveryPersonId)
+            .orElseThrow(() -> new DeliveryNotFoundException("Delivery person not found: " + deliveryPersonId));
+        List<Delivery> activeDeliveries = deliveryRepository.findActiveByDeliveryPersonId(deliveryPersonId);
+        
+        // Samples are only rejected when older than what the tracker already holds,
+        // so if none were recorded the aggregates are already at least as fresh
+        if (ordered.isEmpty() || locationTracker.recordTrail(deliveryPersonId, ordered) == 0) {
+            return activeDeliveries.stream()
+                .map(TrackingUpdate::from)
+                .toList();
+        }
+        
+        Location latest = ordered.get(ordered.size() - 1).location();
+        
+        deliveryPerson.updateLocation(latest);
+        deliveryPersonRepository.save(deliveryPerson);
+        
+        if (activeDeliveries.isEmpty()) {
+            return List.of();
+        }
+        
+        activeDeliveries.forEach(delivery -> delivery.updateLocation(latest));
+        return deliveryRepository.saveAll(activeDeliveries)
+            .stream()
+            .map(TrackingUpdate::from)
+            .toList();
     }
     
     @Override
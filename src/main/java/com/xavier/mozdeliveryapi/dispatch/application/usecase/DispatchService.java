@@ -104,6 +104,7 @@ public interface DispatchService {
      * @param deliveryPersonId the delivery person ID
      * @param deliveryIds list of delivery IDs to optimize
      * @return optimized route
+     * @throws DeliveryAssignmentException if the deliveries do not all fit the delivery person's capacity
      */
     Route optimizeRoute(DeliveryPersonId deliveryPersonId, List<DeliveryId> deliveryIds);
 }
\ No newline at end of file
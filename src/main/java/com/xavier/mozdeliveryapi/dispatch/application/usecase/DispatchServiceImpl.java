@@ -1,19 +1,33 @@
 package com.xavier.mozdeliveryapi.dispatch.application.usecase;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Route;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.RoutePlan;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.RouteStop;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.RoutingProblem;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.StopPair;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.VehicleCapacity;
 import com.xavier.mozdeliveryapi.geospatial.application.usecase.port.RouteOptimizer;
 import com.xavier.mozdeliveryapi.tenant.domain.valueobject.TenantId;
 import com.xavier.mozdeliveryapi.shared.domain.valueobject.OrderId;
+import com.xavier.mozdeliveryapi.dispatch.application.dto.AssignDeliveryRequest;
 import com.xavier.mozdeliveryapi.dispatch.domain.entity.Delivery;
 import com.xavier.mozdeliveryapi.dispatch.domain.entity.DeliveryPerson;
 import com.xavier.mozdeliveryapi.dispatch.domain.exception.DeliveryAssignmentException;
 import com.xavier.mozdeliveryapi.dispatch.domain.exception.DeliveryNotFoundException;
-import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryAssignment;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryCapacity;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryId;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryPersonId;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryStatus;
@@ -27,23 +41,33 @@ import com.xavier.mozdeliveryapi.dispatch.application.usecase.port.DeliveryPerso
  */
 public class DispatchServiceImpl implements DispatchService {
     
+    private static final Duration ROUTE_OPTIMIZATION_BUDGET = Duration.ofMillis(200);
+    private static final Duration STOP_DURATION = Duration.ofMinutes(5);
+    
     private final DeliveryRepository deliveryRepository;
     private final DeliveryPersonRepository deliveryPersonRepository;
-    private final DeliveryAssignmentService assignmentService;
     private final RouteOptimizer routeOptimizer;
+    private final BatchDispatchService batchDispatchService;
+    private final Duration assignmentTimeout;
     
     public DispatchServiceImpl(DeliveryRepository deliveryRepository,
                               DeliveryPersonRepository deliveryPersonRepository,
-                              DeliveryAssignmentService assignmentService,
-                              RouteOptimizer routeOptimizer) {
+                              RouteOptimizer routeOptimizer,
+                              BatchDispatchService batchDispatchService,
+                              Duration assignmentTimeout) {
         this.deliveryRepository = Objects.requireNonNull(deliveryRepository, 
                                                         "Delivery repository cannot be null");
         this.deliveryPersonRepository = Objects.requireNonNull(deliveryPersonRepository, 
                                                               "Delivery person repository cannot be null");
-        this.assignmentService = Objects.requireNonNull(assignmentService, 
-                                                       "Assignment service cannot be null");
         this.routeOptimizer = Objects.requireNonNull(routeOptimizer, 
                                                     "Route optimizer cannot be null");
+        this.batchDispatchService = Objects.requireNonNull(batchDispatchService, 
+                                                          "Batch dispatch service cannot be null");
+        this.assignmentTimeout = Objects.requireNonNull(assignmentTimeout, 
+                                                       "Assignment timeout cannot be null");
+        if (assignmentTimeout.isNegative() || assignmentTimeout.isZero()) {
+            throw new IllegalArgumentException("Assignment timeout must be positive");
+        }
     }
     
     @Override
@@ -54,40 +78,46 @@ public class DispatchServiceImpl implements DispatchService {
         Objects.requireNonNull(pickupLocation, "Pickup location cannot be null");
         Objects.requireNonNull(deliveryLocation, "Delivery location cannot be null");
         
-        // Find the best delivery person
-        DeliveryAssignment assignment = assignmentService
-            .findBestDeliveryPerson(tenantId, orderId, pickupLocation, deliveryLocation, orderWeight, orderVolume)
-            .orElseThrow(() -> new DeliveryAssignmentException("No available delivery person found for order: " + orderId));
-        
-        // Get the delivery person and assign the delivery
-        DeliveryPerson deliveryPerson = deliveryPersonRepository
-            .findById(assignment.deliveryPersonId())
-            .orElseThrow(() -> new DeliveryAssignmentException("Delivery person not found: " + assignment.deliveryPersonId()));
-        
-        // Create route from pickup to delivery location
-        Route route = routeOptimizer.optimizeRoute(
-            deliveryPerson.getCurrentLocation(),
-            List.of(pickupLocation),
-            deliveryLocation
-        );
-        
-        // Create delivery
-        Delivery delivery = new Delivery(
-            DeliveryId.generate(),
-            tenantId,
-            orderId,
-            deliveryPerson.getDeliveryPersonId(),
-            route,
-            orderWeight,
-            orderVolume
-        );
-        
-        // Assign delivery to person (updates capacity)
-        deliveryPerson.assignDelivery(orderWeight, orderVolume);
-        
-        // Save both entities
-        deliveryPersonRepository.save(deliveryPerson);
-        return deliveryRepository.save(delivery);
+        // Matched with the other orders of the current batch, not greedily on its own
+        CompletableFuture<Delivery> result = batchDispatchService.submit(new AssignDeliveryRequest(
+            tenantId, orderId, pickupLocation, deliveryLocation, orderWeight, orderVolume));
+        try {
+            return result.get(assignmentTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new DeliveryAssignmentException("Failed to assign delivery for order: " + orderId, e.getCause());
+        } catch (TimeoutException e) {
+            return withdraw(result, orderId, 
+                new DeliveryAssignmentException("Timed out waiting for a delivery person for order: " + orderId, e));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return withdraw(result, orderId, 
+                new DeliveryAssignmentException("Interrupted while assigning delivery for order: " + orderId, e));
+        }
+    }
+    
+    /**
+     * Give up on a batched order. If its batch is already saving the delivery the
+     * order cannot be withdrawn, so wait the moment it takes and return it rather
+     * than leave a delivery nobody knows about.
+     */
+    private Delivery withdraw(CompletableFuture<Delivery> result, OrderId orderId, 
+                              DeliveryAssignmentException failure) {
+        if (result.cancel(false)) {
+            throw failure;
+        }
+        try {
+            return result.join();
+        } catch (CancellationException e) {
+            throw failure;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new DeliveryAssignmentException("Failed to assign delivery for order: " + orderId, e.getCause());
+        }
     }
     
     @Override
@@ -224,18 +254,55 @@ public class DispatchServiceImpl implements DispatchService {
             .findById(deliveryPersonId)
             .orElseThrow(() -> new DeliveryNotFoundException("Delivery person not found: " + deliveryPersonId));
         
-        // Get all delivery locations
-        List<Location> locations = deliveryIds.stream()
+        List<Delivery> deliveries = deliveryIds.stream()
             .map(deliveryId -> deliveryRepository.findById(deliveryId)
                 .orElseThrow(() -> new DeliveryNotFoundException("Delivery not found: " + deliveryId)))
-            .flatMap(delivery -> delivery.getRoute().getLocations().stream())
-            .distinct()
             .toList();
         
-        return routeOptimizer.optimizeRoute(
-            deliveryPerson.getCurrentLocation(),
-            locations.subList(1, locations.size() - 1),
-            locations.get(locations.size() - 1)
+        // Each order is picked up, carried and dropped off; its stored route starts where
+        // the courier stood at assignment, which is no longer a place to visit
+        Location start = deliveryPerson.getCurrentLocation();
+        List<RouteStop> stops = new ArrayList<>();
+        List<StopPair> pairs = new ArrayList<>();
+        for (Delivery delivery : deliveries) {
+            List<Location> locations = delivery.getRoute().getLocations();
+            if (isPickedUp(delivery.getStatus())) {
+                // Already on board, so it is loaded where the courier is now
+                stops.add(RouteStop.of(start, delivery.getOrderWeight(), delivery.getOrderVolume(), Duration.ZERO));
+            } else {
+                stops.add(RouteStop.of(locations.get(locations.size() - 2),
+                    delivery.getOrderWeight(), delivery.getOrderVolume(), STOP_DURATION));
+            }
+            stops.add(RouteStop.of(delivery.getRoute().getEndLocation(), 0, 0, STOP_DURATION));
+            pairs.add(StopPair.of(stops.size() - 2, stops.size() - 1));
+        }
+        RoutingProblem problem = RoutingProblem.of(
+            start,
+            stops,
+            pairs,
+            start,
+            routeCapacity(deliveryPerson.getCapacity(), stops.size()),
+            Instant.now()
         );
+        
+        RoutePlan plan = routeOptimizer.solve(problem, ROUTE_OPTIMIZATION_BUDGET);
+        if (!plan.isComplete()) {
+            // A route that silently skipped stops would strand those orders
+            throw new DeliveryAssignmentException(plan.unassignedStops().size() + " of " + stops.size()
+                + " stops do not fit the capacity of delivery person " + deliveryPersonId);
+        }
+        return plan.route();
+    }
+    
+    private static boolean isPickedUp(DeliveryStatus status) {
+        return status == DeliveryStatus.IN_TRANSIT || status == DeliveryStatus.ARRIVED_AT_DELIVERY;
+    }
+    
+    /**
+     * Pickups are stops too, so the order limit cannot cap the stop count here;
+     * weight and volume bound what is on board at any one time.
+     */
+    private static VehicleCapacity routeCapacity(DeliveryCapacity capacity, int stopCount) {
+        return VehicleCapacity.of(Math.max(1, stopCount), capacity.maxWeight(), capacity.maxVolume());
     }
 }
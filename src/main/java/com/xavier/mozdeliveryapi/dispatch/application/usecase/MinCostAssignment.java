@@ -0,0 +1,110 @@
+package com.xavier.mozdeliveryapi.dispatch.application.usecase;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Hungarian algorithm (shortest augmenting paths with potentials) for the
+ * rectangular assignment problem. Runs in O(n² m) for n ≤ m.
+ */
+final class MinCostAssignment {
+    
+    private MinCostAssignment() {
+    }
+    
+    /**
+     * Assign each row to a distinct column minimizing total cost.
+     * 
+     * @param cost row-major cost matrix; every row must have the same length
+     * @return the column assigned to each row, or -1 for rows left unassigned
+     *         because there are more rows than columns
+     */
+    static int[] solve(double[][] cost) {
+        Objects.requireNonNull(cost, "Cost matrix cannot be null");
+        
+        int rows = cost.length;
+        int columns = rows == 0 ? 0 : cost[0].length;
+        if (rows == 0 || columns == 0) {
+            int[] none = new int[rows];
+            Arrays.fill(none, -1);
+            return none;
+        }
+        
+        if (rows <= columns) {
+            return solveRowsNotMoreThanColumns(cost, rows, columns, false);
+        }
+        
+        // More rows than columns: solve the transposed problem and map back
+        int[] columnToRow = solveRowsNotMoreThanColumns(cost, columns, rows, true);
+        int[] rowToColumn = new int[rows];
+        Arrays.fill(rowToColumn, -1);
+        for (int column = 0; column < columns; column++) {
+            rowToColumn[columnToRow[column]] = column;
+        }
+        return rowToColumn;
+    }
+    
+    private static int[] solveRowsNotMoreThanColumns(double[][] cost, int n, int m, boolean transposed) {
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] match = new int[m + 1]; // column -> row (1-based), 0 when free
+        int[] way = new int[m + 1];
+        double[] minValue = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+        
+        for (int row = 1; row <= n; row++) {
+            match[0] = row;
+            int column = 0;
+            Arrays.fill(minValue, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+            
+            do {
+                used[column] = true;
+                int currentRow = match[column];
+                double delta = Double.POSITIVE_INFINITY;
+                int nextColumn = 0;
+                
+                for (int j = 1; j <= m; j++) {
+                    if (!used[j]) {
+                        double entry = transposed ? cost[j - 1][currentRow - 1] : cost[currentRow - 1][j - 1];
+                        double reduced = entry - u[currentRow] - v[j];
+                        if (reduced < minValue[j]) {
+                            minValue[j] = reduced;
+                            way[j] = column;
+                        }
+                        if (minValue[j] < delta) {
+                            delta = minValue[j];
+                            nextColumn = j;
+                        }
+                    }
+                }
+                
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[match[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minValue[j] -= delta;
+                    }
+                }
+                column = nextColumn;
+            } while (match[column] != 0);
+            
+            // Flip the augmenting path
+            do {
+                int previous = way[column];
+                match[column] = match[previous];
+                column = previous;
+            } while (column != 0);
+        }
+        
+        int[] assignment = new int[n];
+        Arrays.fill(assignment, -1);
+        for (int j = 1; j <= m; j++) {
+            if (match[j] != 0) {
+                assignment[match[j] - 1] = j - 1;
+            }
+        }
+        return assignment;
+    }
+}
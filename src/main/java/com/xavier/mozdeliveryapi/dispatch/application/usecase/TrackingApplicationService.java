@@ -10,7 +10,9 @@ import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryPersonId;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.TimeRange;
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
 import com.xavier.mozdeliveryapi.shared.domain.valueobject.OrderId;
+import com.xavier.mozdeliveryapi.dispatch.application.dto.BulkLocationUpdateResponse;
 import com.xavier.mozdeliveryapi.dispatch.application.dto.LocationHistoryResponse;
+import com.xavier.mozdeliveryapi.dispatch.application.dto.LocationSampleRequest;
 import com.xavier.mozdeliveryapi.dispatch.application.dto.TrackingResponse;
 
 /**
@@ -34,9 +36,9 @@ public interface TrackingApplicationService {
     List<TrackingResponse> getActiveDeliveryTrackingForPerson(DeliveryPersonId deliveryPersonId);
     
     /**
-     * Update delivery location with accuracy and speed information.
+     * Update delivery location with the time it was taken, accuracy and speed information.
      */
-    TrackingResponse updateDeliveryLocation(DeliveryId deliveryId, Location newLocation, 
+    TrackingResponse updateDeliveryLocation(DeliveryId deliveryId, Location newLocation, Instant timestamp,
                                            double accuracy, double speed);
     
     /**
@@ -45,9 +47,9 @@ public interface TrackingApplicationService {
     TrackingResponse updateDeliveryLocation(DeliveryId deliveryId, Location newLocation);
     
     /**
-     * Update delivery person location.
+     * Update delivery person location with the time it was taken.
      */
-    void updateDeliveryPersonLocation(DeliveryPersonId deliveryPersonId, Location newLocation, 
+    void updateDeliveryPersonLocation(DeliveryPersonId deliveryPersonId, Location newLocation, Instant timestamp,
                                      double accuracy, double speed);
     
     /**
@@ -55,6 +57,12 @@ public interface TrackingApplicationService {
      */
     void updateDeliveryPersonLocation(DeliveryPersonId deliveryPersonId, Location newLocation);
     
+    /**
+     * Ingest a batch of timestamped location samples from a delivery person.
+     */
+    BulkLocationUpdateResponse ingestDeliveryPersonLocations(DeliveryPersonId deliveryPersonId, 
+                                                            List<LocationSampleRequest> samples);
+    
     /**
      * Get current location of a delivery person.
      */
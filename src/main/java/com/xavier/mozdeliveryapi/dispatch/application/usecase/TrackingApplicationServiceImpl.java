@@ -11,12 +11,15 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryId;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryPersonId;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.LocationHistory;
 import com.xavier.mozdeliveryapi.dispatch.application.usecase.DeliveryTrackingService;
 import com.xavier.mozdeliveryapi.dispatch.application.usecase.port.LocationTracker;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.TimeRange;
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
 import com.xavier.mozdeliveryapi.shared.domain.valueobject.OrderId;
+import com.xavier.mozdeliveryapi.dispatch.application.dto.BulkLocationUpdateResponse;
 import com.xavier.mozdeliveryapi.dispatch.application.dto.LocationHistoryResponse;
+import com.xavier.mozdeliveryapi.dispatch.application.dto.LocationSampleRequest;
 import com.xavier.mozdeliveryapi.dispatch.application.dto.TrackingResponse;
 import com.xavier.mozdeliveryapi.dispatch.domain.entity.Delivery;
 import com.xavier.mozdeliveryapi.order.domain.entity.Order;
@@ -67,13 +70,15 @@ public class TrackingApplicationServiceImpl implements TrackingApplicationServic
     }
     
     @Override
-    public TrackingResponse updateDeliveryLocation(DeliveryId deliveryId, Location newLocation, 
+    public TrackingResponse updateDeliveryLocation(DeliveryId deliveryId, Location newLocation, Instant timestamp,
                                                   double accuracy, double speed) {
         Objects.requireNonNull(deliveryId, "Delivery ID cannot be null");
         Objects.requireNonNull(newLocation, "New location cannot be null");
+        Objects.requireNonNull(timestamp, "Timestamp cannot be null");
         
         return TrackingResponse.from(
-            trackingService.updateDeliveryLocation(deliveryId, newLocation, accuracy, speed)
+            trackingService.updateDeliveryLocation(deliveryId,
+                LocationHistory.of(newLocation, timestamp, accuracy, speed))
         );
     }
     
@@ -88,12 +93,13 @@ public class TrackingApplicationServiceImpl implements TrackingApplicationServic
     }
     
     @Override
-    public void updateDeliveryPersonLocation(DeliveryPersonId deliveryPersonId, Location newLocation, 
+    public void updateDeliveryPersonLocation(DeliveryPersonId deliveryPersonId, Location newLocation, Instant timestamp,
                                             double accuracy, double speed) {
         Objects.requireNonNull(deliveryPersonId, "Delivery person ID cannot be null");
         Objects.requireNonNull(newLocation, "New location cannot be null");
+        Objects.requireNonNull(timestamp, "Timestamp cannot be null");
         
-        locationTracker.updateLocation(deliveryPersonId, newLocation, accuracy, speed);
+        locationTracker.updateLocation(deliveryPersonId, LocationHistory.of(newLocation, timestamp, accuracy, speed));
     }
     
     @Override
@@ -104,6 +110,25 @@ public class TrackingApplicationServiceImpl implements TrackingApplicationServic
         locationTracker.updateLocation(deliveryPersonId, newLocation);
     }
     
+    @Override
+    @Transactional
+    public BulkLocationUpdateResponse ingestDeliveryPersonLocations(DeliveryPersonId deliveryPersonId, 
+                                                                   List<LocationSampleRequest> samples) {
+        Objects.requireNonNull(deliveryPersonId, "Delivery person ID cannot be null");
+        Objects.requireNonNull(samples, "Samples cannot be null");
+        
+        List<LocationHistory> trail = samples.stream()
+            .map(LocationSampleRequest::toLocationHistory)
+            .toList();
+        
+        List<TrackingResponse> activeDeliveries = trackingService.updateDeliveryPersonTrail(deliveryPersonId, trail)
+            .stream()
+            .map(TrackingResponse::from)
+            .toList();
+        
+        return new BulkLocationUpdateResponse(deliveryPersonId, samples.size(), activeDeliveries);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public Optional<Location> getDeliveryPersonCurrentLocation(DeliveryPersonId deliveryPersonId) {
@@ -51,6 +51,12 @@ public interface DeliveryPersonRepository extends Repository<DeliveryPerson, Del
      */
     List<DeliveryPerson> findAvailableWithinDistance(TenantId tenantId, Location location, Distance maxDistance);
     
+    /**
+     * Find up to {@code limit} available delivery persons closest to a location,
+     * ordered by distance (closest first) and bounded by {@code maxDistance}.
+     */
+    List<DeliveryPerson> findNearestAvailable(TenantId tenantId, Location location, int limit, Distance maxDistance);
+    
     /**
      * Find delivery persons by vehicle type.
      */
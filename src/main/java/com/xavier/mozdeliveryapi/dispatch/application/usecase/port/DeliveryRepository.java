@@ -22,6 +22,11 @@ public interface DeliveryRepository extends Repository<Delivery, DeliveryId> {
      */
     Delivery save(Delivery delivery);
     
+    /**
+     * Save several deliveries in one pass, e.g. a whole dispatch batch.
+     */
+    List<Delivery> saveAll(List<Delivery> deliveries);
+    
     /**
      * Find delivery by ID.
      */
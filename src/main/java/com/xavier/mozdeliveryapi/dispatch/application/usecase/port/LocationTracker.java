@@ -14,23 +14,34 @@ import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.TimeRange;
 public interface LocationTracker {
     
     /**
-     * Update the current location of a delivery person.
+     * Record a sample for a delivery person at the sample's own timestamp.
+     * A sample older than the latest recorded one is skipped.
      * 
      * @param deliveryPersonId the delivery person ID
-     * @param location the new location
-     * @param accuracy the location accuracy in meters
-     * @param speed the current speed in km/h
+     * @param sample the location, when it was taken, its accuracy and speed
+     * @return true if the sample was recorded
      */
-    void updateLocation(DeliveryPersonId deliveryPersonId, Location location, double accuracy, double speed);
+    boolean updateLocation(DeliveryPersonId deliveryPersonId, LocationHistory sample);
     
     /**
-     * Update the current location of a delivery person with default accuracy.
+     * Update the current location of a delivery person with default accuracy,
+     * taken now.
      * 
      * @param deliveryPersonId the delivery person ID
      * @param location the new location
      */
     void updateLocation(DeliveryPersonId deliveryPersonId, Location location);
     
+    /**
+     * Record a trail of timestamped samples for a delivery person, oldest first.
+     * Samples older than the latest recorded one are skipped.
+     * 
+     * @param deliveryPersonId the delivery person ID
+     * @param trail the samples ordered by timestamp
+     * @return the number of samples recorded
+     */
+    int recordTrail(DeliveryPersonId deliveryPersonId, List<LocationHistory> trail);
+    
     /**
      * Get the current location of a delivery person.
      * 
@@ -73,7 +84,7 @@ public interface LocationTracker {
     void startTracking(DeliveryPersonId deliveryPersonId);
     
     /**
-     * Stop tracking a delivery person's location.
+     * Stop tracking a delivery person's location and forget their history.
      * 
      * @param deliveryPersonId the delivery person ID
      */
@@ -245,7 +245,7 @@ public class Delivery extends AggregateRoot<DeliveryId> {
         
         // Simple estimation based on distance to destination and average speed
         Location destination = route.getEndLocation();
-        double distanceKm = currentLocation.distanceTo(destination).getKilometers().doubleValue();
+        double distanceKm = currentLocation.distanceInMetersTo(destination) / 1000.0;
         double averageSpeedKmh = 30.0; // City driving speed
         
         long estimatedMinutes = Math.round((distanceKm / averageSpeedKmh) * 60);
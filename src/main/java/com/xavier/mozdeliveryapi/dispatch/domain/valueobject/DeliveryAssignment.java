@@ -47,7 +47,7 @@ public record DeliveryAssignment(
     public double getAssignmentScore() {
         // Distance score: closer is better (inverse relationship)
         double maxDistanceKm = 50.0; // Maximum reasonable distance
-        double distanceScore = Math.max(0, 1.0 - (distanceToPickup.getKilometers().doubleValue() / maxDistanceKm));
+        double distanceScore = Math.max(0, 1.0 - (distanceToPickup.toKilometers() / maxDistanceKm));
         
         // Capacity score: prefer balanced utilization (not too empty, not too full)
         double optimalUtilization = 0.7;
@@ -1,8 +1,14 @@
 package com.xavier.mozdeliveryapi.dispatch.infra.config;
 
+import java.time.Duration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.xavier.mozdeliveryapi.dispatch.application.usecase.BatchDispatchService;
+import com.xavier.mozdeliveryapi.dispatch.application.usecase.BatchDispatchServiceImpl;
 import com.xavier.mozdeliveryapi.dispatch.application.usecase.DeliveryAssignmentService;
 import com.xavier.mozdeliveryapi.dispatch.application.usecase.DeliveryAssignmentServiceImpl;
 import com.xavier.mozdeliveryapi.dispatch.application.usecase.port.DeliveryPersonRepository;
@@ -12,6 +18,8 @@ import com.xavier.mozdeliveryapi.dispatch.application.usecase.DeliveryTrackingSe
 import com.xavier.mozdeliveryapi.dispatch.application.usecase.DispatchService;
 import com.xavier.mozdeliveryapi.dispatch.application.usecase.DispatchServiceImpl;
 import com.xavier.mozdeliveryapi.dispatch.application.usecase.port.LocationTracker;
+import com.xavier.mozdeliveryapi.dispatch.infra.persistence.DeliveryRetentionPolicy;
+import com.xavier.mozdeliveryapi.dispatch.infra.persistence.LocationRetentionPolicy;
 import com.xavier.mozdeliveryapi.geospatial.application.usecase.port.RouteOptimizer;
 
 /**
@@ -31,13 +39,31 @@ public class DispatchModuleConfiguration {
     public DispatchService dispatchService(
             DeliveryRepository deliveryRepository,
             DeliveryPersonRepository deliveryPersonRepository,
-            DeliveryAssignmentService assignmentService,
-            RouteOptimizer routeOptimizer) {
+            RouteOptimizer routeOptimizer,
+            BatchDispatchService batchDispatchService,
+            @Value("${app.dispatch.assignment-timeout:PT15S}") Duration assignmentTimeout) {
         return new DispatchServiceImpl(
+            deliveryRepository,
+            deliveryPersonRepository,
+            routeOptimizer,
+            batchDispatchService,
+            assignmentTimeout
+        );
+    }
+    
+    @Bean
+    public BatchDispatchService batchDispatchService(
+            DeliveryRepository deliveryRepository,
+            DeliveryPersonRepository deliveryPersonRepository,
+            DeliveryAssignmentService assignmentService,
+            RouteOptimizer routeOptimizer,
+            MeterRegistry meterRegistry) {
+        return new BatchDispatchServiceImpl(
             deliveryRepository,
             deliveryPersonRepository,
             assignmentService,
-            routeOptimizer
+            routeOptimizer,
+            meterRegistry
         );
     }
     
@@ -52,4 +78,20 @@ public class DispatchModuleConfiguration {
             locationTracker
         );
     }
+    
+    @Bean
+    public LocationRetentionPolicy locationRetentionPolicy(
+            @Value("${app.tracking.location-history.hot-capacity:128}") int hotCapacity,
+            @Value("${app.tracking.location-history.segment-size:32}") int segmentSize,
+            @Value("${app.tracking.location-history.max-samples:1024}") int maxSamples,
+            @Value("${app.tracking.location-history.max-age:PT24H}") Duration maxAge) {
+        return new LocationRetentionPolicy(hotCapacity, segmentSize, maxSamples, maxAge);
+    }
+    
+    @Bean
+    public DeliveryRetentionPolicy deliveryRetentionPolicy(
+            @Value("${app.dispatch.completed-deliveries.retention:PT24H}") Duration completedRetention,
+            @Value("${app.dispatch.completed-deliveries.max-retained:10000}") int maxCompletedDeliveries) {
+        return new DeliveryRetentionPolicy(completedRetention, maxCompletedDeliveries);
+    }
 }
@@ -0,0 +1,42 @@
+package com.xavier.mozdeliveryapi.dispatch.infra.persistence;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.xavier.mozdeliveryapi.dispatch.application.usecase.BatchDispatchService;
+import com.xavier.mozdeliveryapi.dispatch.domain.entity.Delivery;
+
+/**
+ * Closes the dispatch batching window on a fixed delay.
+ */
+@Component
+public class BatchDispatchScheduler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BatchDispatchScheduler.class);
+    
+    private final BatchDispatchService batchDispatchService;
+    
+    public BatchDispatchScheduler(BatchDispatchService batchDispatchService) {
+        this.batchDispatchService = batchDispatchService;
+    }
+    
+    /**
+     * Dispatch the orders collected since the previous run (every 3 seconds by default).
+     */
+    @Scheduled(fixedDelayString = "${app.dispatch.batch-window-ms:3000}")
+    public void dispatchPendingOrders() {
+        try {
+            List<Delivery> deliveries = batchDispatchService.dispatchPending();
+            if (!deliveries.isEmpty()) {
+                logger.info("Dispatched {} deliveries in batch, {} orders still pending",
+                    deliveries.size(), batchDispatchService.getPendingCount());
+            }
+        } catch (Exception e) {
+            logger.error("Error dispatching pending orders", e);
+        }
+    }
+}
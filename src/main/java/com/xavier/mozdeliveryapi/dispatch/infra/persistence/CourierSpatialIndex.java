@@ -0,0 +1,200 @@
+package com.xavier.mozdeliveryapi.dispatch.infra.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryPersonId;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+import com.xavier.mozdeliveryapi.tenant.domain.valueobject.TenantId;
+
+/**
+ * Per-tenant uniform grid index over courier positions.
+ *
+ * The index only narrows the candidate set: callers must re-check the exact
+ * distance (and availability) of every returned courier, since cells are
+ * coarse and aggregates may move between index updates.
+ */
+public class CourierSpatialIndex {
+
+    /**
+     * Default cell size in degrees (~1.1 km of latitude).
+     */
+    public static final double DEFAULT_CELL_SIZE_DEGREES = 0.01;
+
+    // Small padding so floating point rounding never drops a boundary candidate
+    private static final double PADDING_DEGREES = 1e-6;
+
+    private final double cellSizeDegrees;
+    private final Map<TenantId, TenantGrid> grids = new ConcurrentHashMap<>();
+
+    public CourierSpatialIndex() {
+        this(DEFAULT_CELL_SIZE_DEGREES);
+    }
+
+    public CourierSpatialIndex(double cellSizeDegrees) {
+        if (cellSizeDegrees <= 0.0 || cellSizeDegrees > 10.0) {
+            throw new IllegalArgumentException("Cell size must be between 0 and 10 degrees");
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    /**
+     * Insert or move a courier to the given position.
+     */
+    public void put(TenantId tenantId, DeliveryPersonId deliveryPersonId, double latitude, double longitude) {
+        Objects.requireNonNull(tenantId, "Tenant ID cannot be null");
+        Objects.requireNonNull(deliveryPersonId, "Delivery person ID cannot be null");
+        grids.computeIfAbsent(tenantId, id -> new TenantGrid())
+             .put(deliveryPersonId, cellKey(row(latitude), column(longitude)));
+    }
+
+    /**
+     * Remove a courier from the index.
+     */
+    public void remove(TenantId tenantId, DeliveryPersonId deliveryPersonId) {
+        Objects.requireNonNull(tenantId, "Tenant ID cannot be null");
+        Objects.requireNonNull(deliveryPersonId, "Delivery person ID cannot be null");
+        TenantGrid grid = grids.get(tenantId);
+        if (grid != null) {
+            grid.remove(deliveryPersonId);
+        }
+    }
+
+    /**
+     * Return every courier of the tenant whose cell intersects the bounding box
+     * of the circle centred on the given point. The result is a superset of the
+     * couriers within {@code radiusMeters}.
+     */
+    public List<DeliveryPersonId> candidatesWithin(TenantId tenantId, double latitude, double longitude,
+                                                   double radiusMeters) {
+        Objects.requireNonNull(tenantId, "Tenant ID cannot be null");
+        TenantGrid grid = grids.get(tenantId);
+        if (grid == null || radiusMeters < 0.0) {
+            return List.of();
+        }
+
+        // Bounding box of a spherical cap (Matuschek); exact for great-circle distances
+        double angularRadius = radiusMeters / Location.EARTH_RADIUS_METERS;
+        double latRad = Math.toRadians(latitude);
+        double minLatRad = latRad - angularRadius;
+        double maxLatRad = latRad + angularRadius;
+
+        if (minLatRad <= -Math.PI / 2 || maxLatRad >= Math.PI / 2) {
+            return grid.all(); // Cap contains a pole
+        }
+
+        double deltaLon = Math.toDegrees(Math.asin(Math.sin(angularRadius) / Math.cos(latRad)));
+        double minLon = longitude - deltaLon - PADDING_DEGREES;
+        double maxLon = longitude + deltaLon + PADDING_DEGREES;
+        if (Double.isNaN(deltaLon) || minLon < -180.0 || maxLon > 180.0) {
+            return grid.all(); // Cap wraps the antimeridian
+        }
+
+        int minRow = row(Math.toDegrees(minLatRad) - PADDING_DEGREES);
+        int maxRow = row(Math.toDegrees(maxLatRad) + PADDING_DEGREES);
+        int minColumn = column(minLon);
+        int maxColumn = column(maxLon);
+
+        return grid.collect(minRow, maxRow, minColumn, maxColumn);
+    }
+
+    /**
+     * Number of couriers currently indexed for a tenant.
+     */
+    public int size(TenantId tenantId) {
+        TenantGrid grid = grids.get(tenantId);
+        return grid == null ? 0 : grid.positions.size();
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor(latitude / cellSizeDegrees);
+    }
+
+    private int column(double longitude) {
+        return (int) Math.floor(longitude / cellSizeDegrees);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    private static int rowOf(long cellKey) {
+        return (int) (cellKey >> 32);
+    }
+
+    private static int columnOf(long cellKey) {
+        return (int) cellKey;
+    }
+
+    /**
+     * Grid for a single tenant. Moves are applied inside {@code positions.compute}
+     * so concurrent updates of the same courier never leave it in two cells.
+     */
+    private static final class TenantGrid {
+
+        private final Map<DeliveryPersonId, Long> positions = new ConcurrentHashMap<>();
+        private final Map<Long, Set<DeliveryPersonId>> cells = new ConcurrentHashMap<>();
+
+        void put(DeliveryPersonId id, long newCell) {
+            positions.compute(id, (key, oldCell) -> {
+                if (oldCell != null && oldCell == newCell) {
+                    return oldCell;
+                }
+                if (oldCell != null) {
+                    removeFromCell(oldCell, key);
+                }
+                cells.computeIfAbsent(newCell, cell -> ConcurrentHashMap.newKeySet()).add(key);
+                return newCell;
+            });
+        }
+
+        void remove(DeliveryPersonId id) {
+            positions.computeIfPresent(id, (key, oldCell) -> {
+                removeFromCell(oldCell, key);
+                return null;
+            });
+        }
+
+        private void removeFromCell(long cell, DeliveryPersonId id) {
+            cells.computeIfPresent(cell, (key, members) -> {
+                members.remove(id);
+                return members.isEmpty() ? null : members;
+            });
+        }
+
+        List<DeliveryPersonId> collect(int minRow, int maxRow, int minColumn, int maxColumn) {
+            List<DeliveryPersonId> result = new ArrayList<>();
+            long rangeCells = (long) (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+
+            if (rangeCells > cells.size()) {
+                // Sparse tenant: cheaper to walk the occupied cells than the whole range
+                for (Map.Entry<Long, Set<DeliveryPersonId>> entry : cells.entrySet()) {
+                    int row = rowOf(entry.getKey());
+                    int column = columnOf(entry.getKey());
+                    if (row >= minRow && row <= maxRow && column >= minColumn && column <= maxColumn) {
+                        result.addAll(entry.getValue());
+                    }
+                }
+                return result;
+            }
+
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    Set<DeliveryPersonId> members = cells.get(cellKey(row, column));
+                    if (members != null) {
+                        result.addAll(members);
+                    }
+                }
+            }
+            return result;
+        }
+
+        List<DeliveryPersonId> all() {
+            return new ArrayList<>(positions.keySet());
+        }
+    }
+}
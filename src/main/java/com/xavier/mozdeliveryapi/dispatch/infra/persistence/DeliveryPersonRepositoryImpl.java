@@ -1,5 +1,6 @@
 package com.xavier.mozdeliveryapi.dispatch.infra.persistence;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -20,16 +21,33 @@ import com.xavier.mozdeliveryapi.tenant.domain.entity.Tenant;
 
 /**
  * In-memory implementation of DeliveryPersonRepository for development.
+ * Courier positions are kept in a per-tenant {@link CourierSpatialIndex} so
+ * proximity queries only inspect couriers in nearby grid cells.
  */
 @Repository
 public class DeliveryPersonRepositoryImpl implements DeliveryPersonRepository {
 
+    // Starting radius for nearest-neighbour search, doubled until enough couriers are found
+    private static final double INITIAL_SEARCH_RADIUS_METERS = 2000.0;
+
     private final Map<DeliveryPersonId, DeliveryPerson> store = new ConcurrentHashMap<>();
+    private final CourierSpatialIndex spatialIndex;
+
+    public DeliveryPersonRepositoryImpl() {
+        this(new CourierSpatialIndex());
+    }
+
+    public DeliveryPersonRepositoryImpl(CourierSpatialIndex spatialIndex) {
+        this.spatialIndex = Objects.requireNonNull(spatialIndex, "Spatial index cannot be null");
+    }
 
     @Override
     public DeliveryPerson save(DeliveryPerson deliveryPerson) {
         Objects.requireNonNull(deliveryPerson, "Delivery person cannot be null");
         store.put(deliveryPerson.getDeliveryPersonId(), deliveryPerson);
+        Location location = deliveryPerson.getCurrentLocation();
+        spatialIndex.put(deliveryPerson.getTenantId(), deliveryPerson.getDeliveryPersonId(),
+                         location.latitudeDegrees(), location.longitudeDegrees());
         return deliveryPerson;
     }
 
@@ -79,10 +97,44 @@ public class DeliveryPersonRepositoryImpl implements DeliveryPersonRepository {
         Objects.requireNonNull(tenantId, "Tenant ID cannot be null");
         Objects.requireNonNull(location, "Location cannot be null");
         Objects.requireNonNull(maxDistance, "Max distance cannot be null");
-        return store.values().stream()
+        return availableCandidates(tenantId, location, maxDistance.toMeters()).stream()
+                .filter(person -> person.getCurrentLocation().distanceTo(location).compareTo(maxDistance) <= 0)
+                .toList();
+    }
+
+    @Override
+    public List<DeliveryPerson> findNearestAvailable(TenantId tenantId, Location location, int limit,
+                                                     Distance maxDistance) {
+        Objects.requireNonNull(tenantId, "Tenant ID cannot be null");
+        Objects.requireNonNull(location, "Location cannot be null");
+        Objects.requireNonNull(maxDistance, "Max distance cannot be null");
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+
+        double maxMeters = maxDistance.toMeters();
+        double radius = Math.min(INITIAL_SEARCH_RADIUS_METERS, maxMeters);
+        while (true) {
+            Distance searchRadius = Distance.ofMeters(radius);
+            List<DeliveryPerson> found = availableCandidates(tenantId, location, radius).stream()
+                    .filter(person -> person.getCurrentLocation().distanceTo(location).compareTo(searchRadius) <= 0)
+                    .sorted(Comparator.comparingDouble(person -> person.getCurrentLocation().distanceInMetersTo(location)))
+                    .toList();
+            // Every courier outside the current radius is further away than everything found inside it
+            if (found.size() >= limit || radius >= maxMeters) {
+                return found.size() > limit ? found.subList(0, limit) : found;
+            }
+            radius = Math.min(radius * 2, maxMeters);
+        }
+    }
+
+    private List<DeliveryPerson> availableCandidates(TenantId tenantId, Location location, double radiusMeters) {
+        return spatialIndex.candidatesWithin(tenantId, location.latitudeDegrees(),
+                                             location.longitudeDegrees(), radiusMeters).stream()
+                .map(store::get)
+                .filter(Objects::nonNull)
                 .filter(person -> tenantId.equals(person.getTenantId()))
                 .filter(person -> person.getStatus().isAvailable())
-                .filter(person -> person.getCurrentLocation().distanceTo(location).compareTo(maxDistance) <= 0)
                 .toList();
     }
 
@@ -132,13 +184,16 @@ public class DeliveryPersonRepositoryImpl implements DeliveryPersonRepository {
     @Override
     public void delete(DeliveryPersonId deliveryPersonId) {
         Objects.requireNonNull(deliveryPersonId, "Delivery person ID cannot be null");
-        store.remove(deliveryPersonId);
+        DeliveryPerson removed = store.remove(deliveryPersonId);
+        if (removed != null) {
+            spatialIndex.remove(removed.getTenantId(), deliveryPersonId);
+        }
     }
 
     @Override
     public void delete(DeliveryPerson deliveryPerson) {
         Objects.requireNonNull(deliveryPerson, "Delivery person cannot be null");
-        store.remove(deliveryPerson.getDeliveryPersonId());
+        delete(deliveryPerson.getDeliveryPersonId());
     }
 
     @Override
@@ -1,39 +1,123 @@
 package com.xavier.mozdeliveryapi.dispatch.infra.persistence;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Repository;
 
 import com.xavier.mozdeliveryapi.dispatch.domain.entity.Delivery;
+import com.xavier.mozdeliveryapi.dispatch.domain.event.DeliveryLocationUpdatedEvent;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryId;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryPersonId;
 import com.xavier.mozdeliveryapi.dispatch.application.usecase.port.DeliveryRepository;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryStatus;
+import com.xavier.mozdeliveryapi.shared.application.usecase.port.DomainEventPublisher;
+import com.xavier.mozdeliveryapi.shared.domain.event.DomainEvent;
+import com.xavier.mozdeliveryapi.shared.infra.event.NodeLocalEvent;
 import com.xavier.mozdeliveryapi.tenant.domain.valueobject.TenantId;
 import com.xavier.mozdeliveryapi.shared.domain.valueobject.OrderId;
-import com.xavier.mozdeliveryapi.order.domain.entity.Order;
-import com.xavier.mozdeliveryapi.tenant.domain.entity.Tenant;
 
 /**
  * In-memory implementation of DeliveryRepository for development.
+ * Domain events registered by a delivery are published once it has been stored,
+ * the same contract Spring Data gives aggregate roots. Live views on this node
+ * get every event at once as a {@link NodeLocalEvent}; the durable listeners get
+ * them through the outbox, except location updates, which are too frequent to
+ * store and only drive live views.
+ *
+ * Lookups by order, courier, status and ETA go through secondary indexes kept
+ * in step with the store. Writers are serialized and update the store and every
+ * index together; readers never lock. A writer adds a delivery's new index keys
+ * before removing the old ones, and readers re-check the delivery they resolve,
+ * so a concurrent query never misses a stored delivery nor returns one that
+ * does not match. Finished deliveries are evicted per {@link DeliveryRetentionPolicy}.
  */
 @Repository
 public class DeliveryRepositoryImpl implements DeliveryRepository {
 
+    private static final UUID MIN_UUID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
     private final Map<DeliveryId, Delivery> store = new ConcurrentHashMap<>();
+    private final DomainEventPublisher eventPublisher;
+    private final ApplicationEventPublisher localEventPublisher;
+    private final DeliveryRetentionPolicy retentionPolicy;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<DeliveryId, IndexEntry> indexed = new HashMap<>();  // guarded by writeLock
+    private final Map<DeliveryId, Instant> completedAt = new LinkedHashMap<>();  // guarded by writeLock
+    private final Map<OrderId, DeliveryId> byOrder = new ConcurrentHashMap<>();
+    private final Map<DeliveryPersonId, Set<DeliveryId>> activeByPerson = new ConcurrentHashMap<>();
+    private final Map<DeliveryStatus, Set<DeliveryId>> byStatus = new EnumMap<>(DeliveryStatus.class);
+    private final ConcurrentSkipListSet<EtaEntry> byEta = new ConcurrentSkipListSet<>(EtaEntry.ORDER);
+
+    public DeliveryRepositoryImpl(DomainEventPublisher eventPublisher, ApplicationEventPublisher localEventPublisher,
+                                  DeliveryRetentionPolicy retentionPolicy) {
+        this.eventPublisher = Objects.requireNonNull(eventPublisher, "Event publisher cannot be null");
+        this.localEventPublisher = Objects.requireNonNull(localEventPublisher,
+                                                          "Local event publisher cannot be null");
+        this.retentionPolicy = Objects.requireNonNull(retentionPolicy, "Retention policy cannot be null");
+        for (DeliveryStatus status : DeliveryStatus.values()) {
+            byStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+    }
 
     @Override
     public Delivery save(Delivery delivery) {
         Objects.requireNonNull(delivery, "Delivery cannot be null");
-        store.put(delivery.getDeliveryId(), delivery);
+        writeLock.lock();
+        try {
+            store(delivery);
+            evictOverflow();
+        } finally {
+            writeLock.unlock();
+        }
+        publishDomainEvents(delivery);
         return delivery;
     }
 
+    @Override
+    public List<Delivery> saveAll(List<Delivery> deliveries) {
+        Objects.requireNonNull(deliveries, "Deliveries cannot be null");
+        deliveries.forEach(delivery -> Objects.requireNonNull(delivery, "Delivery cannot be null"));
+        writeLock.lock();
+        try {
+            deliveries.forEach(this::store);
+            evictOverflow();
+        } finally {
+            writeLock.unlock();
+        }
+        deliveries.forEach(this::publishDomainEvents);
+        return List.copyOf(deliveries);
+    }
+
+    private void publishDomainEvents(Delivery delivery) {
+        List<DomainEvent> events = List.copyOf(delivery.getDomainEvents());
+        delivery.clearDomainEvents();
+        events.forEach(event -> localEventPublisher.publishEvent(new NodeLocalEvent<>(event)));
+        eventPublisher.publishAll(events.stream()
+            .filter(event -> !(event instanceof DeliveryLocationUpdatedEvent))
+            .toList());
+    }
+
     @Override
     public Optional<Delivery> findById(DeliveryId deliveryId) {
         Objects.requireNonNull(deliveryId, "Delivery ID cannot be null");
@@ -43,9 +127,9 @@ public class DeliveryRepositoryImpl implements DeliveryRepository {
     @Override
     public Optional<Delivery> findByOrderId(OrderId orderId) {
         Objects.requireNonNull(orderId, "Order ID cannot be null");
-        return store.values().stream()
-                .filter(delivery -> orderId.equals(delivery.getOrderId()))
-                .findFirst();
+        DeliveryId deliveryId = byOrder.get(orderId);
+        return Optional.ofNullable(deliveryId == null ? null : store.get(deliveryId))
+                .filter(delivery -> orderId.equals(delivery.getOrderId()));
     }
 
     @Override
@@ -67,36 +151,38 @@ public class DeliveryRepositoryImpl implements DeliveryRepository {
     @Override
     public List<Delivery> findActiveByDeliveryPersonId(DeliveryPersonId deliveryPersonId) {
         Objects.requireNonNull(deliveryPersonId, "Delivery person ID cannot be null");
-        return store.values().stream()
-                .filter(delivery -> deliveryPersonId.equals(delivery.getDeliveryPersonId()))
-                .filter(delivery -> delivery.getStatus().isActive())
-                .toList();
+        return resolve(activeByPerson.getOrDefault(deliveryPersonId, Set.of()),
+                       delivery -> isActiveFor(delivery, deliveryPersonId));
     }
 
     @Override
     public List<Delivery> findByStatus(DeliveryStatus status) {
         Objects.requireNonNull(status, "Status cannot be null");
-        return store.values().stream()
-                .filter(delivery -> status == delivery.getStatus())
-                .toList();
+        return resolve(byStatus.get(status), delivery -> status == delivery.getStatus());
     }
 
     @Override
     public List<Delivery> findByStatusIn(List<DeliveryStatus> statuses) {
         Objects.requireNonNull(statuses, "Statuses cannot be null");
-        return store.values().stream()
-                .filter(delivery -> statuses.contains(delivery.getStatus()))
-                .toList();
+        Set<DeliveryId> candidates = new LinkedHashSet<>();
+        for (DeliveryStatus status : statuses) {
+            if (status != null) {
+                candidates.addAll(byStatus.get(status));
+            }
+        }
+        return resolve(candidates, delivery -> statuses.contains(delivery.getStatus()));
     }
 
     @Override
     public List<Delivery> findOverdueDeliveries(Instant currentTime) {
         Objects.requireNonNull(currentTime, "Current time cannot be null");
-        return store.values().stream()
-                .filter(delivery -> delivery.getEstimatedArrival() != null)
-                .filter(delivery -> delivery.getEstimatedArrival().isBefore(currentTime))
-                .filter(delivery -> !delivery.getStatus().isCompleted())
-                .toList();
+        Set<DeliveryId> candidates = new LinkedHashSet<>();
+        for (EtaEntry entry : byEta.headSet(new EtaEntry(currentTime, new DeliveryId(MIN_UUID)))) {
+            candidates.add(entry.deliveryId());
+        }
+        return resolve(candidates, delivery -> delivery.getEstimatedArrival() != null
+                && delivery.getEstimatedArrival().isBefore(currentTime)
+                && !delivery.getStatus().isCompleted());
     }
 
     @Override
@@ -112,22 +198,31 @@ public class DeliveryRepositoryImpl implements DeliveryRepository {
     @Override
     public long countActiveByDeliveryPersonId(DeliveryPersonId deliveryPersonId) {
         Objects.requireNonNull(deliveryPersonId, "Delivery person ID cannot be null");
-        return store.values().stream()
-                .filter(delivery -> deliveryPersonId.equals(delivery.getDeliveryPersonId()))
-                .filter(delivery -> delivery.getStatus().isActive())
-                .count();
+        long count = 0;
+        for (DeliveryId deliveryId : activeByPerson.getOrDefault(deliveryPersonId, Set.of())) {
+            Delivery delivery = store.get(deliveryId);
+            if (delivery != null && isActiveFor(delivery, deliveryPersonId)) {
+                count++;
+            }
+        }
+        return count;
     }
 
     @Override
     public void delete(DeliveryId deliveryId) {
         Objects.requireNonNull(deliveryId, "Delivery ID cannot be null");
-        store.remove(deliveryId);
+        writeLock.lock();
+        try {
+            remove(deliveryId);
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     @Override
     public void delete(Delivery delivery) {
         Objects.requireNonNull(delivery, "Delivery cannot be null");
-        store.remove(delivery.getDeliveryId());
+        delete(delivery.getDeliveryId());
     }
 
     @Override
@@ -135,4 +230,167 @@ public class DeliveryRepositoryImpl implements DeliveryRepository {
         Objects.requireNonNull(deliveryId, "Delivery ID cannot be null");
         return store.containsKey(deliveryId);
     }
+
+    @Scheduled(fixedDelayString = "${app.dispatch.completed-deliveries.eviction-interval-ms:60000}")
+    public void evictExpiredDeliveries() {
+        evictCompleted(Instant.now());
+    }
+
+    /**
+     * Evict finished deliveries that completed longer ago than the retention period.
+     *
+     * @return the number of deliveries evicted
+     */
+    int evictCompleted(Instant now) {
+        Instant cutoff = now.minus(retentionPolicy.completedRetention());
+        writeLock.lock();
+        try {
+            int evicted = 0;
+            Iterator<Map.Entry<DeliveryId, Instant>> oldest = completedAt.entrySet().iterator();
+            while (oldest.hasNext()) {
+                Map.Entry<DeliveryId, Instant> entry = oldest.next();
+                if (!entry.getValue().isBefore(cutoff)) {
+                    break;
+                }
+                oldest.remove();
+                unindex(entry.getKey());
+                evicted++;
+            }
+            return evicted;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    int getCompletedCount() {
+        writeLock.lock();
+        try {
+            return completedAt.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void store(Delivery delivery) {
+        DeliveryId deliveryId = delivery.getDeliveryId();
+        IndexEntry previous = indexed.get(deliveryId);
+        IndexEntry current = IndexEntry.of(delivery);
+
+        store.put(deliveryId, delivery);
+        if (current.equals(previous)) {
+            return;
+        }
+
+        // New keys first, then stale ones, so lock-free readers never miss the delivery
+        byOrder.put(current.orderId(), deliveryId);
+        byStatus.get(current.status()).add(deliveryId);
+        if (current.status().isActive()) {
+            activeByPerson.computeIfAbsent(current.deliveryPersonId(), id -> ConcurrentHashMap.newKeySet())
+                    .add(deliveryId);
+        }
+        if (current.etaKey() != null) {
+            byEta.add(current.etaKey());
+        }
+        if (previous != null) {
+            removeStaleKeys(deliveryId, previous, current);
+        }
+        indexed.put(deliveryId, current);
+
+        if (current.status().isCompleted()) {
+            completedAt.putIfAbsent(deliveryId, delivery.getUpdatedAt());
+        } else {
+            completedAt.remove(deliveryId);
+        }
+    }
+
+    private void removeStaleKeys(DeliveryId deliveryId, IndexEntry previous, IndexEntry current) {
+        if (!previous.orderId().equals(current.orderId())) {
+            byOrder.remove(previous.orderId(), deliveryId);
+        }
+        if (previous.status() != current.status()) {
+            byStatus.get(previous.status()).remove(deliveryId);
+        }
+        if (previous.status().isActive()
+                && (!current.status().isActive() || !previous.deliveryPersonId().equals(current.deliveryPersonId()))) {
+            removeActive(previous.deliveryPersonId(), deliveryId);
+        }
+        if (previous.etaKey() != null && !previous.etaKey().equals(current.etaKey())) {
+            byEta.remove(previous.etaKey());
+        }
+    }
+
+    private void remove(DeliveryId deliveryId) {
+        completedAt.remove(deliveryId);
+        unindex(deliveryId);
+    }
+
+    private void unindex(DeliveryId deliveryId) {
+        store.remove(deliveryId);
+        IndexEntry previous = indexed.remove(deliveryId);
+        if (previous == null) {
+            return;
+        }
+        byOrder.remove(previous.orderId(), deliveryId);
+        byStatus.get(previous.status()).remove(deliveryId);
+        if (previous.status().isActive()) {
+            removeActive(previous.deliveryPersonId(), deliveryId);
+        }
+        if (previous.etaKey() != null) {
+            byEta.remove(previous.etaKey());
+        }
+    }
+
+    private void removeActive(DeliveryPersonId deliveryPersonId, DeliveryId deliveryId) {
+        activeByPerson.computeIfPresent(deliveryPersonId, (id, deliveries) -> {
+            deliveries.remove(deliveryId);
+            return deliveries.isEmpty() ? null : deliveries;
+        });
+    }
+
+    private void evictOverflow() {
+        Iterator<DeliveryId> oldest = completedAt.keySet().iterator();
+        int overflow = completedAt.size() - retentionPolicy.maxCompletedDeliveries();
+        while (overflow-- > 0 && oldest.hasNext()) {
+            DeliveryId deliveryId = oldest.next();
+            oldest.remove();
+            unindex(deliveryId);
+        }
+    }
+
+    private List<Delivery> resolve(Collection<DeliveryId> deliveryIds, Predicate<Delivery> stillMatches) {
+        List<Delivery> deliveries = new ArrayList<>(deliveryIds.size());
+        for (DeliveryId deliveryId : deliveryIds) {
+            Delivery delivery = store.get(deliveryId);
+            if (delivery != null && stillMatches.test(delivery)) {
+                deliveries.add(delivery);
+            }
+        }
+        return deliveries;
+    }
+
+    private static boolean isActiveFor(Delivery delivery, DeliveryPersonId deliveryPersonId) {
+        return deliveryPersonId.equals(delivery.getDeliveryPersonId()) && delivery.getStatus().isActive();
+    }
+
+    /**
+     * The indexed fields of a delivery as of its last save. Deliveries are
+     * mutated in place, so this is what tells a re-save which keys to drop.
+     */
+    private record IndexEntry(OrderId orderId, DeliveryPersonId deliveryPersonId,
+                              DeliveryStatus status, EtaEntry etaKey) {
+
+        static IndexEntry of(Delivery delivery) {
+            Instant eta = delivery.getEstimatedArrival();
+            EtaEntry etaKey = eta != null && !delivery.getStatus().isCompleted()
+                    ? new EtaEntry(eta, delivery.getDeliveryId())
+                    : null;
+            return new IndexEntry(delivery.getOrderId(), delivery.getDeliveryPersonId(), delivery.getStatus(), etaKey);
+        }
+    }
+
+    private record EtaEntry(Instant estimatedArrival, DeliveryId deliveryId) {
+
+        static final Comparator<EtaEntry> ORDER = Comparator.comparing(EtaEntry::estimatedArrival)
+                .thenComparing(entry -> entry.deliveryId().value());
+    }
 }
@@ -0,0 +1,35 @@
+package com.xavier.mozdeliveryapi.dispatch.infra.persistence;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * How long finished deliveries stay in the in-memory store. A delivery that
+ * reached a completed status is evicted once it has been finished for longer
+ * than {@code completedRetention}, or earlier when more than
+ * {@code maxCompletedDeliveries} finished deliveries are held, oldest first.
+ * Active deliveries are never evicted.
+ */
+public record DeliveryRetentionPolicy(
+    Duration completedRetention,
+    int maxCompletedDeliveries
+) {
+
+    public static final Duration DEFAULT_COMPLETED_RETENTION = Duration.ofHours(24);
+    public static final int DEFAULT_MAX_COMPLETED_DELIVERIES = 10_000;
+
+    public DeliveryRetentionPolicy {
+        Objects.requireNonNull(completedRetention, "Completed retention cannot be null");
+
+        if (completedRetention.isNegative() || completedRetention.isZero()) {
+            throw new IllegalArgumentException("Completed retention must be positive");
+        }
+        if (maxCompletedDeliveries <= 0) {
+            throw new IllegalArgumentException("Max completed deliveries must be positive");
+        }
+    }
+
+    public static DeliveryRetentionPolicy defaults() {
+        return new DeliveryRetentionPolicy(DEFAULT_COMPLETED_RETENTION, DEFAULT_MAX_COMPLETED_DELIVERIES);
+    }
+}
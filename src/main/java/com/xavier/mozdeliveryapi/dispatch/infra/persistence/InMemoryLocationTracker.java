@@ -1,7 +1,6 @@
 package com.xavier.mozdeliveryapi.dispatch.infra.persistence;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -16,60 +15,83 @@ import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.LocationHistory;
 import com.xavier.mozdeliveryapi.dispatch.application.usecase.port.LocationTracker;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.TimeRange;
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
-import com.xavier.mozdeliveryapi.dispatch.domain.entity.Delivery;
 
 /**
- * In-memory location tracker for development and testing.
+ * In-memory location tracker. Each courier's history is a {@link LocationRingBuffer},
+ * so memory per courier stays constant however long they are tracked.
  */
 @Component
 public class InMemoryLocationTracker implements LocationTracker {
 
-    private final Map<DeliveryPersonId, List<LocationHistory>> history = new ConcurrentHashMap<>();
+    private final LocationRetentionPolicy retentionPolicy;
+    private final Map<DeliveryPersonId, LocationRingBuffer> history = new ConcurrentHashMap<>();
     private final Set<DeliveryPersonId> tracked = ConcurrentHashMap.newKeySet();
 
+    public InMemoryLocationTracker(LocationRetentionPolicy retentionPolicy) {
+        this.retentionPolicy = Objects.requireNonNull(retentionPolicy, "Retention policy cannot be null");
+    }
+
     @Override
-    public void updateLocation(DeliveryPersonId deliveryPersonId, Location location, double accuracy, double speed) {
+    public boolean updateLocation(DeliveryPersonId deliveryPersonId, LocationHistory sample) {
         Objects.requireNonNull(deliveryPersonId, "Delivery person ID cannot be null");
-        Objects.requireNonNull(location, "Location cannot be null");
-        if (accuracy < 0) {
-            throw new IllegalArgumentException("Accuracy cannot be negative");
-        }
-        if (speed < 0) {
-            throw new IllegalArgumentException("Speed cannot be negative");
-        }
+        Objects.requireNonNull(sample, "Sample cannot be null");
 
         startTracking(deliveryPersonId);
-        LocationHistory record = LocationHistory.of(location, Instant.now(), accuracy, speed);
-        history.computeIfAbsent(deliveryPersonId, id -> new ArrayList<>()).add(record);
+        Location location = sample.location();
+        return history.computeIfAbsent(deliveryPersonId, id -> new LocationRingBuffer(retentionPolicy))
+                .append(LocationRingBuffer.toMicros(sample.timestamp()),
+                        location.latitudeDegrees(), location.longitudeDegrees(), sample.accuracy(), sample.speed());
     }
 
     @Override
     public void updateLocation(DeliveryPersonId deliveryPersonId, Location location) {
-        updateLocation(deliveryPersonId, location, 50.0, 0.0);
+        Objects.requireNonNull(location, "Location cannot be null");
+        updateLocation(deliveryPersonId, LocationHistory.of(location, Instant.now(), 50.0, 0.0));
+    }
+
+    @Override
+    public int recordTrail(DeliveryPersonId deliveryPersonId, List<LocationHistory> trail) {
+        Objects.requireNonNull(deliveryPersonId, "Delivery person ID cannot be null");
+        Objects.requireNonNull(trail, "Trail cannot be null");
+        if (trail.isEmpty()) {
+            return 0;
+        }
+
+        startTracking(deliveryPersonId);
+        LocationRingBuffer buffer = history.computeIfAbsent(deliveryPersonId, id -> new LocationRingBuffer(retentionPolicy));
+        int recorded = 0;
+        for (LocationHistory sample : trail) {
+            Location location = sample.location();
+            if (buffer.append(LocationRingBuffer.toMicros(sample.timestamp()),
+                              location.latitudeDegrees(), location.longitudeDegrees(),
+                              sample.accuracy(), sample.speed())) {
+                recorded++;
+            }
+        }
+        return recorded;
     }
 
     @Override
     public Optional<Location> getCurrentLocation(DeliveryPersonId deliveryPersonId) {
         Objects.requireNonNull(deliveryPersonId, "Delivery person ID cannot be null");
-        List<LocationHistory> records = history.get(deliveryPersonId);
-        if (records == null || records.isEmpty()) {
+        LocationRingBuffer buffer = history.get(deliveryPersonId);
+        if (buffer == null) {
             return Optional.empty();
         }
-        return Optional.of(records.get(records.size() - 1).location());
+        return buffer.latest().map(LocationHistory::location);
     }
 
     @Override
     public List<LocationHistory> getLocationHistory(DeliveryPersonId deliveryPersonId, TimeRange timeRange) {
         Objects.requireNonNull(deliveryPersonId, "Delivery person ID cannot be null");
         Objects.requireNonNull(timeRange, "Time range cannot be null");
-        List<LocationHistory> records = history.get(deliveryPersonId);
-        if (records == null || records.isEmpty()) {
+        LocationRingBuffer buffer = history.get(deliveryPersonId);
+        if (buffer == null) {
             return List.of();
         }
 
-        return records.stream()
-                .filter(record -> timeRange.contains(record.timestamp()))
-                .toList();
+        return buffer.range(LocationRingBuffer.toMicros(timeRange.startTime()),
+                            LocationRingBuffer.toMicros(timeRange.endTime()));
     }
 
     @Override
@@ -78,13 +100,12 @@ public class InMemoryLocationTracker implements LocationTracker {
         if (limit <= 0) {
             return List.of();
         }
-        List<LocationHistory> records = history.get(deliveryPersonId);
-        if (records == null || records.isEmpty()) {
+        LocationRingBuffer buffer = history.get(deliveryPersonId);
+        if (buffer == null) {
             return List.of();
         }
 
-        int start = Math.max(records.size() - limit, 0);
-        return records.subList(start, records.size());
+        return buffer.recent(limit);
     }
 
     @Override
@@ -103,5 +124,6 @@ public class InMemoryLocationTracker implements LocationTracker {
     public void stopTracking(DeliveryPersonId deliveryPersonId) {
         Objects.requireNonNull(deliveryPersonId, "Delivery person ID cannot be null");
         tracked.remove(deliveryPersonId);
+        history.remove(deliveryPersonId);
     }
 }
@@ -0,0 +1,46 @@
+package com.xavier.mozdeliveryapi.dispatch.infra.persistence;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Sizing and retention of a courier's location history. The newest
+ * {@code hotCapacity} samples are kept uncompressed; older ones spill to the
+ * compacted cold store in segments of {@code segmentSize} samples. Cold
+ * segments are dropped once the courier holds more than {@code maxSamples}
+ * samples or the segment is older than {@code maxAge}, whichever comes first.
+ */
+public record LocationRetentionPolicy(
+    int hotCapacity,
+    int segmentSize,
+    int maxSamples,
+    Duration maxAge
+) {
+
+    public static final int DEFAULT_HOT_CAPACITY = 128;
+    public static final int DEFAULT_SEGMENT_SIZE = 32;
+    public static final int DEFAULT_MAX_SAMPLES = 1024;
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofHours(24);
+
+    public LocationRetentionPolicy {
+        Objects.requireNonNull(maxAge, "Max age cannot be null");
+
+        if (hotCapacity <= 0 || Integer.bitCount(hotCapacity) != 1) {
+            throw new IllegalArgumentException("Hot capacity must be a positive power of two");
+        }
+        if (segmentSize <= 0 || segmentSize > hotCapacity) {
+            throw new IllegalArgumentException("Segment size must be between 1 and the hot capacity");
+        }
+        if (maxSamples < hotCapacity) {
+            throw new IllegalArgumentException("Max samples cannot be smaller than the hot capacity");
+        }
+        if (maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("Max age must be positive");
+        }
+    }
+
+    public static LocationRetentionPolicy defaults() {
+        return new LocationRetentionPolicy(DEFAULT_HOT_CAPACITY, DEFAULT_SEGMENT_SIZE,
+                                           DEFAULT_MAX_SAMPLES, DEFAULT_MAX_AGE);
+    }
+}
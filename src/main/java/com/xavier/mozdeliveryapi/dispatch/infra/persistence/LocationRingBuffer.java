@@ -0,0 +1,452 @@
+package com.xavier.mozdeliveryapi.dispatch.infra.persistence;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.LocationHistory;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+
+/**
+ * Fixed-capacity location history of one courier.
+ *
+ * Recent samples live in parallel primitive arrays used as a ring. When the
+ * ring is full its oldest segment is delta-encoded into an immutable cold
+ * segment before being overwritten; cold segments are dropped by the
+ * {@link LocationRetentionPolicy}, so memory per courier is bounded.
+ *
+ * A courier's device is the only writer, so appends take an uncontended write
+ * stamp and never wait for readers. Readers are optimistic: they copy what they
+ * need and retry under a read stamp only if an append raced with them.
+ * Timestamps are epoch microseconds and must not go backwards, which keeps the
+ * ring sorted for binary search.
+ */
+public class LocationRingBuffer {
+
+    // Cold precision: ~1 cm of position, 0.1 m of accuracy, 0.1 km/h of speed
+    private static final double COORDINATE_SCALE = 1e7;
+    private static final double MEASUREMENT_SCALE = 10.0;
+
+    private final LocationRetentionPolicy policy;
+    private final int mask;
+    private final long maxAgeMicros;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] accuracies;
+    private final double[] speeds;
+    private final long[] timestamps;
+    private final StampedLock lock = new StampedLock();
+
+    private long head;     // sequence of the next sample
+    private long spilled;  // samples below this sequence are in the cold store
+    private ColdSegment[] cold = new ColdSegment[0];
+    private long coldSamples;
+
+    public LocationRingBuffer(LocationRetentionPolicy policy) {
+        this.policy = Objects.requireNonNull(policy, "Retention policy cannot be null");
+        int capacity = policy.hotCapacity();
+        this.mask = capacity - 1;
+        this.maxAgeMicros = policy.maxAge().toNanos() / 1000;
+        this.latitudes = new double[capacity];
+        this.longitudes = new double[capacity];
+        this.accuracies = new double[capacity];
+        this.speeds = new double[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    /**
+     * Append a sample. Samples older than the newest stored one are rejected.
+     *
+     * @return true if the sample was stored
+     */
+    public boolean append(long timestampMicros, double latitude, double longitude, double accuracy, double speed) {
+        long stamp = lock.writeLock();
+        try {
+            if (head > spilled && timestampMicros < timestamps[(int) ((head - 1) & mask)]) {
+                return false;
+            }
+            if (head - spilled == timestamps.length) {
+                spillOldestSegment();
+            }
+
+            int slot = (int) (head & mask);
+            latitudes[slot] = latitude;
+            longitudes[slot] = longitude;
+            accuracies[slot] = accuracy;
+            speeds[slot] = speed;
+            timestamps[slot] = timestampMicros;
+            head++;
+
+            applyRetention(timestampMicros);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Samples with {@code fromMicros <= timestamp <= toMicros}, oldest first.
+     */
+    public List<LocationHistory> range(long fromMicros, long toMicros) {
+        if (fromMicros > toMicros) {
+            return List.of();
+        }
+
+        long stamp = lock.tryOptimisticRead();
+        Snapshot snapshot = snapshotRange(fromMicros, toMicros);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                snapshot = snapshotRange(fromMicros, toMicros);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        List<LocationHistory> result = new ArrayList<>();
+        for (ColdSegment segment : snapshot.cold) {
+            if (segment.lastMicros >= fromMicros && segment.firstMicros <= toMicros) {
+                segment.decodeRange(fromMicros, toMicros, result);
+            }
+        }
+        snapshot.appendTo(result);
+        return result;
+    }
+
+    /**
+     * The {@code limit} newest samples, oldest first.
+     */
+    public List<LocationHistory> recent(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        long stamp = lock.tryOptimisticRead();
+        Snapshot snapshot = snapshotRecent(limit);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                snapshot = snapshotRecent(limit);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        List<LocationHistory> result = new ArrayList<>(limit);
+        int fromCold = limit - snapshot.size;
+        if (fromCold > 0) {
+            // Walk back over just enough cold segments, then decode them oldest first
+            int first = snapshot.cold.length;
+            int available = 0;
+            while (first > 0 && available < fromCold) {
+                available += snapshot.cold[--first].count;
+            }
+            int skip = Math.max(0, available - fromCold);
+            for (int i = first; i < snapshot.cold.length; i++) {
+                ColdSegment segment = snapshot.cold[i];
+                int fromSegment = Math.max(0, segment.count - skip);
+                skip = Math.max(0, skip - segment.count);
+                if (fromSegment > 0) {
+                    segment.decodeLast(fromSegment, result);
+                }
+            }
+        }
+        snapshot.appendTo(result);
+        return result;
+    }
+
+    /**
+     * The newest sample, if any.
+     */
+    public Optional<LocationHistory> latest() {
+        List<LocationHistory> newest = recent(1);
+        return newest.isEmpty() ? Optional.empty() : Optional.of(newest.get(0));
+    }
+
+    /**
+     * Total samples held, hot and cold.
+     */
+    public long size() {
+        long stamp = lock.readLock();
+        try {
+            return (head - spilled) + coldSamples;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Samples currently held in compacted form.
+     */
+    public long coldSize() {
+        long stamp = lock.readLock();
+        try {
+            return coldSamples;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Writer side, called under the write stamp
+
+    private void spillOldestSegment() {
+        int count = policy.segmentSize();
+        ColdSegment segment = ColdSegment.encode(this, spilled, count);
+        ColdSegment[] grown = Arrays.copyOf(cold, cold.length + 1);
+        grown[cold.length] = segment;
+        cold = grown;
+        coldSamples += count;
+        spilled += count;
+    }
+
+    private void applyRetention(long newestMicros) {
+        int drop = 0;
+        long remaining = coldSamples;
+        long hotSamples = head - spilled;
+        while (drop < cold.length
+                && (hotSamples + remaining > policy.maxSamples()
+                    || newestMicros - cold[drop].lastMicros > maxAgeMicros)) {
+            remaining -= cold[drop].count;
+            drop++;
+        }
+        if (drop > 0) {
+            cold = Arrays.copyOfRange(cold, drop, cold.length);
+            coldSamples = remaining;
+        }
+    }
+
+    // Reader side; may run optimistically, so it only reads and copies
+
+    private Snapshot snapshotRange(long fromMicros, long toMicros) {
+        long low = spilled;
+        long high = head;
+        long start = lowerBound(low, high, fromMicros);
+        long end = upperBound(start, high, toMicros);
+        return copy(start, end);
+    }
+
+    private Snapshot snapshotRecent(int limit) {
+        long high = head;
+        long start = Math.max(spilled, high - limit);
+        return copy(start, high);
+    }
+
+    private Snapshot copy(long start, long end) {
+        int size = (int) Math.max(0, Math.min(end - start, timestamps.length));
+        Snapshot snapshot = new Snapshot(size, cold);
+        for (int i = 0; i < size; i++) {
+            int slot = (int) ((start + i) & mask);
+            snapshot.latitudes[i] = latitudes[slot];
+            snapshot.longitudes[i] = longitudes[slot];
+            snapshot.accuracies[i] = accuracies[slot];
+            snapshot.speeds[i] = speeds[slot];
+            snapshot.timestamps[i] = timestamps[slot];
+        }
+        return snapshot;
+    }
+
+    /**
+     * First sequence in [low, high) whose timestamp is at least the key.
+     */
+    private long lowerBound(long low, long high, long key) {
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (timestamps[(int) (middle & mask)] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First sequence in [low, high) whose timestamp is greater than the key.
+     */
+    private long upperBound(long low, long high, long key) {
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (timestamps[(int) (middle & mask)] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1000);
+    }
+
+    static Instant fromMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1000L);
+    }
+
+    private static LocationHistory toHistory(double latitude, double longitude, long micros,
+                                             double accuracy, double speed) {
+        return LocationHistory.of(Location.of(latitude, longitude), fromMicros(micros), accuracy, speed);
+    }
+
+    /**
+     * Hot samples copied out of the ring plus the cold segments visible at the same time.
+     */
+    private static final class Snapshot {
+
+        private final int size;
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final double[] accuracies;
+        private final double[] speeds;
+        private final long[] timestamps;
+        private final ColdSegment[] cold;
+
+        Snapshot(int size, ColdSegment[] cold) {
+            this.size = size;
+            this.latitudes = new double[size];
+            this.longitudes = new double[size];
+            this.accuracies = new double[size];
+            this.speeds = new double[size];
+            this.timestamps = new long[size];
+            this.cold = cold;
+        }
+
+        void appendTo(List<LocationHistory> result) {
+            for (int i = 0; i < size; i++) {
+                result.add(toHistory(latitudes[i], longitudes[i], timestamps[i], accuracies[i], speeds[i]));
+            }
+        }
+    }
+
+    /**
+     * Immutable block of spilled samples. Each field is stored as a zig-zag
+     * varint delta from the previous sample, so a GPS trail packs into a few
+     * bytes per sample.
+     */
+    private static final class ColdSegment {
+
+        private final long firstMicros;
+        private final long lastMicros;
+        private final int count;
+        private final byte[] data;
+
+        private ColdSegment(long firstMicros, long lastMicros, int count, byte[] data) {
+            this.firstMicros = firstMicros;
+            this.lastMicros = lastMicros;
+            this.count = count;
+            this.data = data;
+        }
+
+        static ColdSegment encode(LocationRingBuffer buffer, long start, int count) {
+            Encoder encoder = new Encoder(count * 12);
+            long previousLatitude = 0;
+            long previousLongitude = 0;
+            long previousMicros = 0;
+            long previousAccuracy = 0;
+            long previousSpeed = 0;
+
+            for (int i = 0; i < count; i++) {
+                int slot = (int) ((start + i) & buffer.mask);
+                long latitude = Math.round(buffer.latitudes[slot] * COORDINATE_SCALE);
+                long longitude = Math.round(buffer.longitudes[slot] * COORDINATE_SCALE);
+                long micros = buffer.timestamps[slot];
+                long accuracy = Math.round(buffer.accuracies[slot] * MEASUREMENT_SCALE);
+                long speed = Math.round(buffer.speeds[slot] * MEASUREMENT_SCALE);
+
+                encoder.writeSigned(latitude - previousLatitude);
+                encoder.writeSigned(longitude - previousLongitude);
+                encoder.writeSigned(micros - previousMicros);
+                encoder.writeSigned(accuracy - previousAccuracy);
+                encoder.writeSigned(speed - previousSpeed);
+
+                previousLatitude = latitude;
+                previousLongitude = longitude;
+                previousMicros = micros;
+                previousAccuracy = accuracy;
+                previousSpeed = speed;
+            }
+
+            long first = buffer.timestamps[(int) (start & buffer.mask)];
+            long last = buffer.timestamps[(int) ((start + count - 1) & buffer.mask)];
+            return new ColdSegment(first, last, count, encoder.toByteArray());
+        }
+
+        void decodeRange(long fromMicros, long toMicros, List<LocationHistory> result) {
+            decode(0, fromMicros, toMicros, result);
+        }
+
+        void decodeLast(int last, List<LocationHistory> result) {
+            decode(count - last, Long.MIN_VALUE, Long.MAX_VALUE, result);
+        }
+
+        private void decode(int skip, long fromMicros, long toMicros, List<LocationHistory> result) {
+            int[] position = {0};
+            long latitude = 0;
+            long longitude = 0;
+            long micros = 0;
+            long accuracy = 0;
+            long speed = 0;
+
+            for (int i = 0; i < count; i++) {
+                latitude += readSigned(data, position);
+                longitude += readSigned(data, position);
+                micros += readSigned(data, position);
+                accuracy += readSigned(data, position);
+                speed += readSigned(data, position);
+
+                if (micros > toMicros) {
+                    return;
+                }
+                if (i >= skip && micros >= fromMicros) {
+                    result.add(toHistory(latitude / COORDINATE_SCALE, longitude / COORDINATE_SCALE, micros,
+                                         accuracy / MEASUREMENT_SCALE, speed / MEASUREMENT_SCALE));
+                }
+            }
+        }
+
+        private static long readSigned(byte[] data, int[] position) {
+            long raw = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position[0]++];
+                raw |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+    }
+
+    /**
+     * Growable byte buffer writing zig-zag varints.
+     */
+    private static final class Encoder {
+
+        private byte[] bytes;
+        private int length;
+
+        Encoder(int initialCapacity) {
+            this.bytes = new byte[initialCapacity];
+        }
+
+        void writeSigned(long value) {
+            long raw = (value << 1) ^ (value >> 63);
+            if (length + 10 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 10));
+            }
+            while ((raw & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((raw & 0x7F) | 0x80);
+                raw >>>= 7;
+            }
+            bytes[length++] = (byte) raw;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, length);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.xavier.mozdeliveryapi.dispatch.infra.web;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.xavier.mozdeliveryapi.dispatch.application.dto.TrackingResponse;
+import com.xavier.mozdeliveryapi.dispatch.application.usecase.TrackingApplicationService;
+import com.xavier.mozdeliveryapi.dispatch.domain.event.DeliveryLocationUpdatedEvent;
+import com.xavier.mozdeliveryapi.dispatch.domain.event.DeliveryReassignedEvent;
+import com.xavier.mozdeliveryapi.dispatch.domain.event.DeliveryStatusChangedEvent;
+import com.xavier.mozdeliveryapi.dispatch.domain.exception.DeliveryNotFoundException;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryId;
+import com.xavier.mozdeliveryapi.shared.infra.event.NodeLocalEvent;
+
+/**
+ * Pushes live tracking to subscribers of a delivery.
+ *
+ * All subscribers of a delivery share one topic: delivery events only mark the
+ * topic dirty, and a periodic flush loads and serializes the tracking snapshot
+ * once for everyone. Location changes are throttled to one push per interval;
+ * status changes go out on the next tick. Each subscriber holds at most one
+ * pending snapshot, so a slow client skips intermediate positions instead of
+ * buffering them.
+ */
+@Component
+public class LiveTrackingBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveTrackingBroadcaster.class);
+
+    private final TrackingApplicationService trackingApplicationService;
+    private final ObjectMapper objectMapper;
+    private final long minIntervalMillis;
+    private final int maxSubscribersPerDelivery;
+    private final Map<DeliveryId, Topic> topics = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter snapshots;
+    private final Counter conflated;
+
+    public LiveTrackingBroadcaster(TrackingApplicationService trackingApplicationService,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.tracking.stream.min-interval-ms:1000}") long minIntervalMillis,
+                                   @Value("${app.tracking.stream.max-subscribers-per-delivery:1000}") int maxSubscribersPerDelivery) {
+        this.trackingApplicationService = Objects.requireNonNull(trackingApplicationService,
+                                                                 "Tracking application service cannot be null");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "Object mapper cannot be null");
+        Objects.requireNonNull(meterRegistry, "Meter registry cannot be null");
+        if (minIntervalMillis < 0) {
+            throw new IllegalArgumentException("Minimum interval cannot be negative");
+        }
+        if (maxSubscribersPerDelivery <= 0) {
+            throw new IllegalArgumentException("Max subscribers per delivery must be positive");
+        }
+        this.minIntervalMillis = minIntervalMillis;
+        this.maxSubscribersPerDelivery = maxSubscribersPerDelivery;
+
+        this.snapshots = Counter.builder("tracking.stream.snapshots")
+            .description("Tracking snapshots built for live subscribers")
+            .register(meterRegistry);
+        this.conflated = Counter.builder("tracking.stream.conflated")
+            .description("Snapshots replaced before a slow subscriber received them")
+            .register(meterRegistry);
+        meterRegistry.gauge("tracking.stream.subscribers", topics,
+                            map -> map.values().stream().mapToInt(topic -> topic.subscribers.size()).sum());
+    }
+
+    /**
+     * Receives tracking snapshots as serialized JSON.
+     */
+    public interface TrackingSink {
+
+        void send(String trackingJson) throws IOException;
+
+        /**
+         * Called once the delivery is finished or the subscription is dropped.
+         */
+        default void complete() {
+        }
+    }
+
+    /**
+     * Handle returned to a subscriber; cancel it when the client goes away.
+     */
+    public interface Subscription {
+
+        void cancel();
+    }
+
+    /**
+     * Subscribe to a delivery. The current snapshot is sent straight away.
+     *
+     * @throws DeliveryNotFoundException if the delivery does not exist
+     * @throws IllegalStateException if the delivery already has the maximum number of subscribers
+     */
+    public Subscription subscribe(DeliveryId deliveryId, TrackingSink sink) {
+        Objects.requireNonNull(deliveryId, "Delivery ID cannot be null");
+        Objects.requireNonNull(sink, "Sink cannot be null");
+
+        TrackingResponse current = trackingApplicationService.getDeliveryTracking(deliveryId)
+            .orElseThrow(() -> new DeliveryNotFoundException("Delivery not found: " + deliveryId));
+
+        Subscriber subscriber = new Subscriber(sink);
+        topics.compute(deliveryId, (id, topic) -> {
+            Topic target = topic != null ? topic : new Topic();
+            if (target.subscribers.size() >= maxSubscribersPerDelivery) {
+                throw new IllegalStateException("Too many live subscribers for delivery: " + deliveryId);
+            }
+            target.subscribers.add(subscriber);
+            subscriber.topic = target;
+            return target;
+        });
+
+        subscriber.offer(serialize(current));
+        if (current.status().isCompleted()) {
+            subscriber.completeAfterDrain();
+        }
+        return subscriber::cancel;
+    }
+
+    @EventListener
+    public void onDeliveryLocationUpdated(NodeLocalEvent<DeliveryLocationUpdatedEvent> event) {
+        markDirty(event.event().deliveryId(), false);
+    }
+
+    @EventListener
+    public void onDeliveryStatusChanged(NodeLocalEvent<DeliveryStatusChangedEvent> event) {
+        markDirty(event.event().deliveryId(), true);
+    }
+
+    @EventListener
+    public void onDeliveryReassigned(NodeLocalEvent<DeliveryReassignedEvent> event) {
+        markDirty(event.event().deliveryId(), true);
+    }
+
+    @Scheduled(fixedRateString = "${app.tracking.stream.tick-ms:250}")
+    public void flushDue() {
+        flush(System.currentTimeMillis());
+    }
+
+    /**
+     * Push a fresh snapshot to every dirty topic whose throttle interval has passed.
+     *
+     * @return the number of snapshots built
+     */
+    int flush(long nowMillis) {
+        int built = 0;
+        for (Map.Entry<DeliveryId, Topic> entry : topics.entrySet()) {
+            DeliveryId deliveryId = entry.getKey();
+            Topic topic = entry.getValue();
+
+            if (topic.subscribers.isEmpty()) {
+                topics.computeIfPresent(deliveryId, (id, current) -> current.subscribers.isEmpty() ? null : current);
+                continue;
+            }
+            if (!topic.dirty || (!topic.urgent && nowMillis - topic.lastFlushMillis < minIntervalMillis)) {
+                continue;
+            }
+
+            topic.dirty = false;
+            topic.urgent = false;
+            topic.lastFlushMillis = nowMillis;
+
+            Optional<TrackingResponse> tracking = trackingApplicationService.getDeliveryTracking(deliveryId);
+            if (tracking.isEmpty()) {
+                closeTopic(deliveryId);
+                continue;
+            }
+
+            String payload = serialize(tracking.get());
+            snapshots.increment();
+            built++;
+            topic.subscribers.forEach(subscriber -> subscriber.offer(payload));
+
+            if (tracking.get().status().isCompleted()) {
+                closeTopic(deliveryId);
+            }
+        }
+        return built;
+    }
+
+    int getSubscriberCount(DeliveryId deliveryId) {
+        Topic topic = topics.get(deliveryId);
+        return topic == null ? 0 : topic.subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        topics.keySet().forEach(this::closeTopic);
+        senders.shutdown();
+    }
+
+    private void markDirty(DeliveryId deliveryId, boolean urgent) {
+        Topic topic = topics.get(deliveryId);
+        if (topic != null) {
+            if (urgent) {
+                topic.urgent = true;
+            }
+            topic.dirty = true;
+        }
+    }
+
+    private void closeTopic(DeliveryId deliveryId) {
+        Topic topic = topics.remove(deliveryId);
+        if (topic != null) {
+            topic.subscribers.forEach(Subscriber::completeAfterDrain);
+        }
+    }
+
+    private String serialize(TrackingResponse tracking) {
+        try {
+            return objectMapper.writeValueAsString(tracking);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize tracking for delivery: " + tracking.deliveryId(), e);
+        }
+    }
+
+    private static final class Topic {
+
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private volatile boolean dirty;
+        private volatile boolean urgent;
+        private long lastFlushMillis;  // only touched by the flushing thread
+    }
+
+    /**
+     * One client. Holds only the newest undelivered snapshot and drains it on a
+     * virtual thread, so a blocked socket never stalls the flush.
+     */
+    private final class Subscriber {
+
+        private final TrackingSink sink;
+        private final AtomicReference<String> pending = new AtomicReference<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean completeAfterDrain;
+        private volatile Topic topic;
+
+        Subscriber(TrackingSink sink) {
+            this.sink = sink;
+        }
+
+        void offer(String payload) {
+            if (closed.get()) {
+                return;
+            }
+            if (pending.getAndSet(payload) != null) {
+                conflated.increment();
+            }
+            scheduleDrain();
+        }
+
+        void completeAfterDrain() {
+            completeAfterDrain = true;
+            scheduleDrain();
+        }
+
+        void cancel() {
+            close();
+        }
+
+        private boolean close() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            Topic current = topic;
+            if (current != null) {
+                current.subscribers.remove(this);
+            }
+            pending.set(null);
+            return true;
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                String payload;
+                while (!closed.get() && (payload = pending.getAndSet(null)) != null) {
+                    sink.send(payload);
+                }
+            } catch (Exception e) {
+                logger.debug("Dropping live tracking subscriber after send failure: {}", e.getMessage());
+                finish();
+                return;
+            } finally {
+                draining.set(false);
+            }
+
+            if (pending.get() != null && !closed.get()) {
+                scheduleDrain();
+            } else if (completeAfterDrain) {
+                finish();
+            }
+        }
+
+        private void finish() {
+            if (!close()) {
+                return;
+            }
+            try {
+                sink.complete();
+            } catch (Exception e) {
+                logger.debug("Error completing live tracking subscriber: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.xavier.mozdeliveryapi.dispatch.infra.web;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xavier.mozdeliveryapi.dispatch.application.dto.BulkLocationUpdateResponse;
 import com.xavier.mozdeliveryapi.dispatch.application.dto.LocationHistoryResponse;
+import com.xavier.mozdeliveryapi.dispatch.application.dto.LocationSampleRequest;
 import com.xavier.mozdeliveryapi.dispatch.application.usecase.TrackingApplicationService;
 import com.xavier.mozdeliveryapi.dispatch.application.dto.TrackingResponse;
+import com.xavier.mozdeliveryapi.dispatch.domain.exception.DeliveryNotFoundException;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryId;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryPersonId;
 import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.TimeRange;
@@ -13,15 +18,24 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import com.xavier.mozdeliveryapi.dispatch.domain.entity.Delivery;
@@ -38,10 +52,29 @@ public class TrackingController {
     
     private static final Logger logger = LoggerFactory.getLogger(TrackingController.class);
     
+    /**
+     * Upper bound on samples per ingest request; devices buffer about a minute of 1 Hz fixes.
+     */
+    static final int MAX_SAMPLES_PER_BATCH = 1000;
+    
+    /**
+     * Live streams are closed after this long; clients reconnect with a fresh snapshot.
+     */
+    static final Duration STREAM_TIMEOUT = Duration.ofMinutes(30);
+    
     private final TrackingApplicationService trackingApplicationService;
+    private final LiveTrackingBroadcaster liveTrackingBroadcaster;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
     
-    public TrackingController(TrackingApplicationService trackingApplicationService) {
+    public TrackingController(TrackingApplicationService trackingApplicationService,
+                              LiveTrackingBroadcaster liveTrackingBroadcaster,
+                              ObjectMapper objectMapper,
+                              Validator validator) {
         this.trackingApplicationService = trackingApplicationService;
+        this.liveTrackingBroadcaster = liveTrackingBroadcaster;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
     }
     
     @Operation(summary = "Get delivery tracking", description = "Retrieves real-time tracking information for a delivery")
@@ -98,6 +131,80 @@ public class TrackingController {
         }
     }
     
+    @Operation(summary = "Stream delivery tracking", description = "Server-sent events with the delivery's tracking snapshot on every location or status change, at most once per second")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tracking stream opened"),
+        @ApiResponse(responseCode = "404", description = "Delivery not found"),
+        @ApiResponse(responseCode = "503", description = "Too many subscribers for this delivery"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping(value = "/deliveries/{deliveryId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAuthority('SCOPE_tracking:read')")
+    public ResponseEntity<SseEmitter> streamDeliveryTracking(
+            @Parameter(description = "Delivery ID") @PathVariable String deliveryId) {
+        
+        logger.debug("Opening tracking stream for delivery: {}", deliveryId);
+        
+        return openStream(DeliveryId.of(deliveryId));
+    }
+    
+    @Operation(summary = "Stream delivery tracking by order", description = "Server-sent events with the tracking snapshot of the order's delivery")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tracking stream opened"),
+        @ApiResponse(responseCode = "404", description = "Order or delivery not found"),
+        @ApiResponse(responseCode = "503", description = "Too many subscribers for this delivery"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping(value = "/orders/{orderId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAuthority('SCOPE_tracking:read')")
+    public ResponseEntity<SseEmitter> streamDeliveryTrackingByOrderId(
+            @Parameter(description = "Order ID") @PathVariable String orderId) {
+        
+        logger.debug("Opening tracking stream for order: {}", orderId);
+        
+        try {
+            return trackingApplicationService.getDeliveryTrackingByOrderId(OrderId.of(orderId))
+                .map(tracking -> openStream(tracking.deliveryId()))
+                .orElse(ResponseEntity.notFound().build());
+            
+        } catch (Exception e) {
+            logger.error("Error opening tracking stream for order: {}", orderId, e);
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    private ResponseEntity<SseEmitter> openStream(DeliveryId deliveryId) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT.toMillis());
+        
+        try {
+            LiveTrackingBroadcaster.Subscription subscription = liveTrackingBroadcaster.subscribe(deliveryId,
+                new LiveTrackingBroadcaster.TrackingSink() {
+                    @Override
+                    public void send(String trackingJson) throws IOException {
+                        emitter.send(SseEmitter.event().name("tracking").data(trackingJson, MediaType.APPLICATION_JSON));
+                    }
+                    
+                    @Override
+                    public void complete() {
+                        emitter.complete();
+                    }
+                });
+            
+            emitter.onCompletion(subscription::cancel);
+            emitter.onTimeout(subscription::cancel);
+            emitter.onError(error -> subscription.cancel());
+            return ResponseEntity.ok(emitter);
+            
+        } catch (DeliveryNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            logger.warn("Rejecting tracking stream: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
     @Operation(summary = "Get active deliveries tracking for person", description = "Retrieves tracking information for all active deliveries of a delivery person")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Active deliveries tracking retrieved successfully"),
@@ -138,15 +245,16 @@ public class TrackingController {
             @Parameter(description = "Latitude") @RequestParam double latitude,
             @Parameter(description = "Longitude") @RequestParam double longitude,
             @Parameter(description = "Location accuracy in meters") @RequestParam(defaultValue = "10.0") double accuracy,
-            @Parameter(description = "Speed in km/h") @RequestParam(defaultValue = "0.0") double speed) {
+            @Parameter(description = "Speed in km/h") @RequestParam(defaultValue = "0.0") double speed,
+            @Parameter(description = "When the location was taken, defaults to when it is received") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant timestamp) {
         
-        logger.info("Updating delivery location: {} to ({}, {}) with accuracy: {} and speed: {}", 
+        logger.debug("Updating delivery location: {} to ({}, {}) with accuracy: {} and speed: {}", 
             deliveryId, latitude, longitude, accuracy, speed);
         
         try {
             Location newLocation = Location.of(latitude, longitude);
             TrackingResponse response = trackingApplicationService.updateDeliveryLocation(
-                DeliveryId.of(deliveryId), newLocation, accuracy, speed);
+                DeliveryId.of(deliveryId), newLocation, timestamp != null ? timestamp : Instant.now(), accuracy, speed);
             
             return ResponseEntity.ok(response);
             
@@ -171,15 +279,17 @@ public class TrackingController {
             @Parameter(description = "Latitude") @RequestParam double latitude,
             @Parameter(description = "Longitude") @RequestParam double longitude,
             @Parameter(description = "Location accuracy in meters") @RequestParam(defaultValue = "10.0") double accuracy,
-            @Parameter(description = "Speed in km/h") @RequestParam(defaultValue = "0.0") double speed) {
+            @Parameter(description = "Speed in km/h") @RequestParam(defaultValue = "0.0") double speed,
+            @Parameter(description = "When the location was taken, defaults to when it is received") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant timestamp) {
         
-        logger.info("Updating delivery person location: {} to ({}, {}) with accuracy: {} and speed: {}", 
+        logger.debug("Updating delivery person location: {} to ({}, {}) with accuracy: {} and speed: {}", 
             deliveryPersonId, latitude, longitude, accuracy, speed);
         
         try {
             Location newLocation = Location.of(latitude, longitude);
             trackingApplicationService.updateDeliveryPersonLocation(
-                DeliveryPersonId.of(deliveryPersonId), newLocation, accuracy, speed);
+                DeliveryPersonId.of(deliveryPersonId), newLocation, timestamp != null ? timestamp : Instant.now(),
+                accuracy, speed);
             
             return ResponseEntity.ok().build();
             
@@ -189,6 +299,87 @@ public class TrackingController {
         }
     }
     
+    @Operation(summary = "Ingest delivery person locations", description = "Applies a batch of timestamped location samples; the courier and their active deliveries are saved once per batch")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Location samples applied successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid or oversized batch"),
+        @ApiResponse(responseCode = "404", description = "Delivery person not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PostMapping(value = "/delivery-persons/{deliveryPersonId}/locations", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('SCOPE_tracking:write')")
+    public ResponseEntity<BulkLocationUpdateResponse> ingestDeliveryPersonLocations(
+            @Parameter(description = "Delivery person ID") @PathVariable String deliveryPersonId,
+            @Valid @RequestBody List<@NotNull LocationSampleRequest> samples) {
+        
+        return ingestLocations(deliveryPersonId, samples);
+    }
+    
+    @Operation(summary = "Stream delivery person locations", description = "Same as the JSON batch, with one location sample per line (NDJSON)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Location samples applied successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid or oversized batch"),
+        @ApiResponse(responseCode = "404", description = "Delivery person not found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PostMapping(value = "/delivery-persons/{deliveryPersonId}/locations", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('SCOPE_tracking:write')")
+    public ResponseEntity<BulkLocationUpdateResponse> ingestDeliveryPersonLocationStream(
+            @Parameter(description = "Delivery person ID") @PathVariable String deliveryPersonId,
+            InputStream body) {
+        
+        List<LocationSampleRequest> samples = new ArrayList<>();
+        try (MappingIterator<LocationSampleRequest> lines = objectMapper
+                .readerFor(LocationSampleRequest.class)
+                .readValues(body)) {
+            while (lines.hasNextValue()) {
+                if (samples.size() == MAX_SAMPLES_PER_BATCH) {
+                    logger.warn("Location stream for delivery person {} exceeds {} samples", 
+                        deliveryPersonId, MAX_SAMPLES_PER_BATCH);
+                    return ResponseEntity.badRequest().build();
+                }
+                LocationSampleRequest sample = lines.nextValue();
+                // Read by hand, so checked here against the same constraints as the JSON batch
+                if (sample == null || !validator.validate(sample).isEmpty()) {
+                    logger.warn("Invalid location sample {} for delivery person: {}", 
+                        samples.size(), deliveryPersonId);
+                    return ResponseEntity.badRequest().build();
+                }
+                samples.add(sample);
+            }
+        } catch (IOException e) {
+            logger.warn("Malformed location stream for delivery person: {}", deliveryPersonId, e);
+            return ResponseEntity.badRequest().build();
+        }
+        
+        return ingestLocations(deliveryPersonId, samples);
+    }
+    
+    private ResponseEntity<BulkLocationUpdateResponse> ingestLocations(String deliveryPersonId, 
+                                                                       List<LocationSampleRequest> samples) {
+        if (samples == null || samples.size() > MAX_SAMPLES_PER_BATCH) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        logger.debug("Ingesting {} location samples for delivery person: {}", samples.size(), deliveryPersonId);
+        
+        try {
+            BulkLocationUpdateResponse response = trackingApplicationService.ingestDeliveryPersonLocations(
+                DeliveryPersonId.of(deliveryPersonId), samples);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (DeliveryNotFoundException e) {
+            logger.warn("Delivery person not found while ingesting locations: {}", deliveryPersonId);
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error ingesting locations for delivery person: {}", deliveryPersonId, e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @Operation(summary = "Get delivery person current location", description = "Retrieves current location of a delivery person")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Current location retrieved successfully"),
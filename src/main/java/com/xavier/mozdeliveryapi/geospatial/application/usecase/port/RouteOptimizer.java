@@ -5,6 +5,8 @@ import java.util.List;
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Distance;
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Route;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.RoutePlan;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.RoutingProblem;
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.TrafficConditions;
 
 /**
@@ -37,6 +39,16 @@ public interface RouteOptimizer {
     Route optimizeRouteWithTimeConstraint(Location startLocation, List<Location> deliveryLocations, 
                                         Location endLocation, Duration maxDuration);
     
+    /**
+     * Solve a capacitated routing problem with time windows within a wall-clock budget.
+     * Stops that cannot be served without breaking a constraint are reported as unassigned.
+     * 
+     * @param problem the stops, vehicle capacity and time constraints
+     * @param timeBudget maximum time to spend improving the route
+     * @return the best plan found within the budget
+     */
+    RoutePlan solve(RoutingProblem problem, Duration timeBudget);
+    
     /**
      * Estimate the total delivery time for a route including stop times.
      * 
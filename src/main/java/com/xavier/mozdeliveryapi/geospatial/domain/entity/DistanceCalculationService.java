@@ -2,6 +2,7 @@ package com.xavier.mozdeliveryapi.geospatial.domain.entity;
 
 import java.util.List;
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Distance;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.DistanceMatrix;
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
 
 /**
@@ -69,4 +70,20 @@ public interface DistanceCalculationService {
      * @return list of locations within the radius
      */
     List<Location> getLocationsWithinRadius(Location center, List<Location> candidates, Distance radius);
+    
+    /**
+     * Calculate the straight-line distance between every pair of locations in one pass.
+     * Route heuristics should build this once and reuse it instead of calling
+     * {@link #calculateStraightLineDistance} inside their loops.
+     * @param locations the locations, indexed in the order given
+     * @return the pairwise distance matrix
+     */
+    DistanceMatrix calculateDistanceMatrix(List<Location> locations);
+    
+    /**
+     * Calculate the estimated road distance between every pair of locations.
+     * @param locations the locations, indexed in the order given
+     * @return the pairwise road distance matrix
+     */
+    DistanceMatrix calculateRoadDistanceMatrix(List<Location> locations);
 }
\ No newline at end of file
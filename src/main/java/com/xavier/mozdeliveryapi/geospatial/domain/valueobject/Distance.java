@@ -1,7 +1,6 @@
 package com.xavier.mozdeliveryapi.geospatial.domain.valueobject;
 
 import com.xavier.mozdeliveryapi.shared.domain.valueobject.ValueObject;
-import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 
 import java.math.BigDecimal;
@@ -10,16 +9,18 @@ import java.util.Objects;
 
 /**
  * Distance value object representing a distance measurement.
- * Internally stores distance in meters for precision.
+ * Internally stores distance as whole centimeters (meters at scale 2), so
+ * comparisons and additions on hot paths never allocate BigDecimals.
  */
 public final class Distance implements ValueObject, Comparable<Distance> {
     
-    @NotNull
+    private static final Distance ZERO = new Distance(0L);
+    
     @PositiveOrZero
-    private final BigDecimal meters;
+    private final long centimeters;
     
-    private Distance(BigDecimal meters) {
-        this.meters = meters.setScale(2, RoundingMode.HALF_UP);
+    private Distance(long centimeters) {
+        this.centimeters = centimeters;
     }
     
     public static Distance ofMeters(BigDecimal meters) {
@@ -27,11 +28,20 @@ public final class Distance implements ValueObject, Comparable<Distance> {
         if (meters.compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("Distance cannot be negative");
         }
-        return new Distance(meters);
+        return new Distance(meters.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
     }
     
+    /**
+     * Allocation-light factory for computed distances; rounds half-up to the centimeter.
+     */
     public static Distance ofMeters(double meters) {
-        return ofMeters(BigDecimal.valueOf(meters));
+        if (Double.isNaN(meters) || Double.isInfinite(meters)) {
+            throw new IllegalArgumentException("Distance must be a finite number");
+        }
+        if (meters < 0) {
+            throw new IllegalArgumentException("Distance cannot be negative");
+        }
+        return new Distance(Math.round(meters * 100.0));
     }
     
     public static Distance ofKilometers(BigDecimal kilometers) {
@@ -44,26 +54,40 @@ public final class Distance implements ValueObject, Comparable<Distance> {
     }
     
     public static Distance zero() {
-        return new Distance(BigDecimal.ZERO);
+        return ZERO;
     }
     
     public BigDecimal getMeters() {
-        return meters;
+        return BigDecimal.valueOf(centimeters, 2);
     }
     
     public BigDecimal getKilometers() {
-        return meters.divide(BigDecimal.valueOf(1000), 3, RoundingMode.HALF_UP);
+        return getMeters().divide(BigDecimal.valueOf(1000), 3, RoundingMode.HALF_UP);
+    }
+    
+    /**
+     * Distance in meters as a primitive, for numeric hot paths.
+     */
+    public double toMeters() {
+        return centimeters / 100.0;
+    }
+    
+    /**
+     * Distance in kilometers as a primitive, for numeric hot paths.
+     */
+    public double toKilometers() {
+        return centimeters / 100_000.0;
     }
     
     public Distance add(Distance other) {
         Objects.requireNonNull(other, "Other distance cannot be null");
-        return new Distance(this.meters.add(other.meters));
+        return new Distance(Math.addExact(this.centimeters, other.centimeters));
     }
     
     public Distance subtract(Distance other) {
         Objects.requireNonNull(other, "Other distance cannot be null");
-        BigDecimal result = this.meters.subtract(other.meters);
-        if (result.compareTo(BigDecimal.ZERO) < 0) {
+        long result = this.centimeters - other.centimeters;
+        if (result < 0) {
             throw new IllegalArgumentException("Result distance cannot be negative");
         }
         return new Distance(result);
@@ -74,23 +98,30 @@ public final class Distance implements ValueObject, Comparable<Distance> {
         if (factor.compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("Factor cannot be negative");
         }
-        return new Distance(this.meters.multiply(factor));
+        return ofMeters(getMeters().multiply(factor));
+    }
+    
+    public Distance multiply(double factor) {
+        if (factor < 0) {
+            throw new IllegalArgumentException("Factor cannot be negative");
+        }
+        return ofMeters(toMeters() * factor);
     }
     
     public boolean isGreaterThan(Distance other) {
         Objects.requireNonNull(other, "Other distance cannot be null");
-        return this.meters.compareTo(other.meters) > 0;
+        return this.centimeters > other.centimeters;
     }
     
     public boolean isLessThan(Distance other) {
         Objects.requireNonNull(other, "Other distance cannot be null");
-        return this.meters.compareTo(other.meters) < 0;
+        return this.centimeters < other.centimeters;
     }
     
     @Override
     public int compareTo(Distance other) {
         Objects.requireNonNull(other, "Other distance cannot be null");
-        return this.meters.compareTo(other.meters);
+        return Long.compare(this.centimeters, other.centimeters);
     }
     
     @Override
@@ -98,20 +129,20 @@ public final class Distance implements ValueObject, Comparable<Distance> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Distance distance = (Distance) o;
-        return Objects.equals(meters, distance.meters);
+        return centimeters == distance.centimeters;
     }
     
     @Override
     public int hashCode() {
-        return Objects.hash(meters);
+        return Long.hashCode(centimeters);
     }
     
     @Override
     public String toString() {
-        if (meters.compareTo(BigDecimal.valueOf(1000)) >= 0) {
+        if (centimeters >= 100_000L) {
             return String.format("%.2f km", getKilometers().doubleValue());
         } else {
-            return String.format("%.0f m", meters.doubleValue());
+            return String.format("%.0f m", toMeters());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package com.xavier.mozdeliveryapi.geospatial.domain.valueobject;
+
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.ValueObject;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Pairwise distances between an ordered list of locations.
+ * Stored row-major in a flat array so route heuristics can evaluate
+ * many candidate orders without recomputing any distance.
+ */
+public final class DistanceMatrix implements ValueObject {
+
+    private final List<Location> locations;
+    private final double[] meters;
+    private final int size;
+
+    private DistanceMatrix(List<Location> locations, double[] meters) {
+        this.locations = List.copyOf(locations);
+        this.meters = meters;
+        this.size = locations.size();
+    }
+
+    /**
+     * Create a matrix from precomputed distances in meters, indexed {@code [from * size + to]}.
+     */
+    public static DistanceMatrix of(List<Location> locations, double[] meters) {
+        Objects.requireNonNull(locations, "Locations cannot be null");
+        Objects.requireNonNull(meters, "Distances cannot be null");
+
+        if (meters.length != locations.size() * locations.size()) {
+            throw new IllegalArgumentException("Distance array must have size * size entries");
+        }
+
+        return new DistanceMatrix(locations, meters.clone());
+    }
+
+    /**
+     * Compute the straight-line (Haversine) matrix; each pair is evaluated once.
+     */
+    public static DistanceMatrix straightLine(List<Location> locations) {
+        Objects.requireNonNull(locations, "Locations cannot be null");
+
+        int n = locations.size();
+        double[] meters = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            Location from = Objects.requireNonNull(locations.get(i), "Location cannot be null");
+            for (int j = i + 1; j < n; j++) {
+                double distance = from.distanceInMetersTo(locations.get(j));
+                meters[i * n + j] = distance;
+                meters[j * n + i] = distance;
+            }
+        }
+
+        return new DistanceMatrix(locations, meters);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Location getLocation(int index) {
+        return locations.get(index);
+    }
+
+    public List<Location> getLocations() {
+        return locations;
+    }
+
+    /**
+     * Distance in meters between two indexed locations.
+     */
+    public double meters(int from, int to) {
+        return meters[from * size + to];
+    }
+
+    public Distance distance(int from, int to) {
+        return Distance.ofMeters(meters(from, to));
+    }
+
+    /**
+     * Total length in meters of a path visiting the given indices in order.
+     */
+    public double pathMeters(int[] order) {
+        Objects.requireNonNull(order, "Order cannot be null");
+
+        double total = 0.0;
+        for (int i = 0; i < order.length - 1; i++) {
+            total += meters[order[i] * size + order[i + 1]];
+        }
+        return total;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DistanceMatrix that = (DistanceMatrix) o;
+        return Objects.equals(locations, that.locations) && Arrays.equals(meters, that.meters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(locations, Arrays.hashCode(meters));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DistanceMatrix{size=%d}", size);
+    }
+}
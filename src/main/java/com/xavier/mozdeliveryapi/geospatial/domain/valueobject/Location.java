@@ -15,6 +15,11 @@ import java.util.Objects;
  */
 public final class Location implements ValueObject {
     
+    /**
+     * Mean Earth radius in meters used by all distance calculations.
+     */
+    public static final double EARTH_RADIUS_METERS = 6371000.0;
+    
     @NotNull
     @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90 degrees")
     @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90 degrees")
@@ -25,9 +30,21 @@ public final class Location implements ValueObject {
     @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180 degrees")
     private final BigDecimal longitude;
     
+    // Primitive copies used by the distance kernel so hot loops never touch BigDecimal
+    private final double latitudeDegrees;
+    private final double longitudeDegrees;
+    private final double latitudeRadians;
+    private final double longitudeRadians;
+    private final double cosLatitude;
+    
     private Location(BigDecimal latitude, BigDecimal longitude) {
         this.latitude = latitude.setScale(8, RoundingMode.HALF_UP);
         this.longitude = longitude.setScale(8, RoundingMode.HALF_UP);
+        this.latitudeDegrees = this.latitude.doubleValue();
+        this.longitudeDegrees = this.longitude.doubleValue();
+        this.latitudeRadians = Math.toRadians(latitudeDegrees);
+        this.longitudeRadians = Math.toRadians(longitudeDegrees);
+        this.cosLatitude = Math.cos(latitudeRadians);
     }
     
     public static Location of(BigDecimal latitude, BigDecimal longitude) {
@@ -57,33 +74,84 @@ public final class Location implements ValueObject {
         return longitude;
     }
     
+    /**
+     * Latitude in degrees as a primitive.
+     */
+    public double latitudeDegrees() {
+        return latitudeDegrees;
+    }
+    
+    /**
+     * Longitude in degrees as a primitive.
+     */
+    public double longitudeDegrees() {
+        return longitudeDegrees;
+    }
+    
     /**
      * Calculate the distance to another location using the Haversine formula.
      * @param other the other location
      * @return distance in meters
      */
     public Distance distanceTo(Location other) {
+        return Distance.ofMeters(distanceInMetersTo(other));
+    }
+    
+    /**
+     * Haversine distance to another location in meters, without allocating.
+     */
+    public double distanceInMetersTo(Location other) {
         Objects.requireNonNull(other, "Other location cannot be null");
+        return haversine(latitudeRadians, longitudeRadians, cosLatitude,
+                         other.latitudeRadians, other.longitudeRadians, other.cosLatitude);
+    }
+    
+    /**
+     * Haversine distance in meters between two points given in degrees.
+     */
+    public static double haversineMeters(double latitude1, double longitude1,
+                                         double latitude2, double longitude2) {
+        double lat1Rad = Math.toRadians(latitude1);
+        double lat2Rad = Math.toRadians(latitude2);
+        return haversine(lat1Rad, Math.toRadians(longitude1), Math.cos(lat1Rad),
+                         lat2Rad, Math.toRadians(longitude2), Math.cos(lat2Rad));
+    }
+    
+    /**
+     * Equirectangular approximation of the distance in meters between two points
+     * given in degrees. Within a few kilometers it is accurate to well under 0.1%
+     * and avoids the trigonometry of Haversine except for one cosine.
+     */
+    public static double equirectangularMeters(double latitude1, double longitude1,
+                                               double latitude2, double longitude2) {
+        double meanLatRad = Math.toRadians((latitude1 + latitude2) / 2);
+        double x = Math.toRadians(longitude2 - longitude1) * Math.cos(meanLatRad);
+        double y = Math.toRadians(latitude2 - latitude1);
+        return Math.sqrt(x * x + y * y) * EARTH_RADIUS_METERS;
+    }
+    
+    /**
+     * Equirectangular approximation of the distance to another location in meters.
+     */
+    public double approximateDistanceInMetersTo(Location other) {
+        Objects.requireNonNull(other, "Other location cannot be null");
+        double x = (other.longitudeRadians - longitudeRadians)
+                * Math.cos((latitudeRadians + other.latitudeRadians) / 2);
+        double y = other.latitudeRadians - latitudeRadians;
+        return Math.sqrt(x * x + y * y) * EARTH_RADIUS_METERS;
+    }
+    
+    private static double haversine(double lat1Rad, double lon1Rad, double cosLat1,
+                                    double lat2Rad, double lon2Rad, double cosLat2) {
+        double sinHalfDeltaLat = Math.sin((lat2Rad - lat1Rad) / 2);
+        double sinHalfDeltaLon = Math.sin((lon2Rad - lon1Rad) / 2);
         
-        double lat1Rad = Math.toRadians(this.latitude.doubleValue());
-        double lon1Rad = Math.toRadians(this.longitude.doubleValue());
-        double lat2Rad = Math.toRadians(other.latitude.doubleValue());
-        double lon2Rad = Math.toRadians(other.longitude.doubleValue());
-        
-        double deltaLat = lat2Rad - lat1Rad;
-        double deltaLon = lon2Rad - lon1Rad;
-        
-        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2) +
-                   Math.cos(lat1Rad) * Math.cos(lat2Rad) *
-                   Math.sin(deltaLon / 2) * Math.sin(deltaLon / 2);
+        double a = sinHalfDeltaLat * sinHalfDeltaLat +
+                   cosLat1 * cosLat2 * sinHalfDeltaLon * sinHalfDeltaLon;
         
         double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
         
-        // Earth's radius in meters
-        double earthRadius = 6371000;
-        double distanceInMeters = earthRadius * c;
-        
-        return Distance.ofMeters(BigDecimal.valueOf(distanceInMeters));
+        return EARTH_RADIUS_METERS * c;
     }
     
     @Override
@@ -71,12 +71,18 @@ public final class Route implements ValueObject {
         
         Distance totalDistance = distanceService.calculateRouteDistance(locations);
         
-        // Estimate duration based on average speed (30 km/h for city driving)
-        double averageSpeedKmh = 30.0;
-        double durationHours = totalDistance.getKilometers().doubleValue() / averageSpeedKmh;
-        Duration estimatedDuration = Duration.ofMinutes((long) (durationHours * 60));
+        return new Route(waypoints, totalDistance, estimateTravelDuration(totalDistance));
+    }
+    
+    /**
+     * Estimate driving time for a distance based on average speed (30 km/h for city driving).
+     */
+    public static Duration estimateTravelDuration(Distance distance) {
+        Objects.requireNonNull(distance, "Distance cannot be null");
         
-        return new Route(waypoints, totalDistance, estimatedDuration);
+        double averageSpeedKmh = 30.0;
+        double durationHours = distance.toKilometers() / averageSpeedKmh;
+        return Duration.ofMinutes((long) (durationHours * 60));
     }
     
     public List<Waypoint> getWaypoints() {
@@ -139,7 +145,7 @@ public final class Route implements ValueObject {
         }
         
         double durationHours = estimatedDuration.toMinutes() / 60.0;
-        return totalDistance.getKilometers().doubleValue() / durationHours;
+        return totalDistance.toKilometers() / durationHours;
     }
     
     @Override
@@ -0,0 +1,48 @@
+package com.xavier.mozdeliveryapi.geospatial.domain.valueobject;
+
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.ValueObject;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Solution of a {@link RoutingProblem}: the stops served in visiting order with
+ * their estimated arrival times, the stops that could not fit, and the route.
+ */
+public record RoutePlan(
+    Route route,
+    List<RouteStop> visitOrder,
+    List<Instant> estimatedArrivals,
+    List<RouteStop> unassignedStops,
+    Duration solveTime
+) implements ValueObject {
+    
+    public RoutePlan {
+        Objects.requireNonNull(route, "Route cannot be null");
+        Objects.requireNonNull(visitOrder, "Visit order cannot be null");
+        Objects.requireNonNull(estimatedArrivals, "Estimated arrivals cannot be null");
+        Objects.requireNonNull(unassignedStops, "Unassigned stops cannot be null");
+        Objects.requireNonNull(solveTime, "Solve time cannot be null");
+        
+        if (estimatedArrivals.size() != visitOrder.size()) {
+            throw new IllegalArgumentException("Each visited stop must have an estimated arrival");
+        }
+        
+        visitOrder = List.copyOf(visitOrder);
+        estimatedArrivals = List.copyOf(estimatedArrivals);
+        unassignedStops = List.copyOf(unassignedStops);
+    }
+    
+    /**
+     * Check if every stop of the problem was routed.
+     */
+    public boolean isComplete() {
+        return unassignedStops.isEmpty();
+    }
+    
+    public Distance getTotalDistance() {
+        return route.getTotalDistance();
+    }
+}
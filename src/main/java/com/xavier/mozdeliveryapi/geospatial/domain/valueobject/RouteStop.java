@@ -0,0 +1,55 @@
+package com.xavier.mozdeliveryapi.geospatial.domain.valueobject;
+
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.ValueObject;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Value object representing a stop to be routed: where it is, what it loads
+ * onto the vehicle, how long it takes to serve and when it may be served.
+ */
+public record RouteStop(
+    Location location,
+    int weight, // in grams
+    int volume, // in cubic centimeters
+    Duration serviceDuration,
+    TimeWindow timeWindow // null when the stop can be served at any time
+) implements ValueObject {
+    
+    public RouteStop {
+        Objects.requireNonNull(location, "Location cannot be null");
+        Objects.requireNonNull(serviceDuration, "Service duration cannot be null");
+        
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight cannot be negative");
+        }
+        if (volume < 0) {
+            throw new IllegalArgumentException("Volume cannot be negative");
+        }
+        if (serviceDuration.isNegative()) {
+            throw new IllegalArgumentException("Service duration cannot be negative");
+        }
+    }
+    
+    /**
+     * Stop with no load, no service time and no time window.
+     */
+    public static RouteStop at(Location location) {
+        return new RouteStop(location, 0, 0, Duration.ZERO, null);
+    }
+    
+    public static RouteStop of(Location location, int weight, int volume, Duration serviceDuration) {
+        return new RouteStop(location, weight, volume, serviceDuration, null);
+    }
+    
+    public static RouteStop of(Location location, int weight, int volume, Duration serviceDuration,
+                               TimeWindow timeWindow) {
+        return new RouteStop(location, weight, volume, serviceDuration, timeWindow);
+    }
+    
+    public Optional<TimeWindow> getTimeWindow() {
+        return Optional.ofNullable(timeWindow);
+    }
+}
@@ -0,0 +1,97 @@
+package com.xavier.mozdeliveryapi.geospatial.domain.valueobject;
+
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.ValueObject;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Single-vehicle routing problem: visit as many stops as capacity, time windows
+ * and the optional maximum duration allow, with the shortest total distance.
+ * As with {@code RouteOptimizer#optimizeRoute}, when the end location equals the
+ * start location the route ends at its last stop instead of returning.
+ * Paired stops load at their pickup and unload at their drop-off, so capacity
+ * bounds what is on board at any point rather than the sum of every stop.
+ */
+public record RoutingProblem(
+    Location startLocation,
+    Location endLocation,
+    List<RouteStop> stops,
+    List<StopPair> pairs,
+    VehicleCapacity capacity,
+    Instant departureTime,
+    Duration maxDuration // null when the route length is unbounded
+) implements ValueObject {
+    
+    public RoutingProblem {
+        Objects.requireNonNull(startLocation, "Start location cannot be null");
+        Objects.requireNonNull(endLocation, "End location cannot be null");
+        Objects.requireNonNull(stops, "Stops cannot be null");
+        Objects.requireNonNull(pairs, "Pairs cannot be null");
+        Objects.requireNonNull(capacity, "Capacity cannot be null");
+        Objects.requireNonNull(departureTime, "Departure time cannot be null");
+        
+        if (maxDuration != null && maxDuration.isNegative()) {
+            throw new IllegalArgumentException("Max duration cannot be negative");
+        }
+        
+        Set<Integer> paired = new HashSet<>();
+        for (StopPair pair : pairs) {
+            if (pair.pickup() >= stops.size() || pair.dropoff() >= stops.size()) {
+                throw new IllegalArgumentException("Pair refers to a stop that does not exist");
+            }
+            if (!paired.add(pair.pickup()) || !paired.add(pair.dropoff())) {
+                throw new IllegalArgumentException("A stop can belong to only one pair");
+            }
+            RouteStop dropoff = stops.get(pair.dropoff());
+            if (dropoff.weight() != 0 || dropoff.volume() != 0) {
+                throw new IllegalArgumentException("Drop-off stops cannot carry load; their pickup does");
+            }
+        }
+        
+        stops = List.copyOf(stops);
+        pairs = List.copyOf(pairs);
+    }
+    
+    /**
+     * Unconstrained problem over plain locations, departing now.
+     */
+    public static RoutingProblem of(Location startLocation, List<Location> locations, Location endLocation) {
+        Objects.requireNonNull(locations, "Locations cannot be null");
+        return new RoutingProblem(startLocation, endLocation,
+                locations.stream().map(RouteStop::at).toList(), List.of(),
+                VehicleCapacity.unlimited(), Instant.now(), null);
+    }
+    
+    public static RoutingProblem of(Location startLocation, List<RouteStop> stops, Location endLocation,
+                                    VehicleCapacity capacity, Instant departureTime) {
+        return new RoutingProblem(startLocation, endLocation, stops, List.of(), capacity, departureTime, null);
+    }
+    
+    /**
+     * Problem whose pickups must each be served before their paired drop-off.
+     */
+    public static RoutingProblem of(Location startLocation, List<RouteStop> stops, List<StopPair> pairs,
+                                    Location endLocation, VehicleCapacity capacity, Instant departureTime) {
+        return new RoutingProblem(startLocation, endLocation, stops, pairs, capacity, departureTime, null);
+    }
+    
+    /**
+     * Copy of this problem whose route may not take longer than the given duration.
+     */
+    public RoutingProblem withMaxDuration(Duration maxDuration) {
+        Objects.requireNonNull(maxDuration, "Max duration cannot be null");
+        return new RoutingProblem(startLocation, endLocation, stops, pairs, capacity, departureTime, maxDuration);
+    }
+    
+    /**
+     * Whether the route returns to a separate end location after its last stop.
+     */
+    public boolean returnsToEnd() {
+        return !endLocation.equals(startLocation);
+    }
+}
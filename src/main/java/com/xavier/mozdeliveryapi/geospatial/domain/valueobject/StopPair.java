@@ -0,0 +1,28 @@
+package com.xavier.mozdeliveryapi.geospatial.domain.valueobject;
+
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.ValueObject;
+
+/**
+ * Value object tying a pickup stop to the drop-off stop it delivers to, by their
+ * indices in {@link RoutingProblem#stops()}. The pickup must be served first, the
+ * pickup's load stays on the vehicle until the drop-off, and the two are routed
+ * or left unassigned together.
+ */
+public record StopPair(
+    int pickup,
+    int dropoff
+) implements ValueObject {
+    
+    public StopPair {
+        if (pickup < 0 || dropoff < 0) {
+            throw new IllegalArgumentException("Stop indices cannot be negative");
+        }
+        if (pickup == dropoff) {
+            throw new IllegalArgumentException("Pickup and drop-off must be different stops");
+        }
+    }
+    
+    public static StopPair of(int pickup, int dropoff) {
+        return new StopPair(pickup, dropoff);
+    }
+}
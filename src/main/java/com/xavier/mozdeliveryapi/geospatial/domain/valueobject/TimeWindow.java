@@ -0,0 +1,37 @@
+package com.xavier.mozdeliveryapi.geospatial.domain.valueobject;
+
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.ValueObject;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Value object representing the interval in which a stop may be served.
+ * Arriving before {@code earliest} means waiting; arriving after {@code latest} is infeasible.
+ */
+public record TimeWindow(
+    Instant earliest,
+    Instant latest
+) implements ValueObject {
+    
+    public TimeWindow {
+        Objects.requireNonNull(earliest, "Earliest time cannot be null");
+        Objects.requireNonNull(latest, "Latest time cannot be null");
+        
+        if (latest.isBefore(earliest)) {
+            throw new IllegalArgumentException("Latest time cannot be before earliest time");
+        }
+    }
+    
+    public static TimeWindow of(Instant earliest, Instant latest) {
+        return new TimeWindow(earliest, latest);
+    }
+    
+    /**
+     * Check if the given instant falls within this window (inclusive).
+     */
+    public boolean contains(Instant instant) {
+        Objects.requireNonNull(instant, "Instant cannot be null");
+        return !instant.isBefore(earliest) && !instant.isAfter(latest);
+    }
+}
@@ -0,0 +1,43 @@
+package com.xavier.mozdeliveryapi.geospatial.domain.valueobject;
+
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.ValueObject;
+
+/**
+ * Value object representing how much a single vehicle can carry on one route.
+ */
+public record VehicleCapacity(
+    int maxStops,
+    int maxWeight, // in grams
+    int maxVolume  // in cubic centimeters
+) implements ValueObject {
+    
+    public VehicleCapacity {
+        if (maxStops <= 0) {
+            throw new IllegalArgumentException("Max stops must be positive");
+        }
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Max weight must be positive");
+        }
+        if (maxVolume <= 0) {
+            throw new IllegalArgumentException("Max volume must be positive");
+        }
+    }
+    
+    public static VehicleCapacity of(int maxStops, int maxWeight, int maxVolume) {
+        return new VehicleCapacity(maxStops, maxWeight, maxVolume);
+    }
+    
+    /**
+     * Capacity that never constrains a route.
+     */
+    public static VehicleCapacity unlimited() {
+        return new VehicleCapacity(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Check if this capacity can accommodate the given load.
+     */
+    public boolean canAccommodate(int stops, long weight, long volume) {
+        return stops <= maxStops && weight <= maxWeight && volume <= maxVolume;
+    }
+}
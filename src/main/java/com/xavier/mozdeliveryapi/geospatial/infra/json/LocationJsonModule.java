@@ -0,0 +1,48 @@
+package com.xavier.mozdeliveryapi.geospatial.infra.json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+
+/**
+ * Reads a {@link Location} from the {@code latitude} and {@code longitude}
+ * properties it is written with, through {@link Location#of(BigDecimal, BigDecimal)}
+ * so coordinates are validated as anywhere else. Spring Boot adds every module
+ * bean to the application's object mapper.
+ */
+@Component
+public class LocationJsonModule extends SimpleModule {
+
+    public LocationJsonModule() {
+        super("LocationJsonModule");
+        addDeserializer(Location.class, new LocationDeserializer());
+    }
+
+    private static final class LocationDeserializer extends JsonDeserializer<Location> {
+
+        @Override
+        public Location deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonNode node = parser.readValueAsTree();
+            JsonNode latitude = node.get("latitude");
+            JsonNode longitude = node.get("longitude");
+            if (latitude == null || longitude == null || !latitude.isNumber() || !longitude.isNumber()) {
+                return context.reportInputMismatch(Location.class,
+                    "Location needs numeric latitude and longitude");
+            }
+            try {
+                return Location.of(latitude.decimalValue(), longitude.decimalValue());
+            } catch (IllegalArgumentException e) {
+                return context.reportInputMismatch(Location.class, e.getMessage());
+            }
+        }
+    }
+}
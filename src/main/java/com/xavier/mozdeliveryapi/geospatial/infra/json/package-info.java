@@ -0,0 +1,7 @@
+/**
+ * JSON mapping for geospatial value objects.
+ *
+ * Lets Jackson read back the value objects it writes, for request bodies and
+ * for events stored in the outbox.
+ */
+package com.xavier.mozdeliveryapi.geospatial.infra.json;
@@ -1,6 +1,7 @@
 package com.xavier.mozdeliveryapi.geospatial.infra.persistence;
 
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Distance;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.DistanceMatrix;
 import com.xavier.mozdeliveryapi.geospatial.domain.entity.DistanceCalculationService;
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
 import org.springframework.stereotype.Service;
@@ -19,6 +20,20 @@ import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Route;
 @Service
 public class DistanceCalculationServiceImpl implements DistanceCalculationService {
     
+    private static final double ROAD_DISTANCE_FACTOR = 1.3;
+    
+    private final RoadDistanceFactorCache roadDistanceFactorCache;
+    
+    public DistanceCalculationServiceImpl() {
+        // Fixed heuristic for now; a routing provider can be plugged in as the factor source
+        this(RoadDistanceFactorCache.constant(ROAD_DISTANCE_FACTOR));
+    }
+    
+    public DistanceCalculationServiceImpl(RoadDistanceFactorCache roadDistanceFactorCache) {
+        this.roadDistanceFactorCache = Objects.requireNonNull(roadDistanceFactorCache,
+            "Road distance factor cache cannot be null");
+    }
+    
     @Override
     public Distance calculateStraightLineDistance(Location from, Location to) {
         Objects.requireNonNull(from, "From location cannot be null");
@@ -36,8 +51,8 @@ public class DistanceCalculationServiceImpl implements DistanceCalculationServic
         // In production, this would call external routing services like Google Maps, Mapbox, etc.
         Distance straightLineDistance = calculateStraightLineDistance(from, to);
         
-        // Apply a rough factor to estimate road distance (typically 1.2-1.5x straight line)
-        return straightLineDistance.multiply(java.math.BigDecimal.valueOf(1.3));
+        // Apply a factor to estimate road distance (typically 1.2-1.5x straight line)
+        return straightLineDistance.multiply(roadDistanceFactorCache.factor(from, to));
     }
     
     @Override
@@ -60,15 +75,15 @@ public class DistanceCalculationServiceImpl implements DistanceCalculationServic
         }
         
         Location closest = candidates.get(0);
-        Distance minDistance = calculateStraightLineDistance(from, closest);
+        double minMeters = from.distanceInMetersTo(closest);
         
         for (int i = 1; i < candidates.size(); i++) {
             Location candidate = candidates.get(i);
-            Distance distance = calculateStraightLineDistance(from, candidate);
+            double meters = from.distanceInMetersTo(candidate);
             
-            if (distance.isLessThan(minDistance)) {
+            if (meters < minMeters) {
                 closest = candidate;
-                minDistance = distance;
+                minMeters = meters;
             }
         }
         
@@ -83,14 +98,13 @@ public class DistanceCalculationServiceImpl implements DistanceCalculationServic
             throw new IllegalArgumentException("Route must have at least 2 locations");
         }
         
-        Distance totalDistance = Distance.zero();
+        double totalMeters = 0.0;
         
         for (int i = 0; i < locations.size() - 1; i++) {
-            Distance segmentDistance = calculateStraightLineDistance(locations.get(i), locations.get(i + 1));
-            totalDistance = totalDistance.add(segmentDistance);
+            totalMeters += locations.get(i).distanceInMetersTo(locations.get(i + 1));
         }
         
-        return totalDistance;
+        return Distance.ofMeters(totalMeters);
     }
     
     @Override
@@ -100,7 +114,7 @@ public class DistanceCalculationServiceImpl implements DistanceCalculationServic
         Objects.requireNonNull(maxDistance, "Max distance cannot be null");
         
         Distance actualDistance = calculateStraightLineDistance(location1, location2);
-        return actualDistance.isLessThan(maxDistance) || actualDistance.equals(maxDistance);
+        return actualDistance.compareTo(maxDistance) <= 0;
     }
     
     @Override
@@ -113,4 +127,28 @@ public class DistanceCalculationServiceImpl implements DistanceCalculationServic
                 .filter(candidate -> isWithinDistance(center, candidate, radius))
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+    
+    @Override
+    public DistanceMatrix calculateDistanceMatrix(List<Location> locations) {
+        Objects.requireNonNull(locations, "Locations cannot be null");
+        
+        return DistanceMatrix.straightLine(locations);
+    }
+    
+    @Override
+    public DistanceMatrix calculateRoadDistanceMatrix(List<Location> locations) {
+        Objects.requireNonNull(locations, "Locations cannot be null");
+        
+        DistanceMatrix straightLine = DistanceMatrix.straightLine(locations);
+        int n = straightLine.size();
+        double[] meters = roadDistanceFactorCache.factors(locations);
+        
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                meters[i * n + j] *= straightLine.meters(i, j);
+            }
+        }
+        
+        return DistanceMatrix.of(locations, meters);
+    }
+}
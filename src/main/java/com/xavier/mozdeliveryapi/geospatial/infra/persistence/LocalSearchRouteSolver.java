@@ -0,0 +1,741 @@
+package com.xavier.mozdeliveryapi.geospatial.infra.persistence;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.DistanceMatrix;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.RouteStop;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.RoutingProblem;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.StopPair;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.TimeWindow;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.VehicleCapacity;
+
+/**
+ * Single-vehicle routing heuristic with capacity, time window and pickup and
+ * drop-off constraints.
+ *
+ * Each start builds a tour (cheapest insertion, nearest neighbour, or randomized
+ * cheapest insertion), improves it with 2-opt and Or-opt moves, then perturbs it
+ * with double-bridge kicks until it stops improving or the wall-clock budget runs
+ * out. Starts run in parallel on a fork-join pool and the tour serving the most
+ * stops, then the shortest one, wins. Start 1 is plain nearest neighbour followed
+ * by local search, so the result is never longer than the previous heuristic.
+ *
+ * A paired pickup is only ever inserted together with its drop-off, and every
+ * move that could reorder them or change the load on board is checked against
+ * the pair constraints before it is kept.
+ *
+ * Move deltas assume a symmetric distance matrix. Travel time uses the same
+ * 30 km/h city average as {@code Route#estimateTravelDuration}.
+ */
+public class LocalSearchRouteSolver {
+
+    public static final double AVERAGE_SPEED_METERS_PER_SECOND = 30_000.0 / 3600.0;
+
+    /**
+     * Below this many stops all starts run on the calling thread.
+     */
+    public static final int PARALLEL_THRESHOLD = 16;
+
+    private static final int MAX_SEGMENT_LENGTH = 3;
+    private static final int MAX_KICKS_WITHOUT_IMPROVEMENT = 100;
+    private static final double RANDOMIZED_INSERTION_NOISE = 0.3;
+    private static final double EPSILON = 1e-7;
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final ForkJoinPool pool;
+    private final int starts;
+
+    public LocalSearchRouteSolver() {
+        this(ForkJoinPool.commonPool(), Math.max(2, ForkJoinPool.commonPool().getParallelism()));
+    }
+
+    public LocalSearchRouteSolver(ForkJoinPool pool, int starts) {
+        this.pool = Objects.requireNonNull(pool, "Pool cannot be null");
+        if (starts <= 0) {
+            throw new IllegalArgumentException("Starts must be positive");
+        }
+        this.starts = starts;
+    }
+
+    /**
+     * Solve the problem over a matrix indexed [start, stops..., end].
+     */
+    public Solution solve(RoutingProblem problem, DistanceMatrix matrix, Duration timeBudget) {
+        Objects.requireNonNull(problem, "Problem cannot be null");
+        Objects.requireNonNull(matrix, "Matrix cannot be null");
+        Objects.requireNonNull(timeBudget, "Time budget cannot be null");
+
+        if (matrix.size() != problem.stops().size() + 2) {
+            throw new IllegalArgumentException("Matrix must cover start, every stop and end");
+        }
+
+        long deadline = System.nanoTime() + Math.max(0L, timeBudget.toNanos());
+        Instance instance = new Instance(problem, matrix);
+
+        if (instance.stopCount < PARALLEL_THRESHOLD || starts == 1) {
+            Solution best = null;
+            for (int start = 0; start < Math.min(starts, 2); start++) {
+                best = better(best, instance.runStart(start, deadline));
+            }
+            return best;
+        }
+
+        List<ForkJoinTask<Solution>> tasks = new ArrayList<>(starts);
+        for (int start = 0; start < starts; start++) {
+            int startIndex = start;
+            tasks.add(pool.submit(() -> instance.runStart(startIndex, deadline)));
+        }
+
+        Solution best = null;
+        for (ForkJoinTask<Solution> task : tasks) {
+            best = better(best, task.join());
+        }
+        return best;
+    }
+
+    private static Solution better(Solution current, Solution candidate) {
+        return current == null || candidate.isBetterThan(current) ? candidate : current;
+    }
+
+    /**
+     * Solved tour. Stop indices refer to {@link RoutingProblem#stops()}; arrival
+     * offsets are seconds after departure.
+     */
+    public record Solution(int[] order, int[] unassigned, double meters, double[] arrivalSeconds) {
+
+        public int servedCount() {
+            return order.length;
+        }
+
+        boolean isBetterThan(Solution other) {
+            if (order.length != other.order.length) {
+                return order.length > other.order.length;
+            }
+            return meters < other.meters - EPSILON;
+        }
+    }
+
+    /**
+     * Problem flattened into arrays indexed by matrix node: 0 is the start, stops are
+     * 1..n and the end is n + 1.
+     */
+    private static final class Instance {
+
+        private final int stopCount;
+        private final int nodeCount;
+        private final int endNode;
+        private final boolean returnsToEnd;
+        private final double[] meters;
+        private final int[] weight;
+        private final int[] volume;
+        private final double[] serviceSeconds;
+        private final double[] earliestSeconds;
+        private final double[] latestSeconds;
+        private final double maxDurationSeconds;
+        private final boolean timed;
+        private final int[] dropoffOf; // 0 unless the node is a paired pickup
+        private final int[] pickupOf; // 0 unless the node is a paired drop-off
+        private final boolean paired;
+        private final boolean constrained;
+        private final VehicleCapacity capacity;
+
+        Instance(RoutingProblem problem, DistanceMatrix matrix) {
+            this.stopCount = problem.stops().size();
+            this.nodeCount = stopCount + 2;
+            this.endNode = stopCount + 1;
+            this.returnsToEnd = problem.returnsToEnd();
+            this.capacity = problem.capacity();
+
+            this.meters = new double[nodeCount * nodeCount];
+            for (int from = 0; from < nodeCount; from++) {
+                for (int to = 0; to < nodeCount; to++) {
+                    meters[from * nodeCount + to] = matrix.meters(from, to);
+                }
+            }
+
+            this.weight = new int[nodeCount];
+            this.volume = new int[nodeCount];
+            this.serviceSeconds = new double[nodeCount];
+            this.earliestSeconds = new double[nodeCount];
+            this.latestSeconds = new double[nodeCount];
+            Arrays.fill(latestSeconds, Double.POSITIVE_INFINITY);
+
+            Instant departure = problem.departureTime();
+            boolean hasWindows = false;
+            for (int i = 0; i < stopCount; i++) {
+                RouteStop stop = problem.stops().get(i);
+                int node = i + 1;
+                weight[node] = stop.weight();
+                volume[node] = stop.volume();
+                serviceSeconds[node] = stop.serviceDuration().toMillis() / 1000.0;
+                TimeWindow window = stop.timeWindow();
+                if (window != null) {
+                    earliestSeconds[node] = secondsBetween(departure, window.earliest());
+                    latestSeconds[node] = secondsBetween(departure, window.latest());
+                    hasWindows = true;
+                }
+            }
+
+            this.maxDurationSeconds = problem.maxDuration() != null
+                    ? problem.maxDuration().toMillis() / 1000.0 : Double.POSITIVE_INFINITY;
+            this.timed = hasWindows || problem.maxDuration() != null;
+
+            this.dropoffOf = new int[nodeCount];
+            this.pickupOf = new int[nodeCount];
+            for (StopPair pair : problem.pairs()) {
+                dropoffOf[pair.pickup() + 1] = pair.dropoff() + 1;
+                pickupOf[pair.dropoff() + 1] = pair.pickup() + 1;
+            }
+            this.paired = !problem.pairs().isEmpty();
+            this.constrained = timed || paired;
+        }
+
+        Solution runStart(int start, long deadline) {
+            Random random = new Random(SEED + start);
+            Tour tour = new Tour(stopCount);
+
+            if (start == 1) {
+                nearestNeighbour(tour);
+            } else {
+                insertCheapest(tour, start == 0 ? null : random);
+            }
+            improve(tour, deadline);
+
+            Tour best = tour.copy();
+            int kicksWithoutImprovement = 0;
+            while (tour.length >= 8 && kicksWithoutImprovement < MAX_KICKS_WITHOUT_IMPROVEMENT
+                    && System.nanoTime() < deadline) {
+                if (!doubleBridge(tour, random)) {
+                    kicksWithoutImprovement++;
+                    continue;
+                }
+                improve(tour, deadline);
+                if (tour.length > best.length
+                        || tour.length == best.length && length(tour) < length(best) - EPSILON) {
+                    best = tour.copy();
+                    kicksWithoutImprovement = 0;
+                } else {
+                    tour.copyFrom(best);
+                    kicksWithoutImprovement++;
+                }
+            }
+
+            return toSolution(best);
+        }
+
+        // Construction
+
+        /**
+         * Repeatedly insert the stop with the cheapest feasible insertion. With a random
+         * source the costs are perturbed so different starts explore different tours.
+         */
+        private void insertCheapest(Tour tour, Random random) {
+            while (insertBest(tour, random)) {
+                // keep inserting until nothing else fits
+            }
+        }
+
+        /**
+         * Insert the stop, or pickup and drop-off, with the cheapest feasible insertion.
+         * A drop-off goes into a gap at or after its pickup's, and into the same gap
+         * means straight after it.
+         */
+        private boolean insertBest(Tour tour, Random random) {
+            int bestNode = -1;
+            int bestPosition = -1;
+            int bestDropoffGap = -1;
+            double bestScore = Double.POSITIVE_INFINITY;
+
+            for (int node = 1; node <= stopCount; node++) {
+                if (tour.routed[node] || pickupOf[node] > 0 || !fits(tour, node)) {
+                    continue;
+                }
+                int dropoff = dropoffOf[node];
+                for (int position = 0; position <= tour.length; position++) {
+                    if (dropoff == 0) {
+                        double delta = insertionDelta(tour, node, position);
+                        double score = random == null
+                                ? delta : delta * (1.0 + RANDOMIZED_INSERTION_NOISE * random.nextDouble());
+                        if (score < bestScore && (!constrained || isFeasibleWith(tour, node, position, 0, -1))) {
+                            bestNode = node;
+                            bestPosition = position;
+                            bestDropoffGap = -1;
+                            bestScore = score;
+                        }
+                        continue;
+                    }
+                    for (int gap = position; gap <= tour.length; gap++) {
+                        double delta = pairInsertionDelta(tour, node, position, dropoff, gap);
+                        double score = random == null
+                                ? delta : delta * (1.0 + RANDOMIZED_INSERTION_NOISE * random.nextDouble());
+                        if (score < bestScore && isFeasibleWith(tour, node, position, dropoff, gap)) {
+                            bestNode = node;
+                            bestPosition = position;
+                            bestDropoffGap = gap;
+                            bestScore = score;
+                        }
+                    }
+                }
+            }
+
+            if (bestNode < 0) {
+                return false;
+            }
+            tour.insert(bestNode, bestPosition, this);
+            if (bestDropoffGap >= 0) {
+                tour.insert(dropoffOf[bestNode], bestDropoffGap + 1, this);
+            }
+            return true;
+        }
+
+        /**
+         * Append the closest stop that still fits, as the original optimizer did. A
+         * drop-off becomes a candidate once its pickup is on the route; pickups whose
+         * drop-off never fit are taken off again at the end.
+         */
+        private void nearestNeighbour(Tour tour) {
+            while (true) {
+                int current = tour.length == 0 ? 0 : tour.nodes[tour.length - 1];
+                int bestNode = -1;
+                double bestMeters = Double.POSITIVE_INFINITY;
+
+                for (int node = 1; node <= stopCount; node++) {
+                    double distance = meters(current, node);
+                    if (!tour.routed[node] && distance < bestMeters
+                            && (pickupOf[node] > 0 ? tour.routed[pickupOf[node]] : fits(tour, node))
+                            && (!constrained || isFeasibleWith(tour, node, tour.length, 0, -1))) {
+                        bestNode = node;
+                        bestMeters = distance;
+                    }
+                }
+
+                if (bestNode < 0) {
+                    break;
+                }
+                tour.insert(bestNode, tour.length, this);
+            }
+
+            for (int position = tour.length - 1; position >= 0; position--) {
+                int dropoff = dropoffOf[tour.nodes[position]];
+                if (dropoff > 0 && !tour.routed[dropoff]) {
+                    tour.remove(position, this);
+                }
+            }
+        }
+
+        // Local search
+
+        private void improve(Tour tour, long deadline) {
+            boolean improved = true;
+            while (improved && System.nanoTime() < deadline) {
+                improved = twoOpt(tour, deadline) || orOpt(tour, deadline) || insertCheapestOnce(tour);
+            }
+        }
+
+        /**
+         * Reverse the first segment whose reversal shortens the tour.
+         */
+        private boolean twoOpt(Tour tour, long deadline) {
+            int[] nodes = tour.nodes;
+            int length = tour.length;
+
+            for (int i = 0; i < length - 1; i++) {
+                if (System.nanoTime() >= deadline) {
+                    return false;
+                }
+                int before = i == 0 ? 0 : nodes[i - 1];
+                for (int j = i + 1; j < length; j++) {
+                    int after = successor(tour, j);
+                    double delta = meters(before, nodes[j]) - meters(before, nodes[i]);
+                    if (after >= 0) {
+                        delta += meters(nodes[i], after) - meters(nodes[j], after);
+                    }
+                    if (delta < -EPSILON) {
+                        tour.reverse(i, j);
+                        if (!constrained || isFeasible(tour, tour.nodes, length)) {
+                            return true;
+                        }
+                        tour.reverse(i, j);
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Move the first segment of one to three stops, possibly reversed, to a position
+         * that shortens the tour.
+         */
+        private boolean orOpt(Tour tour, long deadline) {
+            int[] nodes = tour.nodes;
+            int length = tour.length;
+
+            for (int segment = 1; segment <= Math.min(MAX_SEGMENT_LENGTH, length - 1); segment++) {
+                for (int i = 0; i + segment <= length; i++) {
+                    if (System.nanoTime() >= deadline) {
+                        return false;
+                    }
+                    int first = nodes[i];
+                    int last = nodes[i + segment - 1];
+                    int before = i == 0 ? 0 : nodes[i - 1];
+                    int after = successor(tour, i + segment - 1);
+
+                    double removalGain = meters(before, first);
+                    if (after >= 0) {
+                        removalGain += meters(last, after) - meters(before, after);
+                    }
+
+                    // Gap g lies between nodes[g - 1] and nodes[g]; gaps touching the segment are no-ops
+                    for (int gap = 0; gap <= length; gap++) {
+                        if (gap >= i && gap <= i + segment) {
+                            continue;
+                        }
+                        int left = gap == 0 ? 0 : nodes[gap - 1];
+                        int right = gap == length ? (returnsToEnd ? endNode : -1) : nodes[gap];
+                        double bridged = right >= 0 ? meters(left, right) : 0.0;
+
+                        double forward = meters(left, first) + (right >= 0 ? meters(last, right) : 0.0) - bridged;
+                        double reversed = meters(left, last) + (right >= 0 ? meters(first, right) : 0.0) - bridged;
+                        boolean reverse = reversed < forward;
+                        double delta = Math.min(forward, reversed) - removalGain;
+
+                        if (delta < -EPSILON && tour.tryMove(i, segment, gap, reverse, this)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Insert one unrouted stop if a move freed enough time or room for it.
+         */
+        private boolean insertCheapestOnce(Tour tour) {
+            if (!constrained || tour.length == stopCount) {
+                return false;
+            }
+            return insertBest(tour, null);
+        }
+
+        /**
+         * Double-bridge kick: A B C D becomes A C B D. Returns false if the kicked tour
+         * breaks a time or pair constraint, leaving the tour unchanged.
+         */
+        private boolean doubleBridge(Tour tour, Random random) {
+            int length = tour.length;
+            int first = 1 + random.nextInt(length - 3);
+            int second = first + 1 + random.nextInt(length - first - 2);
+            int third = second + 1 + random.nextInt(length - second - 1);
+
+            int[] kicked = tour.scratch;
+            int k = 0;
+            for (int i = 0; i < first; i++) kicked[k++] = tour.nodes[i];
+            for (int i = second; i < third; i++) kicked[k++] = tour.nodes[i];
+            for (int i = first; i < second; i++) kicked[k++] = tour.nodes[i];
+            for (int i = third; i < length; i++) kicked[k++] = tour.nodes[i];
+
+            if (constrained && !isFeasible(tour, kicked, length)) {
+                return false;
+            }
+            tour.swapScratch();
+            return true;
+        }
+
+        // Evaluation
+
+        private double meters(int from, int to) {
+            return meters[from * nodeCount + to];
+        }
+
+        /**
+         * Node visited after the given tour position, or -1 when the route ends there.
+         */
+        private int successor(Tour tour, int position) {
+            if (position + 1 < tour.length) {
+                return tour.nodes[position + 1];
+            }
+            return returnsToEnd ? endNode : -1;
+        }
+
+        private double insertionDelta(Tour tour, int node, int position) {
+            int before = position == 0 ? 0 : tour.nodes[position - 1];
+            int after = position < tour.length ? tour.nodes[position] : (returnsToEnd ? endNode : -1);
+            double delta = meters(before, node);
+            if (after >= 0) {
+                delta += meters(node, after) - meters(before, after);
+            }
+            return delta;
+        }
+
+        /**
+         * Drop-off inserted straight after its pickup when the gaps are the same,
+         * otherwise each goes into its own gap of the current tour.
+         */
+        private double pairInsertionDelta(Tour tour, int pickup, int position, int dropoff, int gap) {
+            if (gap > position) {
+                return insertionDelta(tour, pickup, position) + insertionDelta(tour, dropoff, gap);
+            }
+            int before = position == 0 ? 0 : tour.nodes[position - 1];
+            int after = position < tour.length ? tour.nodes[position] : (returnsToEnd ? endNode : -1);
+            double delta = meters(before, pickup) + meters(pickup, dropoff);
+            if (after >= 0) {
+                delta += meters(dropoff, after) - meters(before, after);
+            }
+            return delta;
+        }
+
+        /**
+         * With pairs the load on board depends on the order, so only the stop count
+         * is checked here and the load when the candidate tour is simulated.
+         */
+        private boolean fits(Tour tour, int node) {
+            if (paired) {
+                return tour.length + (dropoffOf[node] > 0 ? 2 : 1) <= capacity.maxStops();
+            }
+            return capacity.canAccommodate(tour.length + 1,
+                    tour.weight + weight[node], tour.volume + volume[node]);
+        }
+
+        private double length(Tour tour) {
+            int previous = 0;
+            double total = 0.0;
+            for (int i = 0; i < tour.length; i++) {
+                total += meters(previous, tour.nodes[i]);
+                previous = tour.nodes[i];
+            }
+            if (returnsToEnd) {
+                total += meters(previous, endNode);
+            }
+            return total;
+        }
+
+        /**
+         * Check the tour with the node inserted at the position and, when the drop-off
+         * is not 0, the drop-off inserted into the given gap after it.
+         */
+        private boolean isFeasibleWith(Tour tour, int node, int position, int dropoff, int gap) {
+            int[] candidate = tour.scratch;
+            int k = 0;
+            for (int i = 0; i <= tour.length; i++) {
+                if (i == position) {
+                    candidate[k++] = node;
+                }
+                if (dropoff > 0 && i == gap) {
+                    candidate[k++] = dropoff;
+                }
+                if (i < tour.length) {
+                    candidate[k++] = tour.nodes[i];
+                }
+            }
+            return isFeasible(tour, candidate, k);
+        }
+
+        /**
+         * Simulate the schedule: waiting is allowed before a window opens, arriving after
+         * it closes is not, and the route must finish within the maximum duration.
+         */
+        private boolean isFeasible(Tour tour, int[] nodes, int length) {
+            if (paired && !respectsPairs(tour, nodes, length)) {
+                return false;
+            }
+            if (!timed) {
+                return true;
+            }
+            double time = 0.0;
+            int previous = 0;
+            for (int i = 0; i < length; i++) {
+                int node = nodes[i];
+                time += meters(previous, node) / AVERAGE_SPEED_METERS_PER_SECOND;
+                if (time > latestSeconds[node] + EPSILON) {
+                    return false;
+                }
+                time = Math.max(time, earliestSeconds[node]) + serviceSeconds[node];
+                previous = node;
+            }
+            if (returnsToEnd) {
+                time += meters(previous, endNode) / AVERAGE_SPEED_METERS_PER_SECOND;
+            }
+            return time <= maxDurationSeconds + EPSILON;
+        }
+
+        /**
+         * Every drop-off follows its pickup and what is on board never exceeds the
+         * vehicle's capacity. Unpaired stops stay loaded to the end of the route.
+         */
+        private boolean respectsPairs(Tour tour, int[] nodes, int length) {
+            int visit = tour.nextVisit();
+            long onBoardWeight = 0;
+            long onBoardVolume = 0;
+            for (int i = 0; i < length; i++) {
+                int node = nodes[i];
+                int pickup = pickupOf[node];
+                if (pickup > 0) {
+                    if (tour.visited[pickup] != visit) {
+                        return false;
+                    }
+                    onBoardWeight -= weight[pickup];
+                    onBoardVolume -= volume[pickup];
+                } else {
+                    onBoardWeight += weight[node];
+                    onBoardVolume += volume[node];
+                    if (onBoardWeight > capacity.maxWeight() || onBoardVolume > capacity.maxVolume()) {
+                        return false;
+                    }
+                }
+                tour.visited[node] = visit;
+            }
+            return true;
+        }
+
+        private Solution toSolution(Tour tour) {
+            int[] order = new int[tour.length];
+            double[] arrivals = new double[tour.length];
+            double time = 0.0;
+            int previous = 0;
+            for (int i = 0; i < tour.length; i++) {
+                int node = tour.nodes[i];
+                time += meters(previous, node) / AVERAGE_SPEED_METERS_PER_SECOND;
+                arrivals[i] = time;
+                time = Math.max(time, earliestSeconds[node]) + serviceSeconds[node];
+                order[i] = node - 1;
+                previous = node;
+            }
+
+            int[] unassigned = new int[stopCount - tour.length];
+            int u = 0;
+            for (int node = 1; node <= stopCount; node++) {
+                if (!tour.routed[node]) {
+                    unassigned[u++] = node - 1;
+                }
+            }
+
+            return new Solution(order, unassigned, length(tour), arrivals);
+        }
+
+        private static double secondsBetween(Instant from, Instant to) {
+            return Duration.between(from, to).toMillis() / 1000.0;
+        }
+    }
+
+    /**
+     * Mutable tour state for one start, with a scratch buffer for candidate moves.
+     */
+    private static final class Tour {
+
+        private int[] nodes;
+        private int[] scratch;
+        private final boolean[] routed;
+        private final int[] visited; // last check that passed each node, see nextVisit
+        private int visit;
+        private int length;
+        private long weight;
+        private long volume;
+
+        Tour(int stopCount) {
+            this.nodes = new int[stopCount];
+            this.scratch = new int[stopCount];
+            this.routed = new boolean[stopCount + 2];
+            this.visited = new int[stopCount + 2];
+        }
+
+        void insert(int node, int position, Instance instance) {
+            System.arraycopy(nodes, position, nodes, position + 1, length - position);
+            nodes[position] = node;
+            length++;
+            routed[node] = true;
+            weight += instance.weight[node];
+            volume += instance.volume[node];
+        }
+
+        void remove(int position, Instance instance) {
+            int node = nodes[position];
+            System.arraycopy(nodes, position + 1, nodes, position, length - position - 1);
+            length--;
+            routed[node] = false;
+            weight -= instance.weight[node];
+            volume -= instance.volume[node];
+        }
+
+        /**
+         * Mark for a new pass over a candidate tour, so nodes seen by earlier passes
+         * do not need clearing.
+         */
+        int nextVisit() {
+            if (++visit == 0) {
+                Arrays.fill(visited, 0);
+                visit = 1;
+            }
+            return visit;
+        }
+
+        void reverse(int from, int to) {
+            for (int i = from, j = to; i < j; i++, j--) {
+                int node = nodes[i];
+                nodes[i] = nodes[j];
+                nodes[j] = node;
+            }
+        }
+
+        /**
+         * Move {@code segment} nodes starting at {@code from} into the given gap, keeping the
+         * result only if it respects the instance's time and pair constraints.
+         */
+        boolean tryMove(int from, int segment, int gap, boolean reverse, Instance instance) {
+            int k = 0;
+            int end = from + segment;
+            for (int i = 0; i < length; i++) {
+                if (i == gap) {
+                    k = copySegment(from, segment, reverse, k);
+                }
+                if (i < from || i >= end) {
+                    scratch[k++] = nodes[i];
+                }
+            }
+            if (gap == length) {
+                k = copySegment(from, segment, reverse, k);
+            }
+
+            if (instance.constrained && !instance.isFeasible(this, scratch, length)) {
+                return false;
+            }
+            swapScratch();
+            return true;
+        }
+
+        private int copySegment(int from, int segment, boolean reverse, int k) {
+            for (int s = 0; s < segment; s++) {
+                scratch[k++] = nodes[reverse ? from + segment - 1 - s : from + s];
+            }
+            return k;
+        }
+
+        void swapScratch() {
+            int[] previous = nodes;
+            nodes = scratch;
+            scratch = previous;
+        }
+
+        Tour copy() {
+            Tour copy = new Tour(nodes.length);
+            copy.copyFrom(this);
+            return copy;
+        }
+
+        void copyFrom(Tour other) {
+            System.arraycopy(other.nodes, 0, nodes, 0, other.length);
+            System.arraycopy(other.routed, 0, routed, 0, routed.length);
+            length = other.length;
+            weight = other.weight;
+            volume = other.volume;
+        }
+    }
+}
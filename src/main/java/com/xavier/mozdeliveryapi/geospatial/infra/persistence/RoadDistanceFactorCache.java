@@ -0,0 +1,210 @@
+package com.xavier.mozdeliveryapi.geospatial.infra.persistence;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleBiFunction;
+
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+
+/**
+ * Bounded LRU cache of road-distance factors (road distance / straight-line distance).
+ * Coordinates are quantized so repeated trips between the same places, e.g. pickups
+ * at the same merchant, hit the cache instead of the factor source.
+ *
+ * Entries are split over lock stripes, each its own LRU, so concurrent lookups of
+ * different pairs rarely wait on each other. A cache made with {@link #constant}
+ * stores nothing and answers without a lookup.
+ */
+public class RoadDistanceFactorCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    /**
+     * Quantization step in degrees (~110 m of latitude).
+     */
+    public static final double DEFAULT_QUANTUM_DEGREES = 0.001;
+
+    static final int DEFAULT_STRIPES = 16;
+
+    private final ToDoubleBiFunction<Location, Location> factorSource;
+    private final double constantFactor;
+    private final double quantumDegrees;
+    private final Stripe[] stripes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public RoadDistanceFactorCache(ToDoubleBiFunction<Location, Location> factorSource) {
+        this(factorSource, DEFAULT_MAX_ENTRIES, DEFAULT_QUANTUM_DEGREES);
+    }
+
+    public RoadDistanceFactorCache(ToDoubleBiFunction<Location, Location> factorSource,
+                                   int maxEntries, double quantumDegrees) {
+        this(factorSource, maxEntries, quantumDegrees, DEFAULT_STRIPES);
+    }
+
+    RoadDistanceFactorCache(ToDoubleBiFunction<Location, Location> factorSource,
+                            int maxEntries, double quantumDegrees, int stripeCount) {
+        this.factorSource = Objects.requireNonNull(factorSource, "Factor source cannot be null");
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        if (quantumDegrees <= 0.0) {
+            throw new IllegalArgumentException("Quantum must be positive");
+        }
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        this.constantFactor = Double.NaN;
+        this.quantumDegrees = quantumDegrees;
+
+        // The stripes share maxEntries between them, so the whole cache never holds more
+        int count = Math.min(stripeCount, maxEntries);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(maxEntries / count + (i < maxEntries % count ? 1 : 0));
+        }
+    }
+
+    private RoadDistanceFactorCache(double constantFactor) {
+        if (!(constantFactor > 0.0) || Double.isInfinite(constantFactor)) {
+            throw new IllegalArgumentException("Factor must be positive and finite");
+        }
+        this.factorSource = (from, to) -> constantFactor;
+        this.constantFactor = constantFactor;
+        this.quantumDegrees = DEFAULT_QUANTUM_DEGREES;
+        this.stripes = new Stripe[0];
+    }
+
+    /**
+     * A cache for a factor that is the same for every pair, which needs no entries.
+     */
+    public static RoadDistanceFactorCache constant(double factor) {
+        return new RoadDistanceFactorCache(factor);
+    }
+
+    /**
+     * Whether every pair has the same factor, {@link #getConstantFactor()}.
+     */
+    public boolean isConstant() {
+        return stripes.length == 0;
+    }
+
+    /**
+     * The factor for every pair, or NaN if it depends on the pair.
+     */
+    public double getConstantFactor() {
+        return constantFactor;
+    }
+
+    /**
+     * Road-distance factor for a pair of locations, computed at most once per quantized pair
+     * while it stays in the cache.
+     */
+    public double factor(Location from, Location to) {
+        Objects.requireNonNull(from, "From location cannot be null");
+        Objects.requireNonNull(to, "To location cannot be null");
+        if (isConstant()) {
+            return constantFactor;
+        }
+        return factor(from, quantize(from), to, quantize(to));
+    }
+
+    /**
+     * Factors between every pair of {@code locations}, row-major, with each location
+     * quantized once rather than once per pair. The diagonal is left at 0.
+     */
+    public double[] factors(List<Location> locations) {
+        Objects.requireNonNull(locations, "Locations cannot be null");
+        int n = locations.size();
+        double[] factors = new double[n * n];
+        if (isConstant()) {
+            Arrays.fill(factors, constantFactor);
+            for (int i = 0; i < n; i++) {
+                factors[i * n + i] = 0.0;
+            }
+            return factors;
+        }
+
+        long[] cells = new long[n];
+        for (int i = 0; i < n; i++) {
+            cells[i] = quantize(Objects.requireNonNull(locations.get(i), "Location cannot be null"));
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i != j) {
+                    factors[i * n + j] = factor(locations.get(i), cells[i], locations.get(j), cells[j]);
+                }
+            }
+        }
+        return factors;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private double factor(Location from, long fromCell, Location to, long toCell) {
+        PairKey key = new PairKey(fromCell, toCell);
+        Stripe stripe = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+        synchronized (stripe) {
+            Double cached = stripe.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+
+        // Computed outside the lock; a concurrent miss on the same pair just computes it twice
+        misses.increment();
+        double factor = factorSource.applyAsDouble(from, to);
+        synchronized (stripe) {
+            stripe.put(key, factor);
+        }
+        return factor;
+    }
+
+    private long quantize(Location location) {
+        int row = (int) Math.floor(location.latitudeDegrees() / quantumDegrees);
+        int column = (int) Math.floor(location.longitudeDegrees() / quantumDegrees);
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    private record PairKey(long from, long to) {
+    }
+
+    /**
+     * One LRU share of the entries, guarded by its own monitor.
+     */
+    private static final class Stripe extends LinkedHashMap<PairKey, Double> {
+
+        private final int maxEntries;
+
+        Stripe(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PairKey, Double> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
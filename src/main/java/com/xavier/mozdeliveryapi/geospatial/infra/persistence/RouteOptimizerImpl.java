@@ -3,26 +3,40 @@ package com.xavier.mozdeliveryapi.geospatial.infra.persistence;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
-import com.xavier.mozdeliveryapi.dispatch.domain.entity.Delivery;
 import com.xavier.mozdeliveryapi.geospatial.domain.entity.DistanceCalculationService;
 import com.xavier.mozdeliveryapi.geospatial.application.usecase.port.RouteOptimizer;
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Distance;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.DistanceMatrix;
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Route;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.RoutePlan;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.RouteStop;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.RoutingProblem;
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.TrafficConditions;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.VehicleCapacity;
 import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.WaypointType;
 
 /**
  * Implementation of RouteOptimizer using heuristic algorithms.
- * Uses nearest neighbor algorithm for route optimization and various
- * heuristics for delivery time estimation.
+ * Routes are planned by {@link LocalSearchRouteSolver} (insertion construction
+ * plus 2-opt/Or-opt local search) and various heuristics are used for
+ * delivery time estimation.
  */
 @Service
 public class RouteOptimizerImpl implements RouteOptimizer {
     
+    private static final Duration DEFAULT_STOP_DURATION = Duration.ofMinutes(5);
+    
+    /**
+     * Wall-clock budget for the synchronous optimize methods; small routes converge well before it.
+     */
+    private static final Duration DEFAULT_TIME_BUDGET = Duration.ofMillis(50);
+    
     private final DistanceCalculationService distanceCalculationService;
+    private final LocalSearchRouteSolver solver = new LocalSearchRouteSolver();
     
     public RouteOptimizerImpl(DistanceCalculationService distanceCalculationService) {
         this.distanceCalculationService = Objects.requireNonNull(distanceCalculationService, 
@@ -40,48 +54,55 @@ public class RouteOptimizerImpl implements RouteOptimizer {
             return Route.fromLocations(List.of(startLocation, endLocation), distanceCalculationService);
         }
         
-        // Use nearest neighbor algorithm to find optimal order
-        List<Location> optimizedOrder = findOptimalOrder(startLocation, deliveryLocations);
-        
-        // Build complete route: start -> optimized deliveries -> end
-        List<Location> completeRoute = new ArrayList<>();
-        completeRoute.add(startLocation);
-        completeRoute.addAll(optimizedOrder);
-        if (!endLocation.equals(startLocation)) {
-            completeRoute.add(endLocation);
-        }
-        
-        return Route.fromLocations(completeRoute, distanceCalculationService);
+        return solve(RoutingProblem.of(startLocation, deliveryLocations, endLocation), DEFAULT_TIME_BUDGET).route();
     }
     
     @Override
     public Route optimizeRouteWithTimeConstraint(Location startLocation, List<Location> deliveryLocations, 
                                                Location endLocation, Duration maxDuration) {
+        Objects.requireNonNull(startLocation, "Start location cannot be null");
+        Objects.requireNonNull(deliveryLocations, "Delivery locations cannot be null");
+        Objects.requireNonNull(endLocation, "End location cannot be null");
         Objects.requireNonNull(maxDuration, "Max duration cannot be null");
         
-        Route optimizedRoute = optimizeRoute(startLocation, deliveryLocations, endLocation);
-        
-        // Check if route meets time constraint
-        Duration estimatedDuration = estimateDeliveryTime(optimizedRoute, Duration.ofMinutes(5)); // 5 min per stop
-        
-        if (estimatedDuration.compareTo(maxDuration) <= 0) {
-            return optimizedRoute;
+        if (deliveryLocations.isEmpty()) {
+            return optimizeRoute(startLocation, deliveryLocations, endLocation);
         }
         
-        // If route is too long, try to reduce delivery locations
-        // This is a simplified approach - in production, more sophisticated algorithms would be used
-        List<Location> reducedDeliveries = new ArrayList<>(deliveryLocations);
+        // The solver keeps as many deliveries as fit in the duration instead of dropping the furthest ones
+        List<RouteStop> stops = deliveryLocations.stream()
+                .map(location -> RouteStop.of(location, 0, 0, DEFAULT_STOP_DURATION))
+                .toList();
+        RoutingProblem problem = RoutingProblem.of(startLocation, stops, endLocation,
+                VehicleCapacity.unlimited(), Instant.now()).withMaxDuration(maxDuration);
         
-        while (!reducedDeliveries.isEmpty() && estimatedDuration.compareTo(maxDuration) > 0) {
-            // Remove the delivery location that's furthest from the route
-            Location furthest = findFurthestLocation(startLocation, reducedDeliveries);
-            reducedDeliveries.remove(furthest);
-            
-            optimizedRoute = optimizeRoute(startLocation, reducedDeliveries, endLocation);
-            estimatedDuration = estimateDeliveryTime(optimizedRoute, Duration.ofMinutes(5));
+        return solve(problem, DEFAULT_TIME_BUDGET).route();
+    }
+    
+    @Override
+    public RoutePlan solve(RoutingProblem problem, Duration timeBudget) {
+        Objects.requireNonNull(problem, "Problem cannot be null");
+        Objects.requireNonNull(timeBudget, "Time budget cannot be null");
+        
+        long startedAt = System.nanoTime();
+        List<RouteStop> stops = problem.stops();
+        DistanceMatrix matrix = buildMatrix(problem.startLocation(),
+                stops.stream().map(RouteStop::location).toList(), problem.endLocation());
+        LocalSearchRouteSolver.Solution solution = solver.solve(problem, matrix, timeBudget);
+        
+        int[] order = new int[solution.servedCount()];
+        List<RouteStop> visitOrder = new ArrayList<>(order.length);
+        List<Instant> arrivals = new ArrayList<>(order.length);
+        for (int i = 0; i < order.length; i++) {
+            order[i] = solution.order()[i] + 1;
+            visitOrder.add(stops.get(solution.order()[i]));
+            arrivals.add(problem.departureTime().plusMillis(Math.round(solution.arrivalSeconds()[i] * 1000)));
         }
+        List<RouteStop> unassigned = Arrays.stream(solution.unassigned()).mapToObj(stops::get).toList();
         
-        return optimizedRoute;
+        Route route = buildRoute(matrix, order, problem.returnsToEnd());
+        return new RoutePlan(route, visitOrder, arrivals, unassigned,
+                Duration.ofNanos(System.nanoTime() - startedAt));
     }
     
     @Override
@@ -115,19 +136,12 @@ public class RouteOptimizerImpl implements RouteOptimizer {
             return new ArrayList<>(locations);
         }
         
-        // Nearest neighbor algorithm
-        List<Location> unvisited = new ArrayList<>(locations);
-        List<Location> optimizedOrder = new ArrayList<>();
-        Location currentLocation = startLocation;
-        
-        while (!unvisited.isEmpty()) {
-            Location nearest = findNearestLocation(currentLocation, unvisited);
-            optimizedOrder.add(nearest);
-            unvisited.remove(nearest);
-            currentLocation = nearest;
-        }
+        // Open path from the start: ending at the start location means the route stops at the last visit
+        RoutePlan plan = solve(RoutingProblem.of(startLocation, locations, startLocation), DEFAULT_TIME_BUDGET);
         
-        return optimizedOrder;
+        return plan.visitOrder().stream()
+                .map(RouteStop::location)
+                .collect(Collectors.toCollection(ArrayList::new));
     }
     
     @Override
@@ -147,43 +161,33 @@ public class RouteOptimizerImpl implements RouteOptimizer {
             return List.of(route);
         }
         
-        List<Route> routeOptions = new ArrayList<>();
+        DistanceMatrix matrix = buildMatrix(startLocation, deliveryLocations, endLocation);
+        boolean includeEnd = !endLocation.equals(startLocation);
+        
+        // Candidate orders are scored on the matrix; Route objects are only built for the winners
+        Map<List<Integer>, Double> candidates = new HashMap<>();
+        LocalSearchRouteSolver.Solution solution = solver.solve(
+                RoutingProblem.of(startLocation, deliveryLocations, endLocation), matrix, DEFAULT_TIME_BUDGET);
+        int[] optimizedOrder = Arrays.stream(solution.order()).map(index -> index + 1).toArray();
+        candidates.put(asList(optimizedOrder), routeMeters(matrix, optimizedOrder, includeEnd));
         
         // Generate different route permutations (limited to avoid exponential explosion)
         int permutationsToTry = Math.min(maxRoutes * 2, factorial(Math.min(deliveryLocations.size(), 8)));
-        
-        Set<List<Location>> triedPermutations = new HashSet<>();
+        List<Integer> shuffled = new ArrayList<>(allStops(deliveryLocations.size()));
         Random random = new Random();
         
-        for (int i = 0; i < permutationsToTry && routeOptions.size() < maxRoutes; i++) {
-            List<Location> shuffledDeliveries = new ArrayList<>(deliveryLocations);
-            Collections.shuffle(shuffledDeliveries, random);
-            
-            if (!triedPermutations.contains(shuffledDeliveries)) {
-                triedPermutations.add(new ArrayList<>(shuffledDeliveries));
-                
-                List<Location> completeRoute = new ArrayList<>();
-                completeRoute.add(startLocation);
-                completeRoute.addAll(shuffledDeliveries);
-                if (!endLocation.equals(startLocation)) {
-                    completeRoute.add(endLocation);
-                }
-                
-                Route route = Route.fromLocations(completeRoute, distanceCalculationService);
-                routeOptions.add(route);
-            }
-        }
-        
-        // Always include the optimized route
-        Route optimizedRoute = optimizeRoute(startLocation, deliveryLocations, endLocation);
-        if (!routeOptions.contains(optimizedRoute)) {
-            routeOptions.add(optimizedRoute);
+        for (int i = 0; i < permutationsToTry; i++) {
+            Collections.shuffle(shuffled, random);
+            int[] order = shuffled.stream().mapToInt(Integer::intValue).toArray();
+            candidates.putIfAbsent(List.copyOf(shuffled), routeMeters(matrix, order, includeEnd));
         }
         
         // Sort by total distance (best first)
-        return routeOptions.stream()
-                .sorted(Comparator.comparing(Route::getTotalDistance))
+        return candidates.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
                 .limit(maxRoutes)
+                .map(entry -> buildRoute(matrix,
+                        entry.getKey().stream().mapToInt(Integer::intValue).toArray(), includeEnd))
                 .collect(Collectors.toList());
     }
     
@@ -247,25 +251,56 @@ public class RouteOptimizerImpl implements RouteOptimizer {
     
     // Helper methods
     
-    private Location findNearestLocation(Location from, List<Location> candidates) {
-        return distanceCalculationService.findClosestLocation(from, candidates);
+    /**
+     * Matrix over [start, deliveries..., end]; start is index 0 and end is the last index.
+     */
+    private DistanceMatrix buildMatrix(Location startLocation, List<Location> deliveryLocations,
+                                       Location endLocation) {
+        List<Location> points = new ArrayList<>(deliveryLocations.size() + 2);
+        points.add(startLocation);
+        points.addAll(deliveryLocations);
+        points.add(endLocation);
+        return distanceCalculationService.calculateDistanceMatrix(points);
     }
     
-    private Location findFurthestLocation(Location from, List<Location> candidates) {
-        Location furthest = candidates.get(0);
-        Distance maxDistance = distanceCalculationService.calculateStraightLineDistance(from, furthest);
-        
-        for (int i = 1; i < candidates.size(); i++) {
-            Location candidate = candidates.get(i);
-            Distance distance = distanceCalculationService.calculateStraightLineDistance(from, candidate);
-            
-            if (distance.isGreaterThan(maxDistance)) {
-                furthest = candidate;
-                maxDistance = distance;
-            }
+    private static List<Integer> allStops(int deliveryCount) {
+        List<Integer> stops = new ArrayList<>(deliveryCount);
+        for (int i = 1; i <= deliveryCount; i++) {
+            stops.add(i);
         }
-        
-        return furthest;
+        return stops;
+    }
+    
+    /**
+     * Route length summed in the same order as {@link Route#fromLocations}, so estimates match exactly.
+     */
+    private static double routeMeters(DistanceMatrix matrix, int[] order, boolean includeEnd) {
+        double total = 0.0;
+        int previous = 0;
+        for (int index : order) {
+            total += matrix.meters(previous, index);
+            previous = index;
+        }
+        if (includeEnd) {
+            total += matrix.meters(previous, matrix.size() - 1);
+        }
+        return total;
+    }
+    
+    private Route buildRoute(DistanceMatrix matrix, int[] order, boolean includeEnd) {
+        List<Location> completeRoute = new ArrayList<>(order.length + 2);
+        completeRoute.add(matrix.getLocation(0));
+        for (int index : order) {
+            completeRoute.add(matrix.getLocation(index));
+        }
+        if (includeEnd || order.length == 0) {
+            completeRoute.add(matrix.getLocation(matrix.size() - 1));
+        }
+        return Route.fromLocations(completeRoute, distanceCalculationService);
+    }
+    
+    private static List<Integer> asList(int[] order) {
+        return Arrays.stream(order).boxed().toList();
     }
     
     private int factorial(int n) {
@@ -276,4 +311,4 @@ public class RouteOptimizerImpl implements RouteOptimizer {
         }
         return result;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package com.xavier.mozdeliveryapi.notification.application.dto;
+
+import java.util.Map;
+import java.util.Objects;
+
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationPriority;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.Recipient;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+/**
+ * A notification to be created for a merchant's customer or courier.
+ */
+public record NotificationRequest(
+    MerchantId merchantId,
+    Recipient recipient,
+    NotificationChannel channel,
+    String templateId,
+    Map<String, String> parameters,
+    NotificationPriority priority
+) {
+
+    public NotificationRequest {
+        Objects.requireNonNull(merchantId, "Merchant ID cannot be null");
+        Objects.requireNonNull(recipient, "Recipient cannot be null");
+        Objects.requireNonNull(channel, "Channel cannot be null");
+        Objects.requireNonNull(templateId, "Template ID cannot be null");
+        Objects.requireNonNull(priority, "Priority cannot be null");
+        parameters = parameters == null ? Map.of() : Map.copyOf(parameters);
+    }
+
+    /**
+     * The same request at {@code priority}.
+     */
+    public NotificationRequest withPriority(NotificationPriority priority) {
+        return new NotificationRequest(merchantId, recipient, channel, templateId, parameters, priority);
+    }
+}
@@ -7,13 +7,14 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import com.xavier.mozdeliveryapi.dispatch.domain.event.DeliveryAssignedEvent;
 import com.xavier.mozdeliveryapi.dispatch.domain.event.DeliveryCompletedEvent;
 import com.xavier.mozdeliveryapi.dispatch.domain.event.DeliveryLocationUpdatedEvent;
 import com.xavier.mozdeliveryapi.dispatch.domain.event.DeliveryStatusChangedEvent;
+import com.xavier.mozdeliveryapi.notification.application.dto.NotificationRequest;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationPriority;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.Recipient;
@@ -21,21 +22,23 @@ import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
 
 /**
  * Event handler for delivery-related events that trigger notifications.
+ * Runs once the event's transaction has committed and only queues the
+ * notifications; they are created in the background.
  */
 @Component
 public class DeliveryEventHandler {
     
     private static final Logger logger = LoggerFactory.getLogger(DeliveryEventHandler.class);
     
-    private final NotificationService notificationService;
+    private final NotificationDispatcher notificationDispatcher;
     private final TenantResolutionService tenantResolutionService;
     
-    public DeliveryEventHandler(NotificationService notificationService, TenantResolutionService tenantResolutionService) {
-        this.notificationService = notificationService;
+    public DeliveryEventHandler(NotificationDispatcher notificationDispatcher, TenantResolutionService tenantResolutionService) {
+        this.notificationDispatcher = notificationDispatcher;
         this.tenantResolutionService = tenantResolutionService;
     }
     
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     public void handleDeliveryAssigned(DeliveryAssignedEvent event) {
         logger.info("Handling DeliveryAssignedEvent for delivery: {}", event.deliveryId());
         
@@ -43,7 +46,7 @@ public class DeliveryEventHandler {
             MerchantId merchantId = tenantResolutionService.resolveMerchantFromOrderId(event.orderId().toString());
             
             // Notify customer that delivery has been assigned
-            notificationService.createNotification(
+            notificationDispatcher.dispatch("order:" + event.orderId(), new NotificationRequest(
                 merchantId,
                 Recipient.phone("customer_phone_" + event.orderId(), "Customer"),
                 NotificationChannel.SMS,
@@ -54,10 +57,10 @@ public class DeliveryEventHandler {
                     "statusMessage", "Your order has been assigned to a delivery person and is on its way."
                 ),
                 NotificationPriority.NORMAL
-            );
+            ));
             
             // Notify delivery person about new assignment
-            notificationService.createNotification(
+            notificationDispatcher.dispatch("order:" + event.orderId(), new NotificationRequest(
                 merchantId,
                 Recipient.deviceToken("delivery_device_" + event.deliveryPersonId(), "Delivery Person"),
                 NotificationChannel.PUSH_NOTIFICATION,
@@ -69,16 +72,17 @@ public class DeliveryEventHandler {
                     "statusMessage", "You have been assigned a new delivery: " + event.orderId()
                 ),
                 NotificationPriority.HIGH
-            );
+            ));
             
-            logger.info("Delivery assignment notifications created successfully for delivery: {}", event.deliveryId());
+            logger.info("Delivery assignment notifications queued for delivery: {}", event.deliveryId());
             
         } catch (Exception e) {
-            logger.error("Failed to create delivery assignment notifications for delivery: {}", event.deliveryId(), e);
+            logger.error("Failed to queue delivery assignment notifications for delivery: {}", event.deliveryId(), e);
+            throw e;
         }
     }
     
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     public void handleDeliveryCompleted(DeliveryCompletedEvent event) {
         logger.info("Handling DeliveryCompletedEvent for delivery: {}", event.deliveryId());
         
@@ -88,7 +92,7 @@ public class DeliveryEventHandler {
                 .format(DateTimeFormatter.ofPattern("HH:mm"));
             
             // Create SMS notification for delivery completion
-            notificationService.createNotification(
+            notificationDispatcher.dispatch("order:" + event.orderId(), new NotificationRequest(
                 merchantId,
                 Recipient.phone("customer_phone_" + event.orderId(), "Customer"),
                 NotificationChannel.SMS,
@@ -98,10 +102,10 @@ public class DeliveryEventHandler {
                     "deliveryTime", deliveryTime
                 ),
                 NotificationPriority.NORMAL
-            );
+            ));
             
             // Create push notification for delivery completion
-            notificationService.createNotification(
+            notificationDispatcher.dispatch("order:" + event.orderId(), new NotificationRequest(
                 merchantId,
                 Recipient.deviceToken("device_token_" + event.orderId(), "Customer"),
                 NotificationChannel.PUSH_NOTIFICATION,
@@ -113,16 +117,17 @@ public class DeliveryEventHandler {
                     "deliveryAddress", "Your delivery address"
                 ),
                 NotificationPriority.NORMAL
-            );
+            ));
             
-            logger.info("Delivery completion notifications created successfully for delivery: {}", event.deliveryId());
+            logger.info("Delivery completion notifications queued for delivery: {}", event.deliveryId());
             
         } catch (Exception e) {
-            logger.error("Failed to create delivery completion notifications for delivery: {}", event.deliveryId(), e);
+            logger.error("Failed to queue delivery completion notifications for delivery: {}", event.deliveryId(), e);
+            throw e;
         }
     }
     
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     public void handleDeliveryStatusChanged(DeliveryStatusChangedEvent event) {
         logger.info("Handling DeliveryStatusChangedEvent for delivery: {} - {}", 
                    event.deliveryId(), event.newStatus());
@@ -133,7 +138,7 @@ public class DeliveryEventHandler {
             
             // Only send notifications for significant status changes
             if (isSignificantStatusChange(event.newStatus().toString())) {
-                notificationService.createNotification(
+                notificationDispatcher.dispatch("order:" + event.orderId(), new NotificationRequest(
                     merchantId,
                     Recipient.phone("customer_phone_" + event.orderId(), "Customer"),
                     NotificationChannel.SMS,
@@ -144,17 +149,18 @@ public class DeliveryEventHandler {
                         "statusMessage", statusMessage
                     ),
                     NotificationPriority.NORMAL
-                );
+                ));
                 
-                logger.info("Delivery status change notification created for delivery: {}", event.deliveryId());
+                logger.info("Delivery status change notification queued for delivery: {}", event.deliveryId());
             }
             
         } catch (Exception e) {
-            logger.error("Failed to create delivery status change notification for delivery: {}", event.deliveryId(), e);
+            logger.error("Failed to queue delivery status change notification for delivery: {}", event.deliveryId(), e);
+            throw e;
         }
     }
     
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     public void handleDeliveryLocationUpdated(DeliveryLocationUpdatedEvent event) {
         logger.debug("Handling DeliveryLocationUpdatedEvent for delivery: {}", event.deliveryId());
         
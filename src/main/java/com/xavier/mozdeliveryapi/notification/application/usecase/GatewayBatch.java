@@ -0,0 +1,59 @@
+package com.xavier.mozdeliveryapi.notification.application.usecase;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.xavier.mozdeliveryapi.notification.application.usecase.port.NotificationGateway;
+import com.xavier.mozdeliveryapi.notification.domain.entity.Notification;
+import com.xavier.mozdeliveryapi.notification.domain.entity.NotificationResult;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationId;
+
+/**
+ * Notifications to send through one gateway in a single call.
+ */
+public record GatewayBatch(NotificationGateway gateway, List<Notification> notifications) {
+
+    public GatewayBatch {
+        Objects.requireNonNull(gateway, "Gateway cannot be null");
+        Objects.requireNonNull(notifications, "Notifications cannot be null");
+        if (notifications.isEmpty()) {
+            throw new IllegalArgumentException("Batch cannot be empty");
+        }
+        notifications = List.copyOf(notifications);
+    }
+
+    /**
+     * Send the batch and match each result to its notification. A
+     * notification the gateway returned no result for counts as failed. If
+     * the whole batch throws, the notifications are sent again one at a time
+     * so that only the ones that fail are marked failed.
+     *
+     * @return the result for each notification
+     */
+    public Map<NotificationId, NotificationResult> send() {
+        List<NotificationResult> results;
+        try {
+            results = gateway.sendBatch(notifications);
+        } catch (RuntimeException e) {
+            results = notifications.stream().map(this::sendOne).toList();
+        }
+        Map<NotificationId, NotificationResult> byNotification = new HashMap<>();
+        for (int i = 0; i < notifications.size(); i++) {
+            NotificationResult result = i < results.size() && results.get(i) != null
+                ? results.get(i)
+                : NotificationResult.failure("No result from gateway");
+            byNotification.put(notifications.get(i).getNotificationId(), result);
+        }
+        return byNotification;
+    }
+
+    private NotificationResult sendOne(Notification notification) {
+        try {
+            return gateway.send(notification);
+        } catch (RuntimeException e) {
+            return NotificationResult.failure(e.getMessage());
+        }
+    }
+}
@@ -41,9 +41,9 @@ public interface NotificationApplicationService {
     void cancelNotification(String notificationId);
     
     /**
-     * Process pending notifications.
+     * Queue pending notifications that are not queued yet.
      * 
-     * @return the number of notifications processed
+     * @return the number of notifications queued
      */
     int processPendingNotifications();
 }
@@ -37,7 +37,7 @@ public class NotificationApplicationServiceImpl implements NotificationApplicati
     public NotificationResponse sendNotification(SendNotificationRequest request) {
         MerchantId merchantId = MerchantId.of(request.tenantId());
         
-        // Create the notification
+        // Create the notification; it is sent from the queue
         Notification notification = notificationService.createNotification(
             merchantId,
             request.recipient(),
@@ -47,9 +47,6 @@ public class NotificationApplicationServiceImpl implements NotificationApplicati
             request.priority()
         );
         
-        // Send the notification
-        notificationService.sendNotification(notification);
-        
         return mapToResponse(notification);
     }
     
@@ -0,0 +1,21 @@
+package com.xavier.mozdeliveryapi.notification.application.usecase;
+
+import com.xavier.mozdeliveryapi.notification.application.dto.NotificationRequest;
+
+/**
+ * Creates notifications in the background for the event handlers.
+ */
+public interface NotificationDispatcher {
+
+    /**
+     * Queue a notification and return straight away.
+     *
+     * Requests with the same {@code coalesceKey}, channel and recipient that
+     * arrive close together are merged: only the latest is created, at the
+     * highest priority among them.
+     *
+     * @param coalesceKey what the notification is about, such as an order
+     * @param request the notification to create
+     */
+    void dispatch(String coalesceKey, NotificationRequest request);
+}
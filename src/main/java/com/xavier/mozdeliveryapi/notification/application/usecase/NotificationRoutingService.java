@@ -1,5 +1,7 @@
 package com.xavier.mozdeliveryapi.notification.application.usecase;
 
+import java.util.List;
+
 import com.xavier.mozdeliveryapi.notification.domain.entity.Notification;
 import com.xavier.mozdeliveryapi.notification.application.usecase.port.NotificationGateway;
 
@@ -16,6 +18,17 @@ public interface NotificationRoutingService {
      */
     NotificationGateway routeNotification(Notification notification);
     
+    /**
+     * Group notifications into batches by channel and gateway, each no
+     * larger than the gateway accepts or {@code maxBatchSize}.
+     * Notifications with no gateway are left out.
+     * 
+     * @param notifications the notifications to route
+     * @param maxBatchSize the largest batch wanted
+     * @return the batches to send
+     */
+    List<GatewayBatch> routeBatches(List<Notification> notifications, int maxBatchSize);
+    
     /**
      * Register a notification gateway.
      * 
@@ -4,7 +4,6 @@ import java.util.List;
 import java.util.Map;
 
 import com.xavier.mozdeliveryapi.notification.domain.entity.Notification;
-import com.xavier.mozdeliveryapi.notification.domain.entity.NotificationResult;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationId;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationPriority;
@@ -37,17 +36,10 @@ public interface NotificationService {
     );
     
     /**
-     * Send a notification.
+     * Queue pending notifications that are not queued yet, e.g. those left
+     * over from before a restart.
      * 
-     * @param notification the notification to send
-     * @return the result of the send operation
-     */
-    NotificationResult sendNotification(Notification notification);
-    
-    /**
-     * Process pending notifications.
-     * 
-     * @return the number of notifications processed
+     * @return the number of notifications queued
      */
     int processPendingNotifications();
     
@@ -4,18 +4,18 @@ import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import com.xavier.mozdeliveryapi.notification.domain.entity.Notification;
-import com.xavier.mozdeliveryapi.notification.domain.entity.NotificationResult;
-import com.xavier.mozdeliveryapi.notification.domain.entity.NotificationTemplate;
+import com.xavier.mozdeliveryapi.notification.domain.entity.CompiledNotificationTemplate;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationId;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationPriority;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationStatus;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.Recipient;
 import com.xavier.mozdeliveryapi.notification.application.usecase.port.NotificationRepository;
-import com.xavier.mozdeliveryapi.notification.application.usecase.port.NotificationGateway;
+import com.xavier.mozdeliveryapi.notification.application.usecase.port.NotificationQueue;
 
 /**
  * Implementation of the notification domain service.
@@ -23,18 +23,23 @@ import com.xavier.mozdeliveryapi.notification.application.usecase.port.Notificat
 @Service
 public class NotificationServiceImpl implements NotificationService {
     
+    /**
+     * Parameter that selects a locale variant of the template, e.g. "pt-MZ".
+     */
+    public static final String LOCALE_PARAMETER = "locale";
+    
     private final NotificationRepository notificationRepository;
     private final TemplateService templateService;
-    private final NotificationRoutingService routingService;
+    private final NotificationQueue notificationQueue;
     
     public NotificationServiceImpl(
             NotificationRepository notificationRepository,
             TemplateService templateService,
-            NotificationRoutingService routingService
+            NotificationQueue notificationQueue
     ) {
         this.notificationRepository = notificationRepository;
         this.templateService = templateService;
-        this.routingService = routingService;
+        this.notificationQueue = notificationQueue;
     }
     
     @Override
@@ -46,8 +51,9 @@ public class NotificationServiceImpl implements NotificationService {
             Map<String, String> parameters,
             NotificationPriority priority
     ) {
-        // Get the template
-        NotificationTemplate template = templateService.getTemplate(templateId, channel);
+        // Get the compiled template for the merchant and the recipient's locale
+        CompiledNotificationTemplate template = templateService.getCompiledTemplate(
+            templateId, channel, merchantId, localeOf(parameters));
         
         // Render the template
         String subject = template.renderSubject(parameters);
@@ -66,50 +72,21 @@ public class NotificationServiceImpl implements NotificationService {
             priority
         );
         
-        return notificationRepository.save(notification);
-    }
-    
-    @Override
-    public NotificationResult sendNotification(Notification notification) {
-        // Route the notification to the appropriate gateway
-        NotificationGateway gateway = routingService.routeNotification(notification);
-        
-        if (gateway == null) {
-            notification.markAsFailed("No gateway available for channel: " + notification.getChannel());
-            notificationRepository.save(notification);
-            return NotificationResult.failure("No gateway available");
-        }
-        
-        // Send the notification
-        NotificationResult result = gateway.send(notification);
-        
-        // Update the notification status
-        if (result.success()) {
-            notification.markAsSent(result.externalId());
-        } else {
-            notification.markAsFailed(result.errorMessage());
-        }
-        
-        notificationRepository.save(notification);
-        return result;
+        Notification saved = notificationRepository.save(notification);
+        notificationQueue.enqueue(saved);
+        return saved;
     }
     
     @Override
     public int processPendingNotifications() {
-        List<Notification> pendingNotifications = notificationRepository.findByStatus(NotificationStatus.PENDING);
-        int processed = 0;
-        
-        for (Notification notification : pendingNotifications) {
-            try {
-                sendNotification(notification);
-                processed++;
-            } catch (Exception e) {
-                notification.markAsFailed("Processing error: " + e.getMessage());
-                notificationRepository.save(notification);
+        // Only needed after a restart; new notifications are queued when created
+        int queued = 0;
+        for (Notification notification : notificationRepository.findByStatus(NotificationStatus.PENDING)) {
+            if (notificationQueue.enqueue(notification)) {
+                queued++;
             }
         }
-        
-        return processed;
+        return queued;
     }
     
     @Override
@@ -126,4 +103,12 @@ public class NotificationServiceImpl implements NotificationService {
             notificationRepository.save(notification);
         }
     }
+    
+    /**
+     * The locale named by the {@value #LOCALE_PARAMETER} parameter, if any.
+     */
+    private static Locale localeOf(Map<String, String> parameters) {
+        String languageTag = parameters.get(LOCALE_PARAMETER);
+        return languageTag == null || languageTag.isBlank() ? null : Locale.forLanguageTag(languageTag);
+    }
 }
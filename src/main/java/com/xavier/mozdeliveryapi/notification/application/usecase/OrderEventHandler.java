@@ -4,12 +4,12 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import com.xavier.mozdeliveryapi.notification.application.dto.NotificationRequest;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationPriority;
-import com.xavier.mozdeliveryapi.notification.application.usecase.NotificationService;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.Recipient;
 import com.xavier.mozdeliveryapi.order.domain.event.OrderCancelledEvent;
 import com.xavier.mozdeliveryapi.order.domain.event.OrderCreatedEvent;
@@ -19,27 +19,29 @@ import com.xavier.mozdeliveryapi.order.domain.entity.Order;
 
 /**
  * Event handler for order-related events that trigger notifications.
+ * Runs once the event's transaction has committed and only queues the
+ * notifications; they are created in the background.
  */
 @Component("orderNotificationEventHandler")
 public class OrderEventHandler {
     
     private static final Logger logger = LoggerFactory.getLogger(OrderEventHandler.class);
     
-    private final NotificationService notificationService;
+    private final NotificationDispatcher notificationDispatcher;
     private final TenantResolutionService tenantResolutionService;
     
-    public OrderEventHandler(NotificationService notificationService, TenantResolutionService tenantResolutionService) {
-        this.notificationService = notificationService;
+    public OrderEventHandler(NotificationDispatcher notificationDispatcher, TenantResolutionService tenantResolutionService) {
+        this.notificationDispatcher = notificationDispatcher;
         this.tenantResolutionService = tenantResolutionService;
     }
     
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     public void handleOrderCreated(OrderCreatedEvent event) {
         logger.info("Handling OrderCreatedEvent for order: {}", event.orderId());
         
         try {
             // Create SMS notification for order creation
-            notificationService.createNotification(
+            notificationDispatcher.dispatch("order:" + event.orderId(), new NotificationRequest(
                 event.merchantId(),
                 Recipient.phone("customer_phone_" + event.customerId(), "Customer"),
                 NotificationChannel.SMS,
@@ -51,10 +53,10 @@ public class OrderEventHandler {
                     "estimatedDelivery", "30-45 minutes"
                 ),
                 NotificationPriority.NORMAL
-            );
+            ));
             
             // Create push notification for order creation
-            notificationService.createNotification(
+            notificationDispatcher.dispatch("order:" + event.orderId(), new NotificationRequest(
                 event.merchantId(),
                 Recipient.deviceToken("device_token_" + event.customerId(), "Customer"),
                 NotificationChannel.PUSH_NOTIFICATION,
@@ -67,16 +69,17 @@ public class OrderEventHandler {
                     "estimatedDelivery", "30-45 minutes"
                 ),
                 NotificationPriority.NORMAL
-            );
+            ));
             
-            logger.info("Order creation notifications created successfully for order: {}", event.orderId());
+            logger.info("Order creation notifications queued for order: {}", event.orderId());
             
         } catch (Exception e) {
-            logger.error("Failed to create order creation notifications for order: {}", event.orderId(), e);
+            logger.error("Failed to queue order creation notifications for order: {}", event.orderId(), e);
+            throw e;
         }
     }
     
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     public void handleOrderStatusChanged(OrderStatusChangedEvent event) {
         logger.info("Handling OrderStatusChangedEvent for order: {} - {} -> {}", 
                    event.orderId(), event.oldStatus(), event.newStatus());
@@ -86,7 +89,7 @@ public class OrderEventHandler {
             String statusMessage = getStatusMessage(event.newStatus().toString());
             
             // Create SMS notification for status change
-            notificationService.createNotification(
+            notificationDispatcher.dispatch("order:" + event.orderId(), new NotificationRequest(
                 merchantId,
                 Recipient.phone("customer_phone_" + event.orderId(), "Customer"),
                 NotificationChannel.SMS,
@@ -97,10 +100,10 @@ public class OrderEventHandler {
                     "statusMessage", statusMessage
                 ),
                 NotificationPriority.NORMAL
-            );
+            ));
             
             // Create push notification for status change
-            notificationService.createNotification(
+            notificationDispatcher.dispatch("order:" + event.orderId(), new NotificationRequest(
                 merchantId,
                 Recipient.deviceToken("device_token_" + event.orderId(), "Customer"),
                 NotificationChannel.PUSH_NOTIFICATION,
@@ -112,16 +115,17 @@ public class OrderEventHandler {
                     "statusMessage", statusMessage
                 ),
                 NotificationPriority.NORMAL
-            );
+            ));
             
-            logger.info("Order status change notifications created successfully for order: {}", event.orderId());
+            logger.info("Order status change notifications queued for order: {}", event.orderId());
             
         } catch (Exception e) {
-            logger.error("Failed to create order status change notifications for order: {}", event.orderId(), e);
+            logger.error("Failed to queue order status change notifications for order: {}", event.orderId(), e);
+            throw e;
         }
     }
     
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     public void handleOrderCancelled(OrderCancelledEvent event) {
         logger.info("Handling OrderCancelledEvent for order: {}", event.orderId());
         
@@ -129,7 +133,7 @@ public class OrderEventHandler {
             MerchantId merchantId = tenantResolutionService.resolveMerchantFromOrderId(event.orderId().toString());
             
             // Create high priority notifications for order cancellation
-            notificationService.createNotification(
+            notificationDispatcher.dispatch("order:" + event.orderId(), new NotificationRequest(
                 merchantId,
                 Recipient.phone("customer_phone_" + event.orderId(), "Customer"),
                 NotificationChannel.SMS,
@@ -140,9 +144,9 @@ public class OrderEventHandler {
                     "statusMessage", "Your order has been cancelled. Reason: " + event.reason()
                 ),
                 NotificationPriority.HIGH
-            );
+            ));
             
-            notificationService.createNotification(
+            notificationDispatcher.dispatch("order:" + event.orderId(), new NotificationRequest(
                 merchantId,
                 Recipient.deviceToken("device_token_" + event.orderId(), "Customer"),
                 NotificationChannel.PUSH_NOTIFICATION,
@@ -154,12 +158,13 @@ public class OrderEventHandler {
                     "statusMessage", "Your order has been cancelled. Reason: " + event.reason()
                 ),
                 NotificationPriority.HIGH
-            );
+            ));
             
-            logger.info("Order cancellation notifications created successfully for order: {}", event.orderId());
+            logger.info("Order cancellation notifications queued for order: {}", event.orderId());
             
         } catch (Exception e) {
-            logger.error("Failed to create order cancellation notifications for order: {}", event.orderId(), e);
+            logger.error("Failed to queue order cancellation notifications for order: {}", event.orderId(), e);
+            throw e;
         }
     }
     
@@ -4,9 +4,10 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import com.xavier.mozdeliveryapi.notification.application.dto.NotificationRequest;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationPriority;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.Recipient;
@@ -18,21 +19,23 @@ import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
 
 /**
  * Event handler for payment-related events that trigger notifications.
+ * Runs once the event's transaction has committed and only queues the
+ * notifications; they are created in the background.
  */
 @Component
 public class PaymentEventHandler {
     
     private static final Logger logger = LoggerFactory.getLogger(PaymentEventHandler.class);
     
-    private final NotificationService notificationService;
+    private final NotificationDispatcher notificationDispatcher;
     private final TenantResolutionService tenantResolutionService;
     
-    public PaymentEventHandler(NotificationService notificationService, TenantResolutionService tenantResolutionService) {
-        this.notificationService = notificationService;
+    public PaymentEventHandler(NotificationDispatcher notificationDispatcher, TenantResolutionService tenantResolutionService) {
+        this.notificationDispatcher = notificationDispatcher;
         this.tenantResolutionService = tenantResolutionService;
     }
     
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     public void handlePaymentCompleted(PaymentCompletedEvent event) {
         logger.info("Handling PaymentCompletedEvent for payment: {}", event.paymentId());
         
@@ -40,7 +43,7 @@ public class PaymentEventHandler {
             MerchantId merchantId = tenantResolutionService.resolveMerchantFromOrderId(event.orderId().toString());
             
             // Create notification for successful payment
-            notificationService.createNotification(
+            notificationDispatcher.dispatch("order:" + event.orderId(), new NotificationRequest(
                 merchantId,
                 Recipient.phone("customer_phone_" + event.orderId(), "Customer"),
                 NotificationChannel.SMS,
@@ -52,16 +55,17 @@ public class PaymentEventHandler {
                                    event.amount().currency() + " has been processed successfully."
                 ),
                 NotificationPriority.NORMAL
-            );
+            ));
             
-            logger.info("Payment completion notification created successfully for payment: {}", event.paymentId());
+            logger.info("Payment completion notification queued for payment: {}", event.paymentId());
             
         } catch (Exception e) {
-            logger.error("Failed to create payment completion notification for payment: {}", event.paymentId(), e);
+            logger.error("Failed to queue payment completion notification for payment: {}", event.paymentId(), e);
+            throw e;
         }
     }
     
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     public void handlePaymentFailed(PaymentFailedEvent event) {
         logger.info("Handling PaymentFailedEvent for payment: {}", event.paymentId());
         
@@ -69,7 +73,7 @@ public class PaymentEventHandler {
             MerchantId merchantId = tenantResolutionService.resolveMerchantFromOrderId(event.orderId().toString());
             
             // Create high priority notification for payment failure
-            notificationService.createNotification(
+            notificationDispatcher.dispatch("order:" + event.orderId(), new NotificationRequest(
                 merchantId,
                 Recipient.phone("customer_phone_" + event.orderId(), "Customer"),
                 NotificationChannel.SMS,
@@ -79,10 +83,10 @@ public class PaymentEventHandler {
                     "orderNumber", event.orderId().toString()
                 ),
                 NotificationPriority.HIGH
-            );
+            ));
             
             // Also send push notification
-            notificationService.createNotification(
+            notificationDispatcher.dispatch("order:" + event.orderId(), new NotificationRequest(
                 merchantId,
                 Recipient.deviceToken("device_token_" + event.orderId(), "Customer"),
                 NotificationChannel.PUSH_NOTIFICATION,
@@ -94,16 +98,17 @@ public class PaymentEventHandler {
                     "systemName", "Payment System"
                 ),
                 NotificationPriority.HIGH
-            );
+            ));
             
-            logger.info("Payment failure notifications created successfully for payment: {}", event.paymentId());
+            logger.info("Payment failure notifications queued for payment: {}", event.paymentId());
             
         } catch (Exception e) {
-            logger.error("Failed to create payment failure notifications for payment: {}", event.paymentId(), e);
+            logger.error("Failed to queue payment failure notifications for payment: {}", event.paymentId(), e);
+            throw e;
         }
     }
     
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     public void handleRefundCompleted(RefundCompletedEvent event) {
         logger.info("Handling RefundCompletedEvent for refund: {}", event.refundId());
         
@@ -111,7 +116,7 @@ public class PaymentEventHandler {
             MerchantId merchantId = tenantResolutionService.resolveMerchantFromPaymentId(event.paymentId().toString());
             
             // Create notification for successful refund
-            notificationService.createNotification(
+            notificationDispatcher.dispatch("payment:" + event.paymentId(), new NotificationRequest(
                 merchantId,
                 Recipient.phone("customer_phone_" + event.paymentId(), "Customer"),
                 NotificationChannel.SMS,
@@ -123,16 +128,17 @@ public class PaymentEventHandler {
                                    event.amount().currency() + " has been processed successfully."
                 ),
                 NotificationPriority.NORMAL
-            );
+            ));
             
-            logger.info("Refund completion notification created successfully for refund: {}", event.refundId());
+            logger.info("Refund completion notification queued for refund: {}", event.refundId());
             
         } catch (Exception e) {
-            logger.error("Failed to create refund completion notification for refund: {}", event.refundId(), e);
+            logger.error("Failed to queue refund completion notification for refund: {}", event.refundId(), e);
+            throw e;
         }
     }
     
-    @EventListener
+    @TransactionalEventListener(fallbackExecution = true)
     public void handleRefundFailed(RefundFailedEvent event) {
         logger.info("Handling RefundFailedEvent for refund: {}", event.refundId());
         
@@ -140,7 +146,7 @@ public class PaymentEventHandler {
             MerchantId merchantId = tenantResolutionService.resolveMerchantFromPaymentId(event.paymentId().toString());
             
             // Create critical alert for refund failure
-            notificationService.createNotification(
+            notificationDispatcher.dispatch("payment:" + event.paymentId(), new NotificationRequest(
                 merchantId,
                 Recipient.phone("customer_phone_" + event.paymentId(), "Customer"),
                 NotificationChannel.SMS,
@@ -151,12 +157,13 @@ public class PaymentEventHandler {
                     "orderNumber", "Payment " + event.paymentId()
                 ),
                 NotificationPriority.CRITICAL
-            );
+            ));
             
-            logger.info("Refund failure notification created successfully for refund: {}", event.refundId());
+            logger.info("Refund failure notification queued for refund: {}", event.refundId());
             
         } catch (Exception e) {
-            logger.error("Failed to create refund failure notification for refund: {}", event.refundId(), e);
+            logger.error("Failed to queue refund failure notification for refund: {}", event.refundId(), e);
+            throw e;
         }
     }
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package com.xavier.mozdeliveryapi.notification.application.usecase;
+import java.util.Locale;
+
+import com.xavier.mozdeliveryapi.notification.domain.entity.CompiledNotificationTemplate;
 import com.xavier.mozdeliveryapi.notification.domain.entity.NotificationTemplate;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
 
 /**
  * Service for managing notification templates.
@@ -22,4 +26,33 @@ public interface TemplateService {
      * @param template the template to register
      */
     void registerTemplate(NotificationTemplate template);
+    
+    /**
+     * Get the compiled template to render for a merchant and locale, falling
+     * back from the merchant's variant to the shared one and from the locale
+     * to its language and then to no locale.
+     * 
+     * @param templateId the template ID
+     * @param channel the notification channel
+     * @param merchantId the merchant, or null for the shared template
+     * @param locale the locale, or null for the default
+     * @return the compiled template
+     */
+    CompiledNotificationTemplate getCompiledTemplate(
+        String templateId,
+        NotificationChannel channel,
+        MerchantId merchantId,
+        Locale locale
+    );
+    
+    /**
+     * Register a merchant or locale variant of a template. The template must
+     * already be registered, and the variant may only use parameters the
+     * template uses or gives defaults for.
+     * 
+     * @param template the variant to register
+     * @param merchantId the merchant it is for, or null for every merchant
+     * @param locale the locale it is for, or null for every locale
+     */
+    void registerTemplate(NotificationTemplate template, MerchantId merchantId, Locale locale);
 }
\ No newline at end of file
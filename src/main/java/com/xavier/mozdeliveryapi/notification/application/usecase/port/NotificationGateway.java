@@ -1,4 +1,7 @@
 package com.xavier.mozdeliveryapi.notification.application.usecase.port;
+import java.util.ArrayList;
+import java.util.List;
+
 import com.xavier.mozdeliveryapi.notification.domain.entity.Notification;
 import com.xavier.mozdeliveryapi.notification.domain.entity.NotificationResult;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
@@ -16,6 +19,38 @@ public interface NotificationGateway {
      */
     NotificationResult send(Notification notification);
     
+    /**
+     * Send several notifications in one call to the provider.
+     * The default sends them one at a time; a notification that throws
+     * fails on its own and the rest are still sent.
+     * 
+     * @param notifications the notifications to send, all on one channel
+     * @return one result per notification, in the same order
+     */
+    default List<NotificationResult> sendBatch(List<Notification> notifications) {
+        List<NotificationResult> results = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            NotificationResult result;
+            try {
+                result = send(notification);
+            } catch (RuntimeException e) {
+                result = NotificationResult.failure(e.getMessage());
+            }
+            results.add(result);
+        }
+        return results;
+    }
+    
+    /**
+     * Get the most notifications this gateway accepts in one batch.
+     * 
+     * @param channel the notification channel
+     * @return the maximum batch size, 1 if it does not batch
+     */
+    default int getMaxBatchSize(NotificationChannel channel) {
+        return 1;
+    }
+    
     /**
      * Check if this gateway supports the given channel.
      * 
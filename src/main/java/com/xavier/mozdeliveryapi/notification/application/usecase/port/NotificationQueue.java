@@ -0,0 +1,18 @@
+package com.xavier.mozdeliveryapi.notification.application.usecase.port;
+
+import com.xavier.mozdeliveryapi.notification.domain.entity.Notification;
+
+/**
+ * Queue that sends pending notifications through their gateways in the
+ * background, most urgent first.
+ */
+public interface NotificationQueue {
+
+    /**
+     * Queue a pending notification for sending.
+     *
+     * @param notification the notification to send
+     * @return false if it is not pending or is already queued
+     */
+    boolean enqueue(Notification notification);
+}
@@ -0,0 +1,65 @@
+package com.xavier.mozdeliveryapi.notification.domain.entity;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.TemplateText;
+
+/**
+ * A notification template with its subject and body parsed once, ready to
+ * render many times.
+ */
+public record CompiledNotificationTemplate(
+    NotificationTemplate template,
+    TemplateText subject,
+    TemplateText body
+) {
+
+    public CompiledNotificationTemplate {
+        Objects.requireNonNull(template, "Template cannot be null");
+        Objects.requireNonNull(subject, "Subject cannot be null");
+        Objects.requireNonNull(body, "Body cannot be null");
+    }
+
+    /**
+     * Parse a template, rejecting malformed placeholders.
+     *
+     * @throws IllegalArgumentException if the subject or body is malformed
+     */
+    public static CompiledNotificationTemplate compile(NotificationTemplate template) {
+        Objects.requireNonNull(template, "Template cannot be null");
+        return new CompiledNotificationTemplate(
+            template,
+            TemplateText.compile(template.subject()).requireWellFormed(),
+            TemplateText.compile(template.body()).requireWellFormed()
+        );
+    }
+
+    public String renderSubject(Map<String, String> parameters) {
+        return subject.render(template.defaultParameters(), parameters);
+    }
+
+    public String renderBody(Map<String, String> parameters) {
+        return body.render(template.defaultParameters(), parameters);
+    }
+
+    /**
+     * Every placeholder in the subject and body.
+     */
+    public Set<String> placeholders() {
+        Set<String> placeholders = new LinkedHashSet<>(subject.placeholders());
+        placeholders.addAll(body.placeholders());
+        return placeholders;
+    }
+
+    /**
+     * Placeholders the caller has to supply, those without a default value.
+     */
+    public Set<String> requiredParameters() {
+        Set<String> required = placeholders();
+        required.removeAll(template.defaultParameters().keySet());
+        return required;
+    }
+}
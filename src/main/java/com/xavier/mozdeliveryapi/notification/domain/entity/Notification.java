@@ -74,12 +74,15 @@ public class Notification extends AggregateRoot<NotificationId> {
         return id;
     }
     
-    public void markAsSent(String externalId) {
-        this.status = NotificationStatus.SENT;
-        this.externalId = externalId;
-        this.sentAt = Instant.now();
-        
-        registerEvent(new NotificationSentEvent(getId(), merchantId, recipient, channel, sentAt));
+    public synchronized void markAsSent(String externalId) {
+        // A notification cancelled while it was being sent stays cancelled
+        if (status == NotificationStatus.PENDING) {
+            this.status = NotificationStatus.SENT;
+            this.externalId = externalId;
+            this.sentAt = Instant.now();
+            
+            registerEvent(new NotificationSentEvent(getId(), merchantId, recipient, channel, sentAt));
+        }
     }
     
     public void markAsDelivered() {
@@ -89,14 +92,16 @@ public class Notification extends AggregateRoot<NotificationId> {
         registerEvent(new NotificationDeliveredEvent(getId(), merchantId, recipient, channel, deliveredAt));
     }
     
-    public void markAsFailed(String reason) {
-        this.status = NotificationStatus.FAILED;
-        this.failureReason = reason;
-        
-        registerEvent(new NotificationFailedEvent(getId(), merchantId, recipient, channel, reason, Instant.now()));
+    public synchronized void markAsFailed(String reason) {
+        if (status == NotificationStatus.PENDING) {
+            this.status = NotificationStatus.FAILED;
+            this.failureReason = reason;
+            
+            registerEvent(new NotificationFailedEvent(getId(), merchantId, recipient, channel, reason, Instant.now()));
+        }
     }
     
-    public void cancel() {
+    public synchronized void cancel() {
         if (status == NotificationStatus.PENDING) {
             this.status = NotificationStatus.CANCELLED;
             registerEvent(new NotificationCancelledEvent(getId(), merchantId, recipient, channel, Instant.now()));
@@ -112,7 +117,7 @@ public class Notification extends AggregateRoot<NotificationId> {
     public String getBody() { return body; }
     public Map<String, String> getParameters() { return parameters; }
     public NotificationPriority getPriority() { return priority; }
-    public NotificationStatus getStatus() { return status; }
+    public synchronized NotificationStatus getStatus() { return status; }
     public String getExternalId() { return externalId; }
     public String getFailureReason() { return failureReason; }
     public Instant getCreatedAt() { return createdAt; }
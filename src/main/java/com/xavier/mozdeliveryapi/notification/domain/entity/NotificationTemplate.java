@@ -2,6 +2,7 @@ package com.xavier.mozdeliveryapi.notification.domain.entity;
 
 import java.util.Map;
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.TemplateText;
 
 /**
  * Value object representing a notification template.
@@ -16,39 +17,26 @@ public record NotificationTemplate(
     
     /**
      * Render the template with provided parameters.
+     * Parses the body on every call; use {@link #compile()} to render many times.
+     * Malformed placeholders are left in the text rather than rejected.
      */
     public String renderBody(Map<String, String> parameters) {
-        String renderedBody = body;
-        
-        // Replace default parameters first
-        for (Map.Entry<String, String> entry : defaultParameters.entrySet()) {
-            renderedBody = renderedBody.replace("{{" + entry.getKey() + "}}", entry.getValue());
-        }
-        
-        // Replace provided parameters
-        for (Map.Entry<String, String> entry : parameters.entrySet()) {
-            renderedBody = renderedBody.replace("{{" + entry.getKey() + "}}", entry.getValue());
-        }
-        
-        return renderedBody;
+        return TemplateText.compile(body).render(defaultParameters, parameters);
     }
     
     /**
      * Render the subject with provided parameters.
+     * Parses the subject on every call; use {@link #compile()} to render many times.
+     * Malformed placeholders are left in the text rather than rejected.
      */
     public String renderSubject(Map<String, String> parameters) {
-        String renderedSubject = subject;
-        
-        // Replace default parameters first
-        for (Map.Entry<String, String> entry : defaultParameters.entrySet()) {
-            renderedSubject = renderedSubject.replace("{{" + entry.getKey() + "}}", entry.getValue());
-        }
-        
-        // Replace provided parameters
-        for (Map.Entry<String, String> entry : parameters.entrySet()) {
-            renderedSubject = renderedSubject.replace("{{" + entry.getKey() + "}}", entry.getValue());
-        }
-        
-        return renderedSubject;
+        return TemplateText.compile(subject).render(defaultParameters, parameters);
+    }
+    
+    /**
+     * Parse the subject and body once for repeated rendering.
+     */
+    public CompiledNotificationTemplate compile() {
+        return CompiledNotificationTemplate.compile(this);
     }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.xavier.mozdeliveryapi.notification.domain.valueobject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Template text parsed into literal text and {@code {{name}}} placeholders,
+ * so rendering is one pass into a buffer of about the right size.
+ */
+public final class TemplateText {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final int EXPECTED_VALUE_LENGTH = 16;
+
+    private final String source;
+    // literals[i] comes before names[i]; the last literal ends the text
+    private final String[] literals;
+    private final String[] names;
+    private final int literalLength;
+    private final Set<String> placeholders;
+    // first malformed placeholder, or null
+    private final String problem;
+
+    private TemplateText(String source, List<String> literals, List<String> names, String problem) {
+        this.source = source;
+        this.literals = literals.toArray(String[]::new);
+        this.names = names.toArray(String[]::new);
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+        this.placeholders = Collections.unmodifiableSet(new LinkedHashSet<>(names));
+        this.problem = problem;
+    }
+
+    /**
+     * Parse template text. Parsing is as lenient as rendering has always
+     * been: an unclosed "{{" is plain text, and a name is taken as it is
+     * written, spaces included, so "{{ name }}" is only filled by a
+     * parameter called " name ". Use {@link #requireWellFormed()} to reject
+     * such text, e.g. when a template is registered.
+     */
+    public static TemplateText compile(String source) {
+        Objects.requireNonNull(source, "Template text cannot be null");
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        String problem = null;
+
+        int from = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, from)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                problem = problem != null ? problem : "Unclosed placeholder at " + open + " in: " + source;
+                break;
+            }
+            String name = source.substring(open + OPEN.length(), close);
+            if (problem == null && name.isBlank()) {
+                problem = "Empty placeholder at " + open + " in: " + source;
+            } else if (problem == null && !name.equals(name.trim())) {
+                problem = "Spaces around placeholder name at " + open + " in: " + source;
+            }
+            literals.add(source.substring(from, open));
+            names.add(name);
+            from = close + CLOSE.length();
+        }
+        literals.add(source.substring(from));
+        return new TemplateText(source, literals, names, problem);
+    }
+
+    /**
+     * Whether every placeholder is closed and has a name without spaces
+     * around it.
+     */
+    public boolean isWellFormed() {
+        return problem == null;
+    }
+
+    /**
+     * This text, if it is well formed.
+     *
+     * @throws IllegalArgumentException if a placeholder is not closed, has
+     *                                  no name or has spaces around its name
+     */
+    public TemplateText requireWellFormed() {
+        if (problem != null) {
+            throw new IllegalArgumentException(problem);
+        }
+        return this;
+    }
+
+    /**
+     * Fill in the placeholders, taking each value from {@code defaults} first
+     * and then {@code parameters}. A placeholder with no value is left as it
+     * is. Values are inserted as they are, never read as template text.
+     */
+    public String render(Map<String, String> defaults, Map<String, String> parameters) {
+        if (names.length == 0) {
+            return literals[0];
+        }
+        StringBuilder rendered = new StringBuilder(literalLength + names.length * EXPECTED_VALUE_LENGTH);
+        for (int i = 0; i < names.length; i++) {
+            rendered.append(literals[i]);
+            String value = defaults.get(names[i]);
+            if (value == null) {
+                value = parameters.get(names[i]);
+            }
+            if (value == null) {
+                rendered.append(OPEN).append(names[i]).append(CLOSE);
+            } else {
+                rendered.append(value);
+            }
+        }
+        return rendered.append(literals[names.length]).toString();
+    }
+
+    /**
+     * Names of the placeholders, in the order they first appear.
+     */
+    public Set<String> placeholders() {
+        return placeholders;
+    }
+
+    public String source() {
+        return source;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TemplateText other && source.equals(other.source);
+    }
+
+    @Override
+    public int hashCode() {
+        return source.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
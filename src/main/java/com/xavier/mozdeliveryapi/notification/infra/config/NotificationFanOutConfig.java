@@ -0,0 +1,57 @@
+package com.xavier.mozdeliveryapi.notification.infra.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.xavier.mozdeliveryapi.notification.application.usecase.NotificationService;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
+import com.xavier.mozdeliveryapi.notification.infra.fanout.CoalescingNotificationDispatcher;
+import com.xavier.mozdeliveryapi.notification.infra.fanout.NotificationFanOutPolicy;
+import com.xavier.mozdeliveryapi.notification.infra.fanout.NotificationRequestStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration for creating event notifications in the background.
+ */
+@Configuration
+public class NotificationFanOutConfig {
+
+    @Bean
+    public NotificationFanOutPolicy notificationFanOutPolicy(
+            @Value("${app.notifications.fan-out.coalesce-window:PT2S}") Duration coalesceWindow,
+            @Value("${app.notifications.fan-out.sms-concurrency:8}") int smsConcurrency,
+            @Value("${app.notifications.fan-out.push-concurrency:32}") int pushConcurrency,
+            @Value("${app.notifications.fan-out.default-concurrency:16}") int defaultConcurrency,
+            @Value("${app.notifications.fan-out.max-pending:10000}") int maxPending,
+            @Value("${app.notifications.fan-out.max-attempts:3}") int maxAttempts,
+            @Value("${app.notifications.fan-out.retry-backoff:PT1S}") Duration retryBackoff,
+            @Value("${app.notifications.fan-out.max-dead-letters:1000}") int maxDeadLetters,
+            @Value("${app.notifications.fan-out.recover-after:PT5M}") Duration recoverAfter) {
+        return new NotificationFanOutPolicy(
+            coalesceWindow,
+            Map.of(NotificationChannel.SMS, smsConcurrency,
+                   NotificationChannel.PUSH_NOTIFICATION, pushConcurrency),
+            defaultConcurrency,
+            maxPending,
+            maxAttempts,
+            retryBackoff,
+            maxDeadLetters,
+            recoverAfter
+        );
+    }
+
+    @Bean
+    public CoalescingNotificationDispatcher notificationDispatcher(NotificationService notificationService,
+                                                                   NotificationRequestStore notificationRequestStore,
+                                                                   NotificationFanOutPolicy notificationFanOutPolicy,
+                                                                   MeterRegistry meterRegistry) {
+        return new CoalescingNotificationDispatcher(notificationService, notificationRequestStore,
+                                                    notificationFanOutPolicy, meterRegistry, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,64 @@
+package com.xavier.mozdeliveryapi.notification.infra.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.xavier.mozdeliveryapi.notification.application.usecase.NotificationRoutingService;
+import com.xavier.mozdeliveryapi.notification.application.usecase.port.NotificationRepository;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
+import com.xavier.mozdeliveryapi.notification.infra.queue.NotificationDispatchPolicy;
+import com.xavier.mozdeliveryapi.notification.infra.queue.NotificationDispatchPolicy.ChannelLimits;
+import com.xavier.mozdeliveryapi.notification.infra.queue.PriorityNotificationQueue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration for sending notifications from the priority queue.
+ */
+@Configuration
+public class NotificationQueueConfig {
+
+    @Bean
+    public NotificationDispatchPolicy notificationDispatchPolicy(
+            @Value("${app.notifications.queue.sms.sends-per-second:10}") int smsSendsPerSecond,
+            @Value("${app.notifications.queue.sms.burst:20}") int smsBurst,
+            @Value("${app.notifications.queue.sms.concurrency:8}") int smsConcurrency,
+            @Value("${app.notifications.queue.sms.max-batch-size:100}") int smsMaxBatchSize,
+            @Value("${app.notifications.queue.sms.batch-linger:PT0.05S}") Duration smsBatchLinger,
+            @Value("${app.notifications.queue.push.sends-per-second:200}") int pushSendsPerSecond,
+            @Value("${app.notifications.queue.push.burst:500}") int pushBurst,
+            @Value("${app.notifications.queue.push.concurrency:32}") int pushConcurrency,
+            @Value("${app.notifications.queue.push.max-batch-size:500}") int pushMaxBatchSize,
+            @Value("${app.notifications.queue.push.batch-linger:PT0.05S}") Duration pushBatchLinger,
+            @Value("${app.notifications.queue.default.sends-per-second:50}") int defaultSendsPerSecond,
+            @Value("${app.notifications.queue.default.burst:50}") int defaultBurst,
+            @Value("${app.notifications.queue.default.concurrency:16}") int defaultConcurrency,
+            @Value("${app.notifications.queue.max-attempts:5}") int maxAttempts,
+            @Value("${app.notifications.queue.retry-backoff:PT1S}") Duration retryBackoff,
+            @Value("${app.notifications.queue.max-retry-backoff:PT1M}") Duration maxRetryBackoff) {
+        return new NotificationDispatchPolicy(
+            Map.of(NotificationChannel.SMS,
+                   new ChannelLimits(smsSendsPerSecond, smsBurst, smsConcurrency, smsMaxBatchSize, smsBatchLinger),
+                   NotificationChannel.PUSH_NOTIFICATION,
+                   new ChannelLimits(pushSendsPerSecond, pushBurst, pushConcurrency, pushMaxBatchSize,
+                                     pushBatchLinger)),
+            new ChannelLimits(defaultSendsPerSecond, defaultBurst, defaultConcurrency),
+            maxAttempts,
+            retryBackoff,
+            maxRetryBackoff
+        );
+    }
+
+    @Bean
+    public PriorityNotificationQueue notificationQueue(NotificationRoutingService routingService,
+                                                       NotificationRepository notificationRepository,
+                                                       NotificationDispatchPolicy notificationDispatchPolicy,
+                                                       MeterRegistry meterRegistry) {
+        return new PriorityNotificationQueue(routingService, notificationRepository, notificationDispatchPolicy,
+                                             meterRegistry);
+    }
+}
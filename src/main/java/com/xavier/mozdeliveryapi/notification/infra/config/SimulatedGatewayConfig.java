@@ -0,0 +1,43 @@
+package com.xavier.mozdeliveryapi.notification.infra.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+import com.xavier.mozdeliveryapi.notification.application.usecase.NotificationRoutingService;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
+import com.xavier.mozdeliveryapi.notification.infra.persistence.SimulatedLatencyGateway;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Routes SMS and push notifications to gateways that take as long as the real
+ * providers, for load testing locally.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.notifications.simulated-gateways", name = "enabled", havingValue = "true")
+public class SimulatedGatewayConfig {
+
+    private final NotificationRoutingService routingService;
+    private final Duration requestLatency;
+    private final Duration recipientLatency;
+
+    public SimulatedGatewayConfig(
+            NotificationRoutingService routingService,
+            @Value("${app.notifications.simulated-gateways.request-latency:PT0.2S}") Duration requestLatency,
+            @Value("${app.notifications.simulated-gateways.recipient-latency:PT0.001S}") Duration recipientLatency) {
+        this.routingService = routingService;
+        this.requestLatency = requestLatency;
+        this.recipientLatency = recipientLatency;
+    }
+
+    @PostConstruct
+    public void registerGateways() {
+        routingService.registerGateway(
+            new SimulatedLatencyGateway(NotificationChannel.SMS, requestLatency, recipientLatency, 100));
+        routingService.registerGateway(
+            new SimulatedLatencyGateway(NotificationChannel.PUSH_NOTIFICATION, requestLatency, recipientLatency, 500));
+    }
+}
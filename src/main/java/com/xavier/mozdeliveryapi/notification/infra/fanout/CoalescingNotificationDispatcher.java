@@ -0,0 +1,281 @@
+package com.xavier.mozdeliveryapi.notification.infra.fanout;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.xavier.mozdeliveryapi.notification.application.dto.NotificationRequest;
+import com.xavier.mozdeliveryapi.notification.application.usecase.NotificationDispatcher;
+import com.xavier.mozdeliveryapi.notification.application.usecase.NotificationService;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Creates notifications on virtual threads, off the thread that handled the
+ * event.
+ *
+ * A request waits for the coalesce window, counted from the first request for
+ * the same key, channel and recipient; later ones replace it, so a burst of
+ * status changes ends in one notification per channel. Each channel has its
+ * own concurrency limit, so a slow SMS provider cannot hold up push
+ * notifications. Requests that keep failing are kept as dead letters until
+ * they are redriven.
+ *
+ * Every request is written to the {@link NotificationRequestStore} before
+ * {@code dispatch} returns and deleted once its notification exists, so the
+ * event that raised it can be forgotten. Requests left behind by an instance
+ * that stopped are picked up again by {@link #recoverStranded()}.
+ */
+public class CoalescingNotificationDispatcher implements NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescingNotificationDispatcher.class);
+
+    private final NotificationService notificationService;
+    private final NotificationRequestStore store;
+    private final NotificationFanOutPolicy policy;
+    private final Clock clock;
+
+    private final Map<PendingKey, Pending> pending = new ConcurrentHashMap<>();
+    private final Map<NotificationChannel, Semaphore> channelPermits = new EnumMap<>(NotificationChannel.class);
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("notification-fan-out-timer").daemon().factory());
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter submitted;
+    private final Counter coalesced;
+    private final Counter created;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final Counter recovered;
+
+    public CoalescingNotificationDispatcher(NotificationService notificationService,
+                                            NotificationRequestStore store,
+                                            NotificationFanOutPolicy policy,
+                                            MeterRegistry meterRegistry,
+                                            Clock clock) {
+        Objects.requireNonNull(meterRegistry, "Meter registry cannot be null");
+        this.notificationService = Objects.requireNonNull(notificationService,
+            "Notification service cannot be null");
+        this.store = Objects.requireNonNull(store, "Request store cannot be null");
+        this.policy = Objects.requireNonNull(policy, "Policy cannot be null");
+        this.clock = Objects.requireNonNull(clock, "Clock cannot be null");
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            channelPermits.put(channel, new Semaphore(policy.concurrencyFor(channel)));
+        }
+
+        this.submitted = Counter.builder("notification.fan_out.requests")
+            .description("Notification requests raised by event handlers")
+            .register(meterRegistry);
+        this.coalesced = Counter.builder("notification.fan_out.coalesced")
+            .description("Notification requests merged into a later one")
+            .register(meterRegistry);
+        this.created = Counter.builder("notification.fan_out.created")
+            .description("Notifications created from requests")
+            .register(meterRegistry);
+        this.retried = Counter.builder("notification.fan_out.retried")
+            .description("Notification requests that failed and will be retried")
+            .register(meterRegistry);
+        this.deadLettered = Counter.builder("notification.fan_out.dead_lettered")
+            .description("Notification requests given up on")
+            .register(meterRegistry);
+        this.recovered = Counter.builder("notification.fan_out.recovered")
+            .description("Notification requests claimed after the instance holding them stopped")
+            .register(meterRegistry);
+        meterRegistry.gauge("notification.fan_out.pending", pending, Map::size);
+        meterRegistry.gauge("notification.fan_out.dead_letters", store, NotificationRequestStore::countDeadLetters);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws RuntimeException if the request cannot be stored; it is then not queued either
+     */
+    @Override
+    public void dispatch(String coalesceKey, NotificationRequest request) {
+        Objects.requireNonNull(coalesceKey, "Coalesce key cannot be null");
+        Objects.requireNonNull(request, "Request cannot be null");
+        submitted.increment();
+
+        PendingKey key = PendingKey.of(coalesceKey, request);
+        Instant now = clock.instant();
+        if (pending.size() >= policy.maxPending() && !pending.containsKey(key)) {
+            long id = store.insert(coalesceKey, request, now.plus(policy.recoverAfter()));
+            deadLetter(id, key, request, 0, "Too many notifications waiting");
+            return;
+        }
+
+        AtomicBoolean first = new AtomicBoolean();
+        pending.compute(key, (k, current) -> {
+            if (current == null) {
+                first.set(true);
+                Instant dueAt = now.plus(policy.coalesceWindow()).plus(policy.recoverAfter());
+                return new Pending(store.insert(coalesceKey, request, dueAt), request);
+            }
+            NotificationRequest merged = request.priority().compareTo(current.request().priority()) >= 0
+                ? request : request.withPriority(current.request().priority());
+            store.update(current.id(), merged);
+            coalesced.increment();
+            return new Pending(current.id(), merged);
+        });
+        if (first.get()) {
+            schedule(() -> flush(key), policy.coalesceWindow());
+        }
+    }
+
+    /**
+     * The newest requests given up on, oldest first.
+     */
+    public List<NotificationDeadLetter> getDeadLetters() {
+        return store.findDeadLetters(policy.maxDeadLetters());
+    }
+
+    /**
+     * Queue every dead letter again, without waiting to coalesce.
+     *
+     * @return the number of requests queued
+     */
+    public int redriveDeadLetters() {
+        List<StoredNotificationRequest> letters = store.requeueDeadLetters(
+            clock.instant().plus(policy.recoverAfter()));
+        for (StoredNotificationRequest letter : letters) {
+            submit(letter.id(), PendingKey.of(letter.coalesceKey(), letter.request()), letter.request(), 1);
+        }
+        return letters.size();
+    }
+
+    /**
+     * Claim the stored requests whose instance stopped before creating their
+     * notification, and queue them again.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.fan-out.recovery-interval-ms:30000}")
+    public void recoverStranded() {
+        Instant now = clock.instant();
+        List<StoredNotificationRequest> stranded;
+        try {
+            stranded = store.claimStranded(now, now.plus(policy.recoverAfter()), policy.maxPending());
+        } catch (RuntimeException e) {
+            logger.warn("Could not claim stranded notification requests: {}", e.getMessage());
+            return;
+        }
+        for (StoredNotificationRequest request : stranded) {
+            recovered.increment();
+            submit(request.id(), PendingKey.of(request.coalesceKey(), request.request()), request.request(),
+                   request.attempts() + 1);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Coalescing requests and retries that are still waiting are run now rather than lost
+        timer.shutdownNow().forEach(Runnable::run);
+        pending.keySet().forEach(this::flush);
+        workers.shutdown();
+        try {
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush(PendingKey key) {
+        Pending entry = pending.remove(key);
+        if (entry != null) {
+            submit(entry.id(), key, entry.request(), 1);
+        }
+    }
+
+    private void submit(long id, PendingKey key, NotificationRequest request, int attempt) {
+        try {
+            workers.execute(() -> create(id, key, request, attempt));
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the stored request is recovered once it is due
+            logger.info("Leaving {} notification for {} to be recovered", request.channel(), key.coalesceKey());
+        }
+    }
+
+    private void create(long id, PendingKey key, NotificationRequest request, int attempt) {
+        Semaphore permits = channelPermits.get(request.channel());
+        permits.acquireUninterruptibly();
+        try {
+            notificationService.createNotification(request.merchantId(), request.recipient(), request.channel(),
+                                                   request.templateId(), request.parameters(), request.priority());
+        } catch (RuntimeException e) {
+            if (attempt >= policy.maxAttempts()) {
+                deadLetter(id, key, request, attempt, e.getMessage());
+                return;
+            }
+            retried.increment();
+            logger.warn("Creating {} notification for {} failed, attempt {} of {}: {}",
+                        request.channel(), key.coalesceKey(), attempt, policy.maxAttempts(), e.getMessage());
+            Duration backoff = policy.retryBackoff().multipliedBy(attempt);
+            try {
+                store.reschedule(id, attempt, clock.instant().plus(backoff).plus(policy.recoverAfter()));
+            } catch (RuntimeException storeFailure) {
+                logger.warn("Could not record attempt {} at notification request {}: {}",
+                            attempt, id, storeFailure.getMessage());
+            }
+            schedule(() -> submit(id, key, request, attempt + 1), backoff);
+            return;
+        } finally {
+            permits.release();
+        }
+
+        created.increment();
+        try {
+            store.delete(id);
+        } catch (RuntimeException e) {
+            // The notification exists; at worst it is created again once the request is recovered
+            logger.warn("Could not delete notification request {}: {}", id, e.getMessage());
+        }
+    }
+
+    private void schedule(Runnable task, Duration delay) {
+        try {
+            timer.schedule(task, delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; run it now instead
+            task.run();
+        }
+    }
+
+    private void deadLetter(long id, PendingKey key, NotificationRequest request, int attempts, String reason) {
+        deadLettered.increment();
+        logger.error("Giving up on {} notification '{}' for {} after {} attempts: {}",
+                     request.channel(), request.templateId(), key.coalesceKey(), attempts, reason);
+        try {
+            store.markDead(id, attempts, reason, clock.instant());
+        } catch (RuntimeException e) {
+            logger.warn("Could not keep notification request {} as a dead letter: {}", id, e.getMessage());
+        }
+    }
+
+    private record PendingKey(String coalesceKey, NotificationChannel channel, String recipient) {
+
+        static PendingKey of(String coalesceKey, NotificationRequest request) {
+            return new PendingKey(coalesceKey, request.channel(), request.recipient().identifier());
+        }
+    }
+
+    private record Pending(long id, NotificationRequest request) {
+    }
+}
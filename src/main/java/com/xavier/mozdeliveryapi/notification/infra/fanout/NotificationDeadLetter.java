@@ -0,0 +1,24 @@
+package com.xavier.mozdeliveryapi.notification.infra.fanout;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import com.xavier.mozdeliveryapi.notification.application.dto.NotificationRequest;
+
+/**
+ * A notification request that could not be created.
+ */
+public record NotificationDeadLetter(
+    String coalesceKey,
+    NotificationRequest request,
+    int attempts,
+    String reason,
+    Instant failedAt
+) {
+
+    public NotificationDeadLetter {
+        Objects.requireNonNull(coalesceKey, "Coalesce key cannot be null");
+        Objects.requireNonNull(request, "Request cannot be null");
+        Objects.requireNonNull(failedAt, "Failed at cannot be null");
+    }
+}
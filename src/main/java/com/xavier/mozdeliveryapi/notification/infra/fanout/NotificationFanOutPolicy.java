@@ -0,0 +1,88 @@
+package com.xavier.mozdeliveryapi.notification.infra.fanout;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
+
+/**
+ * How notifications are fanned out. A request waits {@code coalesceWindow}
+ * for later requests about the same thing to merge into it. At most
+ * {@code channelConcurrency} notifications of a channel are created at once,
+ * {@code defaultConcurrency} for channels without their own limit. A request
+ * that fails is retried up to {@code maxAttempts} times, {@code retryBackoff}
+ * longer each time, and then kept as a dead letter; the newest
+ * {@code maxDeadLetters} are listed. Requests beyond {@code maxPending}
+ * waiting to be merged go straight to the dead letters. A stored request no
+ * instance has touched for {@code recoverAfter} past its due time is taken
+ * to be stranded and claimed again; it should be well above the time a
+ * notification can take to create, or a slow one is created twice.
+ */
+public record NotificationFanOutPolicy(
+    Duration coalesceWindow,
+    Map<NotificationChannel, Integer> channelConcurrency,
+    int defaultConcurrency,
+    int maxPending,
+    int maxAttempts,
+    Duration retryBackoff,
+    int maxDeadLetters,
+    Duration recoverAfter
+) {
+
+    public static final Duration DEFAULT_COALESCE_WINDOW = Duration.ofSeconds(2);
+    public static final int DEFAULT_CONCURRENCY = 16;
+    public static final int DEFAULT_MAX_PENDING = 10_000;
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final Duration DEFAULT_RETRY_BACKOFF = Duration.ofSeconds(1);
+    public static final int DEFAULT_MAX_DEAD_LETTERS = 1000;
+    public static final Duration DEFAULT_RECOVER_AFTER = Duration.ofMinutes(5);
+
+    public NotificationFanOutPolicy {
+        Objects.requireNonNull(coalesceWindow, "Coalesce window cannot be null");
+        Objects.requireNonNull(channelConcurrency, "Channel concurrency cannot be null");
+        Objects.requireNonNull(retryBackoff, "Retry backoff cannot be null");
+        Objects.requireNonNull(recoverAfter, "Recover after cannot be null");
+
+        if (coalesceWindow.isNegative()) {
+            throw new IllegalArgumentException("Coalesce window cannot be negative");
+        }
+        channelConcurrency.forEach((channel, limit) -> {
+            if (limit == null || limit <= 0) {
+                throw new IllegalArgumentException("Concurrency must be positive for channel " + channel);
+            }
+        });
+        if (defaultConcurrency <= 0) {
+            throw new IllegalArgumentException("Default concurrency must be positive");
+        }
+        if (maxPending <= 0) {
+            throw new IllegalArgumentException("Max pending must be positive");
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Max attempts must be positive");
+        }
+        if (retryBackoff.isNegative()) {
+            throw new IllegalArgumentException("Retry backoff cannot be negative");
+        }
+        if (maxDeadLetters <= 0) {
+            throw new IllegalArgumentException("Max dead letters must be positive");
+        }
+        if (recoverAfter.isNegative() || recoverAfter.isZero()) {
+            throw new IllegalArgumentException("Recover after must be positive");
+        }
+        channelConcurrency = Map.copyOf(channelConcurrency);
+    }
+
+    public static NotificationFanOutPolicy defaults() {
+        return new NotificationFanOutPolicy(DEFAULT_COALESCE_WINDOW, Map.of(), DEFAULT_CONCURRENCY,
+                                            DEFAULT_MAX_PENDING, DEFAULT_MAX_ATTEMPTS, DEFAULT_RETRY_BACKOFF,
+                                            DEFAULT_MAX_DEAD_LETTERS, DEFAULT_RECOVER_AFTER);
+    }
+
+    /**
+     * Number of notifications of {@code channel} that may be created at once.
+     */
+    public int concurrencyFor(NotificationChannel channel) {
+        return channelConcurrency.getOrDefault(channel, defaultConcurrency);
+    }
+}
@@ -0,0 +1,71 @@
+package com.xavier.mozdeliveryapi.notification.infra.fanout;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.xavier.mozdeliveryapi.notification.application.dto.NotificationRequest;
+
+/**
+ * Durable copy of the notification requests the dispatcher has accepted, so
+ * a request outlives the instance that accepted it.
+ *
+ * A request is stored before {@code dispatch} returns and deleted once its
+ * notification exists; one given up on stays as a dead letter until it is
+ * redriven. Each waiting request has a due time that the instance working on
+ * it keeps ahead of the clock. Once the due time passes the request counts as
+ * stranded and any instance may claim it.
+ */
+public interface NotificationRequestStore {
+
+    /**
+     * Store a newly accepted request.
+     *
+     * @return the ID of the stored request
+     */
+    long insert(String coalesceKey, NotificationRequest request, Instant dueAt);
+
+    /**
+     * Replace a waiting request with the one merged into it.
+     */
+    void update(long id, NotificationRequest request);
+
+    /**
+     * Record the attempts made so far and when the request is stranded if the
+     * next one never happens.
+     */
+    void reschedule(long id, int attempts, Instant dueAt);
+
+    /**
+     * Forget a request whose notification was created.
+     */
+    void delete(long id);
+
+    /**
+     * Keep a request as a dead letter.
+     */
+    void markDead(long id, int attempts, String reason, Instant failedAt);
+
+    /**
+     * Claim up to {@code limit} stranded requests by moving their due time to
+     * {@code dueAt}. A request another instance claims first is left out.
+     */
+    List<StoredNotificationRequest> claimStranded(Instant now, Instant dueAt, int limit);
+
+    /**
+     * The newest {@code limit} dead letters, oldest first.
+     */
+    List<NotificationDeadLetter> findDeadLetters(int limit);
+
+    /**
+     * Number of dead letters kept.
+     */
+    long countDeadLetters();
+
+    /**
+     * Turn every dead letter back into a waiting request with no attempts,
+     * due at {@code dueAt}.
+     *
+     * @return the requeued requests
+     */
+    List<StoredNotificationRequest> requeueDeadLetters(Instant dueAt);
+}
@@ -0,0 +1,22 @@
+package com.xavier.mozdeliveryapi.notification.infra.fanout;
+
+import java.util.Objects;
+
+import com.xavier.mozdeliveryapi.notification.application.dto.NotificationRequest;
+
+/**
+ * A notification request read back from the {@link NotificationRequestStore},
+ * with the attempts already made at it.
+ */
+public record StoredNotificationRequest(
+    long id,
+    String coalesceKey,
+    NotificationRequest request,
+    int attempts
+) {
+
+    public StoredNotificationRequest {
+        Objects.requireNonNull(coalesceKey, "Coalesce key cannot be null");
+        Objects.requireNonNull(request, "Request cannot be null");
+    }
+}
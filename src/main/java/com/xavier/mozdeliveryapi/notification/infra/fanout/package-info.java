@@ -0,0 +1,10 @@
+/**
+ * Background fan-out of the notifications raised by order, delivery and
+ * payment events.
+ *
+ * Requests are coalesced per order and channel, created on virtual threads
+ * with a concurrency limit per channel, and kept as dead letters when they
+ * keep failing. Requests are stored until their notification exists, so
+ * they survive the instance that accepted them.
+ */
+package com.xavier.mozdeliveryapi.notification.infra.fanout;
@@ -1,25 +1,31 @@
 package com.xavier.mozdeliveryapi.notification.infra.persistence;
 
+import java.util.LinkedHashSet;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.stereotype.Service;
 
 import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
+import com.xavier.mozdeliveryapi.notification.domain.entity.CompiledNotificationTemplate;
 import com.xavier.mozdeliveryapi.notification.domain.entity.NotificationTemplate;
 import com.xavier.mozdeliveryapi.notification.application.usecase.TemplateService;
 import com.xavier.mozdeliveryapi.dispatch.domain.entity.Delivery;
 import com.xavier.mozdeliveryapi.order.domain.entity.Order;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
 
 /**
  * In-memory implementation of the template service.
+ * Templates are compiled when registered, so rendering never parses them.
  * This is a temporary implementation for MVP. In production, this would be replaced
  * with a proper database or configuration-based implementation.
  */
 @Service
 public class InMemoryTemplateService implements TemplateService {
     
-    private final Map<String, NotificationTemplate> templates = new ConcurrentHashMap<>();
+    private final Map<TemplateKey, CompiledNotificationTemplate> templates = new ConcurrentHashMap<>();
     
     public InMemoryTemplateService() {
         // Initialize with default templates
@@ -28,20 +34,65 @@ public class InMemoryTemplateService implements TemplateService {
     
     @Override
     public NotificationTemplate getTemplate(String templateId, NotificationChannel channel) {
-        String key = templateId + "_" + channel.name();
-        NotificationTemplate template = templates.get(key);
+        return getCompiledTemplate(templateId, channel, null, null).template();
+    }
+    
+    @Override
+    public CompiledNotificationTemplate getCompiledTemplate(
+            String templateId,
+            NotificationChannel channel,
+            MerchantId merchantId,
+            Locale locale
+    ) {
+        String tenant = merchantId == null ? null : merchantId.toString();
+        String languageTag = locale == null ? null : locale.toLanguageTag();
+        String language = locale == null || locale.getLanguage().isEmpty() ? null : locale.getLanguage();
         
-        if (template == null) {
-            throw new IllegalArgumentException("Template not found: " + templateId + " for channel: " + channel);
+        // Most specific first: merchant before shared, full locale before language before none
+        for (String candidateTenant : tenant == null ? new String[] {null} : new String[] {tenant, null}) {
+            for (String candidateLocale : new String[] {languageTag, language, null}) {
+                CompiledNotificationTemplate template = templates.get(
+                    new TemplateKey(templateId, channel, candidateTenant, candidateLocale));
+                if (template != null) {
+                    return template;
+                }
+            }
         }
         
-        return template;
+        throw new IllegalArgumentException("Template not found: " + templateId + " for channel: " + channel);
     }
     
     @Override
     public void registerTemplate(NotificationTemplate template) {
-        String key = template.templateId() + "_" + template.channel().name();
-        templates.put(key, template);
+        registerTemplate(template, null, null);
+    }
+    
+    @Override
+    public void registerTemplate(NotificationTemplate template, MerchantId merchantId, Locale locale) {
+        CompiledNotificationTemplate compiled = template.compile();
+        TemplateKey key = new TemplateKey(
+            template.templateId(),
+            template.channel(),
+            merchantId == null ? null : merchantId.toString(),
+            locale == null ? null : locale.toLanguageTag()
+        );
+        
+        if (!key.isShared()) {
+            // Callers fill in the shared template's parameters, so a variant must not need others
+            CompiledNotificationTemplate shared = templates.get(key.shared());
+            if (shared == null) {
+                throw new IllegalArgumentException("Template not found: " + template.templateId()
+                    + " for channel: " + template.channel() + "; register it before its variants");
+            }
+            Set<String> missing = new LinkedHashSet<>(compiled.requiredParameters());
+            missing.removeAll(shared.placeholders());
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("Variant of template " + template.templateId()
+                    + " for channel: " + template.channel() + " uses parameters callers do not supply: " + missing);
+            }
+        }
+        
+        templates.put(key, compiled);
     }
     
     private void initializeDefaultTemplates() {
@@ -113,4 +164,15 @@ public class InMemoryTemplateService implements TemplateService {
             Map.of()
         ));
     }
+    
+    private record TemplateKey(String templateId, NotificationChannel channel, String tenant, String locale) {
+        
+        boolean isShared() {
+            return tenant == null && locale == null;
+        }
+        
+        TemplateKey shared() {
+            return new TemplateKey(templateId, channel, null, null);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.xavier.mozdeliveryapi.notification.infra.persistence;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for notification requests.
+ */
+@Repository
+public interface JpaNotificationRequestRepository extends JpaRepository<NotificationRequestEntity, Long> {
+
+    @Modifying
+    @Query("UPDATE NotificationRequestEntity r SET r.payload = :payload WHERE r.id = :id")
+    int updatePayload(@Param("id") Long id, @Param("payload") String payload);
+
+    @Modifying
+    @Query("UPDATE NotificationRequestEntity r SET r.attempts = :attempts, r.dueAt = :dueAt " +
+           "WHERE r.id = :id AND r.failedAt IS NULL")
+    int reschedule(@Param("id") Long id, @Param("attempts") int attempts, @Param("dueAt") Instant dueAt);
+
+    @Modifying
+    @Query("DELETE FROM NotificationRequestEntity r WHERE r.id = :id")
+    int deleteRequest(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE NotificationRequestEntity r SET r.attempts = :attempts, r.lastError = :error, " +
+           "r.failedAt = :failedAt WHERE r.id = :id")
+    int markDead(@Param("id") Long id, @Param("attempts") int attempts, @Param("error") String error,
+                 @Param("failedAt") Instant failedAt);
+
+    /**
+     * Find waiting requests whose due time has passed, oldest first.
+     */
+    @Query("SELECT r FROM NotificationRequestEntity r WHERE r.failedAt IS NULL AND r.dueAt < :now ORDER BY r.id")
+    List<NotificationRequestEntity> findStranded(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Move a stranded request's due time on, unless another instance already did.
+     */
+    @Modifying
+    @Query("UPDATE NotificationRequestEntity r SET r.dueAt = :dueAt " +
+           "WHERE r.id = :id AND r.failedAt IS NULL AND r.dueAt < :now")
+    int claim(@Param("id") Long id, @Param("now") Instant now, @Param("dueAt") Instant dueAt);
+
+    @Query("SELECT r FROM NotificationRequestEntity r WHERE r.failedAt IS NOT NULL " +
+           "ORDER BY r.failedAt DESC, r.id DESC")
+    List<NotificationRequestEntity> findNewestDead(Pageable pageable);
+
+    @Query("SELECT COUNT(r) FROM NotificationRequestEntity r WHERE r.failedAt IS NOT NULL")
+    long countDead();
+
+    @Query("SELECT r FROM NotificationRequestEntity r WHERE r.failedAt IS NOT NULL ORDER BY r.id")
+    List<NotificationRequestEntity> findDead();
+
+    /**
+     * Make a dead letter wait again, unless another instance already did.
+     */
+    @Modifying
+    @Query("UPDATE NotificationRequestEntity r SET r.attempts = 0, r.lastError = NULL, r.failedAt = NULL, " +
+           "r.dueAt = :dueAt WHERE r.id = :id AND r.failedAt IS NOT NULL")
+    int requeue(@Param("id") Long id, @Param("dueAt") Instant dueAt);
+}
@@ -1,5 +1,6 @@
 package com.xavier.mozdeliveryapi.notification.infra.persistence;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -22,6 +23,8 @@ public class MockPushNotificationGateway implements PushNotificationGateway {
     
     private static final Logger logger = LoggerFactory.getLogger(MockPushNotificationGateway.class);
     
+    private static final int MAX_BATCH_SIZE = 500;
+    
     @Override
     public NotificationResult send(Notification notification) {
         if (notification.getRecipient().type() != Recipient.RecipientType.DEVICE_TOKEN) {
@@ -56,6 +59,18 @@ public class MockPushNotificationGateway implements PushNotificationGateway {
         return NotificationResult.success(externalId);
     }
     
+    @Override
+    public List<NotificationResult> sendBatch(List<Notification> notifications) {
+        // Simulate one multi-recipient request to the provider
+        logger.info("Sending {} push notifications in one batch", notifications.size());
+        return PushNotificationGateway.super.sendBatch(notifications);
+    }
+    
+    @Override
+    public int getMaxBatchSize(NotificationChannel channel) {
+        return supports(channel) ? MAX_BATCH_SIZE : 1;
+    }
+    
     @Override
     public boolean supports(NotificationChannel channel) {
         return channel == NotificationChannel.PUSH_NOTIFICATION;
@@ -1,5 +1,6 @@
 package com.xavier.mozdeliveryapi.notification.infra.persistence;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.slf4j.Logger;
@@ -21,6 +22,8 @@ public class MockSmsGateway implements SmsGateway {
     
     private static final Logger logger = LoggerFactory.getLogger(MockSmsGateway.class);
     
+    private static final int MAX_BATCH_SIZE = 100;
+    
     @Override
     public NotificationResult send(Notification notification) {
         if (notification.getRecipient().type() != Recipient.RecipientType.PHONE) {
@@ -47,6 +50,18 @@ public class MockSmsGateway implements SmsGateway {
         return NotificationResult.success(externalId);
     }
     
+    @Override
+    public List<NotificationResult> sendBatch(List<Notification> notifications) {
+        // Simulate one multi-recipient request to the provider
+        logger.info("Sending {} SMS in one batch", notifications.size());
+        return SmsGateway.super.sendBatch(notifications);
+    }
+    
+    @Override
+    public int getMaxBatchSize(NotificationChannel channel) {
+        return supports(channel) ? MAX_BATCH_SIZE : 1;
+    }
+    
     @Override
     public boolean supports(NotificationChannel channel) {
         return channel == NotificationChannel.SMS;
@@ -0,0 +1,134 @@
+package com.xavier.mozdeliveryapi.notification.infra.persistence;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.xavier.mozdeliveryapi.notification.application.dto.NotificationRequest;
+import com.xavier.mozdeliveryapi.notification.infra.fanout.NotificationDeadLetter;
+import com.xavier.mozdeliveryapi.notification.infra.fanout.NotificationRequestStore;
+import com.xavier.mozdeliveryapi.notification.infra.fanout.StoredNotificationRequest;
+
+/**
+ * JPA implementation of the notification request store, with each request
+ * kept as JSON.
+ */
+@Repository
+public class NotificationRequestStoreImpl implements NotificationRequestStore {
+
+    private final JpaNotificationRequestRepository jpaRepository;
+    private final ObjectMapper objectMapper;
+
+    public NotificationRequestStoreImpl(JpaNotificationRequestRepository jpaRepository, ObjectMapper objectMapper) {
+        this.jpaRepository = Objects.requireNonNull(jpaRepository, "JPA repository cannot be null");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "Object mapper cannot be null");
+    }
+
+    @Override
+    @Transactional
+    public long insert(String coalesceKey, NotificationRequest request, Instant dueAt) {
+        Objects.requireNonNull(coalesceKey, "Coalesce key cannot be null");
+        Objects.requireNonNull(dueAt, "Due at cannot be null");
+        NotificationRequestEntity entity = new NotificationRequestEntity(coalesceKey, encode(request),
+                                                                         Instant.now(), dueAt);
+        return jpaRepository.save(entity).getId();
+    }
+
+    @Override
+    @Transactional
+    public void update(long id, NotificationRequest request) {
+        jpaRepository.updatePayload(id, encode(request));
+    }
+
+    @Override
+    @Transactional
+    public void reschedule(long id, int attempts, Instant dueAt) {
+        jpaRepository.reschedule(id, attempts, dueAt);
+    }
+
+    @Override
+    @Transactional
+    public void delete(long id) {
+        jpaRepository.deleteRequest(id);
+    }
+
+    @Override
+    @Transactional
+    public void markDead(long id, int attempts, String reason, Instant failedAt) {
+        jpaRepository.markDead(id, attempts, reason, failedAt);
+    }
+
+    @Override
+    @Transactional
+    public List<StoredNotificationRequest> claimStranded(Instant now, Instant dueAt, int limit) {
+        List<StoredNotificationRequest> claimed = new ArrayList<>();
+        for (NotificationRequestEntity entity : jpaRepository.findStranded(now, PageRequest.of(0, limit))) {
+            if (jpaRepository.claim(entity.getId(), now, dueAt) > 0) {
+                claimed.add(toStored(entity));
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NotificationDeadLetter> findDeadLetters(int limit) {
+        List<NotificationRequestEntity> newest = jpaRepository.findNewestDead(PageRequest.of(0, limit));
+        List<NotificationDeadLetter> letters = new ArrayList<>(newest.size());
+        for (int i = newest.size() - 1; i >= 0; i--) {
+            NotificationRequestEntity entity = newest.get(i);
+            letters.add(new NotificationDeadLetter(entity.getCoalesceKey(), decode(entity), entity.getAttempts(),
+                                                   entity.getLastError(), entity.getFailedAt()));
+        }
+        return letters;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countDeadLetters() {
+        return jpaRepository.countDead();
+    }
+
+    @Override
+    @Transactional
+    public List<StoredNotificationRequest> requeueDeadLetters(Instant dueAt) {
+        List<StoredNotificationRequest> requeued = new ArrayList<>();
+        for (NotificationRequestEntity entity : jpaRepository.findDead()) {
+            if (jpaRepository.requeue(entity.getId(), dueAt) > 0) {
+                requeued.add(new StoredNotificationRequest(entity.getId(), entity.getCoalesceKey(),
+                                                           decode(entity), 0));
+            }
+        }
+        return requeued;
+    }
+
+    private StoredNotificationRequest toStored(NotificationRequestEntity entity) {
+        return new StoredNotificationRequest(entity.getId(), entity.getCoalesceKey(), decode(entity),
+                                             entity.getAttempts());
+    }
+
+    private String encode(NotificationRequest request) {
+        Objects.requireNonNull(request, "Request cannot be null");
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize notification request: " + request.templateId(), e);
+        }
+    }
+
+    private NotificationRequest decode(NotificationRequestEntity entity) {
+        try {
+            return objectMapper.readValue(entity.getPayload(), NotificationRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot read notification request " + entity.getId(), e);
+        }
+    }
+}
@@ -2,12 +2,17 @@ package com.xavier.mozdeliveryapi.notification.infra.persistence;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.springframework.stereotype.Service;
 
 import com.xavier.mozdeliveryapi.notification.domain.entity.Notification;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
 import com.xavier.mozdeliveryapi.notification.application.usecase.port.NotificationGateway;
+import com.xavier.mozdeliveryapi.notification.application.usecase.GatewayBatch;
 import com.xavier.mozdeliveryapi.notification.application.usecase.NotificationRoutingService;
 
 /**
@@ -16,18 +21,49 @@ import com.xavier.mozdeliveryapi.notification.application.usecase.NotificationRo
 @Service
 public class NotificationRoutingServiceImpl implements NotificationRoutingService {
     
-    private final List<NotificationGateway> gateways = new ArrayList<>();
+    private final List<NotificationGateway> gateways = new CopyOnWriteArrayList<>();
     
     @Override
     public NotificationGateway routeNotification(Notification notification) {
-        return gateways.stream()
-            .filter(gateway -> gateway.supports(notification.getChannel()))
-            .min(Comparator.comparingInt(gateway -> gateway.getPriority(notification.getChannel())))
-            .orElse(null);
+        return routeChannel(notification.getChannel());
+    }
+    
+    @Override
+    public List<GatewayBatch> routeBatches(List<Notification> notifications, int maxBatchSize) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Max batch size must be positive");
+        }
+        
+        // The gateway depends only on the channel
+        Map<NotificationChannel, List<Notification>> byChannel = new EnumMap<>(NotificationChannel.class);
+        for (Notification notification : notifications) {
+            byChannel.computeIfAbsent(notification.getChannel(), channel -> new ArrayList<>()).add(notification);
+        }
+        
+        List<GatewayBatch> batches = new ArrayList<>();
+        byChannel.forEach((channel, channelNotifications) -> {
+            NotificationGateway gateway = routeChannel(channel);
+            if (gateway == null) {
+                return;
+            }
+            int batchSize = Math.max(1, Math.min(maxBatchSize, gateway.getMaxBatchSize(channel)));
+            for (int from = 0; from < channelNotifications.size(); from += batchSize) {
+                int to = Math.min(from + batchSize, channelNotifications.size());
+                batches.add(new GatewayBatch(gateway, channelNotifications.subList(from, to)));
+            }
+        });
+        return batches;
     }
     
     @Override
     public void registerGateway(NotificationGateway gateway) {
         gateways.add(gateway);
     }
+    
+    private NotificationGateway routeChannel(NotificationChannel channel) {
+        return gateways.stream()
+            .filter(gateway -> gateway.supports(channel))
+            .min(Comparator.comparingInt(gateway -> gateway.getPriority(channel)))
+            .orElse(null);
+    }
 }
\ No newline at end of file
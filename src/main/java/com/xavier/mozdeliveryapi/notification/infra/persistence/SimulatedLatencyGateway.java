@@ -0,0 +1,90 @@
+package com.xavier.mozdeliveryapi.notification.infra.persistence;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.xavier.mozdeliveryapi.notification.application.usecase.port.NotificationGateway;
+import com.xavier.mozdeliveryapi.notification.domain.entity.Notification;
+import com.xavier.mozdeliveryapi.notification.domain.entity.NotificationResult;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
+
+/**
+ * Local stand-in for an SMS or push provider that takes as long as a real one.
+ *
+ * Every call costs a fixed round trip plus a little per recipient, so batching
+ * pays off the way it would against the provider. Recipients whose identifier
+ * contains "invalid" are rejected. For load tests and benchmarks only.
+ */
+public class SimulatedLatencyGateway implements NotificationGateway {
+
+    private final NotificationChannel channel;
+    private final Duration requestLatency;
+    private final Duration recipientLatency;
+    private final int maxBatchSize;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SimulatedLatencyGateway(NotificationChannel channel, Duration requestLatency,
+                                   Duration recipientLatency, int maxBatchSize) {
+        this.channel = Objects.requireNonNull(channel, "Channel cannot be null");
+        this.requestLatency = Objects.requireNonNull(requestLatency, "Request latency cannot be null");
+        this.recipientLatency = Objects.requireNonNull(recipientLatency, "Recipient latency cannot be null");
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Max batch size must be positive");
+        }
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public NotificationResult send(Notification notification) {
+        return sendBatch(List.of(notification)).get(0);
+    }
+
+    @Override
+    public List<NotificationResult> sendBatch(List<Notification> notifications) {
+        if (notifications.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch of " + notifications.size() + " exceeds " + maxBatchSize);
+        }
+        requests.incrementAndGet();
+        try {
+            Thread.sleep(requestLatency.plus(recipientLatency.multipliedBy(notifications.size())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return notifications.stream().map(n -> NotificationResult.failure("Interrupted")).toList();
+        }
+
+        List<NotificationResult> results = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            results.add(notification.getRecipient().identifier().contains("invalid")
+                ? NotificationResult.failure("Invalid recipient")
+                : NotificationResult.success("sim_" + sequence.incrementAndGet()));
+        }
+        return results;
+    }
+
+    @Override
+    public int getMaxBatchSize(NotificationChannel channel) {
+        return supports(channel) ? maxBatchSize : 1;
+    }
+
+    @Override
+    public boolean supports(NotificationChannel channel) {
+        return this.channel == channel;
+    }
+
+    @Override
+    public int getPriority(NotificationChannel channel) {
+        // Ahead of the mock gateways when registered
+        return supports(channel) ? 0 : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Number of calls made to the simulated provider.
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+}
@@ -0,0 +1,113 @@
+package com.xavier.mozdeliveryapi.notification.infra.queue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
+
+/**
+ * How queued notifications are sent. Each channel sends at most
+ * {@link ChannelLimits#sendsPerSecond()} notifications a second, in bursts of
+ * up to {@link ChannelLimits#burst()}, grouped into batches of up to
+ * {@link ChannelLimits#maxBatchSize()} with at most
+ * {@link ChannelLimits#concurrency()} batches in flight; channels without
+ * limits of their own use {@code defaultLimits}. A failed send is retried up
+ * to {@code maxAttempts} times, backing off exponentially from
+ * {@code retryBackoff} up to {@code maxRetryBackoff}, with jitter.
+ */
+public record NotificationDispatchPolicy(
+    Map<NotificationChannel, ChannelLimits> channelLimits,
+    ChannelLimits defaultLimits,
+    int maxAttempts,
+    Duration retryBackoff,
+    Duration maxRetryBackoff
+) {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+    public static final Duration DEFAULT_RETRY_BACKOFF = Duration.ofSeconds(1);
+    public static final Duration DEFAULT_MAX_RETRY_BACKOFF = Duration.ofMinutes(1);
+
+    public NotificationDispatchPolicy {
+        Objects.requireNonNull(channelLimits, "Channel limits cannot be null");
+        Objects.requireNonNull(defaultLimits, "Default limits cannot be null");
+        Objects.requireNonNull(retryBackoff, "Retry backoff cannot be null");
+        Objects.requireNonNull(maxRetryBackoff, "Max retry backoff cannot be null");
+
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Max attempts must be positive");
+        }
+        if (retryBackoff.isNegative()) {
+            throw new IllegalArgumentException("Retry backoff cannot be negative");
+        }
+        if (maxRetryBackoff.compareTo(retryBackoff) < 0) {
+            throw new IllegalArgumentException("Max retry backoff cannot be less than retry backoff");
+        }
+        channelLimits = Map.copyOf(channelLimits);
+    }
+
+    public static NotificationDispatchPolicy defaults() {
+        return new NotificationDispatchPolicy(Map.of(), ChannelLimits.DEFAULT, DEFAULT_MAX_ATTEMPTS,
+                                              DEFAULT_RETRY_BACKOFF, DEFAULT_MAX_RETRY_BACKOFF);
+    }
+
+    public ChannelLimits limitsFor(NotificationChannel channel) {
+        return channelLimits.getOrDefault(channel, defaultLimits);
+    }
+
+    /**
+     * Delay before retrying a send that has now failed {@code attempts}
+     * times: the exponential backoff, less up to half of it at random so
+     * retries after an outage do not all land together.
+     *
+     * @param random a number from 0 (inclusive) to 1 (exclusive)
+     */
+    public Duration backoffAfter(int attempts, double random) {
+        Duration backoff = retryBackoff;
+        for (int i = 1; i < attempts && backoff.compareTo(maxRetryBackoff) < 0; i++) {
+            backoff = backoff.multipliedBy(2);
+        }
+        if (backoff.compareTo(maxRetryBackoff) > 0) {
+            backoff = maxRetryBackoff;
+        }
+        long nanos = backoff.toNanos();
+        return Duration.ofNanos(nanos - (long) (nanos / 2 * random));
+    }
+
+    /**
+     * Sending limits of one channel's provider. Up to {@code maxBatchSize}
+     * notifications go out in one call, and a batch waits up to
+     * {@code batchLinger} to fill unless it starts with a critical alert.
+     */
+    public record ChannelLimits(int sendsPerSecond, int burst, int concurrency,
+                                int maxBatchSize, Duration batchLinger) {
+
+        public static final ChannelLimits DEFAULT = new ChannelLimits(50, 50, 16);
+
+        public ChannelLimits {
+            Objects.requireNonNull(batchLinger, "Batch linger cannot be null");
+            if (sendsPerSecond <= 0) {
+                throw new IllegalArgumentException("Sends per second must be positive");
+            }
+            if (burst <= 0) {
+                throw new IllegalArgumentException("Burst must be positive");
+            }
+            if (concurrency <= 0) {
+                throw new IllegalArgumentException("Concurrency must be positive");
+            }
+            if (maxBatchSize <= 0) {
+                throw new IllegalArgumentException("Max batch size must be positive");
+            }
+            if (batchLinger.isNegative()) {
+                throw new IllegalArgumentException("Batch linger cannot be negative");
+            }
+        }
+
+        /**
+         * Limits for a provider that takes one notification per call.
+         */
+        public ChannelLimits(int sendsPerSecond, int burst, int concurrency) {
+            this(sendsPerSecond, burst, concurrency, 1, Duration.ZERO);
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.xavier.mozdeliveryapi.notification.infra.queue;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.xavier.mozdeliveryapi.notification.application.usecase.GatewayBatch;
+import com.xavier.mozdeliveryapi.notification.application.usecase.NotificationRoutingService;
+import com.xavier.mozdeliveryapi.notification.application.usecase.port.NotificationQueue;
+import com.xavier.mozdeliveryapi.notification.application.usecase.port.NotificationRepository;
+import com.xavier.mozdeliveryapi.notification.domain.entity.Notification;
+import com.xavier.mozdeliveryapi.notification.domain.entity.NotificationResult;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationId;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationPriority;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationStatus;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Sends notifications as soon as they are queued, most urgent first.
+ *
+ * Each channel has its own lane, since routing picks one gateway per channel.
+ * A lane holds a queue per priority and always takes from the most urgent
+ * one that is not empty, so a critical alert never waits behind a backlog of
+ * marketing messages. Sends go out on virtual threads, no faster than the
+ * channel's token bucket allows and with a limited number in flight. Where
+ * the gateway takes batches, queued notifications are grouped into one call,
+ * waiting briefly for a batch to fill unless a critical alert leads it. A send
+ * that fails is queued again after a jittered exponential backoff, and once
+ * it runs out of attempts the notification is marked as failed.
+ * Notifications that stop being pending while queued, e.g. cancelled ones,
+ * are dropped without sending.
+ */
+public class PriorityNotificationQueue implements NotificationQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriorityNotificationQueue.class);
+
+    private static final NotificationPriority[] MOST_URGENT_FIRST = {
+        NotificationPriority.CRITICAL, NotificationPriority.HIGH, NotificationPriority.NORMAL, NotificationPriority.LOW
+    };
+
+    private final NotificationRoutingService routingService;
+    private final NotificationRepository notificationRepository;
+    private final NotificationDispatchPolicy policy;
+
+    private final Map<NotificationChannel, Lane> lanes = new EnumMap<>(NotificationChannel.class);
+    private final List<Thread> laneThreads = new ArrayList<>();
+    private final Set<NotificationId> queued = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("notification-queue-timer").daemon().factory());
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final DistributionSummary batchSize;
+    private final Map<NotificationPriority, Timer> latency = new EnumMap<>(NotificationPriority.class);
+
+    public PriorityNotificationQueue(NotificationRoutingService routingService,
+                                     NotificationRepository notificationRepository,
+                                     NotificationDispatchPolicy policy,
+                                     MeterRegistry meterRegistry) {
+        Objects.requireNonNull(meterRegistry, "Meter registry cannot be null");
+        this.routingService = Objects.requireNonNull(routingService, "Routing service cannot be null");
+        this.notificationRepository = Objects.requireNonNull(notificationRepository,
+            "Notification repository cannot be null");
+        this.policy = Objects.requireNonNull(policy, "Policy cannot be null");
+
+        this.sent = Counter.builder("notification.queue.sent")
+            .description("Notifications sent from the queue")
+            .register(meterRegistry);
+        this.retried = Counter.builder("notification.queue.retried")
+            .description("Notification sends that failed and will be retried")
+            .register(meterRegistry);
+        this.failed = Counter.builder("notification.queue.failed")
+            .description("Notifications given up on")
+            .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("notification.queue.batch.size")
+            .description("Notifications sent per gateway call")
+            .register(meterRegistry);
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            latency.put(priority, Timer.builder("notification.queue.latency")
+                .description("Time from a notification being queued to it being sent")
+                .tag("priority", priority.name())
+                .register(meterRegistry));
+        }
+        meterRegistry.gauge("notification.queue.queued", queued, Set::size);
+
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            Lane lane = new Lane(channel, policy.limitsFor(channel));
+            lanes.put(channel, lane);
+            laneThreads.add(Thread.ofVirtual().name("notification-queue-" + channel).start(lane));
+        }
+    }
+
+    @Override
+    public boolean enqueue(Notification notification) {
+        Objects.requireNonNull(notification, "Notification cannot be null");
+        if (notification.getStatus() != NotificationStatus.PENDING
+                || !queued.add(notification.getNotificationId())) {
+            return false;
+        }
+        lanes.get(notification.getChannel()).offer(new Entry(notification, 1, System.nanoTime()));
+        return true;
+    }
+
+    /**
+     * Number of notifications queued or being sent.
+     */
+    public int getQueuedCount() {
+        return queued.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Notifications still queued stay pending and can be queued again after the restart
+        laneThreads.forEach(Thread::interrupt);
+        timer.shutdownNow();
+        senders.shutdown();
+        try {
+            senders.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void send(Lane lane, List<Entry> entries) {
+        Map<NotificationId, Entry> pending = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            NotificationId id = entry.notification().getNotificationId();
+            if (entry.notification().getStatus() == NotificationStatus.PENDING) {
+                pending.put(id, entry);
+            } else {
+                queued.remove(id);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Notification> notifications = pending.values().stream().map(Entry::notification).toList();
+        for (GatewayBatch batch : routingService.routeBatches(notifications, lane.maxBatchSize)) {
+            batchSize.record(batch.notifications().size());
+            Map<NotificationId, NotificationResult> results = batch.send();
+            for (Notification notification : batch.notifications()) {
+                Entry entry = pending.remove(notification.getNotificationId());
+                settle(lane, entry, results.get(notification.getNotificationId()));
+            }
+        }
+
+        // Whatever is left had no gateway to go to
+        for (Entry entry : pending.values()) {
+            fail(entry, "No gateway available for channel: " + entry.notification().getChannel());
+        }
+    }
+
+    private void settle(Lane lane, Entry entry, NotificationResult result) {
+        if (!result.success()) {
+            retryOrFail(lane, entry, result.errorMessage());
+            return;
+        }
+        Notification notification = entry.notification();
+        notification.markAsSent(result.externalId());
+        queued.remove(notification.getNotificationId());
+        if (notification.getStatus() != NotificationStatus.SENT) {
+            // Cancelled while being sent
+            return;
+        }
+        save(notification);
+        sent.increment();
+        latency.get(notification.getPriority()).record(System.nanoTime() - entry.queuedAtNanos(),
+                                                         TimeUnit.NANOSECONDS);
+    }
+
+    private void retryOrFail(Lane lane, Entry entry, String reason) {
+        if (entry.attempt() >= policy.maxAttempts()) {
+            fail(entry, reason);
+            return;
+        }
+        Duration backoff = policy.backoffAfter(entry.attempt(), ThreadLocalRandom.current().nextDouble());
+        retried.increment();
+        logger.warn("Sending notification {} failed, attempt {} of {}, retrying in {}: {}",
+                    entry.notification().getNotificationId(), entry.attempt(), policy.maxAttempts(),
+                    backoff, reason);
+        try {
+            timer.schedule(() -> lane.offer(entry.nextAttempt()), backoff.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; left pending
+            queued.remove(entry.notification().getNotificationId());
+        }
+    }
+
+    private void fail(Entry entry, String reason) {
+        Notification notification = entry.notification();
+        notification.markAsFailed(reason);
+        queued.remove(notification.getNotificationId());
+        if (notification.getStatus() != NotificationStatus.FAILED) {
+            // Cancelled in the meantime
+            return;
+        }
+        save(notification);
+        failed.increment();
+        logger.error("Giving up on notification {} after {} attempts: {}",
+                     notification.getNotificationId(), entry.attempt(), reason);
+    }
+
+    private void save(Notification notification) {
+        try {
+            notificationRepository.save(notification);
+        } catch (RuntimeException e) {
+            logger.error("Could not save notification {}: {}",
+                         notification.getNotificationId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The queues and limits of one channel, drained by its own thread.
+     */
+    private final class Lane implements Runnable {
+
+        private final NotificationChannel channel;
+        private final Map<NotificationPriority, Deque<Entry>> queues = new EnumMap<>(NotificationPriority.class);
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final Bucket bucket;
+        private final Semaphore permits;
+        private final int maxBatchSize;
+        private final Duration batchLinger;
+        private int size;  // guarded by lock
+
+        Lane(NotificationChannel channel, NotificationDispatchPolicy.ChannelLimits limits) {
+            this.channel = channel;
+            for (NotificationPriority priority : NotificationPriority.values()) {
+                queues.put(priority, new ArrayDeque<>());
+            }
+            this.bucket = Bucket.builder()
+                .addLimit(Bandwidth.classic(limits.burst(),
+                                            Refill.greedy(limits.sendsPerSecond(), Duration.ofSeconds(1))))
+                .build();
+            this.permits = new Semaphore(limits.concurrency());
+            this.maxBatchSize = limits.maxBatchSize();
+            this.batchLinger = limits.batchLinger();
+        }
+
+        void offer(Entry entry) {
+            lock.lock();
+            try {
+                queues.get(entry.notification().getPriority()).addLast(entry);
+                size++;
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    permits.acquire();
+                    awaitNotEmpty();
+                    awaitToken();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // Taken only now, so anything more urgent that arrived meanwhile goes first
+                List<Entry> batch = takeBatch();
+                try {
+                    senders.execute(() -> {
+                        try {
+                            send(this, batch);
+                        } catch (RuntimeException e) {
+                            logger.error("Error sending {} {} notifications: {}", batch.size(), channel,
+                                         e.getMessage(), e);
+                            batch.forEach(entry -> queued.remove(entry.notification().getNotificationId()));
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    return;
+                }
+            }
+        }
+
+        private void awaitNotEmpty() throws InterruptedException {
+            lock.lock();
+            try {
+                while (size == 0) {
+                    notEmpty.await();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void awaitToken() throws InterruptedException {
+            while (!bucket.tryConsume(1)) {
+                long nanos = bucket.estimateAbilityToConsume(1).getNanosToWaitForRefill();
+                TimeUnit.NANOSECONDS.sleep(Math.max(nanos, 1));
+            }
+        }
+
+        /**
+         * Take the most urgent entry, which has a token already, and as many
+         * more as there are tokens for. Unless the first is a critical alert,
+         * wait up to the linger time for a full batch.
+         */
+        private List<Entry> takeBatch() {
+            List<Entry> batch = new ArrayList<>();
+            batch.add(poll());
+            if (maxBatchSize == 1) {
+                return batch;
+            }
+            if (batch.get(0).notification().getPriority() != NotificationPriority.CRITICAL) {
+                awaitSize(maxBatchSize - 1);
+            }
+            long wanted = Math.min(size(), maxBatchSize - 1);
+            long tokens = wanted == 0 ? 0 : bucket.tryConsumeAsMuchAsPossible(wanted);
+            for (long i = 0; i < tokens; i++) {
+                batch.add(poll());
+            }
+            return batch;
+        }
+
+        private void awaitSize(int wanted) {
+            lock.lock();
+            try {
+                long nanos = batchLinger.toNanos();
+                while (size < wanted && nanos > 0) {
+                    nanos = notEmpty.awaitNanos(nanos);
+                }
+            } catch (InterruptedException e) {
+                // Send what there is; the loop stops after this batch
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int size() {
+            lock.lock();
+            try {
+                return size;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Entry poll() {
+            lock.lock();
+            try {
+                for (NotificationPriority priority : MOST_URGENT_FIRST) {
+                    Entry entry = queues.get(priority).pollFirst();
+                    if (entry != null) {
+                        size--;
+                        return entry;
+                    }
+                }
+                throw new IllegalStateException("Lane " + channel + " is empty");
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private record Entry(Notification notification, int attempt, long queuedAtNanos) {
+
+        Entry nextAttempt() {
+            return new Entry(notification, attempt + 1, queuedAtNanos);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Background sending of notifications.
+ *
+ * Each channel has its own lane of priority queues, drained as fast as the
+ * channel's provider allows, with failed sends retried after a backoff.
+ */
+package com.xavier.mozdeliveryapi.notification.infra.queue;
@@ -138,9 +138,9 @@ public class NotificationController {
         }
     }
     
-    @Operation(summary = "Process pending notifications", description = "Processes all pending notifications")
+    @Operation(summary = "Process pending notifications", description = "Queues pending notifications that are not queued yet, e.g. after a restart")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Pending notifications processed successfully"),
+        @ApiResponse(responseCode = "200", description = "Pending notifications queued successfully"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "403", description = "Forbidden")
     })
@@ -148,11 +148,11 @@ public class NotificationController {
     @PreAuthorize("hasAuthority('SCOPE_notification:admin')")
     public ResponseEntity<Integer> processPendingNotifications() {
         
-        logger.info("Processing pending notifications");
+        logger.info("Queueing pending notifications");
         
         try {
             int processedCount = notificationApplicationService.processPendingNotifications();
-            logger.info("Processed {} pending notifications", processedCount);
+            logger.info("Queued {} pending notifications", processedCount);
             return ResponseEntity.ok(processedCount);
             
         } catch (Exception e) {
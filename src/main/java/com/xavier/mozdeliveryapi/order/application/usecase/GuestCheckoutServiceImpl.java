@@ -8,6 +8,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.xavier.mozdeliveryapi.catalog.application.usecase.StockReservationService;
 import com.xavier.mozdeliveryapi.order.application.usecase.port.OrderRepository;
 import com.xavier.mozdeliveryapi.order.domain.entity.Order;
 import com.xavier.mozdeliveryapi.order.domain.exception.OrderNotFoundException;
@@ -25,9 +26,12 @@ public class GuestCheckoutServiceImpl implements GuestCheckoutService {
     private static final Logger logger = LoggerFactory.getLogger(GuestCheckoutServiceImpl.class);
     
     private final OrderRepository orderRepository;
+    private final StockReservationService stockReservationService;
     
-    public GuestCheckoutServiceImpl(OrderRepository orderRepository) {
+    public GuestCheckoutServiceImpl(OrderRepository orderRepository, StockReservationService stockReservationService) {
         this.orderRepository = Objects.requireNonNull(orderRepository, "Order repository cannot be null");
+        this.stockReservationService = Objects.requireNonNull(stockReservationService,
+            "Stock reservation service cannot be null");
     }
     
     @Override
@@ -52,6 +56,9 @@ public class GuestCheckoutServiceImpl implements GuestCheckoutService {
             command.paymentInfo()
         );
         
+        // Hold the stock until the order is paid for, cancelled or the hold expires
+        stockReservationService.reserve(orderId, OrderServiceImpl.quantitiesByProduct(command.items()));
+        
         // Save the order
         Order savedOrder = orderRepository.save(order);
         
@@ -176,8 +183,9 @@ public class GuestCheckoutServiceImpl implements GuestCheckoutService {
             customerOrder.updateStatus(order.getStatus());
         }
         
-        // Save the new customer order
+        // Save the new customer order, which takes over any stock the guest order holds
         Order savedCustomerOrder = orderRepository.save(customerOrder);
+        stockReservationService.transfer(order.getOrderId(), savedCustomerOrder.getOrderId());
         
         // Cancel the original guest order with conversion reason
         order.cancel(
@@ -7,6 +7,7 @@ import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.xavier.mozdeliveryapi.catalog.application.usecase.StockReservationService;
 import com.xavier.mozdeliveryapi.order.domain.valueobject.CreateOrderCommand;
 import com.xavier.mozdeliveryapi.order.domain.valueobject.DeliveryAddress;
 import com.xavier.mozdeliveryapi.order.domain.entity.Order;
@@ -41,13 +42,17 @@ public class OrderApplicationServiceImpl implements OrderApplicationService {
     private final OrderService orderService;
     private final OrderRepository orderRepository;
     private final DomainEventPublisher eventPublisher;
+    private final StockReservationService stockReservationService;
     
     public OrderApplicationServiceImpl(OrderService orderService, 
                                      OrderRepository orderRepository,
-                                     DomainEventPublisher eventPublisher) {
+                                     DomainEventPublisher eventPublisher,
+                                     StockReservationService stockReservationService) {
         this.orderService = Objects.requireNonNull(orderService, "Order service cannot be null");
         this.orderRepository = Objects.requireNonNull(orderRepository, "Order repository cannot be null");
         this.eventPublisher = Objects.requireNonNull(eventPublisher, "Event publisher cannot be null");
+        this.stockReservationService = Objects.requireNonNull(stockReservationService,
+            "Stock reservation service cannot be null");
     }
     
     @Override
@@ -133,6 +138,10 @@ public class OrderApplicationServiceImpl implements OrderApplicationService {
         
         Order savedOrder = orderRepository.save(order);
         
+        // The held stock is now sold. If the hold has expired and the stock has
+        // run out since, this throws and the payment confirmation is rolled back
+        stockReservationService.confirm(orderId, OrderServiceImpl.quantitiesByProduct(savedOrder.getItems()));
+        
         // Publish domain events
         publishDomainEvents(savedOrder);
         
@@ -203,7 +212,7 @@ public class OrderApplicationServiceImpl implements OrderApplicationService {
     }
     
     private void publishDomainEvents(Order order) {
-        order.getDomainEvents().forEach(eventPublisher::publish);
+        eventPublisher.publishAll(order.getDomainEvents());
         order.clearDomainEvents();
     }
 }
\ No newline at end of file
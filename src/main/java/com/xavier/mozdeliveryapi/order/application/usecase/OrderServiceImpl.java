@@ -1,11 +1,17 @@
 package com.xavier.mozdeliveryapi.order.application.usecase;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.OptionalInt;
 
 import org.springframework.stereotype.Service;
 
+import com.xavier.mozdeliveryapi.catalog.application.usecase.StockReservationService;
+import com.xavier.mozdeliveryapi.catalog.domain.exception.InsufficientStockException;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
 import com.xavier.mozdeliveryapi.merchant.domain.entity.Merchant;
 import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
 import com.xavier.mozdeliveryapi.merchant.application.usecase.port.MerchantRepository;
@@ -34,13 +40,17 @@ public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
     private final MerchantRepository merchantRepository;
     private final VerticalBusinessRulesEngine verticalBusinessRulesEngine;
+    private final StockReservationService stockReservationService;
     
     public OrderServiceImpl(OrderRepository orderRepository, MerchantRepository merchantRepository,
-                           VerticalBusinessRulesEngine verticalBusinessRulesEngine) {
+                           VerticalBusinessRulesEngine verticalBusinessRulesEngine,
+                           StockReservationService stockReservationService) {
         this.orderRepository = Objects.requireNonNull(orderRepository, "Order repository cannot be null");
         this.merchantRepository = Objects.requireNonNull(merchantRepository, "Merchant repository cannot be null");
         this.verticalBusinessRulesEngine = Objects.requireNonNull(verticalBusinessRulesEngine, 
             "Vertical business rules engine cannot be null");
+        this.stockReservationService = Objects.requireNonNull(stockReservationService,
+            "Stock reservation service cannot be null");
     }
     
     @Override
@@ -63,6 +73,9 @@ public class OrderServiceImpl implements OrderService {
             paymentInfo
         );
         
+        // Hold the stock until the order is paid for, cancelled or the hold expires
+        stockReservationService.reserve(order.getOrderId(), quantitiesByProduct(command.items()));
+        
         return orderRepository.save(order);
     }
     
@@ -88,6 +101,7 @@ public class OrderServiceImpl implements OrderService {
             .orElseThrow(() -> new OrderNotFoundException(orderId));
         
         order.cancel(reason, details);
+        stockReservationService.release(orderId);
         
         return orderRepository.save(order);
     }
@@ -141,10 +155,17 @@ public class OrderServiceImpl implements OrderService {
                 verticalValidation.getFirstErrorMessage());
         }
         
+        // Fail fast on items already out of stock; createOrder reserves atomically
+        quantitiesByProduct(command.items()).forEach((productId, quantity) -> {
+            OptionalInt available = stockReservationService.getAvailableStock(productId);
+            if (available.isPresent() && available.getAsInt() < quantity) {
+                throw new InsufficientStockException(productId, quantity);
+            }
+        });
+        
         // Additional validation can be added here
         // - Check if delivery address is within service area
         // - Validate payment method is supported by tenant
-        // - Check inventory availability
     }
     
     @Override
@@ -163,6 +184,14 @@ public class OrderServiceImpl implements OrderService {
         };
     }
     
+    static Map<ProductId, Integer> quantitiesByProduct(List<OrderItem> items) {
+        Map<ProductId, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : items) {
+            quantities.merge(ProductId.of(item.productId()), item.quantity(), Integer::sum);
+        }
+        return quantities;
+    }
+    
     private Money calculateTotalAmount(List<OrderItem> items, Currency currency) {
         Money total = Money.zero(currency);
         
@@ -1,5 +1,6 @@
 package com.xavier.mozdeliveryapi.order.infra.web;
 
+import com.xavier.mozdeliveryapi.catalog.domain.exception.InsufficientStockException;
 import com.xavier.mozdeliveryapi.order.domain.valueobject.CustomerId;
 import com.xavier.mozdeliveryapi.order.domain.valueobject.OrderFilter;
 import com.xavier.mozdeliveryapi.order.domain.valueobject.OrderStatus;
@@ -54,6 +55,7 @@ public class OrderController {
         @ApiResponse(responseCode = "400", description = "Invalid request data"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "403", description = "Forbidden"),
+        @ApiResponse(responseCode = "409", description = "Not enough stock for an item"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @PostMapping
@@ -68,6 +70,9 @@ public class OrderController {
             logger.info("Order created successfully with ID: {}", response.orderId());
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
             
+        } catch (InsufficientStockException e) {
+            logger.info("Order refused: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             logger.error("Error creating order", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -200,6 +205,7 @@ public class OrderController {
         @ApiResponse(responseCode = "200", description = "Payment confirmed successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid payment confirmation"),
         @ApiResponse(responseCode = "404", description = "Order not found"),
+        @ApiResponse(responseCode = "409", description = "Stock hold expired and an item has sold out"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "403", description = "Forbidden")
     })
@@ -217,6 +223,9 @@ public class OrderController {
             
             return ResponseEntity.ok(response);
             
+        } catch (InsufficientStockException e) {
+            logger.warn("Payment for order {} refused: {}", orderId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             logger.error("Error confirming payment for order: {}", orderId, e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -49,10 +49,17 @@ public interface ApiKeyService {
     ApiKey getApiKey(String keyId);
     
     /**
-     * Record API key usage.
+     * Record API key usage. The last-used timestamp is buffered until the next {@link #flushUsage()}.
      */
     void recordUsage(String keyId);
     
+    /**
+     * Write buffered last-used timestamps in one batch.
+     *
+     * @return the number of keys updated
+     */
+    int flushUsage();
+    
     /**
      * Result of API key creation.
      */
@@ -12,12 +12,22 @@ import org.springframework.transaction.annotation.Transactional;
 import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Implementation of API key management service.
+ *
+ * Raw keys have the form {@code mk_<keyId>_<secret>}: validation fetches the
+ * single candidate by ID and runs one BCrypt check, skipped while a recent
+ * verification is cached. Last-used timestamps are buffered and written in
+ * batches by {@link #flushUsage()}.
  */
 @Service
 @Transactional
@@ -26,14 +36,19 @@ public class ApiKeyServiceImpl implements ApiKeyService {
     private static final Logger logger = LoggerFactory.getLogger(ApiKeyServiceImpl.class);
     private static final int API_KEY_LENGTH = 32;
     private static final String API_KEY_PREFIX = "mk_"; // merchant key prefix
+    private static final String KEY_ID_PREFIX = "key_";
     
     private final ApiKeyRepository apiKeyRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApiKeyVerificationCache verificationCache;
     private final SecureRandom secureRandom;
+    private final Map<String, Instant> pendingUsage = new ConcurrentHashMap<>();
     
-    public ApiKeyServiceImpl(ApiKeyRepository apiKeyRepository, PasswordEncoder passwordEncoder) {
+    public ApiKeyServiceImpl(ApiKeyRepository apiKeyRepository, PasswordEncoder passwordEncoder,
+                             ApiKeyVerificationCache verificationCache) {
         this.apiKeyRepository = apiKeyRepository;
         this.passwordEncoder = passwordEncoder;
+        this.verificationCache = verificationCache;
         this.secureRandom = new SecureRandom();
     }
     
@@ -49,9 +64,9 @@ public class ApiKeyServiceImpl implements ApiKeyService {
             throw new IllegalArgumentException("API key must have at least one scope");
         }
         
-        // Generate raw API key
-        String rawKey = generateRawApiKey();
+        // Raw key is mk_<keyId>_<secret>, so validation can look the key up by ID
         String keyId = generateKeyId();
+        String rawKey = API_KEY_PREFIX + keyId + "_" + generateSecret();
         String hashedKey = passwordEncoder.encode(rawKey);
         
         ApiKey apiKey = new ApiKey(
@@ -82,33 +97,43 @@ public class ApiKeyServiceImpl implements ApiKeyService {
             return ApiKeyValidationResult.invalid("API key is required");
         }
         
-        if (!rawKey.startsWith(API_KEY_PREFIX)) {
+        String keyId = extractKeyId(rawKey);
+        if (keyId == null) {
             return ApiKeyValidationResult.invalid("Invalid API key format");
         }
         
-        // Get all active keys and check against them
-        List<ApiKey> allActiveKeys = findAllActiveKeys();
-        
-        for (ApiKey apiKey : allActiveKeys) {
-            if (passwordEncoder.matches(rawKey, apiKey.hashedKey())) {
-                // Check expiration first (before checking status)
-                if (apiKey.isExpired()) {
-                    return ApiKeyValidationResult.invalid("API key has expired");
-                }
-                
-                // Then check status
-                if (apiKey.status() != ApiKeyStatus.ACTIVE) {
-                    return ApiKeyValidationResult.invalid("API key is not active");
-                }
-                
-                // Record usage asynchronously
-                recordUsage(apiKey.keyId());
-                
-                return ApiKeyValidationResult.valid(apiKey);
+        Optional<ApiKey> candidate = apiKeyRepository.findByKeyId(keyId);
+        if (candidate.isEmpty()) {
+            return ApiKeyValidationResult.invalid("Invalid API key");
+        }
+        ApiKey apiKey = candidate.get();
+        
+        // A recent verification of the same secret against the same hash skips BCrypt
+        boolean verified = verificationCache.get(rawKey)
+            .map(cached -> cached.hashedKey().equals(apiKey.hashedKey()))
+            .orElse(false);
+        if (!verified) {
+            if (!passwordEncoder.matches(rawKey, apiKey.hashedKey())) {
+                return ApiKeyValidationResult.invalid("Invalid API key");
             }
         }
         
-        return ApiKeyValidationResult.invalid("Invalid API key");
+        // Check expiration first (before checking status)
+        if (apiKey.isExpired()) {
+            return ApiKeyValidationResult.invalid("API key has expired");
+        }
+        
+        // Then check status
+        if (apiKey.status() != ApiKeyStatus.ACTIVE) {
+            return ApiKeyValidationResult.invalid("API key is not active");
+        }
+        
+        if (!verified) {
+            verificationCache.put(rawKey, apiKey);
+        }
+        recordUsage(apiKey.keyId());
+        
+        return ApiKeyValidationResult.valid(apiKey);
     }
     
     @Override
@@ -121,6 +146,7 @@ public class ApiKeyServiceImpl implements ApiKeyService {
         
         ApiKey revokedKey = apiKey.withStatus(ApiKeyStatus.REVOKED);
         apiKeyRepository.save(revokedKey);
+        verificationCache.invalidate(keyId);
         
         logger.info("Revoked API key {} by {}", keyId, revokedBy);
     }
@@ -135,6 +161,7 @@ public class ApiKeyServiceImpl implements ApiKeyService {
         
         ApiKey suspendedKey = apiKey.withStatus(ApiKeyStatus.SUSPENDED);
         apiKeyRepository.save(suspendedKey);
+        verificationCache.invalidate(keyId);
         
         logger.info("Suspended API key {} by {}", keyId, suspendedBy);
     }
@@ -174,34 +201,59 @@ public class ApiKeyServiceImpl implements ApiKeyService {
     
     @Override
     public void recordUsage(String keyId) {
+        Objects.requireNonNull(keyId, "Key ID cannot be null");
+        pendingUsage.merge(keyId, Instant.now(), (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+    
+    @Override
+    public int flushUsage() {
+        if (pendingUsage.isEmpty()) {
+            return 0;
+        }
+        
+        Map<String, Instant> batch = new HashMap<>();
+        for (String keyId : List.copyOf(pendingUsage.keySet())) {
+            Instant lastUsed = pendingUsage.remove(keyId);
+            if (lastUsed != null) {
+                batch.put(keyId, lastUsed);
+            }
+        }
+        
         try {
-            apiKeyRepository.updateLastUsed(keyId, Instant.now());
+            apiKeyRepository.updateLastUsed(batch);
         } catch (Exception e) {
-            logger.warn("Failed to record API key usage for {}: {}", keyId, e.getMessage());
+            logger.warn("Failed to record API key usage for {} keys: {}", batch.size(), e.getMessage());
+            batch.forEach(this::requeueUsage);
+            return 0;
         }
+        return batch.size();
     }
     
-    private String generateRawApiKey() {
+    private void requeueUsage(String keyId, Instant lastUsed) {
+        pendingUsage.merge(keyId, lastUsed, (current, failed) -> current.isAfter(failed) ? current : failed);
+    }
+    
+    private String extractKeyId(String rawKey) {
+        if (!rawKey.startsWith(API_KEY_PREFIX + KEY_ID_PREFIX)) {
+            return null;
+        }
+        int separator = rawKey.indexOf('_', API_KEY_PREFIX.length() + KEY_ID_PREFIX.length());
+        if (separator < 0 || separator == rawKey.length() - 1) {
+            return null;
+        }
+        return rawKey.substring(API_KEY_PREFIX.length(), separator);
+    }
+    
+    private String generateSecret() {
         byte[] keyBytes = new byte[API_KEY_LENGTH];
         secureRandom.nextBytes(keyBytes);
-        String encodedKey = Base64.getUrlEncoder().withoutPadding().encodeToString(keyBytes);
-        return API_KEY_PREFIX + encodedKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keyBytes);
     }
     
     private String generateKeyId() {
+        // Hex keeps the key ID free of '_', so the raw key splits unambiguously
         byte[] idBytes = new byte[16];
         secureRandom.nextBytes(idBytes);
-        return "key_" + Base64.getUrlEncoder().withoutPadding().encodeToString(idBytes);
-    }
-    
-    private List<ApiKey> findAllActiveKeys() {
-        // Use the repository method to find all keys for validation
-        if (apiKeyRepository instanceof com.xavier.mozdeliveryapi.shared.infra.persistence.InMemoryApiKeyRepository inMemoryRepo) {
-            // Get all keys, not just active ones, because we need to check status during validation
-            return inMemoryRepo.findAll();
-        }
-        
-        // Fallback for other repository implementations
-        throw new UnsupportedOperationException("Finding all keys not supported by this repository implementation");
+        return KEY_ID_PREFIX + HexFormat.of().formatHex(idBytes);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+package com.xavier.mozdeliveryapi.shared.application.usecase;
+
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.ApiKey;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived cache of successful API key verifications.
+ *
+ * BCrypt verification is deliberately slow, so a key that has just been
+ * verified is remembered for a few seconds. Entries are keyed by an HMAC of the
+ * raw key under a per-process random secret; the raw key itself is never held.
+ * Entries for a key are dropped as soon as it is revoked or suspended.
+ */
+public class ApiKeyVerificationCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final SecretKeySpec secret;
+    private final ThreadLocal<Mac> macs;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public ApiKeyVerificationCache(Duration ttl, int maxEntries) {
+        Objects.requireNonNull(ttl, "TTL cannot be null");
+        if (ttl.isNegative()) {
+            throw new IllegalArgumentException("TTL cannot be negative");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        this.secret = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Get the key a raw API key was recently verified against, if any.
+     */
+    public Optional<ApiKey> get(String rawKey) {
+        String fingerprint = fingerprint(rawKey);
+        Entry entry = entries.get(fingerprint);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (System.nanoTime() - entry.verifiedAtNanos() >= ttlNanos) {
+            entries.remove(fingerprint, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.apiKey());
+    }
+
+    /**
+     * Remember that a raw API key verified against the given key.
+     */
+    public void put(String rawKey, ApiKey apiKey) {
+        Objects.requireNonNull(apiKey, "API key cannot be null");
+        if (ttlNanos == 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evictExpired();
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(fingerprint(rawKey), new Entry(apiKey, System.nanoTime()));
+    }
+
+    /**
+     * Drop every cached verification of a key.
+     */
+    public void invalidate(String keyId) {
+        Objects.requireNonNull(keyId, "Key ID cannot be null");
+        entries.values().removeIf(entry -> entry.apiKey().keyId().equals(keyId));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> now - entry.verifiedAtNanos() >= ttlNanos);
+    }
+
+    private String fingerprint(String rawKey) {
+        Objects.requireNonNull(rawKey, "Raw key cannot be null");
+        byte[] digest = macs.get().doFinal(rawKey.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secret);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private record Entry(ApiKey apiKey, long verifiedAtNanos) {}
+}
@@ -44,4 +44,9 @@ public interface ApiKeyRepository {
      * Update last used timestamp for an API key.
      */
     void updateLastUsed(String keyId, java.time.Instant lastUsed);
+    
+    /**
+     * Update last used timestamps for several API keys at once.
+     */
+    void updateLastUsed(java.util.Map<String, java.time.Instant> lastUsedByKeyId);
 }
\ No newline at end of file
@@ -1,4 +1,7 @@
 package com.xavier.mozdeliveryapi.shared.application.usecase.port;
+
+import java.util.Collection;
+
 import com.xavier.mozdeliveryapi.shared.domain.event.DomainEvent;
 
 
@@ -12,4 +15,11 @@ public interface DomainEventPublisher {
      * Publish a domain event.
      */
     void publish(DomainEvent event);
-}
\ No newline at end of file
+    
+    /**
+     * Publish several domain events, in order.
+     */
+    default void publishAll(Collection<? extends DomainEvent> events) {
+        events.forEach(this::publish);
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -114,9 +115,8 @@ public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
     
     private List<SimpleGrantedAuthority> createAuthorities(ApiKey apiKey) {
         // API keys always get MERCHANT role
-        List<SimpleGrantedAuthority> authorities = List.of(
-            new SimpleGrantedAuthority("ROLE_" + UserRole.MERCHANT.name())
-        );
+        List<SimpleGrantedAuthority> authorities = new ArrayList<>(apiKey.scopes().size() + 1);
+        authorities.add(new SimpleGrantedAuthority("ROLE_" + UserRole.MERCHANT.name()));
         
         // Add scope-based authorities
         apiKey.scopes().forEach(scope -> 
@@ -0,0 +1,260 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import com.xavier.mozdeliveryapi.shared.infra.config.RateLimitBucketStore.BucketLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Cluster-wide rate limiter that pre-consumes tokens in batches.
+ *
+ * Each node draws a batch of tokens from the shared bucket and spends it
+ * locally, topping it up asynchronously once half of it is used, so most
+ * requests never wait for Redis. A node holds at most a tenth of a limit, which
+ * bounds how far the cluster can be unfair between nodes. Pre-consumed tokens
+ * expire after one refill period. When the store fails or is slower than the
+ * sync timeout, the limiter reports it unavailable and stops calling it until
+ * the retry interval has passed.
+ */
+final class DistributedRateLimiter {
+
+    /**
+     * Outcome of a cluster-wide check.
+     */
+    enum Decision {
+        ALLOWED,
+        DENIED,
+        UNAVAILABLE
+    }
+
+    private static final int FETCH_ATTEMPTS = 2;
+
+    private final DistributedTokenStore tokenStore;
+    private final RateLimitBucketStore<Allowance> allowances;
+    private final int batchSize;
+    private final long syncTimeoutNanos;
+    private final long retryIntervalNanos;
+    private final LongSupplier nanoClock;
+
+    private volatile boolean unavailable;
+    private volatile long unavailableUntilNanos;
+
+    private final Counter tokensFetched;
+    private final Counter fetchSuccesses;
+    private final Counter fetchFailures;
+
+    DistributedRateLimiter(DistributedTokenStore tokenStore, RateLimitingConfig config,
+                           MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.tokenStore = Objects.requireNonNull(tokenStore, "Token store cannot be null");
+        Objects.requireNonNull(config, "Config cannot be null");
+        this.nanoClock = Objects.requireNonNull(nanoClock, "Clock cannot be null");
+        RateLimitingConfig.Distributed distributed = config.getDistributed();
+        if (distributed.getBatchSize() <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = distributed.getBatchSize();
+        this.syncTimeoutNanos = distributed.getSyncTimeout().toNanos();
+        this.retryIntervalNanos = distributed.getRetryInterval().toNanos();
+        this.allowances = new RateLimitBucketStore<>("distributed", config.getMaxBuckets(),
+            config.getBucketIdleTimeout(), limit -> new Allowance(nanoClock.getAsLong()), meterRegistry, nanoClock);
+
+        this.tokensFetched = Counter.builder("ratelimit.distributed.tokens")
+            .description("Tokens drawn from the shared buckets")
+            .register(meterRegistry);
+        this.fetchSuccesses = Counter.builder("ratelimit.distributed.fetches")
+            .tag("result", "success")
+            .description("Token batches requested from the shared buckets")
+            .register(meterRegistry);
+        this.fetchFailures = Counter.builder("ratelimit.distributed.fetches")
+            .tag("result", "failure")
+            .description("Token batch requests that failed or timed out")
+            .register(meterRegistry);
+        meterRegistry.gauge("ratelimit.distributed.degraded", this,
+            limiter -> limiter.isUnavailable(limiter.nanoClock.getAsLong()) ? 1.0 : 0.0);
+    }
+
+    /**
+     * Try to take one token for a key from its cluster-wide bucket.
+     */
+    Decision tryConsume(String key, BucketLimit limit) {
+        long now = nanoClock.getAsLong();
+        if (isUnavailable(now)) {
+            return Decision.UNAVAILABLE;
+        }
+
+        Allowance allowance = allowances.get(key, limit);
+        long batch = batchSize(limit);
+        if (allowance.tryTake(now)) {
+            if (allowance.remaining() <= batch / 2 && allowance.exhaustedUntilNanos - now <= 0) {
+                fetch(key, limit, allowance, batch);
+            }
+            return Decision.ALLOWED;
+        }
+
+        for (int attempt = 0; attempt < FETCH_ATTEMPTS; attempt++) {
+            if (allowance.exhaustedUntilNanos - now > 0) {
+                return Decision.DENIED;
+            }
+            try {
+                fetch(key, limit, allowance, batch).get(syncTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                return Decision.UNAVAILABLE;
+            } catch (TimeoutException e) {
+                markUnavailable(nanoClock.getAsLong());
+                return Decision.UNAVAILABLE;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Decision.UNAVAILABLE;
+            }
+            now = nanoClock.getAsLong();
+            if (allowance.tryTake(now)) {
+                return Decision.ALLOWED;
+            }
+        }
+        return Decision.DENIED;
+    }
+
+    /**
+     * Get the tokens this node still holds for a key.
+     */
+    long getRemainingTokens(String key, BucketLimit limit) {
+        Allowance allowance = allowances.get(key, limit);
+        return allowance.expiresAtNanos - nanoClock.getAsLong() > 0 ? allowance.remaining() : 0;
+    }
+
+    /**
+     * Get the nanoseconds until this node asks the shared bucket for tokens again.
+     */
+    long getNanosUntilRetry(String key, BucketLimit limit) {
+        return Math.max(0, allowances.get(key, limit).exhaustedUntilNanos - nanoClock.getAsLong());
+    }
+
+    void remove(String key) {
+        allowances.remove(key);
+    }
+
+    void clear() {
+        allowances.clear();
+    }
+
+    int evictIdle() {
+        return allowances.evictIdle();
+    }
+
+    boolean isUnavailable(long now) {
+        if (!unavailable) {
+            return false;
+        }
+        if (unavailableUntilNanos - now > 0) {
+            return true;
+        }
+        unavailable = false;  // let the next fetch probe the store again
+        return false;
+    }
+
+    private long batchSize(BucketLimit limit) {
+        return Math.max(1, Math.min(batchSize, limit.capacity() / 10));
+    }
+
+    /**
+     * Start fetching a batch unless one is already in flight for the allowance.
+     */
+    private CompletableFuture<Long> fetch(String key, BucketLimit limit, Allowance allowance, long batch) {
+        while (true) {
+            CompletableFuture<Long> inFlight = allowance.inFlight.get();
+            if (inFlight != null) {
+                return inFlight;
+            }
+            CompletableFuture<Long> started = new CompletableFuture<>();
+            if (allowance.inFlight.compareAndSet(null, started)) {
+                CompletableFuture<Long> acquired;
+                try {
+                    acquired = tokenStore.tryAcquire(key, limit.capacity(), limit.period(), batch);
+                } catch (RuntimeException e) {
+                    acquired = CompletableFuture.failedFuture(e);
+                }
+                acquired.whenComplete((tokens, error) -> {
+                    long completedAt = nanoClock.getAsLong();
+                    if (error != null) {
+                        fetchFailures.increment();
+                        markUnavailable(completedAt);
+                    } else {
+                        fetchSuccesses.increment();
+                        tokensFetched.increment(tokens);
+                        allowance.add(tokens, completedAt, limit);
+                    }
+                    allowance.inFlight.set(null);
+                    if (error != null) {
+                        started.completeExceptionally(error);
+                    } else {
+                        started.complete(tokens);
+                    }
+                });
+                return started;
+            }
+        }
+    }
+
+    private void markUnavailable(long now) {
+        unavailableUntilNanos = now + retryIntervalNanos;
+        unavailable = true;
+    }
+
+    /**
+     * Tokens this node has drawn for one key and not yet spent.
+     */
+    static final class Allowance {
+
+        private final AtomicLong tokens = new AtomicLong();
+        private final AtomicReference<CompletableFuture<Long>> inFlight = new AtomicReference<>();
+        private volatile long expiresAtNanos;
+        private volatile long exhaustedUntilNanos;
+
+        private Allowance(long now) {
+            this.expiresAtNanos = now;
+            this.exhaustedUntilNanos = now;
+        }
+
+        private boolean tryTake(long now) {
+            if (expiresAtNanos - now <= 0) {
+                return false;
+            }
+            long current;
+            do {
+                current = tokens.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        private long remaining() {
+            return tokens.get();
+        }
+
+        /**
+         * Add a fetched batch; only the single in-flight fetch calls this.
+         */
+        private void add(long fetched, long now, BucketLimit limit) {
+            if (expiresAtNanos - now <= 0) {
+                tokens.set(fetched);
+            } else {
+                tokens.addAndGet(fetched);
+            }
+            expiresAtNanos = now + limit.period().toNanos();
+            if (fetched == 0) {
+                // Back off for roughly the time the shared bucket needs to earn a token
+                exhaustedUntilNanos = now + limit.period().toNanos() / limit.capacity();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration for cluster-wide rate limits, enabled with
+ * {@code app.rate-limiting.distributed.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.rate-limiting.distributed", name = "enabled", havingValue = "true")
+public class DistributedRateLimitingConfig {
+
+    /**
+     * Redis-backed token store with its own client, so rate limiting does not
+     * compete with the application's Redis connection pool.
+     */
+    @Bean(destroyMethod = "close")
+    public DistributedTokenStore distributedTokenStore(
+            RateLimitingConfig rateLimitingConfig,
+            @Value("${spring.data.redis.host:localhost}") String host,
+            @Value("${spring.data.redis.port:6379}") int port,
+            @Value("${spring.data.redis.password:}") String password,
+            @Value("${spring.data.redis.timeout:2s}") Duration timeout) {
+        RedisURI.Builder uri = RedisURI.builder()
+            .withHost(host)
+            .withPort(port)
+            .withTimeout(timeout);
+        if (!password.isEmpty()) {
+            uri.withPassword(password.toCharArray());
+        }
+        return new RedisDistributedTokenStore(
+            RedisClient.create(), uri.build(), rateLimitingConfig.getDistributed().getKeyPrefix());
+    }
+}
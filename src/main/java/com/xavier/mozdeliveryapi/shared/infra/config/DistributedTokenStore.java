@@ -0,0 +1,21 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Token buckets shared by every node, from which nodes draw tokens in batches.
+ */
+public interface DistributedTokenStore {
+    
+    /**
+     * Take up to {@code tokens} tokens from the shared bucket for a key.
+     * 
+     * @param key the rate limiting key
+     * @param capacity maximum requests allowed per period
+     * @param period the refill period
+     * @param tokens the number of tokens wanted
+     * @return the number of tokens actually taken, zero once the limit is exhausted
+     */
+    CompletableFuture<Long> tryAcquire(String key, long capacity, Duration period, long tokens);
+}
@@ -0,0 +1,184 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Endpoint rate limits compiled into a path-segment trie.
+ *
+ * Patterns are absolute paths whose segments are literals, {@code *} (exactly
+ * one segment) or a trailing {@code **} (any number of segments, including
+ * none). Matching walks the request path once without allocating; at each
+ * segment a literal beats {@code *}, which beats {@code **}, so the most
+ * specific pattern wins.
+ */
+final class EndpointRateLimitMatcher {
+
+    private static final List<String> HTTP_METHODS =
+        List.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE");
+
+    private final Node root;
+
+    private EndpointRateLimitMatcher(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compile path patterns and their limits (requests per minute).
+     */
+    static EndpointRateLimitMatcher compile(Map<String, Integer> limits) {
+        Objects.requireNonNull(limits, "Limits cannot be null");
+        Node root = new Node();
+        limits.forEach((pattern, limit) -> add(root, pattern, limit));
+        return new EndpointRateLimitMatcher(root);
+    }
+
+    /**
+     * Get the most specific pattern matching a request path.
+     *
+     * @return the endpoint, or null if no pattern matches
+     */
+    Endpoint match(String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return null;
+        }
+        return match(root, path, 1);
+    }
+
+    private static Endpoint match(Node node, String path, int from) {
+        // Skip empty segments ("//" and a trailing "/")
+        while (from < path.length() && path.charAt(from) == '/') {
+            from++;
+        }
+        if (from >= path.length()) {
+            return node.endpoint != null ? node.endpoint : node.catchAll;
+        }
+
+        int end = path.indexOf('/', from);
+        if (end < 0) {
+            end = path.length();
+        }
+        int length = end - from;
+
+        for (int i = 0; i < node.literalCount; i++) {
+            String literal = node.literals[i];
+            if (literal.length() == length && path.regionMatches(from, literal, 0, length)) {
+                Endpoint endpoint = match(node.children[i], path, end);
+                if (endpoint != null) {
+                    return endpoint;
+                }
+                break;
+            }
+        }
+        if (node.wildcard != null) {
+            Endpoint endpoint = match(node.wildcard, path, end);
+            if (endpoint != null) {
+                return endpoint;
+            }
+        }
+        return node.catchAll;
+    }
+
+    private static void add(Node root, String pattern, Integer limit) {
+        Objects.requireNonNull(pattern, "Pattern cannot be null");
+        Objects.requireNonNull(limit, "Limit cannot be null");
+        if (!pattern.startsWith("/")) {
+            throw new IllegalArgumentException("Endpoint pattern must start with '/': " + pattern);
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Endpoint limit must be positive: " + pattern);
+        }
+
+        List<String> segments = new ArrayList<>();
+        for (String segment : pattern.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+
+        Node node = root;
+        for (int i = 0; i < segments.size(); i++) {
+            String segment = segments.get(i);
+            if (segment.equals("**")) {
+                if (i != segments.size() - 1) {
+                    throw new IllegalArgumentException("'**' is only supported as the last segment: " + pattern);
+                }
+                node.catchAll = new Endpoint(pattern, limit);
+                return;
+            }
+            if (segment.equals("*")) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else if (segment.contains("*")) {
+                throw new IllegalArgumentException("Partial wildcards are not supported: " + pattern);
+            } else {
+                node = node.literal(segment);
+            }
+        }
+        node.endpoint = new Endpoint(pattern, limit);
+    }
+
+    /**
+     * A pattern and its limit, with its limiter keys built when it is compiled.
+     * Requests matching the pattern share one limiter per HTTP method.
+     */
+    static final class Endpoint {
+
+        private final String pattern;
+        private final int limit;
+        private final Map<String, String> keys = new HashMap<>();
+
+        private Endpoint(String pattern, int limit) {
+            this.pattern = pattern;
+            this.limit = limit;
+            for (String method : HTTP_METHODS) {
+                keys.put(method, "endpoint:" + method + " " + pattern);
+            }
+        }
+
+        String pattern() {
+            return pattern;
+        }
+
+        int limit() {
+            return limit;
+        }
+
+        /**
+         * Limiter key for requests with this method.
+         */
+        String key(String method) {
+            String key = keys.get(method);
+            return key != null ? key : "endpoint:" + method + " " + pattern;
+        }
+    }
+
+    private static final class Node {
+
+        private String[] literals = new String[0];
+        private Node[] children = new Node[0];
+        private int literalCount;
+        private Node wildcard;
+        private Endpoint endpoint;
+        private Endpoint catchAll;
+
+        private Node literal(String segment) {
+            for (int i = 0; i < literalCount; i++) {
+                if (literals[i].equals(segment)) {
+                    return children[i];
+                }
+            }
+            literals = Arrays.copyOf(literals, literalCount + 1);
+            children = Arrays.copyOf(children, literalCount + 1);
+            literals[literalCount] = segment;
+            children[literalCount] = new Node();
+            return children[literalCount++];
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xavier.mozdeliveryapi.shared.application.usecase.port.DomainEventPublisher;
+import com.xavier.mozdeliveryapi.shared.infra.outbox.ApplicationEventSink;
+import com.xavier.mozdeliveryapi.shared.infra.outbox.OutboxDomainEventPublisher;
+import com.xavier.mozdeliveryapi.shared.infra.outbox.OutboxEventCodec;
+import com.xavier.mozdeliveryapi.shared.infra.outbox.OutboxEventSink;
+import com.xavier.mozdeliveryapi.shared.infra.outbox.OutboxRelay;
+import com.xavier.mozdeliveryapi.shared.infra.outbox.OutboxRelayPolicy;
+import com.xavier.mozdeliveryapi.shared.infra.outbox.OutboxRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration for publishing domain events through the outbox.
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    public OutboxEventCodec outboxEventCodec(ObjectMapper objectMapper) {
+        return new OutboxEventCodec(objectMapper);
+    }
+
+    /**
+     * Hands relayed events to the in-process listeners. Further
+     * {@link OutboxEventSink} beans, such as a broker topic, are delivered to
+     * as well.
+     */
+    @Bean
+    public ApplicationEventSink applicationEventSink(ApplicationEventPublisher applicationEventPublisher) {
+        return new ApplicationEventSink(applicationEventPublisher);
+    }
+
+    @Bean
+    public OutboxRelayPolicy outboxRelayPolicy(
+            @Value("${app.events.outbox.batch-size:200}") int batchSize,
+            @Value("${app.events.outbox.max-concurrency:16}") int maxConcurrency,
+            @Value("${app.events.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${app.events.outbox.lease-ttl:PT15S}") Duration leaseTtl,
+            @Value("${app.events.outbox.retry-backoff:PT1S}") Duration retryBackoff,
+            @Value("${app.events.outbox.max-retry-backoff:PT5M}") Duration maxRetryBackoff) {
+        return new OutboxRelayPolicy(batchSize, maxConcurrency, maxAttempts, leaseTtl, retryBackoff,
+                                     maxRetryBackoff);
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(OutboxRepository outboxRepository,
+                                   OutboxEventCodec outboxEventCodec,
+                                   List<OutboxEventSink> sinks,
+                                   OutboxRelayPolicy outboxRelayPolicy,
+                                   MeterRegistry meterRegistry) {
+        return new OutboxRelay(outboxRepository, outboxEventCodec, sinks, outboxRelayPolicy, meterRegistry,
+                               Clock.systemUTC());
+    }
+
+    @Bean
+    public DomainEventPublisher domainEventPublisher(OutboxRepository outboxRepository,
+                                                     OutboxEventCodec outboxEventCodec,
+                                                     OutboxRelay outboxRelay) {
+        return new OutboxDomainEventPublisher(outboxRepository, outboxEventCodec, outboxRelay, Clock.systemUTC());
+    }
+}
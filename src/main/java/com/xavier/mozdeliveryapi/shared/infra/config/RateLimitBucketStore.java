@@ -0,0 +1,238 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded store of rate limit buckets, or of any per-key state built for a limit.
+ *
+ * Keys are spread over lock-striped segments, each an access-ordered LRU map
+ * with its own share of the capacity, so a flood of new keys evicts the least
+ * recently used buckets instead of growing the heap. Buckets idle for longer
+ * than the idle timeout are swept; a bucket is never swept before its own
+ * refill period has passed, since by then it is full again and dropping it
+ * loses no state. A bucket requested with a different limit than it was built
+ * with is rebuilt.
+ */
+final class RateLimitBucketStore<B> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<B>[] segments;
+    private final int maxBucketsPerSegment;
+    private final long idleTimeoutNanos;
+    private final Function<BucketLimit, B> bucketFactory;
+    private final LongSupplier nanoClock;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter rebuilt;
+    private final Counter sizeEvictions;
+    private final Counter idleEvictions;
+
+    @SuppressWarnings("unchecked")
+    RateLimitBucketStore(String name, int maxBuckets, Duration idleTimeout, Function<BucketLimit, B> bucketFactory,
+                         MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        Objects.requireNonNull(name, "Name cannot be null");
+        Objects.requireNonNull(idleTimeout, "Idle timeout cannot be null");
+        Objects.requireNonNull(meterRegistry, "Meter registry cannot be null");
+        if (maxBuckets < SEGMENTS) {
+            throw new IllegalArgumentException("Max buckets must be at least " + SEGMENTS);
+        }
+        if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("Idle timeout must be positive");
+        }
+        this.maxBucketsPerSegment = maxBuckets / SEGMENTS;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.bucketFactory = Objects.requireNonNull(bucketFactory, "Bucket factory cannot be null");
+        this.nanoClock = Objects.requireNonNull(nanoClock, "Clock cannot be null");
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>();
+        }
+
+        this.hits = Counter.builder("ratelimit.buckets.requests")
+            .tag("store", name)
+            .tag("result", "hit")
+            .description("Bucket lookups served by an existing bucket")
+            .register(meterRegistry);
+        this.misses = Counter.builder("ratelimit.buckets.requests")
+            .tag("store", name)
+            .tag("result", "miss")
+            .description("Bucket lookups that created a bucket")
+            .register(meterRegistry);
+        this.rebuilt = Counter.builder("ratelimit.buckets.rebuilt")
+            .tag("store", name)
+            .description("Buckets rebuilt because their configured limit changed")
+            .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("ratelimit.buckets.evictions")
+            .tag("store", name)
+            .tag("cause", "size")
+            .description("Buckets evicted to stay within the size bound")
+            .register(meterRegistry);
+        this.idleEvictions = Counter.builder("ratelimit.buckets.evictions")
+            .tag("store", name)
+            .tag("cause", "idle")
+            .description("Buckets evicted after being idle")
+            .register(meterRegistry);
+        meterRegistry.gauge("ratelimit.buckets.live", Tags.of("store", name), this, RateLimitBucketStore::size);
+        meterRegistry.gauge("ratelimit.buckets.hit.ratio", Tags.of("store", name), this, RateLimitBucketStore::hitRatio);
+    }
+
+    /**
+     * Get the bucket for a key, creating or rebuilding it for the given limit.
+     */
+    B get(String key, BucketLimit limit) {
+        Objects.requireNonNull(key, "Key cannot be null");
+        Objects.requireNonNull(limit, "Limit cannot be null");
+        Segment<B> segment = segmentFor(key);
+        long now = nanoClock.getAsLong();
+
+        segment.lock.lock();
+        try {
+            Entry<B> entry = segment.entries.get(key);
+            if (entry != null && entry.limit.equals(limit)) {
+                entry.lastAccessNanos = now;
+                hits.increment();
+                return entry.bucket;
+            }
+
+            if (entry != null) {
+                rebuilt.increment();
+            } else {
+                misses.increment();
+            }
+            Entry<B> created = new Entry<>(bucketFactory.apply(limit), limit, now);
+            segment.entries.put(key, created);
+            if (segment.entries.size() > maxBucketsPerSegment) {
+                Iterator<Entry<B>> eldest = segment.entries.values().iterator();
+                eldest.next();
+                eldest.remove();
+                sizeEvictions.increment();
+            }
+            return created.bucket;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Evict buckets that have been idle for longer than the idle timeout and their refill period.
+     *
+     * @return the number of buckets evicted
+     */
+    int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int evicted = 0;
+        for (Segment<B> segment : segments) {
+            segment.lock.lock();
+            try {
+                Iterator<Entry<B>> oldest = segment.entries.values().iterator();
+                while (oldest.hasNext()) {
+                    Entry<B> entry = oldest.next();
+                    long idleNanos = now - entry.lastAccessNanos;
+                    if (idleNanos < idleTimeoutNanos) {
+                        break;  // access order: everything after this was used more recently
+                    }
+                    if (idleNanos >= entry.limit.period().toNanos()) {
+                        oldest.remove();
+                        evicted++;
+                    }
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        idleEvictions.increment(evicted);
+        return evicted;
+    }
+
+    void remove(String key) {
+        Segment<B> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            segment.entries.remove(key);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    void clear() {
+        for (Segment<B> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.entries.clear();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment<B> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    double hitRatio() {
+        double lookups = hits.count() + misses.count() + rebuilt.count();
+        return lookups == 0 ? 0.0 : hits.count() / lookups;
+    }
+
+    private Segment<B> segmentFor(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    /**
+     * The limit a bucket was built for: {@code capacity} requests per {@code period}.
+     */
+    record BucketLimit(long capacity, Duration period) {
+
+        BucketLimit {
+            Objects.requireNonNull(period, "Period cannot be null");
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Capacity must be positive");
+            }
+            if (period.isNegative() || period.isZero()) {
+                throw new IllegalArgumentException("Period must be positive");
+            }
+        }
+    }
+
+    private static final class Segment<B> {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Entry<B>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    private static final class Entry<B> {
+
+        private final B bucket;
+        private final BucketLimit limit;
+        private long lastAccessNanos;  // guarded by the segment lock
+
+        private Entry(B bucket, BucketLimit limit, long lastAccessNanos) {
+            this.bucket = bucket;
+            this.limit = limit;
+            this.lastAccessNanos = lastAccessNanos;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.xavier.mozdeliveryapi.shared.infra.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 /**
  * Configuration properties for rate limiting.
  */
@@ -19,6 +21,13 @@ public class RateLimitingConfig {
     private boolean enabled = true;
     private boolean logViolations = true;
     
+    // Bucket store bounds
+    private int maxBuckets = 100_000;
+    private Duration bucketIdleTimeout = Duration.ofMinutes(10);
+    
+    // Cluster-wide limits shared through Redis
+    private Distributed distributed = new Distributed();
+    
     // Getters and setters
     public int getDefaultRequestsPerMinute() {
         return defaultRequestsPerMinute;
@@ -75,4 +84,101 @@ public class RateLimitingConfig {
     public void setLogViolations(boolean logViolations) {
         this.logViolations = logViolations;
     }
-}
\ No newline at end of file
+    
+    public int getMaxBuckets() {
+        return maxBuckets;
+    }
+    
+    public void setMaxBuckets(int maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+    
+    public Duration getBucketIdleTimeout() {
+        return bucketIdleTimeout;
+    }
+    
+    public void setBucketIdleTimeout(Duration bucketIdleTimeout) {
+        this.bucketIdleTimeout = bucketIdleTimeout;
+    }
+    
+    public Distributed getDistributed() {
+        return distributed;
+    }
+    
+    public void setDistributed(Distributed distributed) {
+        this.distributed = distributed;
+    }
+    
+    /**
+     * What to do with a request while Redis is unavailable.
+     */
+    public enum DegradedMode {
+        /** Enforce each limit per node with local buckets. */
+        LOCAL,
+        /** Let every request through. */
+        ALLOW,
+        /** Reject every request. */
+        DENY
+    }
+    
+    /**
+     * Settings for limits enforced across all nodes through Redis.
+     */
+    public static class Distributed {
+        
+        private boolean enabled = false;
+        private String keyPrefix = "ratelimit:";
+        private int batchSize = 20;
+        private Duration syncTimeout = Duration.ofMillis(50);
+        private DegradedMode degradedMode = DegradedMode.LOCAL;
+        private Duration retryInterval = Duration.ofSeconds(5);
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+        
+        public void setKeyPrefix(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+        
+        public int getBatchSize() {
+            return batchSize;
+        }
+        
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+        
+        public Duration getSyncTimeout() {
+            return syncTimeout;
+        }
+        
+        public void setSyncTimeout(Duration syncTimeout) {
+            this.syncTimeout = syncTimeout;
+        }
+        
+        public DegradedMode getDegradedMode() {
+            return degradedMode;
+        }
+        
+        public void setDegradedMode(DegradedMode degradedMode) {
+            this.degradedMode = degradedMode;
+        }
+        
+        public Duration getRetryInterval() {
+            return retryInterval;
+        }
+        
+        public void setRetryInterval(Duration retryInterval) {
+            this.retryInterval = retryInterval;
+        }
+    }
+}
@@ -10,17 +10,24 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Enhanced interceptor for implementing role-based and endpoint-specific API rate limiting.
+ *
+ * The caller is resolved once per request and the limiters are then checked in
+ * priority order; endpoint patterns are compiled into a trie at class load.
  */
 @Component
 public class RateLimitingInterceptor implements HandlerInterceptor {
@@ -35,8 +42,11 @@ public class RateLimitingInterceptor implements HandlerInterceptor {
         UserRole.CLIENT, 100
     );
     
+    private static final Map<String, UserRole> ROLES_BY_NAME = Arrays.stream(UserRole.values())
+        .collect(Collectors.toUnmodifiableMap(UserRole::name, Function.identity()));
+    
     // Endpoint-specific rate limiting (requests per minute)
-    private static final Map<String, Integer> ENDPOINT_RATE_LIMITS = new ConcurrentHashMap<>();
+    private static final Map<String, Integer> ENDPOINT_RATE_LIMITS = new LinkedHashMap<>();
     
     static {
         // Guest checkout endpoints (more restrictive)
@@ -60,16 +70,34 @@ public class RateLimitingInterceptor implements HandlerInterceptor {
         ENDPOINT_RATE_LIMITS.put("/api/v1/admin/**", 2000);
     }
     
+    // Compiled once; matching a request path is a single trie walk, and the matched
+    // pattern carries its limiter keys, so requests to it share a limiter
+    private static final EndpointRateLimitMatcher ENDPOINT_MATCHER =
+        EndpointRateLimitMatcher.compile(ENDPOINT_RATE_LIMITS);
+    
     // Default rate limits
     private static final int DEFAULT_REQUESTS_PER_MINUTE = 100;
     private static final int TENANT_REQUESTS_PER_MINUTE = 1000;
     private static final int IP_REQUESTS_PER_MINUTE = 30;
     private static final int API_KEY_REQUESTS_PER_MINUTE = 2000;
     
+    private static final int MAX_CACHED_KEYS = 10_000;
+    private static final String ROLE_PREFIX = "ROLE_";
+    
     private final RateLimitingService rateLimitingService;
     
+    // Limiter keys are rebuilt from the same few identifiers on every request, so keep them
+    private final Map<UserRole, KeyCache> roleKeys = new EnumMap<>(UserRole.class);
+    private final KeyCache apiKeyKeys = new KeyCache("apikey:");
+    private final KeyCache tenantKeys = new KeyCache("tenant:");
+    private final KeyCache userKeys = new KeyCache("user:");
+    private final KeyCache ipKeys = new KeyCache("ip:");
+    
     public RateLimitingInterceptor(RateLimitingService rateLimitingService) {
         this.rateLimitingService = rateLimitingService;
+        for (UserRole role : UserRole.values()) {
+            roleKeys.put(role, new KeyCache("role:" + role.name() + ":"));
+        }
     }
     
     @Override
@@ -80,157 +108,64 @@ public class RateLimitingInterceptor implements HandlerInterceptor {
         if (isExemptEndpoint(requestPath)) {
             return true;
         }
+        String method = request.getMethod();
         
-        // Apply different rate limiting strategies in order of priority
+        // Resolve the caller once, then walk the limiters in order of priority
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserRole userRole = extractUserRole(authentication);
         
         // 1. Endpoint-specific rate limiting (highest priority)
-        if (!checkEndpointRateLimit(request, response)) {
+        EndpointRateLimitMatcher.Endpoint endpoint = ENDPOINT_MATCHER.match(requestPath);
+        if (endpoint != null && !tryConsume(response, endpoint.key(method), endpoint.limit(), "Endpoint")) {
             return false;
         }
         
         // 2. Role-based rate limiting
-        if (!checkRoleBasedRateLimit(request, response)) {
-            return false;
+        if (userRole != null && authentication.isAuthenticated()) {
+            Integer limit = ROLE_RATE_LIMITS.get(userRole);
+            if (limit != null && !tryConsume(response, roleKeys.get(userRole).key(getUserId(authentication)), limit, "Role")) {
+                return false;
+            }
         }
         
         // 3. API key rate limiting (for API key authentication)
-        if (!checkApiKeyRateLimit(request, response)) {
+        if (authentication instanceof UsernamePasswordAuthenticationToken
+                && authentication.getDetails() instanceof ApiKeyAuthenticationFilter.ApiKeyAuthenticationDetails apiKeyDetails
+                && !tryConsume(response, apiKeyKeys.key(apiKeyDetails.getKeyId()), API_KEY_REQUESTS_PER_MINUTE, "API key")) {
             return false;
         }
         
         // 4. Tenant-based rate limiting
-        if (!checkTenantRateLimit(request, response)) {
-            return false;
-        }
-        
-        // 5. User-based rate limiting
-        if (!checkUserRateLimit(request, response)) {
-            return false;
-        }
-        
-        // 6. IP-based rate limiting (lowest priority, fallback)
-        if (!checkIpRateLimit(request, response)) {
+        String tenantId = TenantContext.getCurrentTenant();
+        if (tenantId != null && !tryConsume(response, tenantKeys.key(tenantId), TENANT_REQUESTS_PER_MINUTE, "Tenant")) {
             return false;
         }
         
-        return true;
-    }
-    
-    private boolean checkEndpointRateLimit(HttpServletRequest request, HttpServletResponse response) {
-        String requestPath = request.getRequestURI();
-        String method = request.getMethod();
-        String endpointKey = method + " " + requestPath;
-        
-        // Check exact match first
-        Integer limit = ENDPOINT_RATE_LIMITS.get(endpointKey);
-        if (limit == null) {
-            // Check path patterns
-            limit = ENDPOINT_RATE_LIMITS.entrySet().stream()
-                .filter(entry -> pathMatches(requestPath, entry.getKey()))
-                .map(Map.Entry::getValue)
-                .findFirst()
-                .orElse(null);
-        }
-        
-        if (limit != null) {
-            String rateLimitKey = "endpoint:" + endpointKey;
-            if (!rateLimitingService.isAllowed(rateLimitKey, limit)) {
-                logger.warn("Endpoint rate limit exceeded for {}: {}", endpointKey, requestPath);
-                setRateLimitHeaders(response, rateLimitKey, limit);
-                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-                return false;
-            }
-        }
-        
-        return true;
-    }
-    
-    private boolean checkRoleBasedRateLimit(HttpServletRequest request, HttpServletResponse response) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.isAuthenticated()) {
-            UserRole userRole = extractUserRole(authentication);
-            if (userRole != null) {
-                Integer limit = ROLE_RATE_LIMITS.get(userRole);
-                if (limit != null) {
-                    String roleKey = "role:" + userRole.name() + ":" + getUserId(authentication);
-                    if (!rateLimitingService.isAllowed(roleKey, limit)) {
-                        logger.warn("Role-based rate limit exceeded for role {}: {}", userRole, getUserId(authentication));
-                        setRateLimitHeaders(response, roleKey, limit);
-                        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
-    }
-    
-    private boolean checkApiKeyRateLimit(HttpServletRequest request, HttpServletResponse response) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication instanceof UsernamePasswordAuthenticationToken) {
-            // This indicates API key authentication
-            Object details = authentication.getDetails();
-            if (details instanceof ApiKeyAuthenticationFilter.ApiKeyAuthenticationDetails apiKeyDetails) {
-                String apiKeyId = apiKeyDetails.getKeyId();
-                String rateLimitKey = "apikey:" + apiKeyId;
-                
-                if (!rateLimitingService.isAllowed(rateLimitKey, API_KEY_REQUESTS_PER_MINUTE)) {
-                    logger.warn("API key rate limit exceeded for key: {}", apiKeyId);
-                    setRateLimitHeaders(response, rateLimitKey, API_KEY_REQUESTS_PER_MINUTE);
-                    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-                    return false;
-                }
-            }
-        }
-        return true;
-    }
-    
-    private boolean checkTenantRateLimit(HttpServletRequest request, HttpServletResponse response) {
-        String tenantId = TenantContext.getCurrentTenant();
-        if (tenantId != null) {
-            String tenantKey = "tenant:" + tenantId;
-            if (!rateLimitingService.isAllowed(tenantKey, TENANT_REQUESTS_PER_MINUTE)) {
-                logger.warn("Rate limit exceeded for tenant: {}", tenantId);
-                setRateLimitHeaders(response, tenantKey, TENANT_REQUESTS_PER_MINUTE);
-                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-                return false;
-            }
-        }
-        return true;
-    }
-    
-    private boolean checkUserRateLimit(HttpServletRequest request, HttpServletResponse response) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        // 5. User-based rate limiting, using the role-specific limit if available
         if (authentication instanceof JwtAuthenticationToken jwtAuth) {
-            Jwt jwt = jwtAuth.getToken();
-            String userId = jwt.getSubject();
+            String userId = jwtAuth.getToken().getSubject();
             if (userId != null) {
-                // Use role-specific rate limit if available, otherwise use default
-                UserRole userRole = extractUserRole(authentication);
-                int limit = userRole != null ? ROLE_RATE_LIMITS.getOrDefault(userRole, DEFAULT_REQUESTS_PER_MINUTE) : DEFAULT_REQUESTS_PER_MINUTE;
-                
-                String userKey = "user:" + userId;
-                if (!rateLimitingService.isAllowed(userKey, limit)) {
-                    logger.warn("Rate limit exceeded for user: {}", userId);
-                    setRateLimitHeaders(response, userKey, limit);
-                    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                int limit = userRole != null
+                    ? ROLE_RATE_LIMITS.getOrDefault(userRole, DEFAULT_REQUESTS_PER_MINUTE)
+                    : DEFAULT_REQUESTS_PER_MINUTE;
+                if (!tryConsume(response, userKeys.key(userId), limit, "User")) {
                     return false;
                 }
             }
         }
-        return true;
+        
+        // 6. IP-based rate limiting (lowest priority, fallback)
+        return tryConsume(response, ipKeys.key(getClientIpAddress(request)), IP_REQUESTS_PER_MINUTE, "IP");
     }
     
-    private boolean checkIpRateLimit(HttpServletRequest request, HttpServletResponse response) {
-        String clientIp = getClientIpAddress(request);
-        String ipKey = "ip:" + clientIp;
-        if (!rateLimitingService.isAllowed(ipKey, IP_REQUESTS_PER_MINUTE)) {
-            logger.warn("Rate limit exceeded for IP: {}", clientIp);
-            setRateLimitHeaders(response, ipKey, IP_REQUESTS_PER_MINUTE);
-            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            return false;
+    private boolean tryConsume(HttpServletResponse response, String key, int limit, String limiter) {
+        if (rateLimitingService.isAllowed(key, limit)) {
+            return true;
         }
-        return true;
+        logger.warn("{} rate limit exceeded for {}", limiter, key);
+        setRateLimitHeaders(response, key, limit);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        return false;
     }
     
     private UserRole extractUserRole(Authentication authentication) {
@@ -238,38 +173,23 @@ public class RateLimitingInterceptor implements HandlerInterceptor {
             return null;
         }
         
-        return authentication.getAuthorities().stream()
-            .map(GrantedAuthority::getAuthority)
-            .filter(authority -> authority.startsWith("ROLE_"))
-            .map(authority -> authority.substring(5)) // Remove "ROLE_" prefix
-            .map(roleName -> {
-                try {
-                    return UserRole.valueOf(roleName);
-                } catch (IllegalArgumentException e) {
-                    return null;
+        for (GrantedAuthority grantedAuthority : authentication.getAuthorities()) {
+            String authority = grantedAuthority.getAuthority();
+            if (authority != null && authority.startsWith(ROLE_PREFIX)) {
+                UserRole role = ROLES_BY_NAME.get(authority.substring(ROLE_PREFIX.length()));
+                if (role != null) {
+                    return role;
                 }
-            })
-            .filter(role -> role != null)
-            .findFirst()
-            .orElse(null);
-    }
-    
-    private String getUserId(Authentication authentication) {
-        if (authentication instanceof JwtAuthenticationToken jwtAuth) {
-            return jwtAuth.getToken().getSubject();
-        } else if (authentication instanceof UsernamePasswordAuthenticationToken) {
-            return authentication.getName();
+            }
         }
-        return "unknown";
+        return null;
     }
     
-    private boolean pathMatches(String requestPath, String pattern) {
-        if (pattern.contains("*")) {
-            // Simple wildcard matching
-            String regex = pattern.replace("*", ".*");
-            return requestPath.matches(regex);
-        }
-        return requestPath.equals(pattern);
+    private String getUserId(Authentication authentication) {
+        String userId = authentication instanceof JwtAuthenticationToken jwtAuth
+            ? jwtAuth.getToken().getSubject()
+            : authentication.getName();
+        return userId != null ? userId : "unknown";
     }
     
     private void setRateLimitHeaders(HttpServletResponse response, String key, int requestsPerMinute) {
@@ -303,4 +223,30 @@ public class RateLimitingInterceptor implements HandlerInterceptor {
                requestPath.startsWith("/v3/api-docs") ||
                requestPath.equals("/favicon.ico");
     }
-}
\ No newline at end of file
+    
+    /**
+     * Interned limiter keys for one kind of identifier. Bounded: once full it
+     * is simply cleared, which only costs re-building the keys.
+     */
+    private static final class KeyCache {
+        
+        private final String prefix;
+        private final Map<String, String> keys = new ConcurrentHashMap<>();
+        
+        KeyCache(String prefix) {
+            this.prefix = prefix;
+        }
+        
+        String key(String id) {
+            String key = keys.get(id);
+            if (key == null) {
+                if (keys.size() >= MAX_CACHED_KEYS) {
+                    keys.clear();
+                }
+                key = prefix + id;
+                keys.put(id, key);
+            }
+            return key;
+        }
+    }
+}
@@ -1,20 +1,55 @@
 package com.xavier.mozdeliveryapi.shared.infra.config;
 
+import com.xavier.mozdeliveryapi.shared.infra.config.RateLimitBucketStore.BucketLimit;
+import com.xavier.mozdeliveryapi.shared.infra.config.RateLimitingConfig.DegradedMode;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
 
 /**
  * Service for implementing rate limiting using token bucket algorithm.
+ * Buckets live in a bounded store that evicts idle and least recently used
+ * keys (see {@link RateLimitingConfig#getMaxBuckets()}).
+ * With distributed limits enabled, limits are enforced across all nodes through
+ * the {@link DistributedTokenStore}; the local buckets then only serve the
+ * configured degraded mode while the store is unavailable.
  */
 @Service
 public class RateLimitingService {
     
-    private final ConcurrentHashMap<String, Bucket> bucketCache = new ConcurrentHashMap<>();
+    private final RateLimitBucketStore<Bucket> bucketStore;
+    private final DistributedRateLimiter distributedLimiter;  // null unless distributed limits are enabled
+    private final DegradedMode degradedMode;
+    
+    public RateLimitingService(RateLimitingConfig config, MeterRegistry meterRegistry,
+                               Optional<DistributedTokenStore> distributedTokenStore) {
+        this.bucketStore = new RateLimitBucketStore<>(
+            "local",
+            config.getMaxBuckets(),
+            config.getBucketIdleTimeout(),
+            limit -> createBucket(limit.capacity(), limit.period()),
+            meterRegistry,
+            System::nanoTime
+        );
+        if (config.getDistributed().isEnabled()) {
+            this.distributedLimiter = new DistributedRateLimiter(
+                distributedTokenStore.orElseThrow(() -> new IllegalStateException(
+                    "Distributed rate limiting is enabled but no token store is configured")),
+                config,
+                meterRegistry,
+                System::nanoTime
+            );
+        } else {
+            this.distributedLimiter = null;
+        }
+        this.degradedMode = config.getDistributed().getDegradedMode();
+    }
     
     /**
      * Check if request is allowed based on rate limiting rules.
@@ -24,8 +59,7 @@ public class RateLimitingService {
      * @return true if request is allowed, false if rate limit exceeded
      */
     public boolean isAllowed(String key, int requestsPerMinute) {
-        Bucket bucket = getBucket(key, requestsPerMinute);
-        return bucket.tryConsume(1);
+        return isAllowed(key, requestsPerMinute, Duration.ofMinutes(1));
     }
     
     /**
@@ -37,8 +71,20 @@ public class RateLimitingService {
      * @return true if request is allowed, false if rate limit exceeded
      */
     public boolean isAllowed(String key, int requests, Duration duration) {
-        Bucket bucket = getBucket(key, requests, duration);
-        return bucket.tryConsume(1);
+        BucketLimit limit = new BucketLimit(requests, duration);
+        if (distributedLimiter == null) {
+            return bucketStore.get(key, limit).tryConsume(1);
+        }
+        
+        DistributedRateLimiter.Decision decision = distributedLimiter.tryConsume(key, limit);
+        if (decision != DistributedRateLimiter.Decision.UNAVAILABLE) {
+            return decision == DistributedRateLimiter.Decision.ALLOWED;
+        }
+        return switch (degradedMode) {
+            case LOCAL -> bucketStore.get(key, limit).tryConsume(1);
+            case ALLOW -> true;
+            case DENY -> false;
+        };
     }
     
     /**
@@ -49,8 +95,11 @@ public class RateLimitingService {
      * @return number of remaining tokens
      */
     public long getRemainingTokens(String key, int requestsPerMinute) {
-        Bucket bucket = getBucket(key, requestsPerMinute);
-        return bucket.getAvailableTokens();
+        BucketLimit limit = perMinute(requestsPerMinute);
+        if (isDistributed()) {
+            return distributedLimiter.getRemainingTokens(key, limit);
+        }
+        return bucketStore.get(key, limit).getAvailableTokens();
     }
     
     /**
@@ -61,19 +110,22 @@ public class RateLimitingService {
      * @return duration until next refill in seconds
      */
     public long getSecondsUntilRefill(String key, int requestsPerMinute) {
-        Bucket bucket = getBucket(key, requestsPerMinute);
-        return bucket.estimateAbilityToConsume(1).getNanosToWaitForRefill() / 1_000_000_000;
+        BucketLimit limit = perMinute(requestsPerMinute);
+        if (isDistributed()) {
+            return distributedLimiter.getNanosUntilRetry(key, limit) / 1_000_000_000;
+        }
+        return bucketStore.get(key, limit).estimateAbilityToConsume(1).getNanosToWaitForRefill() / 1_000_000_000;
     }
     
-    private Bucket getBucket(String key, int requestsPerMinute) {
-        return getBucket(key, requestsPerMinute, Duration.ofMinutes(1));
+    private boolean isDistributed() {
+        return distributedLimiter != null && !distributedLimiter.isUnavailable(System.nanoTime());
     }
     
-    private Bucket getBucket(String key, int requests, Duration duration) {
-        return bucketCache.computeIfAbsent(key, k -> createBucket(requests, duration));
+    private static BucketLimit perMinute(int requestsPerMinute) {
+        return new BucketLimit(requestsPerMinute, Duration.ofMinutes(1));
     }
     
-    private Bucket createBucket(int requests, Duration duration) {
+    private static Bucket createBucket(long requests, Duration duration) {
         Bandwidth bandwidth = Bandwidth.classic(requests, Refill.intervally(requests, duration));
         return Bucket.builder()
             .addLimit(bandwidth)
@@ -86,13 +138,30 @@ public class RateLimitingService {
      * @param key the rate limiting key to clear
      */
     public void clearRateLimit(String key) {
-        bucketCache.remove(key);
+        bucketStore.remove(key);
+        if (distributedLimiter != null) {
+            distributedLimiter.remove(key);
+        }
     }
     
     /**
      * Clear all rate limiting data.
      */
     public void clearAllRateLimits() {
-        bucketCache.clear();
+        bucketStore.clear();
+        if (distributedLimiter != null) {
+            distributedLimiter.clear();
+        }
+    }
+    
+    /**
+     * Evict buckets that have been idle for longer than the configured timeout.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limiting.eviction-interval-ms:30000}")
+    public void evictIdleBuckets() {
+        bucketStore.evictIdle();
+        if (distributedLimiter != null) {
+            distributedLimiter.evictIdle();
+        }
     }
 }
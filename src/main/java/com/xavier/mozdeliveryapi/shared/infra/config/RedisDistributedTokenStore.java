@@ -0,0 +1,108 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.AsyncProxyManager;
+import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token store backed by bucket4j buckets in Redis.
+ *
+ * The connection is opened lazily and asynchronously, so the application
+ * starts, and requests keep flowing through the degraded mode, while Redis is
+ * down; a failed connection attempt is retried on the next acquisition. The
+ * limit is part of the Redis key, so changing a limit starts a fresh bucket and
+ * the old one simply expires.
+ */
+final class RedisDistributedTokenStore implements DistributedTokenStore, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisDistributedTokenStore.class);
+
+    private static final Duration KEY_EXPIRY_MARGIN = Duration.ofSeconds(10);
+
+    private final RedisClient redisClient;
+    private final RedisURI redisUri;
+    private final String keyPrefix;
+    private final AtomicReference<CompletableFuture<Connection>> connection = new AtomicReference<>();
+    private final Map<Long, Map<Duration, BucketConfiguration>> configurations = new ConcurrentHashMap<>();
+
+    RedisDistributedTokenStore(RedisClient redisClient, RedisURI redisUri, String keyPrefix) {
+        this.redisClient = Objects.requireNonNull(redisClient, "Redis client cannot be null");
+        this.redisUri = Objects.requireNonNull(redisUri, "Redis URI cannot be null");
+        this.keyPrefix = Objects.requireNonNull(keyPrefix, "Key prefix cannot be null");
+    }
+
+    @Override
+    public CompletableFuture<Long> tryAcquire(String key, long capacity, Duration period, long tokens) {
+        byte[] redisKey = (keyPrefix + key + ':' + capacity + '/' + period.toMillis())
+            .getBytes(StandardCharsets.UTF_8);
+        BucketConfiguration configuration = configuration(capacity, period);
+        return connection().thenCompose(connected -> connected.proxyManager()
+            .builder()
+            .build(redisKey, configuration)
+            .tryConsumeAsMuchAsPossible(tokens));
+    }
+
+    @Override
+    public void close() {
+        CompletableFuture<Connection> current = connection.getAndSet(null);
+        if (current != null && current.isDone() && !current.isCompletedExceptionally()) {
+            current.join().connection().close();
+        }
+        redisClient.shutdown();
+    }
+
+    private CompletableFuture<Connection> connection() {
+        while (true) {
+            CompletableFuture<Connection> current = connection.get();
+            if (current != null && !current.isCompletedExceptionally()) {
+                return current;
+            }
+            CompletableFuture<Connection> connecting = new CompletableFuture<>();
+            if (connection.compareAndSet(current, connecting)) {
+                redisClient.connectAsync(ByteArrayCodec.INSTANCE, redisUri)
+                    .whenComplete((connected, error) -> {
+                        if (error != null) {
+                            logger.warn("Could not connect to Redis for rate limiting: {}", error.getMessage());
+                            connecting.completeExceptionally(error);
+                        } else {
+                            connecting.complete(new Connection(connected, LettuceBasedProxyManager
+                                .builderFor(connected)
+                                .withExpirationStrategy(ExpirationAfterWriteStrategy
+                                    .basedOnTimeForRefillingBucketUpToMax(KEY_EXPIRY_MARGIN))
+                                .build()
+                                .asAsync()));
+                        }
+                    });
+                return connecting;
+            }
+        }
+    }
+
+    private BucketConfiguration configuration(long capacity, Duration period) {
+        return configurations
+            .computeIfAbsent(capacity, c -> new ConcurrentHashMap<>())
+            .computeIfAbsent(period, p -> BucketConfiguration.builder()
+                .addLimit(Bandwidth.classic(capacity, Refill.intervally(capacity, p)))
+                .build());
+    }
+
+    private record Connection(StatefulRedisConnection<byte[], byte[]> connection,
+                              AsyncProxyManager<byte[]> proxyManager) {}
+}
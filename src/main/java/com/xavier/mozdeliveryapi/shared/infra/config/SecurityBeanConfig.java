@@ -1,10 +1,14 @@
 package com.xavier.mozdeliveryapi.shared.infra.config;
 
+import com.xavier.mozdeliveryapi.shared.application.usecase.ApiKeyVerificationCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 /**
  * Configuration for security-related beans.
  */
@@ -18,4 +22,14 @@ public class SecurityBeanConfig {
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder(12); // Use strength 12 for better security
     }
-}
\ No newline at end of file
+    
+    /**
+     * Cache of recent API key verifications, so a busy key pays for BCrypt once per TTL.
+     */
+    @Bean
+    public ApiKeyVerificationCache apiKeyVerificationCache(
+            @Value("${app.security.api-keys.verification-cache-ttl:PT30S}") Duration ttl,
+            @Value("${app.security.api-keys.verification-cache-max-entries:10000}") int maxEntries) {
+        return new ApiKeyVerificationCache(ttl, maxEntries);
+    }
+}
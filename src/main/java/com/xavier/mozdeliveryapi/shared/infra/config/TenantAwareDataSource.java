@@ -0,0 +1,111 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ConcurrentReferenceHashMap.ReferenceType;
+
+import com.xavier.mozdeliveryapi.shared.application.usecase.TenantContext;
+
+/**
+ * DataSource that carries the current tenant into the database session for
+ * Row Level Security.
+ *
+ * Every connection handed out, to JdbcTemplate and Hibernate alike, has
+ * {@code app.current_tenant_id} set to the current tenant with one prepared
+ * {@code set_config} call. The tenant a pooled connection already carries is
+ * remembered per physical connection, so checking out a connection for the
+ * same tenant costs no round trip. A connection returned to the pool keeps its
+ * tenant only until its next checkout, which resets it when that checkout has
+ * no tenant or a different one; no connection is ever handed out carrying
+ * another tenant's ID. The remembered tenants sit in a segmented map with weak
+ * keys, so checkouts on different connections do not contend on one lock and
+ * connections the pool discards are forgotten.
+ *
+ * {@code set_config} is PostgreSQL only, so {@link DatabaseConfig} installs
+ * this only for PostgreSQL data sources.
+ */
+public class TenantAwareDataSource extends DelegatingDataSource {
+
+    static final String TENANT_SETTING = "app.current_tenant_id";
+    static final String SET_TENANT_SQL = "SELECT set_config(?, ?, false)";
+
+    private static final String NO_TENANT = "";
+    private static final String UNKNOWN = "?";  // never a valid tenant ID
+
+    private final Map<Connection, String> sessionTenants = new ConcurrentReferenceHashMap<>(64, ReferenceType.WEAK);
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    public TenantAwareDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return prepare(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return prepare(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Get the number of checkouts that had to set the tenant.
+     */
+    public long getAppliedCount() {
+        return applied.sum();
+    }
+
+    /**
+     * Get the number of checkouts whose connection already carried the tenant.
+     */
+    public long getSkippedCount() {
+        return skipped.sum();
+    }
+
+    private Connection prepare(Connection connection) throws SQLException {
+        try {
+            applyTenant(connection, TenantContext.getCurrentTenant());
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    private void applyTenant(Connection connection, String tenantId) throws SQLException {
+        Connection physical = physicalConnection(connection);
+        String wanted = tenantId != null ? tenantId : NO_TENANT;
+        // A connection we have never configured has no tenant set
+        if (wanted.equals(sessionTenants.getOrDefault(physical, NO_TENANT))) {
+            skipped.increment();
+            return;
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(SET_TENANT_SQL)) {
+            statement.setString(1, TENANT_SETTING);
+            statement.setString(2, wanted);
+            statement.execute();
+        } catch (SQLException e) {
+            sessionTenants.put(physical, UNKNOWN);
+            throw e;
+        }
+        // Inside a transaction the setting would be undone by a rollback, so it cannot be trusted later
+        sessionTenants.put(physical, connection.getAutoCommit() ? wanted : UNKNOWN);
+        applied.increment();
+    }
+
+    private static Connection physicalConnection(Connection connection) throws SQLException {
+        // Pools hand out a new wrapper per checkout; the state belongs to the connection underneath
+        return connection.isWrapperFor(Connection.class) ? connection.unwrap(Connection.class) : connection;
+    }
+}
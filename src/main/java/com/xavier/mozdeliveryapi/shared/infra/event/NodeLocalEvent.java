@@ -0,0 +1,28 @@
+package com.xavier.mozdeliveryapi.shared.infra.event;
+
+import java.util.Objects;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
+
+import com.xavier.mozdeliveryapi.shared.domain.event.DomainEvent;
+
+/**
+ * A domain event handed at once to the listeners of the node that raised it.
+ *
+ * Live views such as SSE streams listen for this wrapper rather than the event
+ * itself. They hear every change straight away on the node that made it, while
+ * the durable listeners get the bare event once, from the outbox relay. Listen
+ * with the event type as argument, e.g. {@code NodeLocalEvent<DeliveryStatusChangedEvent>}.
+ */
+public record NodeLocalEvent<T extends DomainEvent>(T event) implements ResolvableTypeProvider {
+
+    public NodeLocalEvent {
+        Objects.requireNonNull(event, "Event cannot be null");
+    }
+
+    @Override
+    public ResolvableType getResolvableType() {
+        return ResolvableType.forClassWithGenerics(NodeLocalEvent.class, ResolvableType.forInstance(event));
+    }
+}
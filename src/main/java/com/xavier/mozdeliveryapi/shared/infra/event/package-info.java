@@ -0,0 +1,4 @@
+/**
+ * In-process delivery of domain events to the live views of the node that raised them.
+ */
+package com.xavier.mozdeliveryapi.shared.infra.event;
@@ -0,0 +1,26 @@
+package com.xavier.mozdeliveryapi.shared.infra.outbox;
+
+import java.util.Objects;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.xavier.mozdeliveryapi.shared.domain.event.DomainEvent;
+
+/**
+ * Delivers outbox events to the in-process {@code @EventListener}s. A
+ * listener that throws makes the event be retried.
+ */
+public class ApplicationEventSink implements OutboxEventSink {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public ApplicationEventSink(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = Objects.requireNonNull(applicationEventPublisher,
+            "Application event publisher cannot be null");
+    }
+
+    @Override
+    public void deliver(DomainEvent event) {
+        applicationEventPublisher.publishEvent(event);
+    }
+}
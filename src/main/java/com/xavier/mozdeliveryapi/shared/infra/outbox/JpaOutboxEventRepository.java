@@ -0,0 +1,62 @@
+package com.xavier.mozdeliveryapi.shared.infra.outbox;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the event outbox.
+ */
+@Repository
+public interface JpaOutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+    
+    /**
+     * Find events ready to be delivered, oldest first. Events of an aggregate
+     * with an event waiting to retry are left out, so they cannot overtake it.
+     */
+    @Query("SELECT e FROM OutboxEventEntity e WHERE e.failedAt IS NULL AND NOT EXISTS (" +
+           "SELECT b.id FROM OutboxEventEntity b WHERE b.aggregateId = e.aggregateId " +
+           "AND b.failedAt IS NULL AND b.nextAttemptAt > :now) ORDER BY e.id")
+    List<OutboxEventEntity> findReady(@Param("now") Instant now, Pageable pageable);
+    
+    /**
+     * Remove delivered events.
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEventEntity e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Record a failed delivery; {@code failedAt} is set once the event is given up on.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEventEntity e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt, " +
+           "e.lastError = :error, e.failedAt = :failedAt WHERE e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("error") String error,
+                      @Param("nextAttemptAt") Instant nextAttemptAt, @Param("failedAt") Instant failedAt);
+    
+    /**
+     * Take or renew the relay lease if it is free, expired or already held by the owner.
+     */
+    @Modifying
+    @Query(value = "UPDATE event_outbox_lease SET owner = :owner, expires_at = :expiresAt " +
+           "WHERE name = 'relay' AND (owner = :owner OR expires_at < :now)",
+           nativeQuery = true)
+    int acquireLease(@Param("owner") String owner, @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+    
+    /**
+     * Give the relay lease up so another instance can take it straight away.
+     */
+    @Modifying
+    @Query(value = "UPDATE event_outbox_lease SET owner = NULL, expires_at = :now " +
+           "WHERE name = 'relay' AND owner = :owner",
+           nativeQuery = true)
+    int releaseLease(@Param("owner") String owner, @Param("now") Instant now);
+}
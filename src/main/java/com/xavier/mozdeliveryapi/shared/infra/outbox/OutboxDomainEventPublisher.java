@@ -0,0 +1,67 @@
+package com.xavier.mozdeliveryapi.shared.infra.outbox;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.xavier.mozdeliveryapi.shared.application.usecase.port.DomainEventPublisher;
+import com.xavier.mozdeliveryapi.shared.domain.event.DomainEvent;
+
+/**
+ * Publishes domain events by writing them to the outbox in the caller's
+ * transaction, so they are delivered if and only if the change commits.
+ * Listeners run later on the {@link OutboxRelay}, not on the calling thread.
+ */
+public class OutboxDomainEventPublisher implements DomainEventPublisher {
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxEventCodec codec;
+    private final OutboxRelay relay;
+    private final Clock clock;
+
+    public OutboxDomainEventPublisher(OutboxRepository outboxRepository, OutboxEventCodec codec,
+                                      OutboxRelay relay, Clock clock) {
+        this.outboxRepository = Objects.requireNonNull(outboxRepository, "Outbox repository cannot be null");
+        this.codec = Objects.requireNonNull(codec, "Codec cannot be null");
+        this.relay = Objects.requireNonNull(relay, "Relay cannot be null");
+        this.clock = Objects.requireNonNull(clock, "Clock cannot be null");
+    }
+
+    @Override
+    @Transactional
+    public void publish(DomainEvent event) {
+        Objects.requireNonNull(event, "Event cannot be null");
+        publishAll(List.of(event));
+    }
+
+    @Override
+    @Transactional
+    public void publishAll(Collection<? extends DomainEvent> events) {
+        Objects.requireNonNull(events, "Events cannot be null");
+        if (events.isEmpty()) {
+            return;
+        }
+        Instant now = clock.instant();
+        outboxRepository.append(events.stream().map(event -> codec.encode(event, now)).toList());
+        wakeRelayAfterCommit();
+    }
+
+    private void wakeRelayAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            relay.wakeUp();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                relay.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package com.xavier.mozdeliveryapi.shared.infra.outbox;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.xavier.mozdeliveryapi.shared.domain.event.DomainEvent;
+
+/**
+ * Turns domain events into outbox messages and back, as JSON.
+ */
+public class OutboxEventCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public OutboxEventCodec(ObjectMapper objectMapper) {
+        Objects.requireNonNull(objectMapper, "Object mapper cannot be null");
+        // The DomainEvent getters are written out too but are not properties to read back
+        this.objectMapper = objectMapper.copy()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Serialize an event raised at {@code now}.
+     *
+     * @throws IllegalArgumentException if the event cannot be serialized
+     */
+    public OutboxMessage encode(DomainEvent event, Instant now) {
+        Objects.requireNonNull(event, "Event cannot be null");
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize domain event: " + event.getClass().getName(), e);
+        }
+        Instant occurredAt = event.getOccurredOn() != null ? event.getOccurredOn() : now;
+        return OutboxMessage.pending(event.getAggregateId(), event.getClass().getName(), payload, occurredAt, now);
+    }
+
+    /**
+     * Read an event back from its message.
+     *
+     * @throws IllegalArgumentException if the event class is unknown or the payload does not match it
+     */
+    public DomainEvent decode(OutboxMessage message) {
+        Objects.requireNonNull(message, "Message cannot be null");
+        try {
+            Class<? extends DomainEvent> type = Class.forName(message.eventClass()).asSubclass(DomainEvent.class);
+            return objectMapper.readValue(message.payload(), type);
+        } catch (ClassNotFoundException | ClassCastException | JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot read outbox message " + message.id() + " as "
+                + message.eventClass(), e);
+        }
+    }
+}
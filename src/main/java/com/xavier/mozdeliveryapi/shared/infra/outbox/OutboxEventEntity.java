@@ -0,0 +1,97 @@
+package com.xavier.mozdeliveryapi.shared.infra.outbox;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * JPA entity for a domain event waiting in the outbox.
+ */
+@Entity
+@Table(name = "event_outbox")
+public class OutboxEventEntity {
+    
+    // One sequence value per row, so events of an aggregate written by
+    // successive transactions keep their order
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "aggregate_id", nullable = false, length = 255)
+    private String aggregateId;
+    
+    @Column(name = "event_class", nullable = false, length = 255)
+    private String eventClass;
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload", nullable = false, columnDefinition = "jsonb")
+    private String payload;
+    
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+    
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+    
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+    
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    @Column(name = "failed_at")
+    private Instant failedAt;
+    
+    // Default constructor for JPA
+    protected OutboxEventEntity() {}
+    
+    public OutboxEventEntity(String aggregateId, String eventClass, String payload,
+                             Instant occurredAt, Instant createdAt) {
+        this.aggregateId = aggregateId;
+        this.eventClass = eventClass;
+        this.payload = payload;
+        this.occurredAt = occurredAt;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and setters
+    public Long getId() { return id; }
+    
+    public String getAggregateId() { return aggregateId; }
+    public void setAggregateId(String aggregateId) { this.aggregateId = aggregateId; }
+    
+    public String getEventClass() { return eventClass; }
+    public void setEventClass(String eventClass) { this.eventClass = eventClass; }
+    
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+    
+    public Instant getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(Instant occurredAt) { this.occurredAt = occurredAt; }
+    
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+    
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    
+    public Instant getFailedAt() { return failedAt; }
+    public void setFailedAt(Instant failedAt) { this.failedAt = failedAt; }
+}
@@ -0,0 +1,18 @@
+package com.xavier.mozdeliveryapi.shared.infra.outbox;
+
+import com.xavier.mozdeliveryapi.shared.domain.event.DomainEvent;
+
+/**
+ * Destination the outbox relay hands events to, such as the in-process
+ * listeners or a message broker.
+ *
+ * Delivery is at least once: an event is retried, on every sink, until all
+ * sinks accept it, so sinks must tolerate duplicates.
+ */
+public interface OutboxEventSink {
+
+    /**
+     * Deliver an event, throwing if it has to be retried.
+     */
+    void deliver(DomainEvent event) throws Exception;
+}
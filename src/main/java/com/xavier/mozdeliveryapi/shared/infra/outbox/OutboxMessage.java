@@ -0,0 +1,43 @@
+package com.xavier.mozdeliveryapi.shared.infra.outbox;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A serialized domain event in the outbox.
+ *
+ * @param id position in the outbox; {@code null} until the message is stored
+ * @param eventClass class name the payload is read back into
+ * @param attempts failed deliveries so far
+ * @param nextAttemptAt when a failed delivery may be retried, or {@code null}
+ */
+public record OutboxMessage(
+    Long id,
+    String aggregateId,
+    String eventClass,
+    String payload,
+    Instant occurredAt,
+    Instant createdAt,
+    int attempts,
+    Instant nextAttemptAt
+) {
+
+    public OutboxMessage {
+        Objects.requireNonNull(aggregateId, "Aggregate ID cannot be null");
+        Objects.requireNonNull(eventClass, "Event class cannot be null");
+        Objects.requireNonNull(payload, "Payload cannot be null");
+        Objects.requireNonNull(occurredAt, "Occurred at cannot be null");
+        Objects.requireNonNull(createdAt, "Created at cannot be null");
+        if (attempts < 0) {
+            throw new IllegalArgumentException("Attempts cannot be negative");
+        }
+    }
+
+    /**
+     * A message that has not been stored yet.
+     */
+    public static OutboxMessage pending(String aggregateId, String eventClass, String payload,
+                                        Instant occurredAt, Instant createdAt) {
+        return new OutboxMessage(null, aggregateId, eventClass, payload, occurredAt, createdAt, 0, null);
+    }
+}
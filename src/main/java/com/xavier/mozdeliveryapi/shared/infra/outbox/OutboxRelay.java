@@ -0,0 +1,293 @@
+package com.xavier.mozdeliveryapi.shared.infra.outbox;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.xavier.mozdeliveryapi.shared.domain.event.DomainEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Delivers outbox events to the sinks.
+ *
+ * Runs when a transaction that published events commits, and on a poll that
+ * picks up retries coming due and events stored by other instances. Each pass reads a batch in outbox order and
+ * delivers every aggregate's events one after another, with different
+ * aggregates in parallel on virtual threads. Delivered events are deleted. An
+ * event that fails is retried with backoff, and the later events of its
+ * aggregate wait for it; once it runs out of attempts it is kept as failed
+ * and the aggregate moves on. Only the instance holding the relay lease
+ * delivers, so a pass that outlives the lease may overlap with another
+ * instance and deliver some events twice.
+ */
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final long NOTHING_PENDING = -1;
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxEventCodec codec;
+    private final List<OutboxEventSink> sinks;
+    private final OutboxRelayPolicy policy;
+    private final Clock clock;
+    private final String owner = UUID.randomUUID().toString();
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final ReentrantLock relayLock = new ReentrantLock();
+    private final AtomicBoolean wakeScheduled = new AtomicBoolean();
+    private final AtomicBoolean rerun = new AtomicBoolean();
+    private final AtomicLong oldestPendingMillis = new AtomicLong(NOTHING_PENDING);
+    private final AtomicBoolean leader = new AtomicBoolean();
+
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final Timer deliveryLag;
+
+    private enum Outcome { DELIVERED, RETRYING, DEAD }
+
+    public OutboxRelay(OutboxRepository outboxRepository, OutboxEventCodec codec, List<OutboxEventSink> sinks,
+                       OutboxRelayPolicy policy, MeterRegistry meterRegistry, Clock clock) {
+        Objects.requireNonNull(sinks, "Sinks cannot be null");
+        Objects.requireNonNull(meterRegistry, "Meter registry cannot be null");
+        this.outboxRepository = Objects.requireNonNull(outboxRepository, "Outbox repository cannot be null");
+        this.codec = Objects.requireNonNull(codec, "Codec cannot be null");
+        this.sinks = List.copyOf(sinks);
+        this.policy = Objects.requireNonNull(policy, "Policy cannot be null");
+        this.clock = Objects.requireNonNull(clock, "Clock cannot be null");
+        this.permits = new Semaphore(policy.maxConcurrency());
+
+        this.delivered = Counter.builder("events.outbox.delivered")
+            .description("Outbox events delivered to every sink")
+            .register(meterRegistry);
+        this.retried = Counter.builder("events.outbox.retried")
+            .description("Outbox event deliveries that failed and will be retried")
+            .register(meterRegistry);
+        this.deadLettered = Counter.builder("events.outbox.dead_lettered")
+            .description("Outbox events given up on")
+            .register(meterRegistry);
+        this.deliveryLag = Timer.builder("events.outbox.delivery.lag")
+            .description("Time from an event being stored to its delivery")
+            .register(meterRegistry);
+        meterRegistry.gauge("events.outbox.lag.seconds", oldestPendingMillis, oldest -> {
+            long millis = oldest.get();
+            return millis == NOTHING_PENDING ? 0 : Math.max(0, clock.millis() - millis) / 1000.0;
+        });
+        meterRegistry.gauge("events.outbox.leader", leader, held -> held.get() ? 1 : 0);
+    }
+
+    /**
+     * Start a pass in the background unless one is already due.
+     */
+    public void wakeUp() {
+        if (!wakeScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                wakeScheduled.set(false);
+                relay();
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; whatever is left is relayed after the restart
+            wakeScheduled.set(false);
+        }
+    }
+
+    /**
+     * Deliver everything that is ready. A call made while another thread is
+     * relaying asks that thread to go round once more instead of waiting.
+     */
+    @Scheduled(fixedDelayString = "${app.events.outbox.poll-interval-ms:500}")
+    public void relay() {
+        do {
+            if (!relayLock.tryLock()) {
+                rerun.set(true);
+                return;
+            }
+            try {
+                rerun.set(false);
+                while (relayBatch() == policy.batchSize()) {
+                    // A full batch means more may be waiting
+                }
+            } catch (RuntimeException e) {
+                logger.error("Outbox relay pass failed: {}", e.getMessage(), e);
+                return;
+            } finally {
+                relayLock.unlock();
+            }
+            // Checked after unlocking, so a request made just before is not lost
+        } while (rerun.get());
+    }
+
+    /**
+     * Deliver one batch.
+     *
+     * @return the number of events read, or 0 if the pass should stop here
+     */
+    int relayBatch() {
+        Instant now = clock.instant();
+        if (!outboxRepository.tryAcquireLease(owner, now, policy.leaseTtl())) {
+            leader.set(false);
+            oldestPendingMillis.set(NOTHING_PENDING);
+            return 0;
+        }
+        leader.set(true);
+
+        List<OutboxMessage> batch = outboxRepository.findReady(now, policy.batchSize());
+        oldestPendingMillis.set(batch.isEmpty() ? NOTHING_PENDING : batch.get(0).createdAt().toEpochMilli());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<OutboxMessage>> byAggregate = new LinkedHashMap<>();
+        for (OutboxMessage message : batch) {
+            byAggregate.computeIfAbsent(message.aggregateId(), id -> new ArrayList<>()).add(message);
+        }
+
+        Queue<Long> done = new ConcurrentLinkedQueue<>();
+        Queue<Long> settled = new ConcurrentLinkedQueue<>();
+        List<Future<?>> tasks = new ArrayList<>(byAggregate.size());
+        for (List<OutboxMessage> messages : byAggregate.values()) {
+            tasks.add(executor.submit(() -> deliverInOrder(messages, done, settled)));
+        }
+        boolean stopped = false;
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopped = true;
+                break;
+            } catch (ExecutionException e) {
+                // Left as it was, so it is read again on the next pass
+                logger.error("Error relaying outbox events: {}", e.getCause().getMessage(), e.getCause());
+                stopped = true;
+            }
+        }
+
+        outboxRepository.delete(List.copyOf(done));
+        Set<Long> settledIds = Set.copyOf(settled);
+        oldestPendingMillis.set(batch.stream()
+            .filter(message -> !settledIds.contains(message.id()))
+            .mapToLong(message -> message.createdAt().toEpochMilli())
+            .findFirst()
+            .orElse(NOTHING_PENDING));
+        return stopped ? 0 : batch.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (leader.getAndSet(false)) {
+            try {
+                outboxRepository.releaseLease(owner, clock.instant());
+            } catch (RuntimeException e) {
+                logger.warn("Could not release outbox relay lease: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Deliver one aggregate's events, stopping at the first that has to be
+     * retried. Delivered events go to {@code done}; those given up on as well
+     * go to {@code settled}.
+     */
+    private void deliverInOrder(List<OutboxMessage> messages, Queue<Long> done, Queue<Long> settled) {
+        permits.acquireUninterruptibly();
+        try {
+            for (OutboxMessage message : messages) {
+                Outcome outcome = deliver(message);
+                if (outcome == Outcome.RETRYING) {
+                    return;
+                }
+                if (outcome == Outcome.DELIVERED) {
+                    done.add(message.id());
+                }
+                settled.add(message.id());
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Outcome deliver(OutboxMessage message) {
+        DomainEvent event;
+        try {
+            event = codec.decode(message);
+        } catch (IllegalArgumentException e) {
+            // Retrying cannot help a payload that does not read back
+            return giveUp(message, e, message.attempts() + 1);
+        }
+
+        try {
+            for (OutboxEventSink sink : sinks) {
+                sink.deliver(event);
+            }
+        } catch (Exception e) {
+            int attempts = message.attempts() + 1;
+            if (attempts >= policy.maxAttempts()) {
+                return giveUp(message, e, attempts);
+            }
+            Duration backoff = policy.backoffAfter(attempts);
+            outboxRepository.recordFailure(message.id(), describe(e), clock.instant().plus(backoff), null);
+            retried.increment();
+            logger.warn("Delivery of outbox event {} ({}) failed, retrying in {}: {}",
+                        message.id(), message.eventClass(), backoff, e.getMessage());
+            return Outcome.RETRYING;
+        }
+
+        delivered.increment();
+        deliveryLag.record(Duration.between(message.createdAt(), clock.instant()));
+        return Outcome.DELIVERED;
+    }
+
+    private Outcome giveUp(OutboxMessage message, Exception e, int attempts) {
+        outboxRepository.recordFailure(message.id(), describe(e), null, clock.instant());
+        deadLettered.increment();
+        logger.error("Giving up on outbox event {} ({}) for aggregate {} after {} attempts: {}",
+                     message.id(), message.eventClass(), message.aggregateId(), attempts, e.getMessage());
+        return Outcome.DEAD;
+    }
+
+    private static String describe(Exception e) {
+        String error = e.getClass().getName() + ": " + e.getMessage();
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,70 @@
+package com.xavier.mozdeliveryapi.shared.infra.outbox;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * How the outbox relay drains events. Each pass reads up to {@code batchSize}
+ * events and delivers the events of up to {@code maxConcurrency} aggregates at
+ * once. A failed event is retried after {@code retryBackoff}, doubling per
+ * attempt up to {@code maxRetryBackoff}, and given up on after
+ * {@code maxAttempts}. The relay holds a lease of {@code leaseTtl}, renewed on
+ * every pass, so only one instance relays at a time.
+ */
+public record OutboxRelayPolicy(
+    int batchSize,
+    int maxConcurrency,
+    int maxAttempts,
+    Duration leaseTtl,
+    Duration retryBackoff,
+    Duration maxRetryBackoff
+) {
+
+    public static final int DEFAULT_BATCH_SIZE = 200;
+    public static final int DEFAULT_MAX_CONCURRENCY = 16;
+    public static final int DEFAULT_MAX_ATTEMPTS = 10;
+    public static final Duration DEFAULT_LEASE_TTL = Duration.ofSeconds(15);
+    public static final Duration DEFAULT_RETRY_BACKOFF = Duration.ofSeconds(1);
+    public static final Duration DEFAULT_MAX_RETRY_BACKOFF = Duration.ofMinutes(5);
+
+    public OutboxRelayPolicy {
+        Objects.requireNonNull(leaseTtl, "Lease TTL cannot be null");
+        Objects.requireNonNull(retryBackoff, "Retry backoff cannot be null");
+        Objects.requireNonNull(maxRetryBackoff, "Max retry backoff cannot be null");
+
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive");
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Max attempts must be positive");
+        }
+        if (leaseTtl.isNegative() || leaseTtl.isZero()) {
+            throw new IllegalArgumentException("Lease TTL must be positive");
+        }
+        if (retryBackoff.isNegative()) {
+            throw new IllegalArgumentException("Retry backoff cannot be negative");
+        }
+        if (maxRetryBackoff.compareTo(retryBackoff) < 0) {
+            throw new IllegalArgumentException("Max retry backoff cannot be less than retry backoff");
+        }
+    }
+
+    public static OutboxRelayPolicy defaults() {
+        return new OutboxRelayPolicy(DEFAULT_BATCH_SIZE, DEFAULT_MAX_CONCURRENCY, DEFAULT_MAX_ATTEMPTS,
+                                     DEFAULT_LEASE_TTL, DEFAULT_RETRY_BACKOFF, DEFAULT_MAX_RETRY_BACKOFF);
+    }
+
+    /**
+     * Delay before retrying an event that has now failed {@code attempts} times.
+     */
+    public Duration backoffAfter(int attempts) {
+        Duration backoff = retryBackoff;
+        for (int i = 1; i < attempts && backoff.compareTo(maxRetryBackoff) < 0; i++) {
+            backoff = backoff.multipliedBy(2);
+        }
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+}
@@ -0,0 +1,47 @@
+package com.xavier.mozdeliveryapi.shared.infra.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Storage for the event outbox.
+ */
+public interface OutboxRepository {
+
+    /**
+     * Store messages in the caller's transaction, in the given order.
+     */
+    void append(List<OutboxMessage> messages);
+
+    /**
+     * Find up to {@code limit} messages ready to be delivered, in outbox order.
+     * Messages of an aggregate that has a message waiting to retry after
+     * {@code now} are left out.
+     */
+    List<OutboxMessage> findReady(Instant now, int limit);
+
+    /**
+     * Remove delivered messages.
+     */
+    void delete(Collection<Long> ids);
+
+    /**
+     * Record a failed delivery. The message is retried from
+     * {@code nextAttemptAt}, or given up on when {@code failedAt} is set.
+     */
+    void recordFailure(long id, String error, Instant nextAttemptAt, Instant failedAt);
+
+    /**
+     * Take or renew the relay lease for {@code ttl}.
+     *
+     * @return true if {@code owner} holds the lease
+     */
+    boolean tryAcquireLease(String owner, Instant now, Duration ttl);
+
+    /**
+     * Give the relay lease up if {@code owner} holds it.
+     */
+    void releaseLease(String owner, Instant now);
+}
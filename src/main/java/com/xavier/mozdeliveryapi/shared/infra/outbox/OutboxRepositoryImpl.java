@@ -0,0 +1,71 @@
+package com.xavier.mozdeliveryapi.shared.infra.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * JPA implementation of the event outbox.
+ */
+@Repository
+public class OutboxRepositoryImpl implements OutboxRepository {
+
+    private final JpaOutboxEventRepository jpaRepository;
+
+    public OutboxRepositoryImpl(JpaOutboxEventRepository jpaRepository) {
+        this.jpaRepository = Objects.requireNonNull(jpaRepository, "JPA repository cannot be null");
+    }
+
+    @Override
+    @Transactional
+    public void append(List<OutboxMessage> messages) {
+        Objects.requireNonNull(messages, "Messages cannot be null");
+        jpaRepository.saveAll(messages.stream()
+            .map(message -> new OutboxEventEntity(message.aggregateId(), message.eventClass(),
+                                                  message.payload(), message.occurredAt(),
+                                                  message.createdAt()))
+            .toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OutboxMessage> findReady(Instant now, int limit) {
+        return jpaRepository.findReady(now, PageRequest.of(0, limit)).stream()
+            .map(entity -> new OutboxMessage(entity.getId(), entity.getAggregateId(), entity.getEventClass(),
+                                             entity.getPayload(), entity.getOccurredAt(), entity.getCreatedAt(),
+                                             entity.getAttempts(), entity.getNextAttemptAt()))
+            .toList();
+    }
+
+    @Override
+    @Transactional
+    public void delete(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            jpaRepository.deleteByIdIn(ids);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordFailure(long id, String error, Instant nextAttemptAt, Instant failedAt) {
+        jpaRepository.recordFailure(id, error, nextAttemptAt, failedAt);
+    }
+
+    @Override
+    @Transactional
+    public boolean tryAcquireLease(String owner, Instant now, Duration ttl) {
+        return jpaRepository.acquireLease(owner, now, now.plus(ttl)) > 0;
+    }
+
+    @Override
+    @Transactional
+    public void releaseLease(String owner, Instant now) {
+        jpaRepository.releaseLease(owner, now);
+    }
+}
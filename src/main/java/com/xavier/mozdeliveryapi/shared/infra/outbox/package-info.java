@@ -0,0 +1,13 @@
+/**
+ * Transactional outbox for domain events.
+ *
+ * Events are stored with the aggregate change that raised them and relayed to
+ * listeners after the transaction commits, at least once and in order per
+ * aggregate.
+ *
+ * Only events with durable listeners belong here. Spring Modulith's event
+ * publication registry is not used for this: it calls listeners on the node
+ * that published, without per-aggregate order, and retries a failed one only
+ * on restart or when resubmitted by hand.
+ */
+package com.xavier.mozdeliveryapi.shared.infra.outbox;
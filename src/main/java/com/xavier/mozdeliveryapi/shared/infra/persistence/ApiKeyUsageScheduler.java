@@ -0,0 +1,43 @@
+package com.xavier.mozdeliveryapi.shared.infra.persistence;
+
+import com.xavier.mozdeliveryapi.shared.application.usecase.ApiKeyService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes buffered API key last-used timestamps on a fixed delay.
+ */
+@Component
+public class ApiKeyUsageScheduler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ApiKeyUsageScheduler.class);
+    
+    private final ApiKeyService apiKeyService;
+    
+    public ApiKeyUsageScheduler(ApiKeyService apiKeyService) {
+        this.apiKeyService = apiKeyService;
+    }
+    
+    /**
+     * Flush usage recorded since the previous run (every 10 seconds by default).
+     */
+    @Scheduled(fixedDelayString = "${app.security.api-keys.usage-flush-ms:10000}")
+    public void flushUsage() {
+        try {
+            int updated = apiKeyService.flushUsage();
+            if (updated > 0) {
+                logger.debug("Recorded usage for {} API keys", updated);
+            }
+        } catch (Exception e) {
+            logger.error("Error recording API key usage", e);
+        }
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushUsage();
+    }
+}
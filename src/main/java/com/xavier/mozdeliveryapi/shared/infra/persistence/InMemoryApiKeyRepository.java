@@ -74,6 +74,13 @@ public class InMemoryApiKeyRepository implements ApiKeyRepository {
         }
     }
     
+    @Override
+    public void updateLastUsed(Map<String, Instant> lastUsedByKeyId) {
+        // Only touch the timestamp, so a concurrent status change is never overwritten
+        lastUsedByKeyId.forEach((keyId, lastUsed) ->
+            apiKeys.computeIfPresent(keyId, (id, apiKey) -> apiKey.withLastUsed(lastUsed)));
+    }
+    
     /**
      * Get all API keys (for validation purposes).
      * This method is used by the API key service for validation.
@@ -0,0 +1,24 @@
+-- Treat a cleared tenant setting as unset in Row Level Security policies.
+-- Pooled connections carry app.current_tenant_id across checkouts and clear it
+-- with set_config(..., '') when reused without a tenant. Once set in a session
+-- the setting reads as '' instead of NULL, and ''::UUID fails, so the
+-- policies go through NULLIF first.
+
+DROP POLICY IF EXISTS tenant_isolation_policy ON tenants;
+CREATE POLICY tenant_isolation_policy ON tenants
+    USING (id = COALESCE(NULLIF(current_setting('app.current_tenant_id', true), '')::UUID, id));
+
+DROP POLICY IF EXISTS service_areas_tenant_policy ON service_areas;
+CREATE POLICY service_areas_tenant_policy ON service_areas
+    USING (tenant_id = COALESCE(NULLIF(current_setting('app.current_tenant_id', true), '')::UUID, tenant_id));
+
+DROP POLICY IF EXISTS orders_tenant_isolation_policy ON orders;
+CREATE POLICY orders_tenant_isolation_policy ON orders
+    USING (tenant_id = COALESCE(NULLIF(current_setting('app.current_tenant_id', true), '')::UUID, tenant_id));
+
+DROP POLICY IF EXISTS merchant_order_isolation_policy ON orders;
+CREATE POLICY merchant_order_isolation_policy ON orders
+    USING (
+        tenant_id = NULLIF(current_setting('app.current_tenant_id', true), '')::UUID OR
+        merchant_id = current_setting('app.current_merchant_id', true)::UUID
+    );
@@ -0,0 +1,13 @@
+-- Keep on-hand stock in a dedicated column so reservations can update it
+-- without rewriting the stock_info JSON document. stock_info.currentStock is
+-- still written alongside it for readers of the JSON.
+
+ALTER TABLE products ADD COLUMN stock_on_hand INTEGER;
+
+UPDATE products
+SET stock_on_hand = (stock_info ->> 'currentStock')::int
+WHERE stock_info IS NOT NULL
+  AND (stock_info ->> 'trackStock')::boolean = true;
+
+ALTER TABLE products ADD CONSTRAINT products_stock_on_hand_non_negative
+    CHECK (stock_on_hand IS NULL OR stock_on_hand >= 0);
@@ -0,0 +1,21 @@
+-- Track low stock in typed columns instead of casting stock_info for every
+-- product of a merchant. low_stock_since is set while stock_on_hand is at or
+-- below low_stock_threshold and is maintained by the stock update queries, so
+-- the partial index only holds products that are currently low.
+
+ALTER TABLE products ADD COLUMN low_stock_threshold INTEGER;
+ALTER TABLE products ADD COLUMN low_stock_since TIMESTAMP WITH TIME ZONE;
+
+UPDATE products
+SET low_stock_threshold = (stock_info ->> 'lowStockThreshold')::int
+WHERE stock_on_hand IS NOT NULL
+  AND (stock_info ->> 'lowStockThreshold') IS NOT NULL;
+
+UPDATE products
+SET low_stock_since = NOW()
+WHERE stock_on_hand <= low_stock_threshold;
+
+ALTER TABLE products ADD CONSTRAINT products_low_stock_threshold_non_negative
+    CHECK (low_stock_threshold IS NULL OR low_stock_threshold >= 0);
+
+CREATE INDEX idx_products_low_stock ON products(category_id) WHERE low_stock_since IS NOT NULL;
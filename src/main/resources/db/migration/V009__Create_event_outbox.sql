@@ -0,0 +1,33 @@
+-- Transactional outbox for domain events. Events are written in the same
+-- transaction as the aggregate change and a relay delivers them afterwards.
+-- Delivered rows are deleted; rows that keep failing are kept with failed_at
+-- set for inspection.
+
+CREATE TABLE event_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_id VARCHAR(255) NOT NULL,
+    event_class VARCHAR(255) NOT NULL,
+    payload JSONB NOT NULL,
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE,
+    last_error TEXT,
+    failed_at TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX idx_event_outbox_pending ON event_outbox(id) WHERE failed_at IS NULL;
+
+-- Aggregates waiting to retry an event, whose later events must wait too
+CREATE INDEX idx_event_outbox_backoff ON event_outbox(aggregate_id)
+    WHERE next_attempt_at IS NOT NULL AND failed_at IS NULL;
+
+-- Only the instance holding the lease relays, which keeps each aggregate's
+-- events in order across instances
+CREATE TABLE event_outbox_lease (
+    name VARCHAR(64) PRIMARY KEY,
+    owner VARCHAR(255),
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+INSERT INTO event_outbox_lease (name, owner, expires_at) VALUES ('relay', NULL, TIMESTAMP WITH TIME ZONE 'epoch');
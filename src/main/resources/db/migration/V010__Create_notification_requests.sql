@@ -0,0 +1,23 @@
+-- Notification requests accepted from event handlers and not yet turned into
+-- notifications. A row is written before the handler returns, so the outbox
+-- can delete the event, and deleted once the notification exists. Rows that
+-- keep failing are kept with failed_at set until they are redriven.
+--
+-- due_at is pushed forward while an instance is working on the request; a
+-- row whose due_at has passed was stranded by an instance that stopped and
+-- may be claimed by any instance.
+
+CREATE TABLE notification_requests (
+    id BIGSERIAL PRIMARY KEY,
+    coalesce_key VARCHAR(255) NOT NULL,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    due_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    last_error TEXT,
+    failed_at TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX idx_notification_requests_due ON notification_requests(due_at) WHERE failed_at IS NULL;
+
+CREATE INDEX idx_notification_requests_dead ON notification_requests(failed_at) WHERE failed_at IS NOT NULL;
@@ -0,0 +1,287 @@
+package com.xavier.mozdeliveryapi.catalog.infra.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xavier.mozdeliveryapi.catalog.application.dto.CategoryResponse;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CatalogId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CategoryId;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the catalog view cache.
+ */
+class CatalogViewCacheTest {
+
+    private static final TypeReference<CategoryResponse> CATEGORY_VIEW = new TypeReference<>() {};
+    private static final MerchantId MERCHANT_ID = MerchantId.of("3f2b7c1e-9a4d-4f8e-b6a1-0c5d2e7f9a13");
+    private static final String CATALOG_ID = "5f0c8a9e-3a41-4a38-9d53-2f1c1b0a7e61";
+    private static final String CATEGORY_ID = "8d3e2b1a-6c4f-4e0a-b7d9-1a2b3c4d5e6f";
+
+    private AtomicLong clock;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        meterRegistry = new SimpleMeterRegistry();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups from the near cache until the TTL passes")
+    void shouldServeFromNearCacheUntilExpiry() {
+        // Given
+        CatalogViewCache cache = cache(Optional.empty());
+
+        // When
+        for (int i = 0; i < 9; i++) {
+            cache.get(CatalogViewCache.categoryKey(CATEGORY_ID), CATEGORY_VIEW, () -> category("Burgers"));
+        }
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        cache.get(CatalogViewCache.categoryKey(CATEGORY_ID), CATEGORY_VIEW, () -> category("Burgers"));
+
+        // Then
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.hitRatio()).isEqualTo(0.8);
+        assertThat(meterRegistry.get("catalog.cache.hit.ratio").gauge().value()).isEqualTo(0.8);
+    }
+
+    @Test
+    @DisplayName("Should load a view once for concurrent misses")
+    void shouldCoalesceConcurrentMisses() throws Exception {
+        // Given
+        CatalogViewCache cache = cache(Optional.empty());
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            // When
+            Future<CategoryResponse> first = executor.submit(() ->
+                cache.get(CatalogViewCache.categoryKey(CATEGORY_ID), CATEGORY_VIEW, () -> {
+                    loaderStarted.countDown();
+                    await(releaseLoader);
+                    return category("Burgers");
+                }));
+            assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            List<Future<CategoryResponse>> waiters = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                waiters.add(executor.submit(() ->
+                    cache.get(CatalogViewCache.categoryKey(CATEGORY_ID), CATEGORY_VIEW, () -> category("Other"))));
+            }
+            while (meterRegistry.get("catalog.cache.coalesced").counter().count() < 7) {
+                Thread.onSpinWait();
+            }
+            releaseLoader.countDown();
+
+            // Then
+            assertThat(first.get(5, TimeUnit.SECONDS).name()).isEqualTo("Burgers");
+            for (Future<CategoryResponse> waiter : waiters) {
+                assertThat(waiter.get(5, TimeUnit.SECONDS).name()).isEqualTo("Burgers");
+            }
+            assertThat(loads.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop views on change and again after the transaction commits")
+    void shouldInvalidateAgainAfterCommit() {
+        // Given
+        CatalogViewCache cache = cache(Optional.empty());
+        cache.get(CatalogViewCache.categoryKey(CATEGORY_ID), CATEGORY_VIEW, () -> category("Burgers"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When: a reader caches the old view before the write commits
+            cache.categoryChanged(MERCHANT_ID, CatalogId.of(CATALOG_ID), CategoryId.of(CATEGORY_ID));
+            cache.get(CatalogViewCache.categoryKey(CATEGORY_ID), CATEGORY_VIEW, () -> category("Burgers"));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        CategoryResponse view = cache.get(CatalogViewCache.categoryKey(CATEGORY_ID.toUpperCase()), CATEGORY_VIEW,
+            () -> category("Grills"));
+        assertThat(view.name()).isEqualTo("Grills");
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should not cache a view loaded while the catalog changed")
+    void shouldNotCacheLoadOverlappingInvalidation() {
+        // Given
+        CatalogViewCache cache = cache(Optional.empty());
+
+        // When
+        CategoryResponse stale = cache.get(CatalogViewCache.categoryKey(CATEGORY_ID), CATEGORY_VIEW, () -> {
+            cache.categoryChanged(MERCHANT_ID, CatalogId.of(CATALOG_ID), CategoryId.of(CATEGORY_ID));
+            return category("Burgers");
+        });
+        CategoryResponse fresh = cache.get(CatalogViewCache.categoryKey(CATEGORY_ID), CATEGORY_VIEW,
+            () -> category("Grills"));
+
+        // Then
+        assertThat(stale.name()).isEqualTo("Burgers");
+        assertThat(fresh.name()).isEqualTo("Grills");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache a missing view in either tier")
+    void shouldNotCacheMissingViews() {
+        // Given
+        InMemoryCatalogViewStore store = new InMemoryCatalogViewStore();
+        CatalogViewCache cache = cache(Optional.of(store));
+
+        // When
+        CategoryResponse missing = cache.get(CatalogViewCache.categoryKey(CATEGORY_ID), CATEGORY_VIEW, () -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        CategoryResponse created = cache.get(CatalogViewCache.categoryKey(CATEGORY_ID), CATEGORY_VIEW,
+            () -> category("Burgers"));
+
+        // Then
+        assertThat(missing).isNull();
+        assertThat(created.name()).isEqualTo("Burgers");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should share views through the remote tier and skip it when it fails")
+    void shouldShareViewsThroughRemoteTier() {
+        // Given
+        InMemoryCatalogViewStore store = new InMemoryCatalogViewStore();
+        CatalogViewCache firstNode = cache(Optional.of(store));
+        CatalogViewCache secondNode = cache(Optional.of(store));
+
+        // When
+        firstNode.get(CatalogViewCache.categoryKey(CATEGORY_ID), CATEGORY_VIEW, () -> category("Burgers"));
+        CategoryResponse shared = secondNode.get(CatalogViewCache.categoryKey(CATEGORY_ID), CATEGORY_VIEW,
+            () -> category("Other"));
+        firstNode.categoryChanged(MERCHANT_ID, CatalogId.of(CATALOG_ID), CategoryId.of(CATEGORY_ID));
+        store.setAvailable(false);
+        CategoryResponse reloaded = firstNode.get(CatalogViewCache.categoryKey(CATEGORY_ID), CATEGORY_VIEW,
+            () -> category("Grills"));
+
+        // Then
+        assertThat(shared.name()).isEqualTo("Burgers");
+        assertThat(reloaded.name()).isEqualTo("Grills");
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("catalog.cache.redis.errors").counter().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should never serve a view another node loaded before the catalog changed")
+    void shouldHideRemoteViewLoadedBeforeChangeOnAnotherNode() {
+        // Given
+        InMemoryCatalogViewStore store = new InMemoryCatalogViewStore();
+        CatalogViewCache writer = cache(Optional.of(store));
+        CatalogViewCache slowReader = cache(Optional.of(store));
+        CatalogViewCache thirdNode = cache(Optional.of(store));
+
+        // When: the category changes on one node while another is still loading it
+        CategoryResponse stale = slowReader.get(CatalogViewCache.categoryKey(CATEGORY_ID), CATEGORY_VIEW, () -> {
+            CategoryResponse loaded = category("Burgers");
+            writer.categoryChanged(MERCHANT_ID, CatalogId.of(CATALOG_ID), CategoryId.of(CATEGORY_ID));
+            return loaded;
+        });
+        CategoryResponse fresh = thirdNode.get(CatalogViewCache.categoryKey(CATEGORY_ID), CATEGORY_VIEW,
+            () -> category("Grills"));
+
+        // Then
+        assertThat(stale.name()).isEqualTo("Burgers");
+        assertThat(fresh.name()).isEqualTo("Grills");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private CatalogViewCache cache(Optional<CatalogViewStore> remoteStore) {
+        return new CatalogViewCache(160, Duration.ofSeconds(30), Duration.ofMinutes(10), remoteStore,
+            new ObjectMapper(), meterRegistry, clock::get);
+    }
+
+    private CategoryResponse category(String name) {
+        loads.incrementAndGet();
+        return new CategoryResponse(CATEGORY_ID, "merchant-1", CATALOG_ID, name, null, null, 1, true, null, null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Map-backed stand-in for the Redis tier.
+     */
+    private static final class InMemoryCatalogViewStore implements CatalogViewStore {
+
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+        private final Map<String, String> versions = new ConcurrentHashMap<>();
+        private volatile boolean available = true;
+
+        void setAvailable(boolean available) {
+            this.available = available;
+        }
+
+        @Override
+        public String version(String key) {
+            checkAvailable();
+            return versions.getOrDefault(key, "0");
+        }
+
+        @Override
+        public Optional<String> get(String key, String version) {
+            checkAvailable();
+            return Optional.ofNullable(values.get(key + "@" + version));
+        }
+
+        @Override
+        public void put(String key, String version, String json, Duration ttl) {
+            checkAvailable();
+            values.put(key + "@" + version, json);
+        }
+
+        @Override
+        public void invalidate(Collection<String> keys, Duration versionTtl) {
+            checkAvailable();
+            keys.forEach(key -> versions.put(key, UUID.randomUUID().toString()));
+        }
+
+        private void checkAvailable() {
+            if (!available) {
+                throw new IllegalStateException("Redis is unavailable");
+            }
+        }
+    }
+}
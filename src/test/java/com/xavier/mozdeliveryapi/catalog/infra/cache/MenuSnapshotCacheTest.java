@@ -0,0 +1,180 @@
+package com.xavier.mozdeliveryapi.catalog.infra.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xavier.mozdeliveryapi.catalog.application.dto.CategoryResponse;
+import com.xavier.mozdeliveryapi.catalog.application.dto.MerchantMenuResponse;
+import com.xavier.mozdeliveryapi.catalog.application.dto.ProductResponse;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CategoryId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductAvailability;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the public menu snapshot cache.
+ */
+class MenuSnapshotCacheTest {
+
+    private static final String MERCHANT_ID = "3f2b7c1e-9a4d-4f8e-b6a1-0c5d2e7f9a13";
+    private static final String CATEGORY_ID = "8d3e2b1a-6c4f-4e0a-b7d9-1a2b3c4d5e6f";
+    private static final String PRODUCT_ID = "1c9e4f2a-7b3d-4a8e-9f0c-5d6e7a8b9c0d";
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger builds;
+    private MutableClock clock;
+    private MenuSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        builds = new AtomicInteger();
+        clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        cache = new MenuSnapshotCache(new ObjectMapper(), true, 100, Duration.ofSeconds(30), meterRegistry, clock);
+    }
+
+    @Test
+    @DisplayName("Should serve the same snapshot until the merchant's menu changes")
+    void shouldServeSnapshotUntilMenuChanges() {
+        // Given
+        MenuSnapshot first = cache.get(MERCHANT_ID, () -> menu("Cheeseburger", 1));
+
+        // When
+        MenuSnapshot second = cache.get(MERCHANT_ID.toUpperCase(), () -> menu("Cheeseburger", 1));
+        cache.productChanged(MerchantId.of(MERCHANT_ID), CategoryId.of(CATEGORY_ID), ProductId.of(PRODUCT_ID));
+        MenuSnapshot rebuilt = cache.get(MERCHANT_ID, () -> menu("Double Cheeseburger", 1));
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(builds.get()).isEqualTo(2);
+        assertThat(rebuilt.getETag(false)).isNotEqualTo(first.getETag(false));
+        assertThat(meterRegistry.get("catalog.menu.snapshots.requests").tag("result", "hit").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should keep the ETag when a rebuild produces the same menu")
+    void shouldKeepETagForUnchangedContent() {
+        // Given
+        MenuSnapshot first = cache.get(MERCHANT_ID, () -> menu("Cheeseburger", 1));
+
+        // When
+        cache.invalidate(MerchantId.of(MERCHANT_ID));
+        MenuSnapshot rebuilt = cache.get(MERCHANT_ID, () -> menu("Cheeseburger", 1));
+
+        // Then
+        assertThat(rebuilt).isNotSameAs(first);
+        assertThat(rebuilt.getETag(false)).isEqualTo(first.getETag(false));
+        assertThat(rebuilt.matches("W/" + first.getETag(false))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should store a gzip representation with its own ETag for large menus")
+    void shouldCompressLargeMenus() throws IOException {
+        // Given
+        MenuSnapshot snapshot = cache.get(MERCHANT_ID, () -> menu("Cheeseburger", 50));
+
+        // When
+        byte[] unzipped;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot.getBody(true)))) {
+            unzipped = in.readAllBytes();
+        }
+
+        // Then
+        assertThat(snapshot.hasGzip()).isTrue();
+        assertThat(snapshot.getBody(true).length).isLessThan(snapshot.getBody(false).length);
+        assertThat(unzipped).isEqualTo(snapshot.getBody(false));
+        assertThat(snapshot.getETag(true)).isNotEqualTo(snapshot.getETag(false));
+        assertThat(snapshot.matches(snapshot.getETag(true))).isTrue();
+        assertThat(snapshot.matches("\"other\"")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should rebuild a snapshot once its TTL has passed")
+    void shouldExpireSnapshotAfterTtl() {
+        // Given: another node changed the menu, which this node never hears about
+        MenuSnapshot first = cache.get(MERCHANT_ID, () -> menu("Cheeseburger", 1));
+        clock.advance(Duration.ofSeconds(29));
+        MenuSnapshot beforeExpiry = cache.get(MERCHANT_ID, () -> menu("Double Cheeseburger", 1));
+
+        // When
+        clock.advance(Duration.ofSeconds(1));
+        MenuSnapshot afterExpiry = cache.get(MERCHANT_ID, () -> menu("Double Cheeseburger", 1));
+
+        // Then
+        assertThat(beforeExpiry).isSameAs(first);
+        assertThat(afterExpiry.getETag(false)).isNotEqualTo(first.getETag(false));
+        assertThat(builds.get()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should honour explicit gzip refusals in Accept-Encoding")
+    void shouldParseAcceptEncoding() {
+        assertThat(MenuSnapshot.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(MenuSnapshot.acceptsGzip("*")).isTrue();
+        assertThat(MenuSnapshot.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(MenuSnapshot.acceptsGzip("identity")).isFalse();
+        assertThat(MenuSnapshot.acceptsGzip(null)).isFalse();
+    }
+
+    private MerchantMenuResponse menu(String productName, int products) {
+        builds.incrementAndGet();
+        List<ProductResponse> items = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            items.add(new ProductResponse(PRODUCT_ID, MERCHANT_ID, CATEGORY_ID, productName + " " + i,
+                "Beef burger with cheddar", List.of(), new BigDecimal("350.00"), "MZN",
+                ProductAvailability.AVAILABLE, true, true, null, null, null));
+        }
+        CategoryResponse category = new CategoryResponse(CATEGORY_ID, MERCHANT_ID, null, "Burgers", null, null,
+            1, true, null, null);
+        return new MerchantMenuResponse(MERCHANT_ID, List.of(
+            new MerchantMenuResponse.MenuCatalog(null, List.of(
+                new MerchantMenuResponse.MenuCategory(category, items)))));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.xavier.mozdeliveryapi.catalog.infra.persistence;
+
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CatalogId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CategoryId;
+import com.xavier.mozdeliveryapi.catalog.infra.persistence.JpaCategoryRepository.CategoryOwnership;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for category owner resolution.
+ */
+@ExtendWith(MockitoExtension.class)
+class CategoryRepositoryHelperTest {
+
+    private static final UUID MERCHANT_ID = UUID.fromString("3f2b7c1e-9a4d-4f8e-b6a1-0c5d2e7f9a13");
+    private static final UUID CATALOG_ID = UUID.fromString("5f0c8a9e-3a41-4a38-9d53-2f1c1b0a7e61");
+    private static final UUID BURGERS = UUID.fromString("8d3e2b1a-6c4f-4e0a-b7d9-1a2b3c4d5e6f");
+    private static final UUID DRINKS = UUID.fromString("b1c2d3e4-f5a6-4b7c-8d9e-0f1a2b3c4d5e");
+
+    @Mock
+    private JpaCategoryRepository categoryRepository;
+
+    @Mock
+    private JpaCatalogRepository catalogRepository;
+
+    private CategoryRepositoryHelper helper;
+
+    @BeforeEach
+    void setUp() {
+        helper = new CategoryRepositoryHelper(categoryRepository, catalogRepository, 1000);
+    }
+
+    @Test
+    @DisplayName("Should resolve a category's merchant with one query and then from the cache")
+    void shouldCacheResolvedMerchant() {
+        // Given
+        when(categoryRepository.findOwnershipByIdIn(Set.of(BURGERS))).thenReturn(List.of(ownership(BURGERS)));
+
+        // When
+        MerchantId first = helper.getMerchantIdForCategory(CategoryId.of(BURGERS));
+        MerchantId second = helper.getMerchantIdForCategory(CategoryId.of(BURGERS));
+
+        // Then
+        assertThat(first).isEqualTo(MerchantId.of(MERCHANT_ID));
+        assertThat(second).isEqualTo(first);
+        verify(categoryRepository, times(1)).findOwnershipByIdIn(any());
+        verifyNoInteractions(catalogRepository);
+    }
+
+    @Test
+    @DisplayName("Should resolve only the uncached categories of a batch in one query")
+    void shouldResolveBatchMissesInOneQuery() {
+        // Given
+        when(categoryRepository.findOwnershipByIdIn(Set.of(BURGERS))).thenReturn(List.of(ownership(BURGERS)));
+        helper.getMerchantIdForCategory(CategoryId.of(BURGERS));
+        UUID unknown = UUID.randomUUID();
+        when(categoryRepository.findOwnershipByIdIn(Set.of(DRINKS, unknown))).thenReturn(List.of(ownership(DRINKS)));
+
+        // When
+        Map<CategoryId, MerchantId> merchantIds = helper.getMerchantIdsForCategories(
+            Set.of(CategoryId.of(BURGERS), CategoryId.of(DRINKS), CategoryId.of(unknown)));
+
+        // Then
+        assertThat(merchantIds).containsOnlyKeys(CategoryId.of(BURGERS), CategoryId.of(DRINKS));
+        verify(categoryRepository).findOwnershipByIdIn(Set.of(DRINKS, unknown));
+        assertThat(helper.getMerchantIdForCatalog(CatalogId.of(CATALOG_ID))).isEqualTo(MerchantId.of(MERCHANT_ID));
+        verifyNoInteractions(catalogRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown category")
+    void shouldRejectUnknownCategory() {
+        // Given
+        when(categoryRepository.findOwnershipByIdIn(Set.of(BURGERS))).thenReturn(List.of());
+
+        // When / Then
+        assertThatThrownBy(() -> helper.getMerchantIdForCategory(CategoryId.of(BURGERS)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Category not found");
+    }
+
+    @Test
+    @DisplayName("Should forget the categories of a deleted catalog")
+    void shouldEvictCategoriesOfDeletedCatalog() {
+        // Given
+        when(categoryRepository.findOwnershipByIdIn(Set.of(BURGERS))).thenReturn(List.of(ownership(BURGERS)));
+        helper.getMerchantIdForCategory(CategoryId.of(BURGERS));
+
+        // When
+        helper.evictCatalog(CatalogId.of(CATALOG_ID));
+        when(categoryRepository.findOwnershipByIdIn(Set.of(BURGERS))).thenReturn(List.of());
+
+        // Then
+        assertThatThrownBy(() -> helper.getMerchantIdForCategory(CategoryId.of(BURGERS)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should remember a saved category only once its transaction commits")
+    void shouldRememberSavedCategoryAfterCommit() {
+        // Given: the catalog's merchant is known
+        when(categoryRepository.findOwnershipByIdIn(Set.of(BURGERS))).thenReturn(List.of(ownership(BURGERS)));
+        helper.getMerchantIdForCategory(CategoryId.of(BURGERS));
+        when(categoryRepository.findOwnershipByIdIn(Set.of(DRINKS))).thenReturn(List.of());
+
+        Map<CategoryId, MerchantId> beforeCommit;
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            helper.remember(CategoryId.of(DRINKS), CatalogId.of(CATALOG_ID));
+            beforeCommit = helper.getMerchantIdsForCategories(Set.of(CategoryId.of(DRINKS)));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertThat(beforeCommit).isEmpty();
+        assertThat(helper.getMerchantIdForCategory(CategoryId.of(DRINKS))).isEqualTo(MerchantId.of(MERCHANT_ID));
+        verify(categoryRepository, times(1)).findOwnershipByIdIn(Set.of(DRINKS));
+    }
+
+    private static CategoryOwnership ownership(UUID categoryId) {
+        return new CategoryOwnership() {
+            @Override
+            public UUID getCategoryId() {
+                return categoryId;
+            }
+
+            @Override
+            public UUID getCatalogId() {
+                return CATALOG_ID;
+            }
+
+            @Override
+            public UUID getMerchantId() {
+                return MERCHANT_ID;
+            }
+        };
+    }
+}
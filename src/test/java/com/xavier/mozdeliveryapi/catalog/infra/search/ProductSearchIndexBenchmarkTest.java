@@ -0,0 +1,107 @@
+package com.xavier.mozdeliveryapi.catalog.infra.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CategoryId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductAvailability;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+import com.xavier.mozdeliveryapi.merchant.domain.valueobject.Vertical;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+/**
+ * Measures city-wide search latency over a million synthetic products.
+ * Run with {@code ./mvnw test -Dtest=ProductSearchIndexBenchmarkTest -Dbenchmark=true}.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductSearchIndexBenchmarkTest {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int MERCHANTS = 5_000;
+    private static final int QUERIES = 2_000;
+
+    private static final String[] CITIES = {"Maputo", "Matola", "Beira", "Nampula", "Quelimane"};
+    private static final String[] WORDS = {
+        "pizza", "frango", "hamburguer", "batata", "frita", "queijo", "fiambre", "cogumelos", "camarao",
+        "peixe", "arroz", "feijao", "matapa", "xima", "caril", "coco", "piri-piri", "molho", "salada",
+        "sumo", "laranja", "manga", "cerveja", "refrigerante", "agua", "pao", "bolo", "chocolate",
+        "gelado", "cafe", "leite", "iogurte", "paracetamol", "ibuprofeno", "vitamina", "xarope",
+        "grelhado", "picante", "familiar", "pequeno", "grande", "duplo", "especial", "caseiro"};
+
+    @Test
+    void measureCityWideQueryLatency() {
+        Random random = new Random(42);
+        ProductSearchIndex index = new ProductSearchIndex(
+            List.of(new BigDecimal("100"), new BigDecimal("250"), new BigDecimal("500"), new BigDecimal("1000")));
+
+        List<MerchantProfile> merchants = new ArrayList<>(MERCHANTS);
+        for (int i = 0; i < MERCHANTS; i++) {
+            merchants.add(new MerchantProfile(MerchantId.generate(),
+                Vertical.values()[random.nextInt(Vertical.values().length)], CITIES[random.nextInt(CITIES.length)]));
+        }
+        List<ProductDocument> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            MerchantProfile merchant = merchants.get(random.nextInt(MERCHANTS));
+            products.add(new ProductDocument(ProductId.generate(), merchant.merchantId(), CategoryId.generate(),
+                words(random, 3), words(random, 8), words(random, 2),
+                BigDecimal.valueOf(20 + random.nextInt(2_000)), "MZN",
+                ProductAvailability.values()[random.nextInt(ProductAvailability.values().length)]));
+        }
+
+        long start = System.nanoTime();
+        index.replaceAll(merchants, products);
+        System.out.printf("indexed %d products in %d ms%n", PRODUCTS, (System.nanoTime() - start) / 1_000_000);
+
+        List<ProductSearchQuery> queries = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            String text = switch (i % 3) {
+                case 0 -> words(random, 2);
+                case 1 -> words(random, 1) + " " + WORDS[random.nextInt(WORDS.length)].substring(0, 3);
+                default -> typo(random, WORDS[random.nextInt(WORDS.length)]);
+            };
+            queries.add(new ProductSearchQuery(text, CITIES[random.nextInt(CITIES.length)], null, null, null, null, 20));
+        }
+
+        // Warm up before measuring
+        long hits = 0;
+        for (ProductSearchQuery query : queries) {
+            hits += index.search(query).total();
+        }
+
+        long[] latencies = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long queryStart = System.nanoTime();
+            index.search(queries.get(i));
+            latencies[i] = System.nanoTime() - queryStart;
+        }
+        Arrays.sort(latencies);
+        double p50 = latencies[QUERIES / 2] / 1e6;
+        double p99 = latencies[QUERIES * 99 / 100] / 1e6;
+
+        System.out.printf("products=%d queries=%d p50=%.2f ms p99=%.2f ms avg hits=%d%n",
+            PRODUCTS, QUERIES, p50, p99, hits / QUERIES);
+        assertThat(hits).isPositive();
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.toString().trim();
+    }
+
+    private static String typo(Random random, String word) {
+        int position = 1 + random.nextInt(word.length() - 1);
+        return word.substring(0, position) + word.substring(position).replaceFirst(".", "");
+    }
+}
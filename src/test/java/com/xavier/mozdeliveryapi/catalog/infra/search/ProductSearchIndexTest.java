@@ -0,0 +1,160 @@
+package com.xavier.mozdeliveryapi.catalog.infra.search;
+
+import com.xavier.mozdeliveryapi.catalog.application.dto.ProductSearchResponse;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CategoryId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductAvailability;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+import com.xavier.mozdeliveryapi.merchant.domain.valueobject.Vertical;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the product search index.
+ */
+class ProductSearchIndexTest {
+
+    private static final MerchantProfile PIZZERIA = new MerchantProfile(
+        MerchantId.of("3f2b7c1e-9a4d-4f8e-b6a1-0c5d2e7f9a13"), Vertical.RESTAURANT, "Maputo");
+    private static final MerchantProfile PHARMACY = new MerchantProfile(
+        MerchantId.of("7a1d5e9c-2b8f-4c3a-9e6d-1f0b4a7c8d25"), Vertical.PHARMACY, "Maputo");
+    private static final MerchantProfile BEIRA_GRILL = new MerchantProfile(
+        MerchantId.of("c4e8a2f6-1d9b-4e7c-8a3f-5b2d6e9f1a47"), Vertical.RESTAURANT, "Beira");
+
+    private ProductSearchIndex index;
+    private ProductDocument margherita;
+    private ProductDocument chicken;
+    private ProductDocument paracetamol;
+    private ProductDocument beiraChicken;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(List.of(new BigDecimal("100"), new BigDecimal("250"), new BigDecimal("500")));
+        margherita = product(PIZZERIA, "Pizza Margherita", "Molho de tomate e queijo mozzarella",
+            "Tamanho Pequena Grande", "350.00", ProductAvailability.AVAILABLE);
+        chicken = product(PIZZERIA, "Frango à Zambeziana", "Frango grelhado com molho de coco",
+            "", "450.00", ProductAvailability.OUT_OF_STOCK);
+        paracetamol = product(PHARMACY, "Paracetamol 500mg", "Comprimidos para dores de cabeça",
+            "", "80.00", ProductAvailability.AVAILABLE);
+        beiraChicken = product(BEIRA_GRILL, "Frango piri-piri", "Meio frango grelhado",
+            "", "600.00", ProductAvailability.AVAILABLE);
+        index.replaceAll(List.of(PIZZERIA, PHARMACY, BEIRA_GRILL),
+            List.of(margherita, chicken, paracetamol, beiraChicken));
+    }
+
+    @Test
+    @DisplayName("Should match plural, accented and partially typed queries")
+    void shouldMatchStemsAndPrefixes() {
+        // When
+        ProductSearchResponse plural = index.search(ProductSearchQuery.of("pizzas", 10));
+        ProductSearchResponse accented = index.search(ProductSearchQuery.of("zambeziana", 10));
+        ProductSearchResponse prefix = index.search(ProductSearchQuery.of("queijo mozz", 10));
+
+        // Then
+        assertThat(ids(plural)).containsExactly(margherita.productId().toString());
+        assertThat(ids(accented)).containsExactly(chicken.productId().toString());
+        assertThat(ids(prefix)).containsExactly(margherita.productId().toString());
+    }
+
+    @Test
+    @DisplayName("Should tolerate typos and rank name matches above description matches")
+    void shouldTolerateTyposAndRankByField() {
+        // Given
+        ProductDocument sauce = product(PIZZERIA, "Molho piri-piri", "Picante", "", "50.00",
+            ProductAvailability.AVAILABLE);
+        index.upsert(PIZZERIA, sauce);
+
+        // When
+        ProductSearchResponse typo = index.search(ProductSearchQuery.of("paracetamlo", 10));
+        ProductSearchResponse ranked = index.search(ProductSearchQuery.of("molhos", 10));
+
+        // Then
+        assertThat(ids(typo)).containsExactly(paracetamol.productId().toString());
+        assertThat(ranked.total()).isEqualTo(3);
+        assertThat(ranked.hits().get(0).productId()).isEqualTo(sauce.productId().toString());
+    }
+
+    @Test
+    @DisplayName("Should count each facet with the other filters applied")
+    void shouldCountFacets() {
+        // Given
+        ProductSearchQuery query = new ProductSearchQuery("frango", "maputo", null, null,
+            ProductAvailability.AVAILABLE, null, 10);
+
+        // When
+        ProductSearchResponse response = index.search(query);
+
+        // Then
+        assertThat(response.total()).isZero();
+        assertThat(response.facets().availability()).containsEntry("OUT_OF_STOCK", 1);
+        assertThat(response.facets().priceRanges()).isEmpty();
+        assertThat(index.getPriceRanges()).containsExactly("0-100", "100-250", "250-500", "500+");
+    }
+
+    @Test
+    @DisplayName("Should filter by city and by the merchants serving the customer")
+    void shouldFilterByCityAndServiceArea() {
+        // Given
+        ProductDocument added = product(BEIRA_GRILL, "Frango assado", "", "", "550.00",
+            ProductAvailability.AVAILABLE);
+        index.upsert(BEIRA_GRILL, added);
+
+        // When
+        ProductSearchResponse inBeira = index.search(new ProductSearchQuery("frango", "Beira", null, null, null,
+            null, 10));
+        ProductSearchResponse served = index.search(new ProductSearchQuery("", null, null, null, null,
+            Set.of(PHARMACY.merchantId()), 10));
+
+        // Then
+        assertThat(ids(inBeira)).containsExactlyInAnyOrder(beiraChicken.productId().toString(),
+            added.productId().toString());
+        assertThat(ids(served)).containsExactly(paracetamol.productId().toString());
+        assertThat(served.facets().verticals()).containsOnlyKeys("PHARMACY");
+    }
+
+    @Test
+    @DisplayName("Should reflect updates and removals without a rebuild")
+    void shouldApplyIncrementalUpdates() {
+        // Given
+        ProductDocument renamed = new ProductDocument(margherita.productId(), margherita.merchantId(),
+            margherita.categoryId(), "Pizza Quatro Queijos", margherita.description(), margherita.modifiers(),
+            margherita.price(), margherita.currency(), margherita.availability());
+
+        // When
+        index.upsert(PIZZERIA, renamed);
+        index.remove(paracetamol.productId());
+
+        // Then
+        assertThat(index.search(ProductSearchQuery.of("margherita", 10)).total()).isZero();
+        assertThat(ids(index.search(ProductSearchQuery.of("quatro queijos", 10))))
+            .containsExactly(margherita.productId().toString());
+        assertThat(index.search(ProductSearchQuery.of("paracetamol", 10)).total()).isZero();
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.deadCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown price ranges")
+    void shouldRejectUnknownPriceRange() {
+        assertThatThrownBy(() -> index.search(new ProductSearchQuery("pizza", null, null, "1-2", null, null, 10)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Unknown price range");
+    }
+
+    static ProductDocument product(MerchantProfile merchant, String name, String description, String modifiers,
+                                   String price, ProductAvailability availability) {
+        return new ProductDocument(ProductId.generate(), merchant.merchantId(), CategoryId.generate(), name,
+            description, modifiers, new BigDecimal(price), "MZN", availability);
+    }
+
+    private static List<String> ids(ProductSearchResponse response) {
+        return response.hits().stream().map(ProductSearchResponse.Hit::productId).toList();
+    }
+}
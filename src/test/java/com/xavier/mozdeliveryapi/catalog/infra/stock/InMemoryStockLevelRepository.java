@@ -0,0 +1,76 @@
+package com.xavier.mozdeliveryapi.catalog.infra.stock;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.xavier.mozdeliveryapi.catalog.application.usecase.port.StockLevelRepository;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+
+/**
+ * In-memory stand-in for the on-hand stock column, counting the calls the
+ * engine makes to it.
+ */
+class InMemoryStockLevelRepository implements StockLevelRepository {
+    
+    private final Map<ProductId, Integer> onHand = new ConcurrentHashMap<>();
+    private final AtomicInteger reads = new AtomicInteger();
+    private final AtomicInteger leases = new AtomicInteger();
+    
+    @Override
+    public Map<ProductId, Integer> findOnHand(Collection<ProductId> productIds) {
+        reads.incrementAndGet();
+        Map<ProductId, Integer> found = new HashMap<>();
+        for (ProductId productId : productIds) {
+            Integer stock = onHand.get(productId);
+            if (stock != null) {
+                found.put(productId, stock);
+            }
+        }
+        return found;
+    }
+    
+    @Override
+    public void setLevel(ProductId productId, Integer stock, Integer lowStockThreshold) {
+        if (stock == null) {
+            onHand.remove(productId);
+        } else {
+            onHand.put(productId, stock);
+        }
+    }
+    
+    void setOnHand(ProductId productId, Integer stock) {
+        setLevel(productId, stock, null);
+    }
+    
+    @Override
+    public int lease(ProductId productId, int wanted, int minimum) {
+        leases.incrementAndGet();
+        int[] leased = {0};
+        onHand.computeIfPresent(productId, (id, stock) -> {
+            leased[0] = stock >= wanted ? wanted : stock >= minimum ? minimum : 0;
+            return stock - leased[0];
+        });
+        return leased[0];
+    }
+    
+    @Override
+    public void returnLeased(Map<ProductId, Integer> quantities) {
+        quantities.forEach((productId, quantity) ->
+            onHand.computeIfPresent(productId, (id, stock) -> stock + quantity));
+    }
+    
+    Integer getOnHand(ProductId productId) {
+        return onHand.get(productId);
+    }
+    
+    int getReads() {
+        return reads.get();
+    }
+    
+    int getLeases() {
+        return leases.get();
+    }
+}
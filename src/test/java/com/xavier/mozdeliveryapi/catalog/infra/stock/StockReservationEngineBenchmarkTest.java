@@ -0,0 +1,145 @@
+package com.xavier.mozdeliveryapi.catalog.infra.stock;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.OrderId;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Measures a single promoted product with every thread ordering it: the bare
+ * counter behind one lock (as a row lock would serialise it), with one stripe
+ * and with one stripe per processor, then the full reserve-and-confirm path of
+ * the engine. Run with
+ * {@code ./mvnw test -Dtest=StockReservationEngineBenchmarkTest -Dbenchmark=true}.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StockReservationEngineBenchmarkTest {
+
+    private static final int THREADS = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+    private static final int ORDERS_PER_THREAD = 200_000;
+    private static final int STOCK = THREADS * ORDERS_PER_THREAD / 2;
+    private static final int LEASE_BLOCK = 1_000;
+
+    @Test
+    void measureHotProductThroughput() throws Exception {
+        int processors = Runtime.getRuntime().availableProcessors();
+        System.out.printf("threads=%d processors=%d stock=%d orders=%d%n",
+            THREADS, processors, STOCK, THREADS * ORDERS_PER_THREAD);
+
+        double locked = measureLocked();
+        double oneStripe = measureCounter(1);
+        double striped = measureCounter(processors);
+        double engine = measureEngine(processors);
+
+        System.out.printf("counter, single lock: %.2f M orders/s%n", locked / 1e6);
+        System.out.printf("counter, 1 stripe: %.2f M orders/s%n", oneStripe / 1e6);
+        System.out.printf("counter, %d stripes: %.2f M orders/s%n", processors, striped / 1e6);
+        System.out.printf("engine reserve and confirm, %d stripes: %.2f M orders/s%n", processors, engine / 1e6);
+    }
+
+    private double measureCounter(int stripes) throws Exception {
+        double best = 0;
+        for (int round = 0; round < 3; round++) {
+            StripedStockCounter counter = new StripedStockCounter(STOCK, stripes);
+            AtomicLong sold = new AtomicLong();
+            best = Math.max(best, run((thread, i) -> {
+                if (counter.tryTake(1)) {
+                    sold.incrementAndGet();
+                }
+            }));
+            assertThat(sold.get()).isEqualTo(STOCK);
+            assertThat(counter.available()).isZero();
+        }
+        return best;
+    }
+
+    private double measureEngine(int stripes) throws Exception {
+        double best = 0;
+        for (int round = 0; round < 3; round++) {
+            ProductId promoted = ProductId.generate();
+            InMemoryStockLevelRepository repository = new InMemoryStockLevelRepository();
+            repository.setOnHand(promoted, STOCK);
+            StockReservationEngine engine = new StockReservationEngine(repository, Duration.ofMinutes(15),
+                stripes, LEASE_BLOCK, new SimpleMeterRegistry(), Clock.systemUTC());
+            AtomicLong sold = new AtomicLong();
+
+            double throughput = run((thread, i) -> {
+                OrderId orderId = OrderId.of(new UUID(thread, i));
+                try {
+                    engine.reserve(orderId, Map.of(promoted, 1));
+                } catch (RuntimeException e) {
+                    return;
+                }
+                engine.confirm(orderId, Map.of(promoted, 1));
+                sold.incrementAndGet();
+            });
+            engine.flush();
+
+            // Every order beyond the stock was refused and every sold unit left the database
+            assertThat(sold.get()).isEqualTo(STOCK);
+            assertThat(repository.getOnHand(promoted)).isZero();
+            best = Math.max(best, throughput);
+        }
+        return best;
+    }
+
+    private double measureLocked() throws Exception {
+        double best = 0;
+        for (int round = 0; round < 3; round++) {
+            Object rowLock = new Object();
+            int[] onHand = {STOCK};
+            best = Math.max(best, run((thread, i) -> {
+                synchronized (rowLock) {
+                    if (onHand[0] > 0) {
+                        onHand[0]--;
+                    }
+                }
+            }));
+            assertThat(onHand[0]).isZero();
+        }
+        return best;
+    }
+
+    private static double run(Order order) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            long thread = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                        order.place(thread, i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return (double) THREADS * ORDERS_PER_THREAD / ((System.nanoTime() - begin) / 1e9);
+    }
+
+    @FunctionalInterface
+    private interface Order {
+        void place(long thread, int index);
+    }
+}
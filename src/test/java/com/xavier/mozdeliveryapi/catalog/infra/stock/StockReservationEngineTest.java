@@ -0,0 +1,288 @@
+package com.xavier.mozdeliveryapi.catalog.infra.stock;
+
+import com.xavier.mozdeliveryapi.catalog.domain.exception.InsufficientStockException;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.OrderId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the stock reservation engine.
+ */
+class StockReservationEngineTest {
+
+    private static final ProductId BURGER = ProductId.of("1c9e4f2a-7b3d-4a8e-9f0c-5d6e7a8b9c0d");
+    private static final ProductId FRIES = ProductId.of("8d3e2b1a-6c4f-4e0a-b7d9-1a2b3c4d5e6f");
+    private static final ProductId WATER = ProductId.of("3f2b7c1e-9a4d-4f8e-b6a1-0c5d2e7f9a13");
+
+    private InMemoryStockLevelRepository repository;
+    private SettableClock clock;
+    private StockReservationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryStockLevelRepository();
+        repository.setOnHand(BURGER, 5);
+        repository.setOnHand(FRIES, 1);
+        clock = new SettableClock(Instant.parse("2026-01-01T12:00:00Z"));
+        engine = engine(1);
+    }
+
+    @Test
+    @DisplayName("Should reserve all items of an order or none of them")
+    void shouldReserveAllOrNothing() {
+        // When
+        assertThatThrownBy(() -> engine.reserve(OrderId.generate(), Map.of(BURGER, 2, FRIES, 2)))
+            .isInstanceOf(InsufficientStockException.class)
+            .hasMessageContaining(FRIES.toString());
+        engine.reserve(OrderId.generate(), Map.of(BURGER, 2, FRIES, 1));
+
+        // Then
+        assertThat(engine.getAvailableStock(BURGER)).isEqualTo(OptionalInt.of(3));
+        assertThat(engine.getAvailableStock(FRIES)).isEqualTo(OptionalInt.of(0));
+        assertThat(engine.getActiveHoldCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should return released stock and take sold stock off as it is leased")
+    void shouldReleaseAndConfirm() {
+        // Given
+        OrderId cancelled = OrderId.generate();
+        OrderId paid = OrderId.generate();
+        engine.reserve(cancelled, Map.of(BURGER, 2));
+        engine.reserve(paid, Map.of(BURGER, 3));
+
+        // When
+        boolean releasedOnce = engine.release(cancelled);
+        boolean releasedTwice = engine.release(cancelled);
+        boolean confirmedPaid = engine.confirm(paid, Map.of(BURGER, 3));
+        Integer onHandBeforeFlush = repository.getOnHand(BURGER);
+        engine.flush();
+
+        // Then
+        assertThat(releasedOnce).isTrue();
+        assertThat(releasedTwice).isFalse();
+        assertThat(confirmedPaid).isTrue();
+        assertThat(onHandBeforeFlush).isZero();
+        assertThat(repository.getOnHand(BURGER)).isEqualTo(2);
+        assertThat(engine.getAvailableStock(BURGER)).isEqualTo(OptionalInt.of(2));
+        assertThat(engine.getActiveHoldCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should return the stock of holds that outlive their TTL")
+    void shouldExpireHolds() {
+        // Given
+        engine.reserve(OrderId.generate(), Map.of(BURGER, 4));
+        clock.advance(Duration.ofMinutes(10));
+        engine.reserve(OrderId.generate(), Map.of(FRIES, 1));
+
+        // When
+        clock.advance(Duration.ofMinutes(6));
+        engine.expireHolds();
+
+        // Then
+        assertThat(engine.getAvailableStock(BURGER)).isEqualTo(OptionalInt.of(5));
+        assertThat(engine.getAvailableStock(FRIES)).isEqualTo(OptionalInt.of(0));
+        assertThat(engine.getActiveHoldCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should take stock at payment when the hold has expired")
+    void shouldTakeStockWhenConfirmingWithoutHold() {
+        // Given
+        OrderId late = OrderId.generate();
+        OrderId tooLate = OrderId.generate();
+        engine.reserve(late, Map.of(BURGER, 2));
+        engine.reserve(tooLate, Map.of(BURGER, 1, FRIES, 1));
+        clock.advance(Duration.ofMinutes(16));
+        engine.expireHolds();
+        engine.reserve(OrderId.generate(), Map.of(FRIES, 1));
+
+        // When
+        boolean lateHadHold = engine.confirm(late, Map.of(BURGER, 2));
+        Throwable refused = catchThrowable(() -> engine.confirm(tooLate, Map.of(BURGER, 1, FRIES, 1)));
+        engine.flush();
+
+        // Then
+        assertThat(lateHadHold).isFalse();
+        assertThat(refused)
+            .isInstanceOf(InsufficientStockException.class)
+            .hasMessageContaining(FRIES.toString());
+        assertThat(repository.getOnHand(BURGER)).isEqualTo(3);
+        assertThat(engine.getAvailableStock(BURGER)).isEqualTo(OptionalInt.of(3));
+        assertThat(engine.getAvailableStock(FRIES)).isEqualTo(OptionalInt.of(0));
+    }
+
+    @Test
+    @DisplayName("Should not hold products that do not track stock")
+    void shouldIgnoreUntrackedProducts() {
+        // Given
+        OrderId orderId = OrderId.generate();
+
+        // When
+        engine.reserve(orderId, Map.of(WATER, 100));
+
+        // Then
+        assertThat(engine.getAvailableStock(WATER)).isEmpty();
+        assertThat(engine.getActiveHoldCount()).isZero();
+        assertThat(engine.confirm(orderId, Map.of(WATER, 100))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should remember untracked products and apply stock changes made elsewhere on the next flush")
+    void shouldReconcileOnHandChanges() {
+        // Given
+        engine.reserve(OrderId.generate(), Map.of(WATER, 1));
+        engine.getAvailableStock(WATER);
+        int readsWhileUntracked = repository.getReads();
+
+        // When
+        repository.setOnHand(WATER, 3);
+        repository.setOnHand(BURGER, 8);
+        engine.getAvailableStock(BURGER);
+        engine.flush();
+        OptionalInt waterTracked = engine.getAvailableStock(WATER);
+        OptionalInt burgerRestocked = engine.getAvailableStock(BURGER);
+        repository.setOnHand(BURGER, null);
+        engine.flush();
+
+        // Then
+        assertThat(readsWhileUntracked).isEqualTo(1);
+        assertThat(waterTracked).isEqualTo(OptionalInt.of(3));
+        assertThat(burgerRestocked).isEqualTo(OptionalInt.of(8));
+        assertThat(engine.getAvailableStock(BURGER)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should lease stock in blocks and return what was not reserved on flush")
+    void shouldLeaseInBlocks() {
+        // Given
+        engine = engine(3);
+
+        // When
+        engine.reserve(OrderId.generate(), Map.of(BURGER, 1));
+        engine.reserve(OrderId.generate(), Map.of(BURGER, 1));
+        Integer onHandWhileLeased = repository.getOnHand(BURGER);
+        engine.reserve(OrderId.generate(), Map.of(BURGER, 2));
+        engine.flush();
+
+        // Then: 3 leased, then the 2 that were left when a whole block was not
+        assertThat(onHandWhileLeased).isEqualTo(2);
+        assertThat(repository.getLeases()).isEqualTo(2);
+        assertThat(repository.getOnHand(BURGER)).isEqualTo(1);
+        assertThat(engine.getAvailableStock(BURGER)).isEqualTo(OptionalInt.of(1));
+    }
+
+    @Test
+    @DisplayName("Should never hand out more units than are in stock across instances")
+    void shouldNotOversellAcrossInstances() {
+        // Given: two instances on the same database
+        StockReservationEngine first = engine(2);
+        StockReservationEngine second = engine(2);
+        int reserved = 0;
+
+        // When: each sells until refused, then gives back what it leased but did not sell
+        for (int round = 0; round < 3; round++) {
+            for (StockReservationEngine instance : List.of(first, second, first, second, first, second)) {
+                try {
+                    instance.reserve(OrderId.generate(), Map.of(BURGER, 1));
+                    reserved++;
+                } catch (InsufficientStockException e) {
+                    // Sold out as far as this instance can lease
+                }
+            }
+            first.flush();
+            second.flush();
+        }
+
+        // Then
+        assertThat(reserved).isEqualTo(5);
+        assertThat(repository.getOnHand(BURGER)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should never hand out more units than are in stock under contention")
+    void shouldNotOversellUnderContention() throws Exception {
+        // Given
+        ProductId promoted = ProductId.generate();
+        repository.setOnHand(promoted, 1_000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            results.add(executor.submit(() -> {
+                int reserved = 0;
+                for (int i = 0; i < 500; i++) {
+                    try {
+                        engine.reserve(OrderId.generate(), Map.of(promoted, 1));
+                        reserved++;
+                    } catch (InsufficientStockException e) {
+                        // Sold out
+                    }
+                }
+                return reserved;
+            }));
+        }
+        int reserved = 0;
+        for (Future<Integer> result : results) {
+            reserved += result.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(reserved).isEqualTo(1_000);
+        assertThat(engine.getAvailableStock(promoted)).isEqualTo(OptionalInt.of(0));
+    }
+
+    private StockReservationEngine engine(int leaseBlock) {
+        return new StockReservationEngine(repository, Duration.ofMinutes(15), 4, leaseBlock,
+            new SimpleMeterRegistry(), clock);
+    }
+
+    private static final class SettableClock extends Clock {
+
+        private Instant now;
+
+        SettableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.xavier.mozdeliveryapi.catalog.infra.web;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.xavier.mozdeliveryapi.catalog.application.usecase.port.ProductRepository;
+import com.xavier.mozdeliveryapi.catalog.domain.entity.Product;
+import com.xavier.mozdeliveryapi.catalog.domain.event.ProductLowStockChangedEvent;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CategoryId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.StockInfo;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.Currency;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.Money;
+
+class LowStockFeedBroadcasterTest {
+
+    private static final MerchantId MERCHANT = MerchantId.generate();
+    private static final MerchantId OTHER_MERCHANT = MerchantId.generate();
+
+    private ProductRepository productRepository;
+    private MeterRegistry meterRegistry;
+    private LowStockFeedBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        broadcaster = new LowStockFeedBroadcaster(productRepository, new ObjectMapper().findAndRegisterModules(),
+            meterRegistry, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void shouldSendCurrentLowItemsThenCrossingsOfTheMerchant() {
+        // Given
+        Product rice = lowProduct("Arroz 5kg", 2, 5);
+        when(productRepository.findLowStockByMerchantId(MERCHANT)).thenReturn(List.of(rice));
+        RecordingSink sink = new RecordingSink();
+        broadcaster.subscribe(MERCHANT, sink);
+        awaitUntil(() -> sink.messages.size() == 1);
+
+        // When
+        ProductId oil = ProductId.generate();
+        broadcaster.onLowStockChanged(event(MERCHANT, oil, "Óleo 1L", 3, 3, true));
+        broadcaster.onLowStockChanged(event(OTHER_MERCHANT, ProductId.generate(), "Sal", 0, 1, true));
+        broadcaster.onLowStockChanged(event(MERCHANT, rice.getProductId(), "Arroz 5kg", 20, 5, false));
+
+        // Then
+        awaitUntil(() -> sink.messages.size() == 3);
+        assertThat(sink.messages.get(0)).contains("Arroz 5kg").contains("\"lowStock\":true");
+        assertThat(sink.messages.get(1)).contains(oil.toString()).contains("\"currentStock\":3");
+        assertThat(sink.messages.get(2)).contains("Arroz 5kg").contains("\"lowStock\":false");
+        assertThat(meterRegistry.get("catalog.low_stock.alerts").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void shouldKeepOnlyLatestStatePerProductForSlowSubscriber() throws Exception {
+        // Given: a subscriber whose first send blocks
+        when(productRepository.findLowStockByMerchantId(MERCHANT)).thenReturn(List.of());
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(release);
+        broadcaster.subscribe(MERCHANT, slow);
+        ProductId bread = ProductId.generate();
+        ProductId milk = ProductId.generate();
+        broadcaster.onLowStockChanged(event(MERCHANT, bread, "Pão", 4, 5, true));
+        awaitUntil(() -> slow.messages.size() == 1);
+
+        // When: the bread flips twice and the milk once while it is blocked
+        broadcaster.onLowStockChanged(event(MERCHANT, bread, "Pão", 30, 5, false));
+        broadcaster.onLowStockChanged(event(MERCHANT, milk, "Leite", 1, 2, true));
+        broadcaster.onLowStockChanged(event(MERCHANT, bread, "Pão", 5, 5, true));
+        release.countDown();
+
+        // Then
+        awaitUntil(() -> slow.messages.size() == 3);
+        Thread.sleep(50);
+        assertThat(slow.messages).hasSize(3);
+        assertThat(slow.messages.get(1)).contains(bread.toString()).contains("\"currentStock\":5");
+        assertThat(slow.messages.get(2)).contains(milk.toString());
+        assertThat(meterRegistry.get("catalog.low_stock.conflated").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldRejectSubscribersOverLimitUntilOneCancels() {
+        when(productRepository.findLowStockByMerchantId(MERCHANT)).thenReturn(List.of());
+        LowStockFeedBroadcaster.Subscription first = broadcaster.subscribe(MERCHANT, new RecordingSink());
+        broadcaster.subscribe(MERCHANT, new RecordingSink());
+
+        assertThatThrownBy(() -> broadcaster.subscribe(MERCHANT, new RecordingSink()))
+            .isInstanceOf(IllegalStateException.class);
+
+        first.cancel();
+        broadcaster.subscribe(MERCHANT, new RecordingSink());
+        assertThat(broadcaster.getSubscriberCount(MERCHANT)).isEqualTo(2);
+    }
+
+    private static Product lowProduct(String name, int currentStock, int threshold) {
+        Product product = new Product(ProductId.generate(), MERCHANT, CategoryId.generate(), name, "",
+            Money.of(new BigDecimal("100.00"), Currency.MZN));
+        product.updateStockInfo(StockInfo.tracked(currentStock, threshold, null));
+        return product;
+    }
+
+    private static ProductLowStockChangedEvent event(MerchantId merchantId, ProductId productId, String name,
+                                                     int currentStock, int threshold, boolean low) {
+        return new ProductLowStockChangedEvent(productId, merchantId, name, currentStock, threshold, low,
+            Instant.now());
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 5 seconds");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class RecordingSink implements LowStockFeedBroadcaster.AlertSink {
+
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final CountDownLatch gate;
+
+        RecordingSink() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingSink(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(String alertJson) {
+            messages.add(alertJson);
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -1,31 +1,45 @@
 package com.xavier.mozdeliveryapi.catalog.infra.web;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xavier.mozdeliveryapi.catalog.application.dto.CatalogResponse;
 import com.xavier.mozdeliveryapi.catalog.application.dto.CategoryResponse;
+import com.xavier.mozdeliveryapi.catalog.application.dto.MerchantMenuResponse;
 import com.xavier.mozdeliveryapi.catalog.application.dto.ProductResponse;
+import com.xavier.mozdeliveryapi.catalog.application.dto.ProductSearchResponse;
 import com.xavier.mozdeliveryapi.catalog.application.usecase.CatalogApplicationService;
 import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CatalogStatus;
 import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductAvailability;
+import com.xavier.mozdeliveryapi.catalog.infra.cache.CatalogViewCache;
+import com.xavier.mozdeliveryapi.catalog.infra.cache.MenuSnapshotCache;
+import com.xavier.mozdeliveryapi.catalog.infra.search.ProductSearchService;
 import com.xavier.mozdeliveryapi.merchant.application.dto.MerchantResponse;
 import com.xavier.mozdeliveryapi.merchant.application.usecase.MerchantApplicationService;
 import com.xavier.mozdeliveryapi.merchant.domain.valueobject.MerchantStatus;
 import com.xavier.mozdeliveryapi.merchant.domain.valueobject.Vertical;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 /**
  * Unit test for PublicBrowsingController.
  */
@@ -38,7 +52,9 @@ class PublicBrowsingControllerTest {
     @Mock
     private CatalogApplicationService catalogService;
     
-    @InjectMocks
+    @Mock
+    private ProductSearchService searchService;
+    
     private PublicBrowsingController controller;
     
     private MerchantResponse testMerchant;
@@ -48,6 +64,13 @@ class PublicBrowsingControllerTest {
     
     @BeforeEach
     void setUp() {
+        CatalogViewCache viewCache = new CatalogViewCache(1000, Duration.ofSeconds(30), Duration.ofMinutes(10),
+            Optional.empty(), new ObjectMapper(), new SimpleMeterRegistry(), System::nanoTime);
+        MenuSnapshotCache menuSnapshots = new MenuSnapshotCache(new ObjectMapper(), true, 1000,
+            Duration.ofSeconds(30), new SimpleMeterRegistry(), Clock.systemUTC());
+        controller = new PublicBrowsingController(merchantService, catalogService, viewCache, menuSnapshots,
+            searchService);
+        
         testMerchant = new MerchantResponse(
             "merchant-1",
             "Test Restaurant",
@@ -216,6 +239,42 @@ class PublicBrowsingControllerTest {
         assertEquals(404, response.getStatusCode().value());
     }
     
+    @Test
+    void getMerchantMenu_shouldReturnSnapshotWithETag_whenMerchantExists() {
+        when(merchantService.getPublicMerchant("merchant-1")).thenReturn(Optional.of(testMerchant));
+        when(catalogService.getMerchantMenu("merchant-1")).thenReturn(testMenu());
+        
+        ResponseEntity<byte[]> response = controller.getMerchantMenu("merchant-1", null, null);
+        
+        assertEquals(200, response.getStatusCode().value());
+        assertNotNull(response.getBody());
+        assertNotNull(response.getHeaders().getETag());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+    
+    @Test
+    void getMerchantMenu_shouldReturn304_whenETagMatches() {
+        when(merchantService.getPublicMerchant("merchant-1")).thenReturn(Optional.of(testMerchant));
+        when(catalogService.getMerchantMenu("merchant-1")).thenReturn(testMenu());
+        String eTag = controller.getMerchantMenu("merchant-1", null, null).getHeaders().getETag();
+        
+        ResponseEntity<byte[]> response = controller.getMerchantMenu("merchant-1", eTag, null);
+        
+        assertEquals(304, response.getStatusCode().value());
+        assertNull(response.getBody());
+        assertEquals(eTag, response.getHeaders().getETag());
+        verify(catalogService, times(1)).getMerchantMenu("merchant-1");
+    }
+    
+    @Test
+    void getMerchantMenu_shouldReturn404_whenMerchantNotExists() {
+        when(merchantService.getPublicMerchant("nonexistent")).thenReturn(Optional.empty());
+        
+        ResponseEntity<byte[]> response = controller.getMerchantMenu("nonexistent", null, null);
+        
+        assertEquals(404, response.getStatusCode().value());
+    }
+    
     @Test
     void getCatalog_shouldReturnCatalog_whenActiveAndExists() {
         when(catalogService.getCatalog("catalog-1")).thenReturn(testCatalog);
@@ -317,4 +376,49 @@ class PublicBrowsingControllerTest {
         
         assertEquals(404, response.getStatusCode().value());
     }
-}
\ No newline at end of file
+    
+    @Test
+    void searchProducts_shouldReturnSearchResults() {
+        ProductSearchResponse results = new ProductSearchResponse(1, List.of(new ProductSearchResponse.Hit(
+            "product-1", "merchant-1", "category-1", "Cheeseburger", new BigDecimal("15.99"), "USD",
+            ProductAvailability.AVAILABLE, 3.2)), new ProductSearchResponse.Facets(Map.of(), Map.of(), Map.of()));
+        when(searchService.search("burger", "Maputo", null, null, null, null, null, 20)).thenReturn(results);
+        
+        ResponseEntity<ProductSearchResponse> response = controller.searchProducts(
+            "burger", "Maputo", null, null, null, null, null, 20);
+        
+        assertEquals(200, response.getStatusCode().value());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().total());
+        assertEquals("product-1", response.getBody().hits().get(0).productId());
+    }
+    
+    @Test
+    void searchProducts_shouldReturn400_whenParametersInvalid() {
+        when(searchService.search("burger", null, null, "1-2", null, null, null, 20))
+            .thenThrow(new IllegalArgumentException("Unknown price range: 1-2"));
+        
+        ResponseEntity<ProductSearchResponse> response = controller.searchProducts(
+            "burger", null, null, "1-2", null, null, null, 20);
+        
+        assertEquals(400, response.getStatusCode().value());
+    }
+    
+    @Test
+    void getProduct_shouldServeRepeatedRequestsFromCache() {
+        when(catalogService.getProduct("product-1")).thenReturn(testProduct);
+        
+        controller.getProduct("product-1");
+        ResponseEntity<ProductResponse> response = controller.getProduct("product-1");
+        
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("product-1", response.getBody().id());
+        verify(catalogService, times(1)).getProduct("product-1");
+    }
+    
+    private MerchantMenuResponse testMenu() {
+        return new MerchantMenuResponse("merchant-1", List.of(
+            new MerchantMenuResponse.MenuCatalog(testCatalog, List.of(
+                new MerchantMenuResponse.MenuCategory(testCategory, List.of(testProduct))))));
+    }
+}
@@ -0,0 +1,233 @@
+package com.xavier.mozdeliveryapi.dispatch.application.usecase;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.xavier.mozdeliveryapi.dispatch.application.dto.AssignDeliveryRequest;
+import com.xavier.mozdeliveryapi.dispatch.domain.entity.Delivery;
+import com.xavier.mozdeliveryapi.dispatch.domain.entity.DeliveryPerson;
+import com.xavier.mozdeliveryapi.dispatch.domain.exception.DeliveryAssignmentException;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryCapacity;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryPersonId;
+import com.xavier.mozdeliveryapi.dispatch.infra.persistence.DeliveryPersonRepositoryImpl;
+import com.xavier.mozdeliveryapi.dispatch.infra.persistence.DeliveryRepositoryImpl;
+import com.xavier.mozdeliveryapi.dispatch.infra.persistence.DeliveryRetentionPolicy;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+import com.xavier.mozdeliveryapi.geospatial.infra.persistence.DistanceCalculationServiceImpl;
+import com.xavier.mozdeliveryapi.geospatial.infra.persistence.RouteOptimizerImpl;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.OrderId;
+import com.xavier.mozdeliveryapi.tenant.domain.valueobject.TenantId;
+
+class BatchDispatchServiceImplTest {
+    
+    private static final Location DROP_OFF = Location.of(-25.9600, 32.5800);
+    
+    private final TenantId tenantId = TenantId.generate();
+    private DeliveryPersonRepositoryImpl deliveryPersonRepository;
+    private DeliveryRepositoryImpl deliveryRepository;
+    private MeterRegistry meterRegistry;
+    private BatchDispatchServiceImpl service;
+    
+    @BeforeEach
+    void setUp() {
+        deliveryPersonRepository = new DeliveryPersonRepositoryImpl();
+        deliveryRepository = new DeliveryRepositoryImpl(event -> { }, event -> { }, DeliveryRetentionPolicy.defaults());
+        meterRegistry = new SimpleMeterRegistry();
+        service = new BatchDispatchServiceImpl(
+            deliveryRepository,
+            deliveryPersonRepository,
+            new DeliveryAssignmentServiceImpl(deliveryPersonRepository, deliveryRepository),
+            new RouteOptimizerImpl(new DistanceCalculationServiceImpl()),
+            meterRegistry
+        );
+    }
+    
+    @Test
+    void shouldAssignBatchToMinimizeTotalCost() {
+        // Given: greedily, the first order would take the only courier near the second order
+        DeliveryPerson west = courierAt(Location.of(-25.9692, 32.5732));
+        DeliveryPerson east = courierAt(Location.of(-25.9692, 32.5832));
+        CompletableFuture<Delivery> between = service.submit(orderAt(Location.of(-25.9692, 32.5772)));
+        CompletableFuture<Delivery> farWest = service.submit(orderAt(Location.of(-25.9692, 32.5632)));
+        
+        // When
+        List<Delivery> deliveries = service.dispatchPending();
+        
+        // Then
+        assertThat(deliveries).hasSize(2);
+        assertThat(between.join().getDeliveryPersonId()).isEqualTo(east.getDeliveryPersonId());
+        assertThat(farWest.join().getDeliveryPersonId()).isEqualTo(west.getDeliveryPersonId());
+        assertThat(deliveryRepository.findByTenantId(tenantId)).hasSize(2);
+        assertThat(meterRegistry.get("dispatch.batch.size").summary().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("dispatch.batch.pickup.distance").summary().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("dispatch.batch.solve").timer().count()).isEqualTo(1);
+    }
+    
+    @Test
+    void shouldCarryUnmatchedOrdersToNextBatch() {
+        // Given
+        courierAt(Location.of(-25.9692, 32.5732));
+        CompletableFuture<Delivery> first = service.submit(orderAt(Location.of(-25.9692, 32.5742)));
+        CompletableFuture<Delivery> second = service.submit(orderAt(Location.of(-25.9692, 32.5752)));
+        
+        // When
+        service.dispatchPending();
+        
+        // Then: one courier takes one order per batch
+        assertThat(first.isDone() ^ second.isDone()).isTrue();
+        assertThat(service.getPendingCount()).isEqualTo(1);
+        
+        service.dispatchPending();
+        assertThat(first).isCompleted();
+        assertThat(second).isCompleted();
+        assertThat(service.getPendingCount()).isZero();
+    }
+    
+    @Test
+    void shouldFailOrderAfterMaxAttempts() {
+        // Given: no couriers for the tenant
+        CompletableFuture<Delivery> result = service.submit(orderAt(Location.of(-25.9692, 32.5732)));
+        
+        // When
+        for (int i = 0; i < BatchDispatchServiceImpl.DEFAULT_MAX_ATTEMPTS; i++) {
+            service.dispatchPending();
+        }
+        
+        // Then
+        assertThat(result).isCompletedExceptionally();
+        assertThat(result.handle((delivery, error) -> error.getClass()).join())
+            .isEqualTo(DeliveryAssignmentException.class);
+        assertThat(meterRegistry.get("dispatch.batch.unassigned").counter().count()).isEqualTo(1.0);
+    }
+    
+    @Test
+    void shouldDropOrdersCancelledBeforeTheirBatch() {
+        // Given
+        courierAt(Location.of(-25.9692, 32.5732));
+        CompletableFuture<Delivery> abandoned = service.submit(orderAt(Location.of(-25.9692, 32.5742)));
+        abandoned.cancel(false);
+        
+        // When
+        List<Delivery> deliveries = service.dispatchPending();
+        
+        // Then
+        assertThat(deliveries).isEmpty();
+        assertThat(deliveryRepository.findByTenantId(tenantId)).isEmpty();
+        assertThat(service.getPendingCount()).isZero();
+    }
+    
+    @Test
+    void shouldRetryOrdersWhenSavingTheBatchFails() {
+        // Given: the first save of a batch fails
+        AtomicBoolean failNextSave = new AtomicBoolean(true);
+        DeliveryRepositoryImpl flakyRepository = new DeliveryRepositoryImpl(event -> { }, event -> { }, 
+                DeliveryRetentionPolicy.defaults()) {
+            @Override
+            public List<Delivery> saveAll(List<Delivery> deliveries) {
+                if (failNextSave.getAndSet(false)) {
+                    throw new IllegalStateException("Database unavailable");
+                }
+                return super.saveAll(deliveries);
+            }
+        };
+        service = new BatchDispatchServiceImpl(
+            flakyRepository,
+            deliveryPersonRepository,
+            new DeliveryAssignmentServiceImpl(deliveryPersonRepository, flakyRepository),
+            new RouteOptimizerImpl(new DistanceCalculationServiceImpl()),
+            meterRegistry
+        );
+        DeliveryPerson courier = courierAt(Location.of(-25.9692, 32.5732));
+        CompletableFuture<Delivery> result = service.submit(orderAt(Location.of(-25.9692, 32.5742)));
+        
+        // When
+        List<Delivery> failedBatch = service.dispatchPending();
+        int loadAfterFailure = deliveryPersonRepository.findById(courier.getDeliveryPersonId())
+            .orElseThrow().getCurrentOrderCount();
+        service.dispatchPending();
+        
+        // Then
+        assertThat(failedBatch).isEmpty();
+        assertThat(loadAfterFailure).isZero();
+        assertThat(result).isCompleted();
+        assertThat(flakyRepository.findByTenantId(tenantId)).hasSize(1);
+        assertThat(deliveryPersonRepository.findById(courier.getDeliveryPersonId())
+            .orElseThrow().getCurrentOrderCount()).isEqualTo(1);
+    }
+    
+    @Test
+    void shouldNotWithdrawOrderWhileItsDeliveryIsSaved() {
+        // Given: the submitter gives up while the batch is saving
+        AtomicReference<CompletableFuture<Delivery>> submitted = new AtomicReference<>();
+        AtomicBoolean cancelled = new AtomicBoolean(true);
+        useRepository(new DeliveryRepositoryImpl(event -> { }, event -> { }, DeliveryRetentionPolicy.defaults()) {
+            @Override
+            public List<Delivery> saveAll(List<Delivery> deliveries) {
+                cancelled.set(submitted.get().cancel(false));
+                return super.saveAll(deliveries);
+            }
+        });
+        DeliveryPerson courier = courierAt(Location.of(-25.9692, 32.5732));
+        submitted.set(service.submit(orderAt(Location.of(-25.9692, 32.5742))));
+        
+        // When
+        List<Delivery> deliveries = service.dispatchPending();
+        
+        // Then: the saved delivery is handed over and the courier carries it
+        assertThat(cancelled.get()).isFalse();
+        assertThat(submitted.get().join()).isEqualTo(deliveries.get(0));
+        assertThat(deliveryPersonRepository.findById(courier.getDeliveryPersonId())
+            .orElseThrow().getCurrentOrderCount()).isEqualTo(1);
+    }
+    
+    @Test
+    void shouldDropWithdrawnOrderWhenItsSaveFails() {
+        // Given: the submitter gives up while a failing save is in progress
+        AtomicReference<CompletableFuture<Delivery>> submitted = new AtomicReference<>();
+        useRepository(new DeliveryRepositoryImpl(event -> { }, event -> { }, DeliveryRetentionPolicy.defaults()) {
+            @Override
+            public List<Delivery> saveAll(List<Delivery> deliveries) {
+                submitted.get().cancel(false);
+                throw new IllegalStateException("Database unavailable");
+            }
+        });
+        courierAt(Location.of(-25.9692, 32.5732));
+        submitted.set(service.submit(orderAt(Location.of(-25.9692, 32.5742))));
+        
+        // When
+        service.dispatchPending();
+        
+        // Then
+        assertThat(submitted.get()).isCancelled();
+        assertThat(service.getPendingCount()).isZero();
+    }
+    
+    private void useRepository(DeliveryRepositoryImpl repository) {
+        deliveryRepository = repository;
+        service = new BatchDispatchServiceImpl(
+            repository,
+            deliveryPersonRepository,
+            new DeliveryAssignmentServiceImpl(deliveryPersonRepository, repository),
+            new RouteOptimizerImpl(new DistanceCalculationServiceImpl()),
+            meterRegistry
+        );
+    }
+    
+    private DeliveryPerson courierAt(Location location) {
+        return deliveryPersonRepository.save(new DeliveryPerson(DeliveryPersonId.generate(), tenantId,
+            "Courier", "+258840000001", "Motorcycle", DeliveryCapacity.defaultCapacity(), location));
+    }
+    
+    private AssignDeliveryRequest orderAt(Location pickup) {
+        return new AssignDeliveryRequest(tenantId, OrderId.generate(), pickup, DROP_OFF, 500, 500);
+    }
+}
@@ -0,0 +1,172 @@
+package com.xavier.mozdeliveryapi.dispatch.application.usecase;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.xavier.mozdeliveryapi.dispatch.domain.entity.Delivery;
+import com.xavier.mozdeliveryapi.dispatch.domain.entity.DeliveryPerson;
+import com.xavier.mozdeliveryapi.dispatch.domain.exception.DeliveryNotFoundException;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryCapacity;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryEventType;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryId;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryPersonId;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.LocationHistory;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.TrackingUpdate;
+import com.xavier.mozdeliveryapi.dispatch.infra.persistence.DeliveryPersonRepositoryImpl;
+import com.xavier.mozdeliveryapi.dispatch.infra.persistence.DeliveryRepositoryImpl;
+import com.xavier.mozdeliveryapi.dispatch.infra.persistence.DeliveryRetentionPolicy;
+import com.xavier.mozdeliveryapi.dispatch.infra.persistence.InMemoryLocationTracker;
+import com.xavier.mozdeliveryapi.dispatch.infra.persistence.LocationRetentionPolicy;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Distance;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Route;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Waypoint;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.WaypointType;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.OrderId;
+import com.xavier.mozdeliveryapi.tenant.domain.valueobject.TenantId;
+
+class DeliveryTrackingServiceImplTest {
+
+    private static final Location PICKUP = Location.of(-25.9692, 32.5732);
+    private static final Location DROP_OFF = Location.of(-25.9662, 32.5892);
+
+    private final TenantId tenantId = TenantId.generate();
+    private DeliveryRepositoryImpl deliveryRepository;
+    private DeliveryPersonRepositoryImpl deliveryPersonRepository;
+    private InMemoryLocationTracker locationTracker;
+    private DeliveryTrackingServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        deliveryRepository = new DeliveryRepositoryImpl(event -> { }, event -> { }, DeliveryRetentionPolicy.defaults());
+        deliveryPersonRepository = new DeliveryPersonRepositoryImpl();
+        locationTracker = new InMemoryLocationTracker(LocationRetentionPolicy.defaults());
+        service = new DeliveryTrackingServiceImpl(deliveryRepository, deliveryPersonRepository, locationTracker);
+    }
+
+    @Test
+    void shouldApplyTrailOnceToActiveDeliveriesAndKeepFullTrail() {
+        // Given: a minute of 1 Hz samples, delivered out of order
+        DeliveryPerson courier = courierAt(PICKUP);
+        Delivery delivery = deliveryFor(courier);
+        List<LocationHistory> trail = trail(60);
+        List<LocationHistory> shuffled = new ArrayList<>(trail);
+        Collections.reverse(shuffled);
+
+        // When
+        List<TrackingUpdate> updates = service.updateDeliveryPersonTrail(courier.getDeliveryPersonId(), shuffled);
+
+        // Then
+        Location latest = trail.get(trail.size() - 1).location();
+        assertThat(updates).singleElement()
+            .satisfies(update -> assertThat(update.deliveryId()).isEqualTo(delivery.getDeliveryId()));
+
+        Delivery saved = deliveryRepository.findById(delivery.getDeliveryId()).orElseThrow();
+        assertThat(saved.getCurrentLocation()).isEqualTo(latest);
+        assertThat(saved.getEvents())
+            .filteredOn(event -> event.type() == DeliveryEventType.LOCATION_UPDATED)
+            .hasSize(1);
+        assertThat(deliveryPersonRepository.findById(courier.getDeliveryPersonId()).orElseThrow()
+            .getCurrentLocation()).isEqualTo(latest);
+        assertThat(locationTracker.getRecentLocationHistory(courier.getDeliveryPersonId(), 100))
+            .extracting(LocationHistory::timestamp)
+            .containsExactlyElementsOf(trail.stream().map(LocationHistory::timestamp).toList());
+    }
+
+    @Test
+    void shouldNotWriteAggregatesWhenTrailIsStale() {
+        // Given
+        DeliveryPerson courier = courierAt(PICKUP);
+        Delivery delivery = deliveryFor(courier);
+        List<LocationHistory> trail = trail(10);
+        service.updateDeliveryPersonTrail(courier.getDeliveryPersonId(), trail.subList(5, 10));
+
+        // When: a late batch arrives with older samples only
+        service.updateDeliveryPersonTrail(courier.getDeliveryPersonId(), trail.subList(0, 5));
+
+        // Then
+        Delivery saved = deliveryRepository.findById(delivery.getDeliveryId()).orElseThrow();
+        assertThat(saved.getCurrentLocation()).isEqualTo(trail.get(9).location());
+        assertThat(saved.getEvents())
+            .filteredOn(event -> event.type() == DeliveryEventType.LOCATION_UPDATED)
+            .hasSize(1);
+        assertThat(locationTracker.getRecentLocationHistory(courier.getDeliveryPersonId(), 100)).hasSize(5);
+    }
+
+    @Test
+    void shouldRecordASampleAtItsOwnTimeAndSkipALateOne() {
+        // Given
+        DeliveryPerson courier = courierAt(PICKUP);
+        Delivery delivery = deliveryFor(courier);
+        List<LocationHistory> trail = trail(2);
+        service.updateDeliveryLocation(delivery.getDeliveryId(), trail.get(1));
+
+        // When: the earlier sample arrives after the later one
+        service.updateDeliveryLocation(delivery.getDeliveryId(), trail.get(0));
+
+        // Then
+        Delivery saved = deliveryRepository.findById(delivery.getDeliveryId()).orElseThrow();
+        assertThat(saved.getCurrentLocation()).isEqualTo(trail.get(1).location());
+        assertThat(locationTracker.getRecentLocationHistory(courier.getDeliveryPersonId(), 100))
+            .extracting(LocationHistory::timestamp)
+            .containsExactly(trail.get(1).timestamp());
+    }
+
+    @Test
+    void shouldForgetHistoryWhenTrackingStops() {
+        // Given
+        DeliveryPerson courier = courierAt(PICKUP);
+        deliveryFor(courier);
+        service.updateDeliveryPersonTrail(courier.getDeliveryPersonId(), trail(5));
+
+        // When
+        locationTracker.stopTracking(courier.getDeliveryPersonId());
+
+        // Then
+        assertThat(locationTracker.isLocationTracked(courier.getDeliveryPersonId())).isFalse();
+        assertThat(locationTracker.getRecentLocationHistory(courier.getDeliveryPersonId(), 100)).isEmpty();
+        assertThat(locationTracker.getCurrentLocation(courier.getDeliveryPersonId())).isEmpty();
+    }
+
+    @Test
+    void shouldRejectTrailOfUnknownCourierWithoutRecordingIt() {
+        // Given
+        DeliveryPersonId unknown = DeliveryPersonId.generate();
+
+        // When / Then
+        assertThatThrownBy(() -> service.updateDeliveryPersonTrail(unknown, trail(5)))
+            .isInstanceOf(DeliveryNotFoundException.class);
+        assertThat(locationTracker.getRecentLocationHistory(unknown, 100)).isEmpty();
+    }
+
+    private List<LocationHistory> trail(int samples) {
+        Instant start = Instant.parse("2024-01-15T10:00:00Z");
+        List<LocationHistory> trail = new ArrayList<>(samples);
+        for (int i = 0; i < samples; i++) {
+            Location location = Location.of(-25.9692 + i * 0.00005, 32.5732 + i * 0.00025);
+            trail.add(LocationHistory.of(location, start.plusSeconds(i), 8.0, 25.0));
+        }
+        return trail;
+    }
+
+    private DeliveryPerson courierAt(Location location) {
+        return deliveryPersonRepository.save(new DeliveryPerson(DeliveryPersonId.generate(), tenantId,
+            "Courier", "+258840000001", "Motorcycle", DeliveryCapacity.defaultCapacity(), location));
+    }
+
+    private Delivery deliveryFor(DeliveryPerson courier) {
+        Route route = Route.of(
+            List.of(Waypoint.of(PICKUP, WaypointType.START), Waypoint.of(DROP_OFF, WaypointType.END)),
+            Distance.ofKilometers(2), Duration.ofMinutes(10));
+        return deliveryRepository.save(new Delivery(DeliveryId.generate(), tenantId, OrderId.generate(),
+            courier.getDeliveryPersonId(), route, 1000, 2000));
+    }
+}
@@ -0,0 +1,81 @@
+package com.xavier.mozdeliveryapi.dispatch.application.usecase;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import org.junit.jupiter.api.Test;
+
+class MinCostAssignmentTest {
+    
+    @Test
+    void shouldPreferGlobalOptimumOverGreedyChoice() {
+        // Given: row 0 greedily takes column 0, which row 1 needs far more
+        double[][] cost = {
+            {1.0, 2.0},
+            {1.5, 9.0}
+        };
+        
+        // When
+        int[] assignment = MinCostAssignment.solve(cost);
+        
+        // Then
+        assertThat(assignment).containsExactly(1, 0);
+    }
+    
+    @Test
+    void shouldMatchBruteForceOnRandomRectangularMatrices() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 200; trial++) {
+            // Given
+            int rows = 1 + random.nextInt(6);
+            int columns = 1 + random.nextInt(6);
+            double[][] cost = new double[rows][columns];
+            for (double[] row : cost) {
+                for (int j = 0; j < columns; j++) {
+                    row[j] = random.nextDouble();
+                }
+            }
+            
+            // When
+            int[] assignment = MinCostAssignment.solve(cost);
+            
+            // Then
+            double total = 0.0;
+            int assigned = 0;
+            boolean[] usedColumns = new boolean[columns];
+            for (int i = 0; i < rows; i++) {
+                if (assignment[i] >= 0) {
+                    assertThat(usedColumns[assignment[i]]).isFalse();
+                    usedColumns[assignment[i]] = true;
+                    total += cost[i][assignment[i]];
+                    assigned++;
+                }
+            }
+            assertThat(assigned).isEqualTo(Math.min(rows, columns));
+            assertThat(total).isCloseTo(bruteForce(cost, 0, new boolean[columns], Math.min(rows, columns)),
+                within(1e-9));
+        }
+    }
+    
+    /**
+     * Minimum cost over all ways of assigning {@code remaining} more rows from {@code row} onwards.
+     */
+    private static double bruteForce(double[][] cost, int row, boolean[] usedColumns, int remaining) {
+        if (remaining == 0) {
+            return 0.0;
+        }
+        if (cost.length - row < remaining) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double best = bruteForce(cost, row + 1, usedColumns, remaining); // leave this row unassigned
+        for (int j = 0; j < usedColumns.length; j++) {
+            if (!usedColumns[j]) {
+                usedColumns[j] = true;
+                best = Math.min(best, cost[row][j] + bruteForce(cost, row + 1, usedColumns, remaining - 1));
+                usedColumns[j] = false;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,82 @@
+package com.xavier.mozdeliveryapi.dispatch.infra.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.xavier.mozdeliveryapi.dispatch.domain.entity.DeliveryPerson;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Distance;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+import com.xavier.mozdeliveryapi.tenant.domain.valueobject.TenantId;
+
+/**
+ * Compares the grid-indexed courier lookup with a linear scan over the store.
+ * Run with {@code ./mvnw test -Dtest=CourierLookupBenchmarkTest -Dbenchmark=true}.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CourierLookupBenchmarkTest {
+    
+    private static final int QUERIES = 200;
+    private static final Distance RADIUS = Distance.ofKilometers(3);
+    
+    @Test
+    void compareIndexedLookupWithLinearScan() {
+        for (int size : new int[] {10_000, 50_000, 200_000}) {
+            Random random = new Random(size);
+            TenantId tenantId = TenantId.generate();
+            DeliveryPersonRepositoryImpl repository = new DeliveryPersonRepositoryImpl();
+            List<DeliveryPerson> couriers = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                couriers.add(repository.save(DeliveryPersonRepositoryImplTest.courierAt(
+                    tenantId, DeliveryPersonRepositoryImplTest.randomLocationAround(random), i)));
+            }
+            List<Location> pickups = new ArrayList<>(QUERIES);
+            for (int i = 0; i < QUERIES; i++) {
+                pickups.add(DeliveryPersonRepositoryImplTest.randomLocationAround(random));
+            }
+            
+            // Warm up both paths before measuring
+            long indexedHits = runIndexed(repository, tenantId, pickups);
+            long linearHits = runLinear(couriers, tenantId, pickups);
+            
+            long start = System.nanoTime();
+            runIndexed(repository, tenantId, pickups);
+            long indexedNanos = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            runLinear(couriers, tenantId, pickups);
+            long linearNanos = System.nanoTime() - start;
+            
+            System.out.printf("couriers=%d indexed=%.3f ms/query linear=%.3f ms/query speedup=%.1fx%n",
+                size, indexedNanos / 1e6 / QUERIES, linearNanos / 1e6 / QUERIES,
+                (double) linearNanos / indexedNanos);
+            assertThat(indexedHits).isEqualTo(linearHits);
+        }
+    }
+    
+    private long runIndexed(DeliveryPersonRepositoryImpl repository, TenantId tenantId, List<Location> pickups) {
+        long hits = 0;
+        for (Location pickup : pickups) {
+            hits += repository.findAvailableWithinDistance(tenantId, pickup, RADIUS).size();
+        }
+        return hits;
+    }
+    
+    private long runLinear(List<DeliveryPerson> couriers, TenantId tenantId, List<Location> pickups) {
+        long hits = 0;
+        for (Location pickup : pickups) {
+            hits += couriers.stream()
+                .filter(person -> tenantId.equals(person.getTenantId()))
+                .filter(person -> person.getStatus().isAvailable())
+                .filter(person -> person.getCurrentLocation().distanceTo(pickup).compareTo(RADIUS) <= 0)
+                .count();
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,134 @@
+package com.xavier.mozdeliveryapi.dispatch.infra.persistence;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.xavier.mozdeliveryapi.dispatch.domain.entity.DeliveryPerson;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryCapacity;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryPersonId;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryPersonStatus;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Distance;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+import com.xavier.mozdeliveryapi.tenant.domain.valueobject.TenantId;
+
+class DeliveryPersonRepositoryImplTest {
+    
+    private static final Location MAPUTO = Location.of(-25.9692, 32.5732);
+    
+    private DeliveryPersonRepositoryImpl repository;
+    private TenantId tenantId;
+    
+    @BeforeEach
+    void setUp() {
+        repository = new DeliveryPersonRepositoryImpl();
+        tenantId = TenantId.generate();
+    }
+    
+    @Test
+    void shouldMatchLinearScanForRadiusQueries() {
+        // Given
+        Random random = new Random(42);
+        List<DeliveryPerson> couriers = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            DeliveryPerson courier = courierAt(tenantId, randomLocationAround(random), i);
+            couriers.add(repository.save(courier));
+        }
+        
+        for (double radiusKm : new double[] {0.5, 2.0, 10.0, 50.0}) {
+            Distance radius = Distance.ofKilometers(radiusKm);
+            
+            // When
+            List<DeliveryPerson> indexed = repository.findAvailableWithinDistance(tenantId, MAPUTO, radius);
+            
+            // Then
+            List<DeliveryPerson> expected = couriers.stream()
+                .filter(courier -> courier.getCurrentLocation().distanceTo(MAPUTO).compareTo(radius) <= 0)
+                .toList();
+            assertThat(indexed).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+    
+    @Test
+    void shouldReindexCourierWhenLocationChanges() {
+        // Given
+        DeliveryPerson courier = repository.save(courierAt(tenantId, MAPUTO, 1));
+        Location matola = Location.of(-25.9622, 32.4589);
+        
+        // When
+        courier.updateLocation(matola);
+        repository.save(courier);
+        
+        // Then
+        assertThat(repository.findAvailableWithinDistance(tenantId, MAPUTO, Distance.ofKilometers(1))).isEmpty();
+        assertThat(repository.findAvailableWithinDistance(tenantId, matola, Distance.ofKilometers(1)))
+            .containsExactly(courier);
+    }
+    
+    @Test
+    void shouldIsolateTenantsAndSkipUnavailableCouriers() {
+        // Given
+        DeliveryPerson otherTenantCourier = repository.save(courierAt(TenantId.generate(), MAPUTO, 1));
+        DeliveryPerson onBreak = courierAt(tenantId, MAPUTO, 2);
+        onBreak.updateStatus(DeliveryPersonStatus.ON_BREAK);
+        repository.save(onBreak);
+        DeliveryPerson available = repository.save(courierAt(tenantId, MAPUTO, 3));
+        
+        // When
+        List<DeliveryPerson> result = repository.findAvailableWithinDistance(tenantId, MAPUTO, Distance.ofKilometers(1));
+        
+        // Then
+        assertThat(result).containsExactly(available);
+        assertThat(result).doesNotContain(otherTenantCourier, onBreak);
+    }
+    
+    @Test
+    void shouldReturnNearestCouriersInDistanceOrder() {
+        // Given
+        Random random = new Random(7);
+        List<DeliveryPerson> couriers = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            couriers.add(repository.save(courierAt(tenantId, randomLocationAround(random), i)));
+        }
+        
+        // When
+        List<DeliveryPerson> nearest = repository.findNearestAvailable(tenantId, MAPUTO, 5, Distance.ofKilometers(50));
+        
+        // Then
+        List<DeliveryPerson> expected = couriers.stream()
+            .sorted(Comparator.comparing(courier -> courier.getCurrentLocation().distanceTo(MAPUTO)))
+            .limit(5)
+            .toList();
+        assertThat(nearest).containsExactlyElementsOf(expected);
+    }
+    
+    @Test
+    void shouldRemoveCourierFromIndexOnDelete() {
+        // Given
+        DeliveryPerson courier = repository.save(courierAt(tenantId, MAPUTO, 1));
+        
+        // When
+        repository.delete(courier);
+        
+        // Then
+        assertThat(repository.findNearestAvailable(tenantId, MAPUTO, 1, Distance.ofKilometers(50))).isEmpty();
+    }
+    
+    static DeliveryPerson courierAt(TenantId tenantId, Location location, int index) {
+        return new DeliveryPerson(DeliveryPersonId.generate(), tenantId, "Courier " + index,
+                                  "+25884" + String.format("%07d", index), "Motorcycle",
+                                  DeliveryCapacity.defaultCapacity(), location);
+    }
+    
+    static Location randomLocationAround(Random random) {
+        // Roughly the Maputo/Matola metropolitan area (~60km x 60km)
+        double latitude = -25.9692 + (random.nextDouble() - 0.5) * 0.6;
+        double longitude = 32.5732 + (random.nextDouble() - 0.5) * 0.6;
+        return Location.of(latitude, longitude);
+    }
+}
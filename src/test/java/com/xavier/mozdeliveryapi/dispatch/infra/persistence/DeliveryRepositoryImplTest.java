@@ -0,0 +1,236 @@
+package com.xavier.mozdeliveryapi.dispatch.infra.persistence;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.xavier.mozdeliveryapi.dispatch.domain.entity.Delivery;
+import com.xavier.mozdeliveryapi.dispatch.domain.event.DeliveryLocationUpdatedEvent;
+import com.xavier.mozdeliveryapi.dispatch.domain.event.DeliveryStatusChangedEvent;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryId;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryPersonId;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryStatus;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Distance;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Route;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Waypoint;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.WaypointType;
+import com.xavier.mozdeliveryapi.shared.domain.event.DomainEvent;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.OrderId;
+import com.xavier.mozdeliveryapi.shared.infra.event.NodeLocalEvent;
+import com.xavier.mozdeliveryapi.tenant.domain.valueobject.TenantId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeliveryRepositoryImplTest {
+
+    private static final Location PICKUP = Location.of(-25.9692, 32.5732);
+    private static final Location DROP_OFF = Location.of(-25.9662, 32.5892);
+    private static final Route ROUTE = Route.of(
+        List.of(Waypoint.of(PICKUP, WaypointType.START), Waypoint.of(DROP_OFF, WaypointType.END)),
+        Distance.ofKilometers(2), Duration.ofMinutes(10));
+
+    private final TenantId tenantId = TenantId.generate();
+
+    @Test
+    void shouldMoveResavedDeliveryBetweenIndexes() {
+        // Given
+        DeliveryRepositoryImpl repository = repository(DeliveryRetentionPolicy.defaults());
+        DeliveryPersonId first = DeliveryPersonId.generate();
+        DeliveryPersonId second = DeliveryPersonId.generate();
+        Delivery delivery = repository.save(newDelivery(first));
+
+        // When
+        delivery.updateStatus(DeliveryStatus.EN_ROUTE_TO_PICKUP);
+        delivery.reassign(second, ROUTE);
+        repository.save(delivery);
+
+        // Then
+        assertThat(repository.findByStatus(DeliveryStatus.ASSIGNED)).isEmpty();
+        assertThat(repository.findByStatus(DeliveryStatus.EN_ROUTE_TO_PICKUP)).containsExactly(delivery);
+        assertThat(repository.findActiveByDeliveryPersonId(first)).isEmpty();
+        assertThat(repository.findActiveByDeliveryPersonId(second)).containsExactly(delivery);
+        assertThat(repository.countActiveByDeliveryPersonId(second)).isEqualTo(1);
+        assertThat(repository.findByOrderId(delivery.getOrderId())).contains(delivery);
+    }
+
+    @Test
+    void shouldFindOverdueDeliveriesFromEtaIndex() {
+        // Given
+        DeliveryRepositoryImpl repository = repository(DeliveryRetentionPolicy.defaults());
+        Instant now = Instant.parse("2024-01-15T12:00:00Z");
+        Delivery late = repository.save(deliveryWithEta(DeliveryStatus.IN_TRANSIT, now.minusSeconds(600)));
+        Delivery onTime = repository.save(deliveryWithEta(DeliveryStatus.IN_TRANSIT, now.plusSeconds(600)));
+        repository.save(deliveryWithEta(DeliveryStatus.DELIVERED, now.minusSeconds(1200)));
+        repository.save(deliveryWithEta(DeliveryStatus.ASSIGNED, null));
+
+        // When
+        List<Delivery> overdue = repository.findOverdueDeliveries(now);
+
+        // Then
+        assertThat(overdue).containsExactly(late);
+        assertThat(repository.findOverdueDeliveries(now.plusSeconds(900))).containsExactly(late, onTime);
+    }
+
+    @Test
+    void shouldEvictCompletedDeliveriesByAgeAndCount() {
+        // Given
+        DeliveryRepositoryImpl repository = repository(new DeliveryRetentionPolicy(Duration.ofHours(1), 2));
+        DeliveryPersonId courier = DeliveryPersonId.generate();
+        Delivery active = repository.save(newDelivery(courier));
+        List<Delivery> cancelled = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Delivery delivery = newDelivery(courier);
+            delivery.cancel("Customer unavailable");
+            cancelled.add(repository.save(delivery));
+        }
+
+        // When
+        int expired = repository.evictCompleted(Instant.now().plus(Duration.ofHours(2)));
+
+        // Then: the oldest was dropped at the count limit, the rest once they aged out
+        assertThat(expired).isEqualTo(2);
+        assertThat(cancelled).allSatisfy(delivery ->
+            assertThat(repository.existsById(delivery.getDeliveryId())).isFalse());
+        assertThat(repository.findByOrderId(cancelled.get(0).getOrderId())).isEmpty();
+        assertThat(repository.findByStatus(DeliveryStatus.CANCELLED)).isEmpty();
+        assertThat(repository.getCompletedCount()).isZero();
+        assertThat(repository.findActiveByDeliveryPersonId(courier)).containsExactly(active);
+    }
+
+    @Test
+    void shouldKeepIndexesConsistentUnderConcurrentWritesAndReads() throws Exception {
+        // Given: deliveries that never change, and deliveries writers keep reassigning
+        DeliveryRepositoryImpl repository = repository(DeliveryRetentionPolicy.defaults());
+        DeliveryPersonId pinnedCourier = DeliveryPersonId.generate();
+        List<Delivery> pinned = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Delivery delivery = newDelivery(pinnedCourier);
+            delivery.updateStatus(DeliveryStatus.EN_ROUTE_TO_PICKUP);
+            pinned.add(repository.save(delivery));
+        }
+        List<DeliveryPersonId> couriers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            couriers.add(DeliveryPersonId.generate());
+        }
+
+        int writers = 4;
+        int deliveriesPerWriter = 50;
+        int iterations = 5_000;
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        CountDownLatch finished = new CountDownLatch(writers + 2);
+        List<List<Delivery>> owned = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            List<Delivery> deliveries = new ArrayList<>();
+            for (int i = 0; i < deliveriesPerWriter; i++) {
+                deliveries.add(repository.save(newDelivery(couriers.get(i % couriers.size()))));
+            }
+            owned.add(deliveries);
+        }
+
+        for (int r = 0; r < 2; r++) {
+            new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        if (repository.countActiveByDeliveryPersonId(pinnedCourier) != pinned.size()
+                                || repository.findByStatus(DeliveryStatus.EN_ROUTE_TO_PICKUP).size() != pinned.size()) {
+                            failure.compareAndSet(null, "Pinned deliveries missing from an index");
+                        }
+                        for (List<Delivery> deliveries : owned) {
+                            Delivery delivery = deliveries.get(ThreadLocalRandom.current().nextInt(deliveriesPerWriter));
+                            if (repository.findByOrderId(delivery.getOrderId()).isEmpty()) {
+                                failure.compareAndSet(null, "Order lookup missed " + delivery.getDeliveryId());
+                            }
+                        }
+                    }
+                } finally {
+                    finished.countDown();
+                }
+            }).start();
+        }
+
+        // When
+        for (List<Delivery> deliveries : owned) {
+            new Thread(() -> {
+                try {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < iterations; i++) {
+                        Delivery delivery = deliveries.get(random.nextInt(deliveries.size()));
+                        delivery.reassign(couriers.get(random.nextInt(couriers.size())), ROUTE);
+                        delivery.clearDomainEvents();
+                        repository.save(delivery);
+                    }
+                } finally {
+                    finished.countDown();
+                }
+            }).start();
+        }
+        while (finished.getCount() > 2) {
+            Thread.sleep(10);
+        }
+        done.set(true);
+        finished.await();
+
+        // Then: every index agrees with a full scan of the store
+        assertThat(failure.get()).isNull();
+        List<Delivery> all = repository.findByTenantId(tenantId);
+        for (DeliveryPersonId courier : couriers) {
+            List<DeliveryId> expected = all.stream()
+                .filter(delivery -> courier.equals(delivery.getDeliveryPersonId()))
+                .map(Delivery::getDeliveryId)
+                .toList();
+            assertThat(repository.findActiveByDeliveryPersonId(courier))
+                .extracting(Delivery::getDeliveryId)
+                .containsExactlyInAnyOrderElementsOf(expected);
+            assertThat(repository.countActiveByDeliveryPersonId(courier)).isEqualTo(expected.size());
+        }
+        assertThat(repository.findByStatus(DeliveryStatus.ASSIGNED)).hasSize(writers * deliveriesPerWriter);
+        assertThat(repository.findOverdueDeliveries(Instant.now().plus(Duration.ofHours(1))))
+            .hasSize(all.size());
+    }
+
+    @Test
+    void shouldKeepLocationUpdatesOutOfTheOutbox() {
+        // Given
+        List<DomainEvent> durable = new ArrayList<>();
+        List<Object> local = new ArrayList<>();
+        DeliveryRepositoryImpl repository = new DeliveryRepositoryImpl(durable::add, local::add,
+            DeliveryRetentionPolicy.defaults());
+        Delivery delivery = repository.save(newDelivery(DeliveryPersonId.generate()));
+        durable.clear();
+        local.clear();
+
+        // When
+        delivery.updateLocation(DROP_OFF);
+        delivery.updateStatus(DeliveryStatus.EN_ROUTE_TO_PICKUP);
+        repository.save(delivery);
+
+        // Then
+        assertThat(durable).singleElement().isInstanceOf(DeliveryStatusChangedEvent.class);
+        assertThat(local).hasSize(2).allMatch(event -> event instanceof NodeLocalEvent<?>);
+        assertThat(local).extracting(event -> ((NodeLocalEvent<?>) event).event().getClass())
+            .containsExactlyInAnyOrder(DeliveryLocationUpdatedEvent.class, DeliveryStatusChangedEvent.class);
+    }
+
+    private DeliveryRepositoryImpl repository(DeliveryRetentionPolicy policy) {
+        return new DeliveryRepositoryImpl(event -> { }, event -> { }, policy);
+    }
+
+    private Delivery newDelivery(DeliveryPersonId courier) {
+        return new Delivery(DeliveryId.generate(), tenantId, OrderId.generate(), courier, ROUTE, 1000, 2000);
+    }
+
+    private Delivery deliveryWithEta(DeliveryStatus status, Instant estimatedArrival) {
+        Instant createdAt = Instant.parse("2024-01-15T11:00:00Z");
+        return new Delivery(DeliveryId.generate(), tenantId, OrderId.generate(), DeliveryPersonId.generate(),
+            ROUTE, status, PICKUP, estimatedArrival, List.of(), 1000, 2000, createdAt, createdAt);
+    }
+}
@@ -0,0 +1,169 @@
+package com.xavier.mozdeliveryapi.dispatch.infra.persistence;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.LocationHistory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LocationRingBufferTest {
+
+    private static final long START_MICROS = 1_700_000_000_000_000L;
+    private static final long STEP_MICROS = 1_000_000L;
+
+    @Test
+    void shouldReturnRangeSpanningHotAndColdSamples() {
+        // Given
+        LocationRingBuffer buffer = new LocationRingBuffer(new LocationRetentionPolicy(8, 4, 64, Duration.ofHours(1)));
+        appendSamples(buffer, 20);
+
+        // When
+        List<LocationHistory> range = buffer.range(micros(5), micros(15));
+
+        // Then
+        assertThat(buffer.coldSize()).isEqualTo(12);
+        assertThat(range).hasSize(11);
+        for (int i = 0; i < range.size(); i++) {
+            LocationHistory sample = range.get(i);
+            assertThat(LocationRingBuffer.toMicros(sample.timestamp())).isEqualTo(micros(5 + i));
+            assertThat(sample.location().latitudeDegrees()).isCloseTo(latitude(5 + i), within(1e-6));
+            assertThat(sample.location().longitudeDegrees()).isCloseTo(longitude(5 + i), within(1e-6));
+            assertThat(sample.accuracy()).isCloseTo(10.0 + (5 + i) % 7, within(0.05));
+        }
+    }
+
+    @Test
+    void shouldReturnRecentSamplesOldestFirst() {
+        // Given
+        LocationRingBuffer buffer = new LocationRingBuffer(new LocationRetentionPolicy(8, 4, 64, Duration.ofHours(1)));
+        appendSamples(buffer, 30);
+
+        // When
+        List<LocationHistory> recent = buffer.recent(13);
+
+        // Then
+        assertThat(recent).extracting(sample -> LocationRingBuffer.toMicros(sample.timestamp()))
+                .containsExactly(LongStream.range(17, 30).map(LocationRingBufferTest::micros)
+                        .boxed().toArray(Long[]::new));
+        assertThat(buffer.latest()).get()
+                .extracting(sample -> LocationRingBuffer.toMicros(sample.timestamp()))
+                .isEqualTo(micros(29));
+    }
+
+    @Test
+    void shouldDropOldestSegmentsBeyondMaxSamples() {
+        // Given
+        LocationRingBuffer buffer = new LocationRingBuffer(new LocationRetentionPolicy(8, 4, 16, Duration.ofHours(1)));
+
+        // When
+        appendSamples(buffer, 1_000);
+
+        // Then
+        assertThat(buffer.size()).isLessThanOrEqualTo(16);
+        assertThat(buffer.recent(100)).hasSize((int) buffer.size());
+        assertThat(buffer.range(micros(0), micros(980))).isEmpty();
+    }
+
+    @Test
+    void shouldDropSegmentsOlderThanMaxAge() {
+        // Given
+        LocationRingBuffer buffer = new LocationRingBuffer(new LocationRetentionPolicy(8, 4, 1024, Duration.ofSeconds(10)));
+
+        // When
+        appendSamples(buffer, 100);
+
+        // Then
+        List<LocationHistory> all = buffer.range(micros(0), micros(100));
+        assertThat(all).isNotEmpty();
+        assertThat(LocationRingBuffer.toMicros(all.get(0).timestamp())).isGreaterThanOrEqualTo(micros(99 - 10 - 4));
+    }
+
+    @Test
+    void shouldRejectSamplesOlderThanNewest() {
+        // Given
+        LocationRingBuffer buffer = new LocationRingBuffer(LocationRetentionPolicy.defaults());
+        buffer.append(micros(5), -25.96, 32.57, 10.0, 0.0);
+
+        // When
+        boolean accepted = buffer.append(micros(4), -25.97, 32.58, 10.0, 0.0);
+
+        // Then
+        assertThat(accepted).isFalse();
+        assertThat(buffer.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectInvalidPolicy() {
+        assertThatThrownBy(() -> new LocationRetentionPolicy(100, 10, 1000, Duration.ofHours(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LocationRetentionPolicy(128, 32, 64, Duration.ofHours(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldServeConsistentReadsWhileWriterAppends() throws Exception {
+        // Given
+        LocationRingBuffer buffer = new LocationRingBuffer(new LocationRetentionPolicy(16, 8, 256, Duration.ofHours(1)));
+        int samples = 50_000;
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        CountDownLatch readersDone = new CountDownLatch(3);
+
+        for (int r = 0; r < 3; r++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        List<LocationHistory> recent = buffer.recent(40);
+                        for (int i = 1; i < recent.size(); i++) {
+                            long previous = LocationRingBuffer.toMicros(recent.get(i - 1).timestamp());
+                            long current = LocationRingBuffer.toMicros(recent.get(i).timestamp());
+                            if (current != previous + STEP_MICROS) {
+                                failure.compareAndSet(null, "Gap between " + previous + " and " + current);
+                            }
+                        }
+                    }
+                } finally {
+                    readersDone.countDown();
+                }
+            });
+            reader.start();
+        }
+
+        // When
+        appendSamples(buffer, samples);
+        done.set(true);
+        readersDone.await();
+
+        // Then
+        assertThat(failure.get()).isNull();
+        assertThat(buffer.size()).isLessThanOrEqualTo(256);
+        assertThat(buffer.latest()).isPresent();
+    }
+
+    private static void appendSamples(LocationRingBuffer buffer, int count) {
+        for (int i = 0; i < count; i++) {
+            assertThat(buffer.append(micros(i), latitude(i), longitude(i), 10.0 + i % 7, 20.0)).isTrue();
+        }
+    }
+
+    private static long micros(long index) {
+        return START_MICROS + index * STEP_MICROS;
+    }
+
+    private static double latitude(int index) {
+        return -25.9655 + index * 0.00013;
+    }
+
+    private static double longitude(int index) {
+        return 32.5832 + index * 0.00007;
+    }
+}
@@ -0,0 +1,217 @@
+package com.xavier.mozdeliveryapi.dispatch.infra.web;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.xavier.mozdeliveryapi.dispatch.application.usecase.DeliveryTrackingServiceImpl;
+import com.xavier.mozdeliveryapi.dispatch.application.usecase.TrackingApplicationServiceImpl;
+import com.xavier.mozdeliveryapi.dispatch.domain.entity.Delivery;
+import com.xavier.mozdeliveryapi.dispatch.domain.event.DeliveryLocationUpdatedEvent;
+import com.xavier.mozdeliveryapi.dispatch.domain.event.DeliveryStatusChangedEvent;
+import com.xavier.mozdeliveryapi.dispatch.domain.exception.DeliveryNotFoundException;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryId;
+import com.xavier.mozdeliveryapi.dispatch.domain.valueobject.DeliveryPersonId;
+import com.xavier.mozdeliveryapi.dispatch.infra.persistence.DeliveryPersonRepositoryImpl;
+import com.xavier.mozdeliveryapi.dispatch.infra.persistence.DeliveryRepositoryImpl;
+import com.xavier.mozdeliveryapi.dispatch.infra.persistence.DeliveryRetentionPolicy;
+import com.xavier.mozdeliveryapi.dispatch.infra.persistence.InMemoryLocationTracker;
+import com.xavier.mozdeliveryapi.dispatch.infra.persistence.LocationRetentionPolicy;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Distance;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Route;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Waypoint;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.WaypointType;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.OrderId;
+import com.xavier.mozdeliveryapi.shared.infra.event.NodeLocalEvent;
+import com.xavier.mozdeliveryapi.tenant.domain.valueobject.TenantId;
+
+class LiveTrackingBroadcasterTest {
+
+    private static final Location PICKUP = Location.of(-25.9692, 32.5732);
+    private static final Location DROP_OFF = Location.of(-25.9662, 32.5892);
+    private static final long INTERVAL_MILLIS = 1000;
+
+    private DeliveryRepositoryImpl deliveryRepository;
+    private MeterRegistry meterRegistry;
+    private LiveTrackingBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        deliveryRepository = new DeliveryRepositoryImpl(event -> { }, this::route, DeliveryRetentionPolicy.defaults());
+        meterRegistry = new SimpleMeterRegistry();
+        TrackingApplicationServiceImpl trackingApplicationService = new TrackingApplicationServiceImpl(
+            new DeliveryTrackingServiceImpl(deliveryRepository, new DeliveryPersonRepositoryImpl(),
+                new InMemoryLocationTracker(LocationRetentionPolicy.defaults())),
+            new InMemoryLocationTracker(LocationRetentionPolicy.defaults()));
+        broadcaster = new LiveTrackingBroadcaster(trackingApplicationService,
+            new ObjectMapper().findAndRegisterModules(), meterRegistry, INTERVAL_MILLIS, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void shouldShareOneThrottledSnapshotAcrossSubscribers() {
+        // Given
+        Delivery delivery = saveDelivery();
+        RecordingSink first = new RecordingSink();
+        RecordingSink second = new RecordingSink();
+        broadcaster.subscribe(delivery.getDeliveryId(), first);
+        broadcaster.subscribe(delivery.getDeliveryId(), second);
+        awaitUntil(() -> first.messages.size() == 1 && second.messages.size() == 1);
+
+        // When: a burst of positions inside one interval
+        for (int i = 1; i <= 5; i++) {
+            delivery.updateLocation(Location.of(-25.9692 + i * 0.0001, 32.5732));
+            deliveryRepository.save(delivery);
+        }
+        int builtNow = broadcaster.flush(10_000);
+        delivery.updateLocation(Location.of(-25.9600, 32.5732));
+        deliveryRepository.save(delivery);
+        int builtWithinInterval = broadcaster.flush(10_000 + INTERVAL_MILLIS / 2);
+        int builtAfterInterval = broadcaster.flush(10_000 + INTERVAL_MILLIS);
+
+        // Then
+        assertThat(builtNow).isEqualTo(1);
+        assertThat(builtWithinInterval).isZero();
+        assertThat(builtAfterInterval).isEqualTo(1);
+        awaitUntil(() -> first.messages.size() == 3 && second.messages.size() == 3);
+        assertThat(first.messages.get(2)).isNotEqualTo(first.messages.get(1));
+        assertThat(meterRegistry.get("tracking.stream.snapshots").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldPushStatusChangeImmediatelyAndCloseFinishedDelivery() {
+        // Given
+        Delivery delivery = saveDelivery();
+        RecordingSink sink = new RecordingSink();
+        broadcaster.subscribe(delivery.getDeliveryId(), sink);
+        delivery.updateLocation(Location.of(-25.9680, 32.5740));
+        deliveryRepository.save(delivery);
+        broadcaster.flush(10_000);
+
+        // When: cancelled right after the last push
+        delivery.cancel("Customer unavailable");
+        deliveryRepository.save(delivery);
+        int built = broadcaster.flush(10_001);
+
+        // Then
+        assertThat(built).isEqualTo(1);
+        awaitUntil(() -> sink.completed.get());
+        assertThat(sink.messages).last().asString().contains("CANCELLED");
+        assertThat(broadcaster.getSubscriberCount(delivery.getDeliveryId())).isZero();
+    }
+
+    @Test
+    void shouldConflateSnapshotsForSlowSubscriber() throws Exception {
+        // Given: a subscriber whose first send blocks
+        Delivery delivery = saveDelivery();
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(release);
+        broadcaster.subscribe(delivery.getDeliveryId(), slow);
+        awaitUntil(() -> slow.messages.size() == 1);
+
+        // When: several snapshots are pushed while it is blocked
+        for (int i = 1; i <= 4; i++) {
+            delivery.updateLocation(Location.of(-25.9692 + i * 0.001, 32.5732));
+            deliveryRepository.save(delivery);
+            broadcaster.flush(10_000 + i * INTERVAL_MILLIS);
+        }
+        release.countDown();
+
+        // Then: it gets the initial snapshot and only the newest one after it
+        awaitUntil(() -> slow.messages.size() == 2);
+        Thread.sleep(50);
+        assertThat(slow.messages).hasSize(2);
+        assertThat(slow.messages.get(1)).contains("-25.9652");
+        assertThat(meterRegistry.get("tracking.stream.conflated").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void shouldRejectUnknownDeliveryAndSubscribersOverLimit() {
+        Delivery delivery = saveDelivery();
+        broadcaster.subscribe(delivery.getDeliveryId(), new RecordingSink());
+        broadcaster.subscribe(delivery.getDeliveryId(), new RecordingSink());
+
+        assertThatThrownBy(() -> broadcaster.subscribe(delivery.getDeliveryId(), new RecordingSink()))
+            .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> broadcaster.subscribe(DeliveryId.generate(), new RecordingSink()))
+            .isInstanceOf(DeliveryNotFoundException.class);
+    }
+
+    private void route(Object event) {
+        if (!(event instanceof NodeLocalEvent<?> local)) {
+            return;
+        }
+        if (local.event() instanceof DeliveryLocationUpdatedEvent locationUpdated) {
+            broadcaster.onDeliveryLocationUpdated(new NodeLocalEvent<>(locationUpdated));
+        } else if (local.event() instanceof DeliveryStatusChangedEvent statusChanged) {
+            broadcaster.onDeliveryStatusChanged(new NodeLocalEvent<>(statusChanged));
+        }
+    }
+
+    private Delivery saveDelivery() {
+        Route route = Route.of(
+            List.of(Waypoint.of(PICKUP, WaypointType.START), Waypoint.of(DROP_OFF, WaypointType.END)),
+            Distance.ofKilometers(2), Duration.ofMinutes(10));
+        return deliveryRepository.save(new Delivery(DeliveryId.generate(), TenantId.generate(), OrderId.generate(),
+            DeliveryPersonId.generate(), route, 1000, 2000));
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 5 seconds");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class RecordingSink implements LiveTrackingBroadcaster.TrackingSink {
+
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private final CountDownLatch gate;
+
+        RecordingSink() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingSink(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(String trackingJson) {
+            messages.add(trackingJson);
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.set(true);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.xavier.mozdeliveryapi.geospatial.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.DistanceMatrix;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+import com.xavier.mozdeliveryapi.geospatial.infra.persistence.DistanceCalculationServiceImpl;
+
+class DistanceMatrixTest {
+    
+    private final Location maputo = Location.of(-25.9692, 32.5732);
+    private final Location matola = Location.of(-25.9622, 32.4589);
+    private final Location boane = Location.of(-26.0447, 32.3272);
+    
+    @Test
+    void shouldComputeSymmetricStraightLineMatrix() {
+        // When
+        DistanceMatrix matrix = DistanceMatrix.straightLine(List.of(maputo, matola, boane));
+        
+        // Then
+        assertThat(matrix.size()).isEqualTo(3);
+        assertThat(matrix.meters(0, 0)).isZero();
+        assertThat(matrix.meters(0, 1)).isEqualTo(maputo.distanceInMetersTo(matola));
+        assertThat(matrix.meters(1, 0)).isEqualTo(matrix.meters(0, 1));
+        assertThat(matrix.meters(2, 1)).isEqualTo(boane.distanceInMetersTo(matola));
+    }
+    
+    @Test
+    void shouldSumPathInVisitOrder() {
+        // Given
+        DistanceMatrix matrix = DistanceMatrix.straightLine(List.of(maputo, matola, boane));
+        
+        // When
+        double pathMeters = matrix.pathMeters(new int[] {0, 2, 1});
+        
+        // Then
+        assertThat(pathMeters).isEqualTo(matrix.meters(0, 2) + matrix.meters(2, 1));
+    }
+    
+    @Test
+    void shouldRejectArrayOfWrongSize() {
+        // When & Then
+        assertThatThrownBy(() -> DistanceMatrix.of(List.of(maputo, matola), new double[3]))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("size * size");
+    }
+    
+    @Test
+    void shouldScaleRoadMatrixByRoadFactor() {
+        // Given
+        DistanceCalculationServiceImpl service = new DistanceCalculationServiceImpl();
+        List<Location> locations = List.of(maputo, matola, boane);
+        
+        // When
+        DistanceMatrix straightLine = service.calculateDistanceMatrix(locations);
+        DistanceMatrix road = service.calculateRoadDistanceMatrix(locations);
+        
+        // Then
+        assertThat(road.meters(0, 1)).isCloseTo(straightLine.meters(0, 1) * 1.3, within(1e-6));
+        assertThat(road.distance(0, 1).toMeters())
+                .isCloseTo(service.calculateRoadDistance(maputo, matola).toMeters(), within(0.02));
+    }
+}
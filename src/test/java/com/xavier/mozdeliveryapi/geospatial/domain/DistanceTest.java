@@ -148,4 +148,28 @@ class DistanceTest {
         assertThat(metersString).isEqualTo("500 m");
         assertThat(kilometersString).isEqualTo("2.50 km");
     }
+    
+    @Test
+    void shouldExposePrimitiveValuesWithoutLosingPrecision() {
+        // Given
+        Distance distance = Distance.ofMeters(BigDecimal.valueOf(1234.567));
+        
+        // When & Then
+        assertThat(distance.getMeters()).isEqualByComparingTo(BigDecimal.valueOf(1234.57));
+        assertThat(distance.toMeters()).isEqualTo(1234.57);
+        assertThat(distance.toKilometers()).isEqualTo(1.23457);
+    }
+    
+    @Test
+    void shouldMultiplyByPrimitiveFactor() {
+        // Given
+        Distance distance = Distance.ofMeters(1000);
+        
+        // When
+        Distance result = distance.multiply(1.3);
+        
+        // Then
+        assertThat(result).isEqualTo(distance.multiply(BigDecimal.valueOf(1.3)));
+        assertThat(result.getMeters()).isEqualByComparingTo(BigDecimal.valueOf(1300.00));
+    }
 }
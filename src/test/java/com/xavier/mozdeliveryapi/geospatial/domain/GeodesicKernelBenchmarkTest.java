@@ -0,0 +1,79 @@
+package com.xavier.mozdeliveryapi.geospatial.domain;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Distance;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+
+/**
+ * Measures time and bytes allocated per distance evaluation on the value-object
+ * path and on the primitive kernel.
+ * Run with {@code ./mvnw test -Dtest=GeodesicKernelBenchmarkTest -Dbenchmark=true}.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class GeodesicKernelBenchmarkTest {
+    
+    private static final int POINTS = 1000;
+    private static final int ROUNDS = 5;
+    
+    @Test
+    void reportAllocationRatePerDistance() {
+        Random random = new Random(1);
+        List<Location> locations = new ArrayList<>(POINTS);
+        for (int i = 0; i < POINTS; i++) {
+            locations.add(Location.of(-25.9 + random.nextDouble() * 0.3, 32.5 + random.nextDouble() * 0.3));
+        }
+        Distance maxDistance = Distance.ofKilometers(10);
+        
+        long valueObjectHits = 0;
+        long kernelHits = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            valueObjectHits = 0;
+            for (Location from : locations) {
+                for (Location to : locations) {
+                    if (from.distanceTo(to).compareTo(maxDistance) <= 0) {
+                        valueObjectHits++;
+                    }
+                }
+            }
+            report("distanceTo+compareTo", start, bytes);
+            
+            bytes = allocatedBytes();
+            start = System.nanoTime();
+            kernelHits = 0;
+            double maxMeters = maxDistance.toMeters();
+            for (Location from : locations) {
+                for (Location to : locations) {
+                    if (from.distanceInMetersTo(to) <= maxMeters) {
+                        kernelHits++;
+                    }
+                }
+            }
+            report("distanceInMetersTo", start, bytes);
+        }
+        assertThat(kernelHits).isEqualTo(valueObjectHits);
+    }
+    
+    private static void report(String label, long startNanos, long startBytes) {
+        long operations = (long) POINTS * POINTS;
+        System.out.printf("%-22s %.1f ns/op %.1f B/op%n", label,
+            (double) (System.nanoTime() - startNanos) / operations,
+            (double) (allocatedBytes() - startBytes) / operations);
+    }
+    
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
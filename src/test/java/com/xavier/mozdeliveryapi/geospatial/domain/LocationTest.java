@@ -113,4 +113,34 @@ class LocationTest {
         assertThat(toString).contains("-25.9692");
         assertThat(toString).contains("32.5732");
     }
+    
+    @Test
+    void shouldMatchStaticHaversineKernel() {
+        // Given
+        Location maputo = Location.of(-25.9692, 32.5732);
+        Location matola = Location.of(-25.9622, 32.4589);
+        
+        // When
+        double kernelMeters = Location.haversineMeters(-25.9692, 32.5732, -25.9622, 32.4589);
+        
+        // Then
+        assertThat(maputo.distanceInMetersTo(matola)).isEqualTo(kernelMeters);
+        assertThat(maputo.distanceTo(matola).toMeters()).isCloseTo(kernelMeters, within(0.005));
+    }
+    
+    @Test
+    void shouldApproximateShortDistancesWithEquirectangularProjection() {
+        // Given - two points roughly 3km apart in Maputo
+        Location baixa = Location.of(-25.9692, 32.5732);
+        Location sommerschield = Location.of(-25.9480, 32.5890);
+        
+        // When
+        double exact = baixa.distanceInMetersTo(sommerschield);
+        double approximate = baixa.approximateDistanceInMetersTo(sommerschield);
+        
+        // Then
+        assertThat(approximate).isCloseTo(exact, withinPercentage(0.1));
+        assertThat(Location.equirectangularMeters(-25.9692, 32.5732, -25.9480, 32.5890))
+            .isCloseTo(approximate, within(0.001));
+    }
 }
@@ -0,0 +1,152 @@
+package com.xavier.mozdeliveryapi.geospatial.infra.persistence;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static com.xavier.mozdeliveryapi.geospatial.infra.persistence.RouteOptimizerImplTest.location;
+import org.junit.jupiter.api.Test;
+
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.DistanceMatrix;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+
+class RoadDistanceFactorCacheTest {
+
+    private static final Location MERCHANT = location(-25.9692, 32.5732);
+    private static final Location CUSTOMER = location(-25.9500, 32.5900);
+
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    @Test
+    void shouldAskTheSourceOnlyOnAMiss() {
+        // Given
+        RoadDistanceFactorCache cache = new RoadDistanceFactorCache(this::countingFactor);
+
+        // When
+        double first = cache.factor(MERCHANT, CUSTOMER);
+        double second = cache.factor(MERCHANT, CUSTOMER);
+        cache.factor(CUSTOMER, MERCHANT);
+
+        // Then
+        assertThat(first).isEqualTo(second);
+        assertThat(lookups.get()).isEqualTo(2);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldShareAnEntryBetweenLocationsInTheSameCell() {
+        // Given: 0.01 degree cells
+        RoadDistanceFactorCache cache = new RoadDistanceFactorCache(this::countingFactor, 100, 0.01);
+
+        // When: a few metres apart, then in the next cell
+        cache.factor(location(-25.9601, 32.5701), CUSTOMER);
+        cache.factor(location(-25.9604, 32.5708), CUSTOMER);
+        cache.factor(location(-25.9701, 32.5701), CUSTOMER);
+
+        // Then
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEvictTheLeastRecentlyUsedPair() {
+        // Given: room for two pairs in one stripe
+        RoadDistanceFactorCache cache = new RoadDistanceFactorCache(this::countingFactor, 2,
+            RoadDistanceFactorCache.DEFAULT_QUANTUM_DEGREES, 1);
+        Location third = location(-25.9300, 32.6000);
+        cache.factor(MERCHANT, CUSTOMER);
+        cache.factor(MERCHANT, third);
+
+        // When: the first pair is used again before a third one comes in
+        cache.factor(MERCHANT, CUSTOMER);
+        cache.factor(CUSTOMER, third);
+
+        // Then
+        assertThat(cache.size()).isEqualTo(2);
+        lookups.set(0);
+        cache.factor(MERCHANT, CUSTOMER);
+        assertThat(lookups.get()).isZero();
+        cache.factor(MERCHANT, third);
+        assertThat(lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNeverHoldMoreThanMaxEntriesAcrossStripes() {
+        // Given
+        RoadDistanceFactorCache cache = new RoadDistanceFactorCache(this::countingFactor, 20,
+            RoadDistanceFactorCache.DEFAULT_QUANTUM_DEGREES);
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            cache.factor(MERCHANT, location(-25.90 - i * 0.002, 32.60));
+        }
+
+        // Then
+        assertThat(cache.size()).isLessThanOrEqualTo(20);
+    }
+
+    @Test
+    void shouldAnswerAConstantFactorWithoutStoringIt() {
+        // Given
+        RoadDistanceFactorCache cache = RoadDistanceFactorCache.constant(1.3);
+
+        // When
+        double factor = cache.factor(MERCHANT, CUSTOMER);
+        double[] factors = cache.factors(List.of(MERCHANT, CUSTOMER));
+
+        // Then
+        assertThat(cache.isConstant()).isTrue();
+        assertThat(factor).isEqualTo(1.3);
+        assertThat(factors).containsExactly(0.0, 1.3, 1.3, 0.0);
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getMissCount()).isZero();
+    }
+
+    @Test
+    void shouldFillFactorsFromTheCachePerPair() {
+        // Given
+        RoadDistanceFactorCache cache = new RoadDistanceFactorCache(this::countingFactor);
+        Location third = location(-25.9300, 32.6000);
+        List<Location> locations = List.of(MERCHANT, CUSTOMER, third);
+
+        // When
+        double[] factors = cache.factors(locations);
+
+        // Then
+        assertThat(lookups.get()).isEqualTo(6);
+        assertThat(factors[0]).isZero();
+        assertThat(factors[1]).isEqualTo(cache.factor(MERCHANT, CUSTOMER));
+        assertThat(factors[5]).isEqualTo(cache.factor(CUSTOMER, third));
+        assertThat(lookups.get()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldScaleTheRoadDistanceMatrixByEachPairsFactor() {
+        // Given
+        DistanceCalculationServiceImpl service =
+            new DistanceCalculationServiceImpl(new RoadDistanceFactorCache(this::countingFactor));
+        List<Location> locations = List.of(MERCHANT, CUSTOMER, location(-25.9300, 32.6000));
+
+        // When
+        DistanceMatrix road = service.calculateRoadDistanceMatrix(locations);
+
+        // Then: the same as pair by pair, give or take rounding to the centimetre
+        for (int i = 0; i < locations.size(); i++) {
+            for (int j = 0; j < locations.size(); j++) {
+                assertThat(road.meters(i, j)).isCloseTo(
+                    service.calculateRoadDistance(locations.get(i), locations.get(j)).toMeters(), within(0.02));
+            }
+        }
+    }
+
+    /**
+     * A different factor per direction, counting the calls.
+     */
+    private double countingFactor(Location from, Location to) {
+        lookups.incrementAndGet();
+        return from.latitudeDegrees() < to.latitudeDegrees() ? 1.2 : 1.4;
+    }
+}
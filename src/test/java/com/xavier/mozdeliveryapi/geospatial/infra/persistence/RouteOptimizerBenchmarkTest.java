@@ -0,0 +1,49 @@
+package com.xavier.mozdeliveryapi.geospatial.infra.persistence;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.RoutePlan;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.RoutingProblem;
+
+/**
+ * Compares the local search solver with plain nearest neighbour on synthetic
+ * Maputo-sized instances. Run with
+ * {@code ./mvnw test -Dtest=RouteOptimizerBenchmarkTest -Dbenchmark=true}.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RouteOptimizerBenchmarkTest {
+    
+    private static final Duration BUDGET = Duration.ofMillis(500);
+    
+    @Test
+    void compareLocalSearchWithNearestNeighbour() {
+        RouteOptimizerImpl optimizer = new RouteOptimizerImpl(new DistanceCalculationServiceImpl());
+        
+        for (int size : new int[] {10, 20, 50, 100, 200}) {
+            List<Location> locations = RouteOptimizerImplTest.randomLocations(new Random(size), size);
+            RoutingProblem problem = RoutingProblem.of(RouteOptimizerImplTest.DEPOT, locations,
+                RouteOptimizerImplTest.DEPOT);
+            
+            // Warm up before measuring
+            optimizer.solve(problem, BUDGET);
+            RoutePlan plan = optimizer.solve(problem, BUDGET);
+            double nearestNeighbour = RouteOptimizerImplTest.nearestNeighbourMeters(
+                RouteOptimizerImplTest.DEPOT, locations);
+            
+            System.out.printf("stops=%d nearest-neighbour=%.2f km local-search=%.2f km gain=%.1f%% solve=%d ms%n",
+                size, nearestNeighbour / 1000, plan.getTotalDistance().toKilometers(),
+                100 * (1 - plan.getTotalDistance().toMeters() / nearestNeighbour),
+                plan.solveTime().toMillis());
+            assertThat(plan.getTotalDistance().toMeters()).isLessThanOrEqualTo(nearestNeighbour + 0.01);
+        }
+    }
+}
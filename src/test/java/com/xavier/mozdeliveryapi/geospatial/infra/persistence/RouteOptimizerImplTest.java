@@ -0,0 +1,257 @@
+package com.xavier.mozdeliveryapi.geospatial.infra.persistence;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Route;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.RoutePlan;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.RouteStop;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.RoutingProblem;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.StopPair;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.TimeWindow;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.VehicleCapacity;
+
+class RouteOptimizerImplTest {
+    
+    static final Location DEPOT = location(-25.9692, 32.5732);
+    private static final Instant DEPARTURE = Instant.parse("2026-01-01T10:00:00Z");
+    
+    private final RouteOptimizerImpl optimizer = new RouteOptimizerImpl(new DistanceCalculationServiceImpl());
+    
+    @Test
+    void shouldVisitEveryStopNoLongerThanNearestNeighbour() {
+        // Given
+        List<Location> locations = randomLocations(new Random(42), 40);
+        
+        // When
+        RoutePlan plan = optimizer.solve(RoutingProblem.of(DEPOT, locations, DEPOT), Duration.ofMillis(200));
+        
+        // Then
+        assertThat(plan.isComplete()).isTrue();
+        assertThat(plan.visitOrder()).extracting(RouteStop::location)
+            .containsExactlyInAnyOrderElementsOf(locations);
+        assertThat(plan.getTotalDistance().toMeters())
+            .isLessThanOrEqualTo(nearestNeighbourMeters(DEPOT, locations) + 0.01);
+    }
+    
+    @Test
+    void shouldLeaveStopsThatExceedCapacityUnassigned() {
+        // Given
+        List<RouteStop> stops = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            stops.add(RouteStop.of(location(-25.95 - i * 0.005, 32.58), 2000, 1000, Duration.ofMinutes(2)));
+        }
+        VehicleCapacity capacity = VehicleCapacity.of(5, 7000, 50000);
+        
+        // When
+        RoutePlan plan = optimizer.solve(RoutingProblem.of(DEPOT, stops, DEPOT, capacity, DEPARTURE),
+            Duration.ofMillis(50));
+        
+        // Then
+        assertThat(plan.visitOrder()).hasSize(3);
+        assertThat(plan.unassignedStops()).hasSize(3);
+        assertThat(plan.visitOrder().stream().mapToInt(RouteStop::weight).sum()).isLessThanOrEqualTo(7000);
+    }
+    
+    @Test
+    void shouldPickUpEveryOrderBeforeDroppingItOff() {
+        // Given: drop-offs next to the depot, pickups across town
+        Random random = new Random(7);
+        List<RouteStop> stops = new ArrayList<>();
+        List<StopPair> pairs = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            stops.add(RouteStop.of(location(-25.90 - random.nextDouble() * 0.02, 32.60 + random.nextDouble() * 0.02),
+                1000, 1000, Duration.ofMinutes(2)));
+            stops.add(RouteStop.of(location(-25.968 - i * 0.0005, 32.573), 0, 0, Duration.ofMinutes(2)));
+            pairs.add(StopPair.of(2 * i, 2 * i + 1));
+        }
+        
+        // When
+        RoutePlan plan = optimizer.solve(
+            RoutingProblem.of(DEPOT, stops, pairs, DEPOT, VehicleCapacity.unlimited(), DEPARTURE),
+            Duration.ofMillis(100));
+        
+        // Then
+        assertThat(plan.isComplete()).isTrue();
+        for (StopPair pair : pairs) {
+            assertThat(plan.visitOrder().indexOf(stops.get(pair.pickup())))
+                .isLessThan(plan.visitOrder().indexOf(stops.get(pair.dropoff())));
+        }
+    }
+    
+    @Test
+    void shouldBoundOnlyTheLoadOnBoard() {
+        // Given: room for one order at a time, three orders in total
+        List<RouteStop> stops = new ArrayList<>();
+        List<StopPair> pairs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            stops.add(RouteStop.of(location(-25.95 - i * 0.01, 32.58), 2000, 1000, Duration.ofMinutes(2)));
+            stops.add(RouteStop.of(location(-25.95 - i * 0.01, 32.60), 0, 0, Duration.ofMinutes(2)));
+            pairs.add(StopPair.of(2 * i, 2 * i + 1));
+        }
+        VehicleCapacity capacity = VehicleCapacity.of(6, 3000, 50000);
+        
+        // When
+        RoutePlan plan = optimizer.solve(RoutingProblem.of(DEPOT, stops, pairs, DEPOT, capacity, DEPARTURE),
+            Duration.ofMillis(50));
+        
+        // Then: each order is dropped off before the next is picked up
+        assertThat(plan.isComplete()).isTrue();
+        int onBoard = 0;
+        for (RouteStop stop : plan.visitOrder()) {
+            int index = stops.indexOf(stop);
+            onBoard += index % 2 == 0 ? stop.weight() : -stops.get(index - 1).weight();
+            assertThat(onBoard).isLessThanOrEqualTo(3000);
+        }
+    }
+    
+    @Test
+    void shouldLeaveBothStopsOfAPairThatDoesNotFitUnassigned() {
+        // Given
+        List<RouteStop> stops = List.of(
+            RouteStop.of(location(-25.95, 32.58), 2000, 1000, Duration.ofMinutes(2)),
+            RouteStop.of(location(-25.95, 32.60), 0, 0, Duration.ofMinutes(2)),
+            RouteStop.of(location(-25.96, 32.58), 5000, 1000, Duration.ofMinutes(2)),
+            RouteStop.of(location(-25.96, 32.60), 0, 0, Duration.ofMinutes(2)));
+        List<StopPair> pairs = List.of(StopPair.of(0, 1), StopPair.of(2, 3));
+        VehicleCapacity capacity = VehicleCapacity.of(4, 3000, 50000);
+        
+        // When
+        RoutePlan plan = optimizer.solve(RoutingProblem.of(DEPOT, stops, pairs, DEPOT, capacity, DEPARTURE),
+            Duration.ofMillis(50));
+        
+        // Then
+        assertThat(plan.visitOrder()).containsExactly(stops.get(0), stops.get(1));
+        assertThat(plan.unassignedStops()).containsExactlyInAnyOrder(stops.get(2), stops.get(3));
+    }
+    
+    @Test
+    void shouldRespectTimeWindows() {
+        // Given
+        RouteStop anytime = RouteStop.of(location(-25.96, 32.58), 0, 0, Duration.ofMinutes(5));
+        RouteStop closesEarly = RouteStop.of(location(-25.90, 32.60), 0, 0, Duration.ofMinutes(5),
+            TimeWindow.of(DEPARTURE, DEPARTURE.plus(Duration.ofMinutes(20))));
+        RouteStop opensLate = RouteStop.of(location(-25.97, 32.58), 0, 0, Duration.ofMinutes(5),
+            TimeWindow.of(DEPARTURE.plus(Duration.ofMinutes(60)), DEPARTURE.plus(Duration.ofMinutes(90))));
+        RouteStop unreachable = RouteStop.of(location(-25.50, 32.60), 0, 0, Duration.ofMinutes(5),
+            TimeWindow.of(DEPARTURE, DEPARTURE.plus(Duration.ofMinutes(10))));
+        
+        // When
+        RoutePlan plan = optimizer.solve(
+            RoutingProblem.of(DEPOT, List.of(anytime, closesEarly, opensLate, unreachable), DEPOT,
+                VehicleCapacity.unlimited(), DEPARTURE),
+            Duration.ofMillis(50));
+        
+        // Then
+        assertThat(plan.visitOrder()).containsExactly(closesEarly, anytime, opensLate);
+        assertThat(plan.unassignedStops()).containsExactly(unreachable);
+        for (int i = 0; i < plan.visitOrder().size(); i++) {
+            TimeWindow window = plan.visitOrder().get(i).timeWindow();
+            if (window != null) {
+                assertThat(plan.estimatedArrivals().get(i)).isBeforeOrEqualTo(window.latest());
+            }
+        }
+    }
+    
+    @Test
+    void shouldListRouteOptionsShortestFirstWithTheirOwnLengths() {
+        // Given
+        List<Location> deliveries = randomLocations(new Random(3), 6);
+        Location end = location(-25.95, 32.59);
+        
+        // When
+        List<Route> options = optimizer.calculateRouteOptions(DEPOT, deliveries, end, 4);
+        
+        // Then: each option is a distinct order over every delivery, scored as Route would score it
+        assertThat(options).hasSize(4);
+        assertThat(options).extracting(Route::getLocations).doesNotHaveDuplicates();
+        for (int i = 0; i < options.size(); i++) {
+            Route option = options.get(i);
+            assertThat(option.getLocations().get(0)).isEqualTo(DEPOT);
+            assertThat(option.getLocations().get(option.getWaypointCount() - 1)).isEqualTo(end);
+            assertThat(option.getLocations().subList(1, option.getWaypointCount() - 1))
+                .containsExactlyInAnyOrderElementsOf(deliveries);
+            if (i > 0) {
+                assertThat(option.getTotalDistance().toMeters())
+                    .isGreaterThanOrEqualTo(options.get(i - 1).getTotalDistance().toMeters());
+            }
+        }
+    }
+    
+    @Test
+    void shouldFindAnOpenOrderNoLongerThanNearestNeighbour() {
+        // Given
+        List<Location> locations = randomLocations(new Random(11), 12);
+        
+        // When
+        List<Location> order = optimizer.findOptimalOrder(DEPOT, locations);
+        
+        // Then
+        assertThat(order).containsExactlyInAnyOrderElementsOf(locations);
+        double meters = 0.0;
+        Location previous = DEPOT;
+        for (Location location : order) {
+            meters += previous.distanceInMetersTo(location);
+            previous = location;
+        }
+        assertThat(meters).isLessThanOrEqualTo(nearestNeighbourMeters(DEPOT, locations) + 0.01);
+    }
+    
+    @Test
+    void shouldKeepTimeConstrainedRouteWithinMaxDuration() {
+        // Given
+        List<Location> deliveries = List.of(location(-25.96, 32.58), location(-25.50, 32.60),
+            location(-25.97, 32.57));
+        Duration maxDuration = Duration.ofMinutes(30);
+        
+        // When
+        Route route = optimizer.optimizeRouteWithTimeConstraint(DEPOT, deliveries, location(-25.95, 32.59),
+            maxDuration);
+        
+        // Then
+        assertThat(route.getWaypointCount()).isEqualTo(4);
+        assertThat(route.containsLocation(location(-25.50, 32.60))).isFalse();
+        assertThat(route.getEstimatedDuration()).isLessThanOrEqualTo(maxDuration);
+    }
+    
+    static Location location(double latitude, double longitude) {
+        return Location.of(BigDecimal.valueOf(latitude), BigDecimal.valueOf(longitude));
+    }
+    
+    /**
+     * Uniform points over central Maputo and Matola (~13 km square).
+     */
+    static List<Location> randomLocations(Random random, int count) {
+        List<Location> locations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            locations.add(location(-25.99 + random.nextDouble() * 0.12, 32.50 + random.nextDouble() * 0.12));
+        }
+        return locations;
+    }
+    
+    static double nearestNeighbourMeters(Location start, List<Location> locations) {
+        List<Location> remaining = new ArrayList<>(locations);
+        Location current = start;
+        double total = 0.0;
+        while (!remaining.isEmpty()) {
+            Location nearest = remaining.get(0);
+            for (Location candidate : remaining) {
+                if (current.distanceInMetersTo(candidate) < current.distanceInMetersTo(nearest)) {
+                    nearest = candidate;
+                }
+            }
+            total += current.distanceInMetersTo(nearest);
+            remaining.remove(nearest);
+            current = nearest;
+        }
+        return total;
+    }
+}
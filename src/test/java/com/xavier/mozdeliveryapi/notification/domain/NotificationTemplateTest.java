@@ -0,0 +1,79 @@
+package com.xavier.mozdeliveryapi.notification.domain;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+import com.xavier.mozdeliveryapi.notification.domain.entity.CompiledNotificationTemplate;
+import com.xavier.mozdeliveryapi.notification.domain.entity.NotificationTemplate;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.TemplateText;
+
+/**
+ * Unit tests for compiling and rendering notification templates.
+ */
+class NotificationTemplateTest {
+
+    @Test
+    void shouldRenderPlaceholdersPreferringDefaults() {
+        // Given
+        NotificationTemplate template = new NotificationTemplate(
+            "order_created",
+            "Order {{orderNumber}}",
+            "Hi {{customerName}}, order {{orderNumber}} costs {{totalAmount}} {{currency}}.{{missing}}",
+            NotificationChannel.SMS,
+            Map.of("currency", "MZN")
+        );
+
+        // When
+        CompiledNotificationTemplate compiled = template.compile();
+        Map<String, String> parameters = Map.of(
+            "orderNumber", "A-17", "customerName", "Ana", "totalAmount", "350.00", "currency", "USD");
+
+        // Then
+        assertThat(compiled.renderSubject(parameters)).isEqualTo("Order A-17");
+        assertThat(compiled.renderBody(parameters))
+            .isEqualTo("Hi Ana, order A-17 costs 350.00 MZN.{{missing}}");
+        assertThat(compiled.renderBody(parameters)).isEqualTo(template.renderBody(parameters));
+        assertThat(compiled.requiredParameters())
+            .containsExactly("orderNumber", "customerName", "totalAmount", "missing");
+    }
+
+    @Test
+    void shouldInsertValuesWithoutReadingThemAsTemplateText() {
+        TemplateText text = TemplateText.compile("Message: {{message}}");
+
+        assertThat(text.render(Map.of(), Map.of("message", "{{secret}}", "secret", "leaked")))
+            .isEqualTo("Message: {{secret}}");
+    }
+
+    @Test
+    void shouldRenderMalformedPlaceholdersAsText() {
+        // Given
+        Map<String, String> parameters = Map.of("orderNumber", "A-17");
+        NotificationTemplate template = new NotificationTemplate(
+            "order_created", "Order {{orderNumber", "Order {{ orderNumber }} for {{orderNumber}}",
+            NotificationChannel.SMS, Map.of());
+
+        // When / Then
+        assertThat(template.renderSubject(parameters)).isEqualTo("Order {{orderNumber");
+        assertThat(template.renderBody(parameters)).isEqualTo("Order {{ orderNumber }} for A-17");
+        assertThat(TemplateText.compile("Order {{orderNumber").isWellFormed()).isFalse();
+    }
+
+    @Test
+    void shouldRejectMalformedPlaceholdersWhenCompilingATemplate() {
+        assertThatThrownBy(() -> TemplateText.compile("Order {{orderNumber").requireWellFormed())
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Unclosed placeholder");
+        assertThatThrownBy(() -> TemplateText.compile("Order {{ }}").requireWellFormed())
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Empty placeholder");
+        assertThatThrownBy(() -> new NotificationTemplate(
+                "order_created", "Order", "Order {{ orderNumber }}", NotificationChannel.SMS, Map.of()).compile())
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Spaces around placeholder name");
+    }
+}
@@ -0,0 +1,235 @@
+package com.xavier.mozdeliveryapi.notification.infra.fanout;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.xavier.mozdeliveryapi.notification.application.dto.NotificationRequest;
+import com.xavier.mozdeliveryapi.notification.application.usecase.NotificationService;
+import com.xavier.mozdeliveryapi.notification.domain.entity.Notification;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationId;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationPriority;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.Recipient;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+class CoalescingNotificationDispatcherTest {
+
+    private static final MerchantId MERCHANT = MerchantId.generate();
+    private static final Recipient PHONE = Recipient.phone("+258840000001", "Customer");
+    private static final Recipient DEVICE = Recipient.deviceToken("device-1", "Customer");
+
+    private final RecordingNotificationService notificationService = new RecordingNotificationService();
+    private final InMemoryNotificationRequestStore store = new InMemoryNotificationRequestStore();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CoalescingNotificationDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        notificationService.release.countDown();
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void shouldCreateOneNotificationPerChannelForABurstAboutTheSameOrder() {
+        // Given
+        dispatcher = dispatcher(Duration.ofMillis(100), Map.of(), 3);
+
+        // When
+        dispatcher.dispatch("order:1", request(PHONE, NotificationChannel.SMS, "CONFIRMED", NotificationPriority.HIGH));
+        dispatcher.dispatch("order:1", request(DEVICE, NotificationChannel.PUSH_NOTIFICATION, "CONFIRMED",
+                                               NotificationPriority.NORMAL));
+        dispatcher.dispatch("order:1", request(PHONE, NotificationChannel.SMS, "PREPARING", NotificationPriority.NORMAL));
+        dispatcher.dispatch("order:2", request(PHONE, NotificationChannel.SMS, "CONFIRMED", NotificationPriority.NORMAL));
+        dispatcher.dispatch("order:1", request(PHONE, NotificationChannel.SMS, "READY_FOR_PICKUP",
+                                               NotificationPriority.NORMAL));
+
+        // Then: the latest status per channel, at the highest priority requested
+        awaitUntil(() -> notificationService.created.size() == 3);
+        assertThat(notificationService.created).anySatisfy(request -> {
+            assertThat(request.channel()).isEqualTo(NotificationChannel.SMS);
+            assertThat(request.parameters().get("newStatus")).isEqualTo("READY_FOR_PICKUP");
+            assertThat(request.priority()).isEqualTo(NotificationPriority.HIGH);
+        });
+        assertThat(meterRegistry.get("notification.fan_out.coalesced").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("notification.fan_out.created").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void shouldStoreARequestUntilItsNotificationIsCreated() {
+        // Given
+        dispatcher = dispatcher(Duration.ZERO, Map.of(), 3);
+        notificationService.blockUntilReleased();
+
+        // When
+        dispatcher.dispatch("order:1", request(PHONE, NotificationChannel.SMS, "CONFIRMED", NotificationPriority.NORMAL));
+
+        // Then
+        awaitUntil(() -> notificationService.inFlight.get() == 1);
+        assertThat(store.size()).isEqualTo(1);
+        notificationService.release.countDown();
+        awaitUntil(() -> store.size() == 0);
+        assertThat(notificationService.created).hasSize(1);
+    }
+
+    @Test
+    void shouldRecoverRequestsStrandedByAStoppedInstance() {
+        // Given: a request another instance failed once and then stopped holding
+        dispatcher = dispatcher(Duration.ZERO, Map.of(), 3);
+        NotificationRequest request = request(PHONE, NotificationChannel.SMS, "CONFIRMED", NotificationPriority.NORMAL);
+        long id = store.insert("order:1", request, Instant.now().plusSeconds(60));
+        store.reschedule(id, 1, Instant.now().minusSeconds(1));
+        store.insert("order:2", request, Instant.now().plusSeconds(60));
+
+        // When
+        dispatcher.recoverStranded();
+
+        // Then: only the stranded one is created, and no longer stored
+        awaitUntil(() -> notificationService.created.size() == 1);
+        awaitUntil(() -> store.size() == 1);
+        assertThat(meterRegistry.get("notification.fan_out.recovered").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldLimitConcurrencyPerChannel() {
+        // Given: SMS limited to one at a time and the service blocking
+        dispatcher = dispatcher(Duration.ZERO, Map.of(NotificationChannel.SMS, 1), 3);
+        notificationService.blockUntilReleased();
+
+        // When
+        for (int order = 0; order < 5; order++) {
+            dispatcher.dispatch("order:" + order, request(PHONE, NotificationChannel.SMS, "CONFIRMED",
+                                                          NotificationPriority.NORMAL));
+            dispatcher.dispatch("order:" + order, request(DEVICE, NotificationChannel.PUSH_NOTIFICATION,
+                                                          "CONFIRMED", NotificationPriority.NORMAL));
+        }
+
+        // Then: every push notification is in flight but only one SMS
+        awaitUntil(() -> notificationService.inFlight.get() == 6);
+        assertThat(notificationService.created).isEmpty();
+        notificationService.release.countDown();
+        awaitUntil(() -> notificationService.created.size() == 10);
+        assertThat(notificationService.maxSmsInFlight.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDeadLetterAfterMaxAttemptsAndRedrive() {
+        // Given
+        dispatcher = dispatcher(Duration.ZERO, Map.of(), 2);
+        notificationService.failures.set(2);
+
+        // When
+        dispatcher.dispatch("order:1", request(PHONE, NotificationChannel.SMS, "CONFIRMED", NotificationPriority.NORMAL));
+
+        // Then
+        awaitUntil(() -> dispatcher.getDeadLetters().size() == 1);
+        NotificationDeadLetter letter = dispatcher.getDeadLetters().get(0);
+        assertThat(letter.coalesceKey()).isEqualTo("order:1");
+        assertThat(letter.attempts()).isEqualTo(2);
+        assertThat(letter.reason()).isEqualTo("Template store unavailable");
+        assertThat(meterRegistry.get("notification.fan_out.retried").counter().count()).isEqualTo(1.0);
+        assertThat(store.countDeadLetters()).isEqualTo(1);
+
+        // When
+        int redriven = dispatcher.redriveDeadLetters();
+
+        // Then
+        assertThat(redriven).isEqualTo(1);
+        awaitUntil(() -> notificationService.created.size() == 1);
+        assertThat(dispatcher.getDeadLetters()).isEmpty();
+        awaitUntil(() -> store.size() == 0);
+    }
+
+    private CoalescingNotificationDispatcher dispatcher(Duration window, Map<NotificationChannel, Integer> limits,
+                                                        int maxAttempts) {
+        return new CoalescingNotificationDispatcher(notificationService, store,
+            new NotificationFanOutPolicy(window, limits, 16, 100, maxAttempts, Duration.ofMillis(10), 10,
+                                         Duration.ofMinutes(5)),
+            meterRegistry, Clock.systemUTC());
+    }
+
+    private static NotificationRequest request(Recipient recipient, NotificationChannel channel, String status,
+                                               NotificationPriority priority) {
+        return new NotificationRequest(MERCHANT, recipient, channel, "order_status_changed",
+                                       Map.of("newStatus", status), priority);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 5 seconds");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class RecordingNotificationService implements NotificationService {
+
+        private final List<NotificationRequest> created = new CopyOnWriteArrayList<>();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger smsInFlight = new AtomicInteger();
+        private final AtomicInteger maxSmsInFlight = new AtomicInteger();
+        private volatile CountDownLatch release = new CountDownLatch(0);
+
+        void blockUntilReleased() {
+            release = new CountDownLatch(1);
+        }
+
+        @Override
+        public Notification createNotification(MerchantId merchantId, Recipient recipient,
+                                               NotificationChannel channel, String templateId,
+                                               Map<String, String> parameters, NotificationPriority priority) {
+            if (failures.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+                throw new IllegalStateException("Template store unavailable");
+            }
+            inFlight.incrementAndGet();
+            if (channel == NotificationChannel.SMS) {
+                maxSmsInFlight.accumulateAndGet(smsInFlight.incrementAndGet(), Math::max);
+            }
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                if (channel == NotificationChannel.SMS) {
+                    smsInFlight.decrementAndGet();
+                }
+            }
+            created.add(new NotificationRequest(merchantId, recipient, channel, templateId, parameters, priority));
+            return new Notification(NotificationId.generate(), merchantId, recipient, channel, templateId,
+                                    "", "", parameters, priority);
+        }
+
+        @Override
+        public int processPendingNotifications() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Notification> getNotificationsForMerchant(MerchantId merchantId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void cancelNotification(NotificationId notificationId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
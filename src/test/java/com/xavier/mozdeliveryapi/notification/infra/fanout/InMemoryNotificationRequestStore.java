@@ -0,0 +1,105 @@
+package com.xavier.mozdeliveryapi.notification.infra.fanout;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.xavier.mozdeliveryapi.notification.application.dto.NotificationRequest;
+
+/**
+ * Notification request store kept in a map, for tests.
+ */
+class InMemoryNotificationRequestStore implements NotificationRequestStore {
+
+    private final Map<Long, Row> rows = new ConcurrentSkipListMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @Override
+    public long insert(String coalesceKey, NotificationRequest request, Instant dueAt) {
+        long id = ids.incrementAndGet();
+        rows.put(id, new Row(coalesceKey, request, 0, dueAt, null, null));
+        return id;
+    }
+
+    @Override
+    public void update(long id, NotificationRequest request) {
+        rows.computeIfPresent(id, (k, row) -> new Row(row.coalesceKey, request, row.attempts, row.dueAt,
+                                                      row.reason, row.failedAt));
+    }
+
+    @Override
+    public void reschedule(long id, int attempts, Instant dueAt) {
+        rows.computeIfPresent(id, (k, row) -> row.failedAt != null ? row
+            : new Row(row.coalesceKey, row.request, attempts, dueAt, null, null));
+    }
+
+    @Override
+    public void delete(long id) {
+        rows.remove(id);
+    }
+
+    @Override
+    public void markDead(long id, int attempts, String reason, Instant failedAt) {
+        rows.computeIfPresent(id, (k, row) -> new Row(row.coalesceKey, row.request, attempts, row.dueAt,
+                                                      reason, failedAt));
+    }
+
+    @Override
+    public synchronized List<StoredNotificationRequest> claimStranded(Instant now, Instant dueAt, int limit) {
+        List<StoredNotificationRequest> claimed = new ArrayList<>();
+        for (Map.Entry<Long, Row> entry : rows.entrySet()) {
+            Row row = entry.getValue();
+            if (claimed.size() < limit && row.failedAt == null && row.dueAt.isBefore(now)) {
+                rows.put(entry.getKey(), new Row(row.coalesceKey, row.request, row.attempts, dueAt, null, null));
+                claimed.add(new StoredNotificationRequest(entry.getKey(), row.coalesceKey, row.request,
+                                                          row.attempts));
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    public List<NotificationDeadLetter> findDeadLetters(int limit) {
+        List<NotificationDeadLetter> letters = rows.values().stream()
+            .filter(row -> row.failedAt != null)
+            .sorted(Comparator.comparing((Row row) -> row.failedAt).reversed())
+            .limit(limit)
+            .map(row -> new NotificationDeadLetter(row.coalesceKey, row.request, row.attempts, row.reason,
+                                                   row.failedAt))
+            .toList();
+        return letters.reversed();
+    }
+
+    @Override
+    public long countDeadLetters() {
+        return rows.values().stream().filter(row -> row.failedAt != null).count();
+    }
+
+    @Override
+    public synchronized List<StoredNotificationRequest> requeueDeadLetters(Instant dueAt) {
+        List<StoredNotificationRequest> requeued = new ArrayList<>();
+        for (Map.Entry<Long, Row> entry : rows.entrySet()) {
+            Row row = entry.getValue();
+            if (row.failedAt != null) {
+                rows.put(entry.getKey(), new Row(row.coalesceKey, row.request, 0, dueAt, null, null));
+                requeued.add(new StoredNotificationRequest(entry.getKey(), row.coalesceKey, row.request, 0));
+            }
+        }
+        return requeued;
+    }
+
+    /**
+     * Number of requests stored, waiting or dead.
+     */
+    int size() {
+        return rows.size();
+    }
+
+    private record Row(String coalesceKey, NotificationRequest request, int attempts, Instant dueAt,
+                       String reason, Instant failedAt) {
+    }
+}
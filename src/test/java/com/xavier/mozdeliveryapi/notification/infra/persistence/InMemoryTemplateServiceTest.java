@@ -0,0 +1,79 @@
+package com.xavier.mozdeliveryapi.notification.infra.persistence;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+import com.xavier.mozdeliveryapi.notification.domain.entity.NotificationTemplate;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+class InMemoryTemplateServiceTest {
+
+    private static final MerchantId MERCHANT = MerchantId.generate();
+    private static final MerchantId OTHER_MERCHANT = MerchantId.generate();
+    private static final Locale PORTUGUESE = Locale.forLanguageTag("pt");
+    private static final Locale MOZAMBICAN_PORTUGUESE = Locale.forLanguageTag("pt-MZ");
+    private static final Map<String, String> PARAMETERS = Map.of("orderNumber", "A-17", "newStatus", "READY");
+
+    private final InMemoryTemplateService templateService = new InMemoryTemplateService();
+
+    @Test
+    void shouldPickTheMostSpecificVariant() {
+        // Given
+        templateService.registerTemplate(
+            sms("O seu pedido {{orderNumber}} está {{newStatus}}."), null, PORTUGUESE);
+        templateService.registerTemplate(
+            sms("{{orderNumber}}: {{newStatus}} - Loja da Ana"), MERCHANT, MOZAMBICAN_PORTUGUESE);
+
+        // Then
+        assertThat(render(MERCHANT, MOZAMBICAN_PORTUGUESE)).isEqualTo("A-17: READY - Loja da Ana");
+        assertThat(render(OTHER_MERCHANT, MOZAMBICAN_PORTUGUESE)).isEqualTo("O seu pedido A-17 está READY.");
+        assertThat(render(MERCHANT, PORTUGUESE)).isEqualTo("O seu pedido A-17 está READY.");
+        assertThat(render(MERCHANT, Locale.ENGLISH))
+            .isEqualTo("Your order A-17 status has been updated to: READY.");
+        assertThat(render(null, null)).isEqualTo("Your order A-17 status has been updated to: READY.");
+    }
+
+    @Test
+    void shouldRejectVariantsNeedingParametersCallersDoNotSupply() {
+        assertThatThrownBy(() -> templateService.registerTemplate(
+                sms("Pedido {{orderNumber}} para {{courierName}}"), MERCHANT, PORTUGUESE))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("courierName");
+
+        // A default fills it in, so this one is fine
+        templateService.registerTemplate(new NotificationTemplate("order_status_changed", "Pedido",
+            "Pedido {{orderNumber}}, {{shopName}}", NotificationChannel.SMS, Map.of("shopName", "Loja da Ana")),
+            MERCHANT, PORTUGUESE);
+        assertThat(render(MERCHANT, PORTUGUESE)).isEqualTo("Pedido A-17, Loja da Ana");
+    }
+
+    @Test
+    void shouldRejectVariantsOfUnknownTemplates() {
+        assertThatThrownBy(() -> templateService.registerTemplate(new NotificationTemplate("no_such_template",
+                "Subject", "Body", NotificationChannel.SMS, Map.of()), MERCHANT, null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("no_such_template");
+    }
+
+    @Test
+    void shouldRejectTemplatesWithMalformedPlaceholders() {
+        assertThatThrownBy(() -> templateService.registerTemplate(sms("Pedido {{orderNumber"), MERCHANT, PORTUGUESE))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Unclosed placeholder");
+        assertThat(render(MERCHANT, PORTUGUESE)).isEqualTo("Your order A-17 status has been updated to: READY.");
+    }
+
+    private String render(MerchantId merchantId, Locale locale) {
+        return templateService.getCompiledTemplate("order_status_changed", NotificationChannel.SMS, merchantId, locale)
+            .renderBody(PARAMETERS);
+    }
+
+    private static NotificationTemplate sms(String body) {
+        return new NotificationTemplate("order_status_changed", "Atualização", body, NotificationChannel.SMS, Map.of());
+    }
+}
@@ -0,0 +1,84 @@
+package com.xavier.mozdeliveryapi.notification.infra.queue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.xavier.mozdeliveryapi.notification.domain.entity.Notification;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationId;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationPriority;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationStatus;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.Recipient;
+import com.xavier.mozdeliveryapi.notification.infra.persistence.NotificationRepositoryImpl;
+import com.xavier.mozdeliveryapi.notification.infra.persistence.NotificationRoutingServiceImpl;
+import com.xavier.mozdeliveryapi.notification.infra.persistence.SimulatedLatencyGateway;
+import com.xavier.mozdeliveryapi.notification.infra.queue.NotificationDispatchPolicy.ChannelLimits;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+/**
+ * Measures a minute's worth of SMS at 10k a minute against a provider that
+ * takes 20 ms a call plus 0.1 ms a recipient, sent one per call and in
+ * batches of 100, with eight calls in flight either way. Run with
+ * {@code ./mvnw test -Dtest=NotificationBatchingBenchmarkTest -Dbenchmark=true}.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class NotificationBatchingBenchmarkTest {
+
+    private static final int NOTIFICATIONS = 10_000;
+    private static final int CONCURRENCY = 8;
+    private static final Duration REQUEST_LATENCY = Duration.ofMillis(20);
+    private static final Duration RECIPIENT_LATENCY = Duration.ofNanos(100_000);
+
+    @Test
+    void measureSmsThroughput() throws Exception {
+        double single = measure(1);
+        double batched = measure(100);
+
+        System.out.printf("one per call: %.0f notifications/min%n", single);
+        System.out.printf("batches of 100: %.0f notifications/min (%.1fx)%n", batched, batched / single);
+    }
+
+    private static double measure(int maxBatchSize) throws Exception {
+        SimulatedLatencyGateway gateway = new SimulatedLatencyGateway(NotificationChannel.SMS, REQUEST_LATENCY,
+            RECIPIENT_LATENCY, maxBatchSize);
+        NotificationRoutingServiceImpl routingService = new NotificationRoutingServiceImpl();
+        routingService.registerGateway(gateway);
+        NotificationRepositoryImpl repository = new NotificationRepositoryImpl();
+        ChannelLimits limits = new ChannelLimits(1_000_000, 1_000_000, CONCURRENCY, maxBatchSize,
+            Duration.ofMillis(10));
+        PriorityNotificationQueue queue = new PriorityNotificationQueue(routingService, repository,
+            new NotificationDispatchPolicy(Map.of(NotificationChannel.SMS, limits), ChannelLimits.DEFAULT, 1,
+                Duration.ofSeconds(1), Duration.ofSeconds(1)),
+            new SimpleMeterRegistry());
+        try {
+            MerchantId merchant = MerchantId.generate();
+            long begin = System.nanoTime();
+            for (int i = 0; i < NOTIFICATIONS; i++) {
+                Notification notification = new Notification(NotificationId.generate(), merchant,
+                    Recipient.phone("+25884" + (1_000_000 + i), "Customer"), NotificationChannel.SMS,
+                    "ORDER_STATUS", null, "Your order is on its way", Map.of(), NotificationPriority.NORMAL);
+                queue.enqueue(repository.save(notification));
+            }
+            while (queue.getQueuedCount() > 0) {
+                TimeUnit.MILLISECONDS.sleep(5);
+            }
+            double minutes = (System.nanoTime() - begin) / 60e9;
+
+            assertThat(repository.findByStatus(NotificationStatus.SENT)).hasSize(NOTIFICATIONS);
+            System.out.printf("max batch %d: %d provider calls in %.1f s%n",
+                maxBatchSize, gateway.getRequestCount(), minutes * 60);
+            return NOTIFICATIONS / minutes;
+        } finally {
+            queue.shutdown();
+        }
+    }
+}
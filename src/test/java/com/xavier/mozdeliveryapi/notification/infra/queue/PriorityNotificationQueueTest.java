@@ -0,0 +1,298 @@
+package com.xavier.mozdeliveryapi.notification.infra.queue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.xavier.mozdeliveryapi.notification.application.usecase.port.NotificationGateway;
+import com.xavier.mozdeliveryapi.notification.domain.entity.Notification;
+import com.xavier.mozdeliveryapi.notification.domain.entity.NotificationResult;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationChannel;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationId;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationPriority;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.NotificationStatus;
+import com.xavier.mozdeliveryapi.notification.domain.valueobject.Recipient;
+import com.xavier.mozdeliveryapi.notification.infra.persistence.NotificationRepositoryImpl;
+import com.xavier.mozdeliveryapi.notification.infra.persistence.NotificationRoutingServiceImpl;
+import com.xavier.mozdeliveryapi.notification.infra.queue.NotificationDispatchPolicy.ChannelLimits;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+class PriorityNotificationQueueTest {
+
+    private static final MerchantId MERCHANT = MerchantId.generate();
+    private static final Recipient PHONE = Recipient.phone("+258840000001", "Customer");
+
+    private final RecordingSmsGateway gateway = new RecordingSmsGateway();
+    private final NotificationRepositoryImpl notificationRepository = new NotificationRepositoryImpl();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PriorityNotificationQueue queue;
+
+    @AfterEach
+    void tearDown() {
+        gateway.release.countDown();
+        queue.shutdown();
+    }
+
+    @Test
+    void shouldSendMostUrgentFirstWhileTheChannelIsBusy() {
+        // Given: one SMS at a time and the first one blocking
+        queue = queue(new ChannelLimits(1000, 1000, 1), 3);
+        gateway.blockUntilReleased();
+        queue.enqueue(notification("first", NotificationPriority.NORMAL));
+        awaitUntil(() -> gateway.sent.size() == 1);
+
+        // When
+        queue.enqueue(notification("low", NotificationPriority.LOW));
+        queue.enqueue(notification("normal", NotificationPriority.NORMAL));
+        queue.enqueue(notification("critical", NotificationPriority.CRITICAL));
+        queue.enqueue(notification("high", NotificationPriority.HIGH));
+        gateway.release.countDown();
+
+        // Then
+        awaitUntil(() -> gateway.sent.size() == 5);
+        assertThat(gateway.sent).containsExactly("first", "critical", "high", "normal", "low");
+        awaitUntil(() -> queue.getQueuedCount() == 0);
+        assertThat(meterRegistry.get("notification.queue.sent").counter().count()).isEqualTo(5.0);
+        assertThat(meterRegistry.get("notification.queue.latency").tag("priority", "CRITICAL").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotSendFasterThanTheChannelAllows() {
+        // Given: a burst of two, then ten a second
+        queue = queue(new ChannelLimits(10, 2, 4), 3);
+        long start = System.nanoTime();
+
+        // When
+        for (int i = 0; i < 6; i++) {
+            queue.enqueue(notification("alert-" + i, NotificationPriority.HIGH));
+        }
+
+        // Then: the four after the burst wait for tokens
+        awaitUntil(() -> gateway.sent.size() == 6);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(300));
+    }
+
+    @Test
+    void shouldRetryFailedSendsThenGiveUp() {
+        // Given
+        queue = queue(new ChannelLimits(1000, 1000, 4), 3);
+        gateway.failures.put("flaky", new AtomicInteger(2));
+        gateway.failures.put("broken", new AtomicInteger(Integer.MAX_VALUE));
+        Notification flaky = notification("flaky", NotificationPriority.NORMAL);
+        Notification broken = notification("broken", NotificationPriority.NORMAL);
+
+        // When
+        queue.enqueue(flaky);
+        queue.enqueue(broken);
+
+        // Then
+        awaitUntil(() -> queue.getQueuedCount() == 0);
+        assertThat(notificationRepository.findById(flaky.getNotificationId()).orElseThrow().getStatus())
+            .isEqualTo(NotificationStatus.SENT);
+        assertThat(notificationRepository.findById(broken.getNotificationId()).orElseThrow().getStatus())
+            .isEqualTo(NotificationStatus.FAILED);
+        assertThat(gateway.attempts.get()).isEqualTo(6);
+        assertThat(meterRegistry.get("notification.queue.retried").counter().count()).isEqualTo(4.0);
+        assertThat(meterRegistry.get("notification.queue.failed").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldSendInBatchesAndRetryOnlyTheRecipientsThatFailed() {
+        // Given: batches of up to ten, waiting a while to fill
+        queue = queue(new ChannelLimits(1000, 1000, 1, 10, Duration.ofMillis(500)), 3);
+        gateway.maxBatchSize = 10;
+        gateway.failures.put("alert-3", new AtomicInteger(1));
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            queue.enqueue(notification("alert-" + i, NotificationPriority.NORMAL));
+        }
+
+        // Then: one call for all ten, then one for the retry
+        awaitUntil(() -> queue.getQueuedCount() == 0);
+        assertThat(gateway.batches).containsExactly(10, 1);
+        assertThat(gateway.sent).hasSize(10);
+        assertThat(gateway.sent.get(9)).isEqualTo("alert-3");
+        assertThat(notificationRepository.findByStatus(NotificationStatus.SENT)).hasSize(10);
+    }
+
+    @Test
+    void shouldFailOnlyTheRecipientWhoseSendThrows() {
+        // Given
+        queue = queue(new ChannelLimits(1000, 1000, 1, 10, Duration.ofMillis(500)), 1);
+        gateway.maxBatchSize = 10;
+        gateway.throwing.add("alert-3");
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            queue.enqueue(notification("alert-" + i, NotificationPriority.NORMAL));
+        }
+
+        // Then
+        awaitUntil(() -> queue.getQueuedCount() == 0);
+        assertThat(gateway.batches).containsExactly(5);
+        assertThat(notificationRepository.findByStatus(NotificationStatus.SENT)).hasSize(4);
+        assertThat(notificationRepository.findByStatus(NotificationStatus.FAILED))
+            .singleElement()
+            .satisfies(failed -> assertThat(failed.getTemplateId()).isEqualTo("alert-3"));
+    }
+
+    @Test
+    void shouldSendOneAtATimeWhenTheWholeBatchThrows() {
+        // Given
+        queue = queue(new ChannelLimits(1000, 1000, 1, 10, Duration.ofMillis(500)), 1);
+        gateway.maxBatchSize = 10;
+        gateway.batchFailures.set(1);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            queue.enqueue(notification("alert-" + i, NotificationPriority.NORMAL));
+        }
+
+        // Then
+        awaitUntil(() -> queue.getQueuedCount() == 0);
+        assertThat(gateway.batches).containsExactly(3);
+        assertThat(gateway.attempts.get()).isEqualTo(3);
+        assertThat(notificationRepository.findByStatus(NotificationStatus.SENT)).hasSize(3);
+    }
+
+    @Test
+    void shouldDropNotificationsCancelledWhileQueued() {
+        // Given
+        queue = queue(new ChannelLimits(1000, 1000, 1), 3);
+        gateway.blockUntilReleased();
+        queue.enqueue(notification("first", NotificationPriority.NORMAL));
+        awaitUntil(() -> gateway.sent.size() == 1);
+        Notification cancelled = notification("cancelled", NotificationPriority.NORMAL);
+        assertThat(queue.enqueue(cancelled)).isTrue();
+        assertThat(queue.enqueue(cancelled)).isFalse();
+
+        // When
+        cancelled.cancel();
+        gateway.release.countDown();
+
+        // Then
+        awaitUntil(() -> queue.getQueuedCount() == 0);
+        assertThat(gateway.sent).containsExactly("first");
+        assertThat(cancelled.getStatus()).isEqualTo(NotificationStatus.CANCELLED);
+    }
+
+    @Test
+    void shouldKeepCancellationMadeWhileSending() {
+        // Given: the gateway holds the send open
+        queue = queue(new ChannelLimits(1000, 1000, 1), 3);
+        gateway.blockUntilReleased();
+        Notification cancelled = notification("cancelled", NotificationPriority.NORMAL);
+        queue.enqueue(cancelled);
+        awaitUntil(() -> gateway.sent.size() == 1);
+
+        // When
+        cancelled.cancel();
+        gateway.release.countDown();
+
+        // Then
+        awaitUntil(() -> queue.getQueuedCount() == 0);
+        assertThat(cancelled.getStatus()).isEqualTo(NotificationStatus.CANCELLED);
+        assertThat(cancelled.getSentAt()).isNull();
+        assertThat(meterRegistry.get("notification.queue.sent").counter().count()).isZero();
+    }
+
+    private PriorityNotificationQueue queue(ChannelLimits smsLimits, int maxAttempts) {
+        NotificationRoutingServiceImpl routingService = new NotificationRoutingServiceImpl();
+        routingService.registerGateway(gateway);
+        NotificationDispatchPolicy policy = new NotificationDispatchPolicy(
+            Map.of(NotificationChannel.SMS, smsLimits), ChannelLimits.DEFAULT, maxAttempts,
+            Duration.ofMillis(10), Duration.ofMillis(50));
+        return new PriorityNotificationQueue(routingService, notificationRepository, policy, meterRegistry);
+    }
+
+    private Notification notification(String templateId, NotificationPriority priority) {
+        Notification notification = new Notification(NotificationId.generate(), MERCHANT, PHONE,
+            NotificationChannel.SMS, templateId, null, "Body", Map.of(), priority);
+        return notificationRepository.save(notification);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 5 seconds");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class RecordingSmsGateway implements NotificationGateway {
+
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+        private final Set<String> throwing = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger batchFailures = new AtomicInteger();
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final List<Integer> batches = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch release = new CountDownLatch(0);
+        private volatile int maxBatchSize = 1;
+
+        void blockUntilReleased() {
+            release = new CountDownLatch(1);
+        }
+
+        @Override
+        public NotificationResult send(Notification notification) {
+            attempts.incrementAndGet();
+            if (throwing.contains(notification.getTemplateId())) {
+                throw new IllegalStateException("Provider rejected " + notification.getTemplateId());
+            }
+            AtomicInteger failuresLeft = failures.get(notification.getTemplateId());
+            if (failuresLeft != null && failuresLeft.getAndDecrement() > 0) {
+                return NotificationResult.failure("Provider unavailable");
+            }
+            sent.add(notification.getTemplateId());
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return NotificationResult.success("sms-" + notification.getTemplateId());
+        }
+
+        @Override
+        public List<NotificationResult> sendBatch(List<Notification> notifications) {
+            batches.add(notifications.size());
+            if (batchFailures.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+                throw new IllegalStateException("Provider unavailable");
+            }
+            return NotificationGateway.super.sendBatch(notifications);
+        }
+
+        @Override
+        public int getMaxBatchSize(NotificationChannel channel) {
+            return maxBatchSize;
+        }
+
+        @Override
+        public boolean supports(NotificationChannel channel) {
+            return channel == NotificationChannel.SMS;
+        }
+
+        @Override
+        public int getPriority(NotificationChannel channel) {
+            return 1;
+        }
+    }
+}
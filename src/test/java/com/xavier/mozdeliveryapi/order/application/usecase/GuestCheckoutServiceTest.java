@@ -14,6 +14,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.xavier.mozdeliveryapi.catalog.application.usecase.StockReservationService;
 import com.xavier.mozdeliveryapi.order.application.usecase.port.OrderRepository;
 import com.xavier.mozdeliveryapi.order.domain.entity.Order;
 import com.xavier.mozdeliveryapi.order.domain.valueobject.GuestInfo;
@@ -29,11 +30,14 @@ class GuestCheckoutServiceTest {
     @Mock
     private OrderRepository orderRepository;
     
+    @Mock
+    private StockReservationService stockReservationService;
+    
     private GuestCheckoutService guestCheckoutService;
     
     @BeforeEach
     void setUp() {
-        guestCheckoutService = new GuestCheckoutServiceImpl(orderRepository);
+        guestCheckoutService = new GuestCheckoutServiceImpl(orderRepository, stockReservationService);
     }
     
     @Test
@@ -10,9 +10,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -24,12 +26,21 @@ class ApiKeyServiceTest {
     private ApiKeyService apiKeyService;
     private ApiKeyRepository apiKeyRepository;
     private PasswordEncoder passwordEncoder;
+    private AtomicInteger verifications;
     
     @BeforeEach
     void setUp() {
         apiKeyRepository = new InMemoryApiKeyRepository();
-        passwordEncoder = new BCryptPasswordEncoder();
-        apiKeyService = new ApiKeyServiceImpl(apiKeyRepository, passwordEncoder);
+        verifications = new AtomicInteger();
+        passwordEncoder = new BCryptPasswordEncoder() {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                verifications.incrementAndGet();
+                return super.matches(rawPassword, encodedPassword);
+            }
+        };
+        apiKeyService = new ApiKeyServiceImpl(apiKeyRepository, passwordEncoder,
+            new ApiKeyVerificationCache(Duration.ofMinutes(1), 100));
     }
     
     @Test
@@ -60,8 +71,8 @@ class ApiKeyServiceTest {
         assertThat(apiKey.expiresAt()).isEqualTo(expiresAt);
         assertThat(apiKey.createdBy()).isEqualTo(createdBy);
         
-        // Raw key should have correct prefix
-        assertThat(result.rawKey()).startsWith("mk_");
+        // Raw key should embed the key ID
+        assertThat(result.rawKey()).startsWith("mk_" + apiKey.keyId() + "_");
     }
     
     @Test
@@ -254,4 +265,76 @@ class ApiKeyServiceTest {
         assertThatThrownBy(() -> apiKeyService.createApiKey("merchant", "name", Set.of("scope"), null, null))
             .isInstanceOf(NullPointerException.class);
     }
-}
\ No newline at end of file
+    
+    @Test
+    @DisplayName("Should verify a key once and serve repeat validations from cache")
+    void shouldVerifyKeyOnceAndServeRepeatValidationsFromCache() {
+        // Given
+        apiKeyService.createApiKey("merchant-123", "Other Key", Set.of("catalog:read"), null, "admin");
+        String rawKey = apiKeyService.createApiKey(
+            "merchant-123", "Test API Key", Set.of("catalog:read"), null, "admin").rawKey();
+        
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertThat(apiKeyService.validateApiKey(rawKey).valid()).isTrue();
+        }
+        
+        // Then
+        assertThat(verifications.get()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should reject cached key after it is revoked")
+    void shouldRejectCachedKeyAfterRevocation() {
+        // Given
+        ApiKeyService.CreateApiKeyResult createResult = apiKeyService.createApiKey(
+            "merchant-123", "Test API Key", Set.of("catalog:read"), null, "admin");
+        assertThat(apiKeyService.validateApiKey(createResult.rawKey()).valid()).isTrue();
+        
+        // When
+        apiKeyService.revokeApiKey(createResult.apiKey().keyId(), "admin");
+        
+        // Then
+        ApiKeyService.ApiKeyValidationResult result = apiKeyService.validateApiKey(createResult.rawKey());
+        assertThat(result.valid()).isFalse();
+        assertThat(result.reason()).isEqualTo("API key is not active");
+    }
+    
+    @Test
+    @DisplayName("Should reject wrong secret and unknown key ID")
+    void shouldRejectWrongSecretAndUnknownKeyId() {
+        // Given
+        ApiKeyService.CreateApiKeyResult createResult = apiKeyService.createApiKey(
+            "merchant-123", "Test API Key", Set.of("catalog:read"), null, "admin");
+        String keyId = createResult.apiKey().keyId();
+        
+        // When
+        ApiKeyService.ApiKeyValidationResult wrongSecret = apiKeyService.validateApiKey("mk_" + keyId + "_guess");
+        ApiKeyService.ApiKeyValidationResult unknownId = apiKeyService.validateApiKey("mk_key_0000_guess");
+        
+        // Then
+        assertThat(wrongSecret.reason()).isEqualTo("Invalid API key");
+        assertThat(unknownId.reason()).isEqualTo("Invalid API key");
+        assertThat(verifications.get()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should batch last-used updates until flushed")
+    void shouldBatchLastUsedUpdatesUntilFlushed() {
+        // Given
+        ApiKeyService.CreateApiKeyResult createResult = apiKeyService.createApiKey(
+            "merchant-123", "Test API Key", Set.of("catalog:read"), null, "admin");
+        String keyId = createResult.apiKey().keyId();
+        apiKeyService.validateApiKey(createResult.rawKey());
+        apiKeyService.validateApiKey(createResult.rawKey());
+        assertThat(apiKeyService.getApiKey(keyId).lastUsedAt()).isNull();
+        
+        // When
+        int flushed = apiKeyService.flushUsage();
+        
+        // Then
+        assertThat(flushed).isEqualTo(1);
+        assertThat(apiKeyService.getApiKey(keyId).lastUsedAt()).isNotNull();
+        assertThat(apiKeyService.flushUsage()).isZero();
+    }
+}
@@ -0,0 +1,121 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import com.xavier.mozdeliveryapi.shared.infra.config.DistributedRateLimiter.Decision;
+import com.xavier.mozdeliveryapi.shared.infra.config.RateLimitBucketStore.BucketLimit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the batching cluster-wide rate limiter.
+ */
+class DistributedRateLimiterTest {
+
+    private static final BucketLimit LIMIT = new BucketLimit(100, Duration.ofMinutes(1));
+
+    private final AtomicLong clock = new AtomicLong();
+    private InMemoryDistributedTokenStore tokenStore;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        tokenStore = new InMemoryDistributedTokenStore();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should enforce one limit across all nodes")
+    void shouldShareLimitAcrossNodes() {
+        // Given
+        DistributedRateLimiter first = limiter();
+        DistributedRateLimiter second = limiter();
+
+        // When
+        int allowed = 0;
+        for (int i = 0; i < 300; i++) {
+            DistributedRateLimiter node = i % 2 == 0 ? first : second;
+            if (node.tryConsume("tenant:42", LIMIT) == Decision.ALLOWED) {
+                allowed++;
+            }
+        }
+
+        // Then
+        assertThat(allowed).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should draw tokens from the store in batches")
+    void shouldAmortizeStoreCalls() {
+        // Given
+        DistributedRateLimiter limiter = limiter();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.tryConsume("user:7", LIMIT)).isEqualTo(Decision.ALLOWED);
+        }
+
+        // Then: a node draws at most a tenth of the limit per call
+        assertThat(tokenStore.getCalls()).isLessThanOrEqualTo(11);
+        assertThat(meterRegistry.get("ratelimit.distributed.tokens").counter().count()).isEqualTo(100.0);
+    }
+
+    @Test
+    @DisplayName("Should back off locally once the cluster limit is exhausted")
+    void shouldBackOffWhenExhausted() {
+        // Given
+        DistributedRateLimiter limiter = limiter();
+        BucketLimit limit = new BucketLimit(10, Duration.ofMinutes(1));
+        for (int i = 0; i < 10; i++) {
+            limiter.tryConsume("ip:10.0.0.1", limit);
+        }
+
+        // When
+        Decision exhausted = limiter.tryConsume("ip:10.0.0.1", limit);
+        int calls = tokenStore.getCalls();
+        Decision repeated = limiter.tryConsume("ip:10.0.0.1", limit);
+
+        // Then
+        assertThat(exhausted).isEqualTo(Decision.DENIED);
+        assertThat(repeated).isEqualTo(Decision.DENIED);
+        assertThat(tokenStore.getCalls()).isEqualTo(calls);
+        assertThat(limiter.getNanosUntilRetry("ip:10.0.0.1", limit)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should report the store unavailable until the retry interval passes")
+    void shouldRetryStoreAfterInterval() {
+        // Given
+        DistributedRateLimiter limiter = limiter();
+        tokenStore.setAvailable(false);
+
+        // When
+        Decision failed = limiter.tryConsume("user:7", LIMIT);
+        Decision skipped = limiter.tryConsume("user:7", LIMIT);
+
+        // Then
+        assertThat(failed).isEqualTo(Decision.UNAVAILABLE);
+        assertThat(skipped).isEqualTo(Decision.UNAVAILABLE);
+        assertThat(tokenStore.getCalls()).isEqualTo(1);
+        assertThat(meterRegistry.get("ratelimit.distributed.degraded").gauge().value()).isEqualTo(1.0);
+
+        // When: the store recovers and the retry interval has passed
+        tokenStore.setAvailable(true);
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        // Then
+        assertThat(limiter.tryConsume("user:7", LIMIT)).isEqualTo(Decision.ALLOWED);
+        assertThat(meterRegistry.get("ratelimit.distributed.degraded").gauge().value()).isEqualTo(0.0);
+    }
+
+    private DistributedRateLimiter limiter() {
+        RateLimitingConfig config = new RateLimitingConfig();
+        config.getDistributed().setEnabled(true);
+        return new DistributedRateLimiter(tokenStore, config, meterRegistry, clock::get);
+    }
+}
@@ -0,0 +1,81 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the compiled endpoint rate limit matcher.
+ */
+class EndpointRateLimitMatcherTest {
+    
+    private static final EndpointRateLimitMatcher MATCHER = EndpointRateLimitMatcher.compile(limits());
+    
+    @Test
+    @DisplayName("Should match exact paths and ignore trailing slashes")
+    void shouldMatchExactPaths() {
+        assertThat(limit("/api/public/orders/guest")).isEqualTo(10);
+        assertThat(limit("/api/public/orders/guest/track/")).isEqualTo(30);
+        assertThat(limit("/api/public/orders")).isNull();
+        assertThat(limit("/api/public/orders/guests")).isNull();
+    }
+    
+    @Test
+    @DisplayName("Should match single-segment and trailing wildcards")
+    void shouldMatchWildcards() {
+        assertThat(limit("/api/v1/deliveries/7f3c/complete")).isEqualTo(20);
+        assertThat(limit("/api/v1/deliveries/7f3c/extra/complete")).isNull();
+        assertThat(limit("/api/v1/admin")).isEqualTo(2000);
+        assertThat(limit("/api/v1/admin/tenants/42/users")).isEqualTo(2000);
+    }
+    
+    @Test
+    @DisplayName("Should prefer the most specific pattern")
+    void shouldPreferMostSpecificPattern() {
+        assertThat(limit("/api/v1/admin/reports/export")).isEqualTo(100);
+        assertThat(limit("/api/v1/admin/reports/7/complete")).isEqualTo(2000);
+        assertThat(limit("/api/v1/deliveries/bulk/complete")).isEqualTo(5);
+    }
+    
+    @Test
+    @DisplayName("Should key limiters by method and matched pattern")
+    void shouldKeyLimitersByMethodAndPattern() {
+        EndpointRateLimitMatcher.Endpoint endpoint = MATCHER.match("/api/v1/deliveries/7f3c/complete");
+        
+        assertThat(endpoint.key("POST")).isEqualTo("endpoint:POST /api/v1/deliveries/*/complete");
+        assertThat(endpoint.key("POST")).isSameAs(MATCHER.match("/api/v1/deliveries/91ab/complete").key("POST"));
+        assertThat(endpoint.key("PROPFIND")).isEqualTo("endpoint:PROPFIND /api/v1/deliveries/*/complete");
+        assertThat(MATCHER.match("/api/v1/admin/tenants/42").key("GET")).isEqualTo("endpoint:GET /api/v1/admin/**");
+    }
+    
+    @Test
+    @DisplayName("Should reject unsupported patterns")
+    void shouldRejectUnsupportedPatterns() {
+        assertThatThrownBy(() -> EndpointRateLimitMatcher.compile(Map.of("/api/**/orders", 10)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EndpointRateLimitMatcher.compile(Map.of("/api/v1/order*", 10)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EndpointRateLimitMatcher.compile(Map.of("api/v1/orders", 10)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private static Integer limit(String path) {
+        EndpointRateLimitMatcher.Endpoint endpoint = MATCHER.match(path);
+        return endpoint != null ? endpoint.limit() : null;
+    }
+    
+    private static Map<String, Integer> limits() {
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        limits.put("/api/public/orders/guest", 10);
+        limits.put("/api/public/orders/guest/track", 30);
+        limits.put("/api/v1/deliveries/*/complete", 20);
+        limits.put("/api/v1/deliveries/bulk/complete", 5);
+        limits.put("/api/v1/admin/**", 2000);
+        limits.put("/api/v1/admin/reports/export", 100);
+        return limits;
+    }
+}
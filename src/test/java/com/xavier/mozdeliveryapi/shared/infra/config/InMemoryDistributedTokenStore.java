@@ -0,0 +1,45 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory stand-in for the Redis token store, shared by several limiters to
+ * play the part of a cluster. Buckets have the same configuration the Redis
+ * store uses, and the store can be taken down to exercise the degraded mode.
+ */
+class InMemoryDistributedTokenStore implements DistributedTokenStore {
+    
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile boolean available = true;
+    
+    @Override
+    public CompletableFuture<Long> tryAcquire(String key, long capacity, Duration period, long tokens) {
+        calls.incrementAndGet();
+        if (!available) {
+            return CompletableFuture.failedFuture(new IOException("Connection refused"));
+        }
+        Bucket bucket = buckets.computeIfAbsent(key + ':' + capacity + '/' + period.toMillis(),
+            k -> Bucket.builder()
+                .addLimit(Bandwidth.classic(capacity, Refill.intervally(capacity, period)))
+                .build());
+        return CompletableFuture.completedFuture(bucket.tryConsumeAsMuchAsPossible(tokens));
+    }
+    
+    int getCalls() {
+        return calls.get();
+    }
+    
+    void setAvailable(boolean available) {
+        this.available = available;
+    }
+}
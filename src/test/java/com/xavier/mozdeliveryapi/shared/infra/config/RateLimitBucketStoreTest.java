@@ -0,0 +1,132 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import com.xavier.mozdeliveryapi.shared.infra.config.RateLimitBucketStore.BucketLimit;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the bounded rate limit bucket store.
+ */
+class RateLimitBucketStoreTest {
+
+    private static final BucketLimit PER_MINUTE = new BucketLimit(10, Duration.ofMinutes(1));
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should stay within the size bound and keep recently used buckets")
+    void shouldEvictLeastRecentlyUsedBuckets() {
+        // Given
+        RateLimitBucketStore<Bucket> store = store(64, Duration.ofMinutes(10));
+        Bucket hot = store.get("user:hot", PER_MINUTE);
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            store.get("ip:10.0.0." + i, PER_MINUTE);
+            assertThat(store.get("user:hot", PER_MINUTE)).isSameAs(hot);
+        }
+
+        // Then
+        assertThat(store.size()).isLessThanOrEqualTo(64);
+        assertThat(evictions("size")).isEqualTo(1_001 - store.size());
+        assertThat(meterRegistry.get("ratelimit.buckets.live").gauge().value()).isEqualTo(store.size());
+    }
+
+    @Test
+    @DisplayName("Should evict idle buckets only after their refill period")
+    void shouldEvictIdleBuckets() {
+        // Given
+        RateLimitBucketStore<Bucket> store = store(1_000, Duration.ofMinutes(2));
+        store.get("ip:10.0.0.1", PER_MINUTE);
+        store.get("ip:10.0.0.2", new BucketLimit(100, Duration.ofHours(1)));
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        store.get("ip:10.0.0.3", PER_MINUTE);
+
+        // When
+        clock.addAndGet(Duration.ofSeconds(90).toNanos());
+        int evicted = store.evictIdle();
+
+        // Then: the hourly bucket may still hold consumed tokens, the recent one is not idle yet
+        assertThat(evicted).isEqualTo(1);
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(evictions("idle")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should rebuild a bucket when its configured limit changes")
+    void shouldRebuildBucketWhenLimitChanges() {
+        // Given
+        RateLimitBucketStore<Bucket> store = store(1_000, Duration.ofMinutes(10));
+        Bucket original = store.get("endpoint:POST /api/v1/payments", new BucketLimit(1, Duration.ofMinutes(1)));
+        assertThat(original.tryConsume(1)).isTrue();
+        assertThat(original.tryConsume(1)).isFalse();
+
+        // When
+        Bucket rebuilt = store.get("endpoint:POST /api/v1/payments", new BucketLimit(5, Duration.ofMinutes(1)));
+
+        // Then
+        assertThat(rebuilt).isNotSameAs(original);
+        assertThat(rebuilt.tryConsume(1)).isTrue();
+        assertThat(meterRegistry.get("ratelimit.buckets.rebuilt").counter().count()).isEqualTo(1.0);
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should record hits and misses")
+    void shouldRecordHitRatio() {
+        // Given
+        RateLimitBucketStore<Bucket> store = store(1_000, Duration.ofMinutes(10));
+
+        // When
+        store.get("user:1", PER_MINUTE);
+        store.get("user:1", PER_MINUTE);
+        store.get("user:1", PER_MINUTE);
+        store.get("user:2", PER_MINUTE);
+
+        // Then
+        assertThat(meterRegistry.get("ratelimit.buckets.requests").tag("result", "hit").counter().count())
+            .isEqualTo(2.0);
+        assertThat(meterRegistry.get("ratelimit.buckets.requests").tag("result", "miss").counter().count())
+            .isEqualTo(2.0);
+        assertThat(store.hitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Should reject bounds smaller than the segment count")
+    void shouldRejectInvalidBounds() {
+        assertThatThrownBy(() -> store(8, Duration.ofMinutes(10)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store(1_000, Duration.ZERO))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private RateLimitBucketStore<Bucket> store(int maxBuckets, Duration idleTimeout) {
+        return new RateLimitBucketStore<>("local", maxBuckets, idleTimeout, this::bucket, meterRegistry, clock::get);
+    }
+
+    private Bucket bucket(BucketLimit limit) {
+        return Bucket.builder()
+            .addLimit(Bandwidth.classic(limit.capacity(), Refill.intervally(limit.capacity(), limit.period())))
+            .build();
+    }
+
+    private double evictions(String cause) {
+        return meterRegistry.get("ratelimit.buckets.evictions").tag("cause", cause).counter().count();
+    }
+}
@@ -0,0 +1,139 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures {@code preHandle} throughput with the limiter itself stubbed out,
+ * and compares the compiled endpoint matcher with per-request regex matching.
+ * Run with {@code ./mvnw test -Dtest=RateLimitingInterceptorBenchmarkTest -Dbenchmark=true}.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RateLimitingInterceptorBenchmarkTest {
+
+    private static final int REQUESTS = 1_000_000;
+    private static final String[] PATHS = {
+        "/api/v1/orders",
+        "/api/v1/orders/8d2f/items",
+        "/api/v1/deliveries/8d2f/complete",
+        "/api/v1/admin/tenants/42",
+        "/api/v1/payments",
+        "/api/v1/catalogs/17/products"
+    };
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void measurePreHandleThroughput() throws Exception {
+        RateLimitingInterceptor interceptor = new RateLimitingInterceptor(new RateLimitingService(
+            new RateLimitingConfig(), new SimpleMeterRegistry(), Optional.empty()) {
+            @Override
+            public boolean isAllowed(String key, int requestsPerMinute) {
+                return true;
+            }
+        });
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            "merchant-123", null, List.of(new SimpleGrantedAuthority("ROLE_MERCHANT"))));
+
+        List<MockHttpServletRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", PATHS[i % PATHS.length]);
+            request.setRemoteAddr("10.0." + (i / 8) + "." + (i % 8));
+            requests.add(request);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Warm up before measuring
+        long allowed = run(interceptor, requests, response, REQUESTS);
+        long start = System.nanoTime();
+        allowed += run(interceptor, requests, response, REQUESTS);
+        long nanos = System.nanoTime() - start;
+
+        System.out.printf("preHandle: %.0f ns/request, %.2f M requests/s%n",
+            (double) nanos / REQUESTS, REQUESTS / (nanos / 1e3));
+        assertThat(allowed).isEqualTo(2L * REQUESTS);
+    }
+
+    @Test
+    void compareCompiledMatcherWithRegexMatching() {
+        Map<String, Integer> limits = Map.of(
+            "/api/public/orders/guest", 10,
+            "/api/v1/deliveries/*/complete", 20,
+            "/api/v1/delivery-confirmation/*/validate", 20,
+            "/api/public/merchants", 200,
+            "/api/v1/payments", 50,
+            "/api/v1/admin/**", 2000);
+        EndpointRateLimitMatcher matcher = EndpointRateLimitMatcher.compile(limits);
+
+        long compiledHits = runCompiled(matcher);
+        long regexHits = runRegex(limits);
+
+        long start = System.nanoTime();
+        runCompiled(matcher);
+        long compiledNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        runRegex(limits);
+        long regexNanos = System.nanoTime() - start;
+
+        System.out.printf("endpoint match: compiled=%.0f ns regex=%.0f ns speedup=%.1fx%n",
+            (double) compiledNanos / REQUESTS, (double) regexNanos / REQUESTS,
+            (double) regexNanos / compiledNanos);
+        assertThat(compiledHits).isEqualTo(regexHits);
+    }
+
+    private long run(RateLimitingInterceptor interceptor, List<MockHttpServletRequest> requests,
+                     MockHttpServletResponse response, int count) throws Exception {
+        long allowed = 0;
+        for (int i = 0; i < count; i++) {
+            if (interceptor.preHandle(requests.get(i & 63), response, null)) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    private long runCompiled(EndpointRateLimitMatcher matcher) {
+        long hits = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            if (matcher.match(PATHS[i % PATHS.length]) != null) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private long runRegex(Map<String, Integer> limits) {
+        long hits = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            String path = PATHS[i % PATHS.length];
+            boolean matched = limits.keySet().stream()
+                .anyMatch(pattern -> pattern.contains("*")
+                    ? path.matches(pattern.replace("*", "[^/]*").replace("[^/]*[^/]*", ".*"))
+                    : path.equals(pattern));
+            if (matched) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
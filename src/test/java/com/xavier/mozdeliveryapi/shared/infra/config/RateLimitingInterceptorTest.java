@@ -91,6 +91,24 @@ class RateLimitingInterceptorTest {
         verify(rateLimitingService).isAllowed("endpoint:POST /api/public/orders/guest", 10);
     }
     
+    @Test
+    @DisplayName("Should apply wildcard endpoint rate limiting per matched pattern")
+    void shouldApplyWildcardEndpointRateLimiting() throws Exception {
+        // Given
+        when(request.getRequestURI()).thenReturn("/api/v1/deliveries/d-42/complete");
+        when(request.getMethod()).thenReturn("POST");
+        when(rateLimitingService.isAllowed(eq("endpoint:POST /api/v1/deliveries/*/complete"), eq(20)))
+            .thenReturn(false);
+        
+        // When
+        boolean result = interceptor.preHandle(request, response, null);
+        
+        // Then
+        assertThat(result).isFalse();
+        verify(response).setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        verify(rateLimitingService, never()).isAllowed(startsWith("ip:"), anyInt());
+    }
+    
     @Test
     @DisplayName("Should apply role-based rate limiting for authenticated users")
     void shouldApplyRoleBasedRateLimitingForAuthenticatedUsers() throws Exception {
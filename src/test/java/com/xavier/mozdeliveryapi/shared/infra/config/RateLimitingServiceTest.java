@@ -0,0 +1,91 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for rate limiting with distributed limits enabled.
+ */
+class RateLimitingServiceTest {
+
+    private InMemoryDistributedTokenStore tokenStore;
+
+    @BeforeEach
+    void setUp() {
+        tokenStore = new InMemoryDistributedTokenStore();
+    }
+
+    @Test
+    @DisplayName("Should share limits between service instances")
+    void shouldShareLimitsBetweenInstances() {
+        // Given
+        RateLimitingService first = service(RateLimitingConfig.DegradedMode.LOCAL);
+        RateLimitingService second = service(RateLimitingConfig.DegradedMode.LOCAL);
+
+        // When
+        int allowed = 0;
+        for (int i = 0; i < 60; i++) {
+            if ((i % 2 == 0 ? first : second).isAllowed("ip:10.0.0.1", 30)) {
+                allowed++;
+            }
+        }
+
+        // Then
+        assertThat(allowed).isEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("Should fall back to local buckets while the store is unavailable")
+    void shouldFallBackToLocalBuckets() {
+        // Given
+        RateLimitingService service = service(RateLimitingConfig.DegradedMode.LOCAL);
+        tokenStore.setAvailable(false);
+
+        // When
+        int allowed = 0;
+        for (int i = 0; i < 50; i++) {
+            if (service.isAllowed("ip:10.0.0.1", 30)) {
+                allowed++;
+            }
+        }
+
+        // Then
+        assertThat(allowed).isEqualTo(30);
+        assertThat(tokenStore.getCalls()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject requests while the store is unavailable in deny mode")
+    void shouldDenyWhenConfigured() {
+        // Given
+        RateLimitingService service = service(RateLimitingConfig.DegradedMode.DENY);
+        tokenStore.setAvailable(false);
+
+        // When / Then
+        assertThat(service.isAllowed("ip:10.0.0.1", 30)).isFalse();
+        assertThat(service.isAllowed("user:7", 60)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should require a token store when distributed limits are enabled")
+    void shouldRequireTokenStore() {
+        RateLimitingConfig config = new RateLimitingConfig();
+        config.getDistributed().setEnabled(true);
+
+        assertThatThrownBy(() -> new RateLimitingService(config, new SimpleMeterRegistry(), Optional.empty()))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    private RateLimitingService service(RateLimitingConfig.DegradedMode degradedMode) {
+        RateLimitingConfig config = new RateLimitingConfig();
+        config.getDistributed().setEnabled(true);
+        config.getDistributed().setDegradedMode(degradedMode);
+        return new RateLimitingService(config, new SimpleMeterRegistry(), Optional.of(tokenStore));
+    }
+}
@@ -0,0 +1,143 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Pool-like DataSource over fake connections for tenant session tests.
+ *
+ * Each checkout returns a new wrapper around one of a fixed set of physical
+ * connections, like a pool does. Statements record the tenant settings they
+ * execute and can simulate a database round trip.
+ */
+class RecordingDataSource extends AbstractDataSource {
+    
+    private final Connection[] physical;
+    private final AtomicInteger next = new AtomicInteger();
+    private final List<String> executedSettings = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger openStatements = new AtomicInteger();
+    private final AtomicInteger closedConnections = new AtomicInteger();
+    private final long roundTripNanos;
+    private volatile boolean autoCommit = true;
+    private volatile boolean failing;
+    
+    RecordingDataSource(int poolSize, long roundTripNanos) {
+        this.roundTripNanos = roundTripNanos;
+        this.physical = new Connection[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            physical[i] = physicalConnection();
+        }
+    }
+    
+    @Override
+    public Connection getConnection() {
+        Connection target = physical[Math.floorMod(next.getAndIncrement(), physical.length)];
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "isWrapperFor" -> true;
+                case "unwrap" -> target;
+                case "close" -> {
+                    closedConnections.incrementAndGet();
+                    yield null;
+                }
+                default -> method.invoke(target, args);
+            });
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) {
+        return getConnection();
+    }
+    
+    List<String> getExecutedSettings() {
+        return executedSettings;
+    }
+    
+    int getOpenStatements() {
+        return openStatements.get();
+    }
+    
+    int getClosedConnections() {
+        return closedConnections.get();
+    }
+    
+    void setAutoCommit(boolean autoCommit) {
+        this.autoCommit = autoCommit;
+    }
+    
+    void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+    
+    private Connection physicalConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getAutoCommit" -> autoCommit;
+                case "prepareStatement" -> preparedStatement((String) args[0]);
+                case "createStatement" -> statement();
+                case "isWrapperFor" -> false;
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> null;
+            });
+    }
+    
+    private PreparedStatement preparedStatement(String sql) {
+        openStatements.incrementAndGet();
+        String[] parameters = new String[2];
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {PreparedStatement.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "setString" -> {
+                    parameters[(Integer) args[0] - 1] = (String) args[1];
+                    yield null;
+                }
+                case "execute" -> {
+                    roundTrip();
+                    executedSettings.add(sql + " " + parameters[0] + "=" + parameters[1]);
+                    yield true;
+                }
+                case "close" -> {
+                    openStatements.decrementAndGet();
+                    yield null;
+                }
+                default -> null;
+            });
+    }
+    
+    private Statement statement() {
+        openStatements.incrementAndGet();
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Statement.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "execute" -> {
+                    roundTrip();
+                    executedSettings.add((String) args[0]);
+                    yield true;
+                }
+                case "close" -> {
+                    openStatements.decrementAndGet();
+                    yield null;
+                }
+                default -> null;
+            });
+    }
+    
+    private void roundTrip() throws SQLException {
+        if (failing) {
+            throw new SQLException("Connection reset");
+        }
+        long until = System.nanoTime() + roundTripNanos;
+        while (System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+    }
+}
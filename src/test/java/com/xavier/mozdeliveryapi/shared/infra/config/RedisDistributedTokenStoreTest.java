@@ -0,0 +1,115 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import com.github.dockerjava.api.model.ExposedPort;
+import com.github.dockerjava.api.model.PortBinding;
+import com.github.dockerjava.api.model.Ports;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the Redis token store against a real Redis.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RedisDistributedTokenStoreTest {
+
+    private static final DockerImageName REDIS_IMAGE = DockerImageName.parse("redis:7-alpine");
+    private static final Duration PERIOD = Duration.ofMinutes(1);
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(REDIS_IMAGE).withExposedPorts(6379);
+
+    private final List<RedisDistributedTokenStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        stores.forEach(RedisDistributedTokenStore::close);
+    }
+
+    @Test
+    @DisplayName("Should hand out tokens until the shared bucket is empty")
+    void shouldAcquireUpToLimit() {
+        // Given
+        RedisDistributedTokenStore first = store(redis.getHost(), redis.getMappedPort(6379));
+        RedisDistributedTokenStore second = store(redis.getHost(), redis.getMappedPort(6379));
+
+        // When
+        long firstBatch = first.tryAcquire("tenant:1", 10, PERIOD, 6).join();
+        long secondBatch = second.tryAcquire("tenant:1", 10, PERIOD, 6).join();
+        long exhausted = first.tryAcquire("tenant:1", 10, PERIOD, 1).join();
+        long otherKey = second.tryAcquire("tenant:2", 10, PERIOD, 6).join();
+
+        // Then
+        assertThat(firstBatch).isEqualTo(6);
+        assertThat(secondBatch).isEqualTo(4);
+        assertThat(exhausted).isZero();
+        assertThat(otherKey).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Should start a fresh bucket when the limit changes")
+    void shouldApplyChangedLimit() {
+        // Given
+        RedisDistributedTokenStore store = store(redis.getHost(), redis.getMappedPort(6379));
+        store.tryAcquire("user:7", 5, PERIOD, 5).join();
+
+        // When
+        long underOldLimit = store.tryAcquire("user:7", 5, PERIOD, 1).join();
+        long underNewLimit = store.tryAcquire("user:7", 20, PERIOD, 20).join();
+
+        // Then
+        assertThat(underOldLimit).isZero();
+        assertThat(underNewLimit).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should connect once Redis becomes available")
+    void shouldReconnectAfterRedisWasUnavailable() throws IOException {
+        // Given: nothing listens on the port yet
+        int port = freePort();
+        RedisDistributedTokenStore store = store("localhost", port);
+
+        // When
+        Throwable whileDown = catchThrowable(() -> store.tryAcquire("tenant:1", 10, PERIOD, 1).join());
+        long afterStart;
+        try (GenericContainer<?> late = new GenericContainer<>(REDIS_IMAGE)
+                .withExposedPorts(6379)
+                .withCreateContainerCmdModifier(cmd -> cmd.getHostConfig().withPortBindings(
+                    new PortBinding(Ports.Binding.bindPort(port), new ExposedPort(6379))))) {
+            late.start();
+            afterStart = store.tryAcquire("tenant:1", 10, PERIOD, 1).join();
+        }
+
+        // Then
+        assertThat(whileDown).isInstanceOf(CompletionException.class);
+        assertThat(afterStart).isEqualTo(1);
+    }
+
+    private RedisDistributedTokenStore store(String host, int port) {
+        RedisDistributedTokenStore store = new RedisDistributedTokenStore(
+            RedisClient.create(), RedisURI.create(host, port), "rate-limit-test:");
+        stores.add(store);
+        return store;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import com.xavier.mozdeliveryapi.shared.application.usecase.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures connection checkout overhead of tenant session setup against a
+ * pool of fake connections whose statements cost a simulated round trip.
+ * Run with {@code ./mvnw test -Dtest=TenantAwareDataSourceBenchmarkTest -Dbenchmark=true}.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TenantAwareDataSourceBenchmarkTest {
+
+    private static final int CHECKOUTS = 200_000;
+    private static final int POOL_SIZE = 10;
+    private static final long ROUND_TRIP_NANOS = 20_000;
+    private static final String[] TENANTS = {
+        "7c9e6679-7425-40de-944b-e07fc1f90ae7",
+        "1b4e28ba-2fa1-11d2-883f-0016d3cca427",
+        "f47ac10b-58cc-4372-a567-0e02b2c3d479"
+    };
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void measureCheckoutOverhead() throws SQLException {
+        RecordingDataSource pool = new RecordingDataSource(POOL_SIZE, ROUND_TRIP_NANOS);
+
+        double raw = measure("no tenant setup", pool, false, Connection::close);
+        double perCheckoutStatement = measure("statement per checkout", pool, false, connection -> {
+            Statement statement = connection.createStatement();
+            statement.execute("SET LOCAL app.current_tenant_id = '" + TenantContext.getCurrentTenant() + "'");
+            connection.close();
+        });
+        TenantAwareDataSource tenantAware = new TenantAwareDataSource(new RecordingDataSource(POOL_SIZE, ROUND_TRIP_NANOS));
+        double sameTenant = measure("prepared, same tenant", tenantAware, false, Connection::close);
+        double rotating = measure("prepared, rotating (worst case)", tenantAware, true, Connection::close);
+
+        System.out.printf("skipped %d of %d tenant settings%n",
+            tenantAware.getSkippedCount(), tenantAware.getSkippedCount() + tenantAware.getAppliedCount());
+        assertThat(sameTenant).isLessThan(perCheckoutStatement);
+        assertThat(raw).isLessThan(rotating);
+    }
+
+    private double measure(String label, DataSource dataSource, boolean rotateTenants, Checkout checkout)
+            throws SQLException {
+        run(dataSource, rotateTenants, checkout, CHECKOUTS / 10);  // warm up
+        long start = System.nanoTime();
+        run(dataSource, rotateTenants, checkout, CHECKOUTS);
+        double nanosPerCheckout = (double) (System.nanoTime() - start) / CHECKOUTS;
+        System.out.printf("%-28s %8.0f ns/checkout%n", label, nanosPerCheckout);
+        return nanosPerCheckout;
+    }
+
+    private void run(DataSource dataSource, boolean rotateTenants, Checkout checkout, int count)
+            throws SQLException {
+        for (int i = 0; i < count; i++) {
+            TenantContext.setCurrentTenant(TENANTS[rotateTenants ? (i / 7) % TENANTS.length : 0]);
+            checkout.accept(dataSource.getConnection());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Checkout {
+        void accept(Connection connection) throws SQLException;
+    }
+}
@@ -0,0 +1,136 @@
+package com.xavier.mozdeliveryapi.shared.infra.config;
+
+import com.xavier.mozdeliveryapi.shared.application.usecase.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for tenant session setup on pooled connections.
+ */
+class TenantAwareDataSourceTest {
+
+    private static final String TENANT_A = "7c9e6679-7425-40de-944b-e07fc1f90ae7";
+    private static final String TENANT_B = "1b4e28ba-2fa1-11d2-883f-0016d3cca427";
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should set the tenant with a prepared statement and close it")
+    void shouldSetTenantWithPreparedStatement() throws SQLException {
+        // Given
+        RecordingDataSource pool = new RecordingDataSource(1, 0);
+        TenantAwareDataSource dataSource = new TenantAwareDataSource(pool);
+        TenantContext.setCurrentTenant(TENANT_A);
+
+        // When
+        dataSource.getConnection();
+
+        // Then
+        assertThat(pool.getExecutedSettings()).containsExactly(setting(TENANT_A));
+        assertThat(pool.getOpenStatements()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should skip the round trip when the pooled connection already carries the tenant")
+    void shouldSkipWhenConnectionCarriesTenant() throws SQLException {
+        // Given
+        RecordingDataSource pool = new RecordingDataSource(2, 0);
+        TenantAwareDataSource dataSource = new TenantAwareDataSource(pool);
+        TenantContext.setCurrentTenant(TENANT_A);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            dataSource.getConnection().close();
+        }
+
+        // Then: once per physical connection
+        assertThat(pool.getExecutedSettings()).hasSize(2);
+        assertThat(dataSource.getAppliedCount()).isEqualTo(2);
+        assertThat(dataSource.getSkippedCount()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Should reset or replace a tenant left on a returned connection")
+    void shouldResetTenantOnReuse() throws SQLException {
+        // Given
+        RecordingDataSource pool = new RecordingDataSource(1, 0);
+        TenantAwareDataSource dataSource = new TenantAwareDataSource(pool);
+        TenantContext.setCurrentTenant(TENANT_A);
+        dataSource.getConnection().close();
+
+        // When
+        TenantContext.setCurrentTenant(TENANT_B);
+        dataSource.getConnection().close();
+        TenantContext.clear();
+        dataSource.getConnection().close();
+        dataSource.getConnection().close();
+
+        // Then
+        assertThat(pool.getExecutedSettings()).containsExactly(setting(TENANT_A), setting(TENANT_B), setting(""));
+    }
+
+    @Test
+    @DisplayName("Should not touch fresh connections checked out without a tenant")
+    void shouldSkipFreshConnectionsWithoutTenant() throws SQLException {
+        // Given
+        RecordingDataSource pool = new RecordingDataSource(1, 0);
+        TenantAwareDataSource dataSource = new TenantAwareDataSource(pool);
+
+        // When
+        dataSource.getConnection();
+
+        // Then
+        assertThat(pool.getExecutedSettings()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should set the tenant again when it was set inside a transaction")
+    void shouldReapplyWhenSetInsideTransaction() throws SQLException {
+        // Given
+        RecordingDataSource pool = new RecordingDataSource(1, 0);
+        pool.setAutoCommit(false);
+        TenantAwareDataSource dataSource = new TenantAwareDataSource(pool);
+        TenantContext.setCurrentTenant(TENANT_A);
+
+        // When
+        dataSource.getConnection().close();
+        dataSource.getConnection().close();
+
+        // Then: a rollback may have undone the first setting
+        assertThat(pool.getExecutedSettings()).containsExactly(setting(TENANT_A), setting(TENANT_A));
+    }
+
+    @Test
+    @DisplayName("Should return the connection to the pool when the tenant cannot be set")
+    void shouldCloseConnectionWhenSettingFails() throws SQLException {
+        // Given
+        RecordingDataSource pool = new RecordingDataSource(1, 0);
+        TenantAwareDataSource dataSource = new TenantAwareDataSource(pool);
+        TenantContext.setCurrentTenant(TENANT_A);
+        pool.setFailing(true);
+
+        // When / Then
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLException.class);
+        assertThat(pool.getClosedConnections()).isEqualTo(1);
+        assertThat(pool.getOpenStatements()).isZero();
+
+        // And the next checkout tries again
+        pool.setFailing(false);
+        Connection connection = dataSource.getConnection();
+        assertThat(connection).isNotNull();
+        assertThat(pool.getExecutedSettings()).containsExactly(setting(TENANT_A));
+    }
+
+    private static String setting(String tenantId) {
+        return TenantAwareDataSource.SET_TENANT_SQL + " " + TenantAwareDataSource.TENANT_SETTING + "=" + tenantId;
+    }
+}
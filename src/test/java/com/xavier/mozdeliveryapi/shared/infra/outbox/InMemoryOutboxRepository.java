@@ -0,0 +1,107 @@
+package com.xavier.mozdeliveryapi.shared.infra.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Outbox kept in memory for tests, with the same ordering, backoff and lease
+ * rules as the database one.
+ */
+class InMemoryOutboxRepository implements OutboxRepository {
+
+    private final Map<Long, OutboxMessage> messages = new TreeMap<>();
+    private final Map<Long, Instant> failed = new TreeMap<>();
+    private final Map<Long, String> errors = new TreeMap<>();
+    private long nextId = 1;
+    private String leaseOwner;
+    private Instant leaseExpiresAt = Instant.EPOCH;
+
+    @Override
+    public synchronized void append(List<OutboxMessage> appended) {
+        for (OutboxMessage message : appended) {
+            long id = nextId++;
+            messages.put(id, new OutboxMessage(id, message.aggregateId(), message.eventClass(), message.payload(),
+                                               message.occurredAt(), message.createdAt(), 0, null));
+        }
+    }
+
+    @Override
+    public synchronized List<OutboxMessage> findReady(Instant now, int limit) {
+        List<OutboxMessage> ready = new ArrayList<>();
+        for (OutboxMessage message : messages.values()) {
+            if (ready.size() == limit) {
+                break;
+            }
+            if (!failed.containsKey(message.id()) && !waitingToRetry(message.aggregateId(), now)) {
+                ready.add(message);
+            }
+        }
+        return ready;
+    }
+
+    @Override
+    public synchronized void delete(Collection<Long> ids) {
+        ids.forEach(messages::remove);
+    }
+
+    @Override
+    public synchronized void recordFailure(long id, String error, Instant nextAttemptAt, Instant failedAt) {
+        OutboxMessage message = messages.get(id);
+        messages.put(id, new OutboxMessage(id, message.aggregateId(), message.eventClass(), message.payload(),
+                                           message.occurredAt(), message.createdAt(), message.attempts() + 1,
+                                           nextAttemptAt));
+        errors.put(id, error);
+        if (failedAt != null) {
+            failed.put(id, failedAt);
+        }
+    }
+
+    @Override
+    public synchronized boolean tryAcquireLease(String owner, Instant now, Duration ttl) {
+        if (!owner.equals(leaseOwner) && !leaseExpiresAt.isBefore(now)) {
+            return false;
+        }
+        leaseOwner = owner;
+        leaseExpiresAt = now.plus(ttl);
+        return true;
+    }
+
+    @Override
+    public synchronized void releaseLease(String owner, Instant now) {
+        if (owner.equals(leaseOwner)) {
+            leaseOwner = null;
+            leaseExpiresAt = now;
+        }
+    }
+
+    synchronized void holdLease(String owner, Instant expiresAt) {
+        leaseOwner = owner;
+        leaseExpiresAt = expiresAt;
+    }
+
+    synchronized List<OutboxMessage> pending() {
+        return messages.values().stream().filter(message -> !failed.containsKey(message.id())).toList();
+    }
+
+    synchronized List<Long> failedIds() {
+        return List.copyOf(failed.keySet());
+    }
+
+    synchronized String errorOf(long id) {
+        return errors.get(id);
+    }
+
+    private boolean waitingToRetry(String aggregateId, Instant now) {
+        return messages.values().stream()
+            .anyMatch(message -> Objects.equals(message.aggregateId(), aggregateId)
+                && !failed.containsKey(message.id())
+                && message.nextAttemptAt() != null
+                && message.nextAttemptAt().isAfter(now));
+    }
+}
@@ -0,0 +1,219 @@
+package com.xavier.mozdeliveryapi.shared.infra.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xavier.mozdeliveryapi.geospatial.domain.valueobject.Location;
+import com.xavier.mozdeliveryapi.geospatial.infra.json.LocationJsonModule;
+import com.xavier.mozdeliveryapi.shared.domain.event.DomainEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Round-trip tests of every domain event through the outbox codec.
+ */
+class OutboxEventCodecTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+    private final OutboxEventCodec codec = new OutboxEventCodec(
+        new ObjectMapper().findAndRegisterModules().registerModule(new LocationJsonModule()));
+
+    @Test
+    @DisplayName("Should read back every domain event as it was written")
+    void shouldRoundTripEveryDomainEvent() {
+        // Given
+        List<Class<? extends DomainEvent>> eventTypes = domainEventTypes();
+        List<String> failures = new ArrayList<>();
+
+        // When
+        for (Class<? extends DomainEvent> eventType : eventTypes) {
+            DomainEvent event = eventType.cast(sample(eventType, eventType.getSimpleName()));
+            try {
+                DomainEvent decoded = codec.decode(codec.encode(event, NOW));
+                if (!event.equals(decoded)) {
+                    failures.add(eventType.getSimpleName() + " read back as " + decoded);
+                }
+            } catch (IllegalArgumentException e) {
+                failures.add(eventType.getSimpleName() + ": " + e.getCause());
+            }
+        }
+
+        // Then
+        assertThat(eventTypes).hasSizeGreaterThan(60);
+        assertThat(failures).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should read a location back and reject coordinates out of range")
+    void shouldReadLocationAndRejectInvalidOne() throws Exception {
+        // Given
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new LocationJsonModule());
+
+        // When
+        Location location = objectMapper.readValue("{\"latitude\":-25.9692,\"longitude\":32.5732}", Location.class);
+
+        // Then
+        assertThat(location).isEqualTo(Location.of(-25.9692, 32.5732));
+        assertThatThrownBy(() -> objectMapper.readValue("{\"latitude\":91,\"longitude\":0}", Location.class))
+            .hasMessageContaining("Latitude must be between -90 and 90 degrees");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Class<? extends DomainEvent>> domainEventTypes() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AssignableTypeFilter(DomainEvent.class));
+        return scanner.findCandidateComponents("com.xavier.mozdeliveryapi").stream()
+            .map(definition -> {
+                try {
+                    return (Class<? extends DomainEvent>) Class.forName(definition.getBeanClassName());
+                } catch (ClassNotFoundException e) {
+                    throw new IllegalStateException(e);
+                }
+            })
+            .filter(Class::isRecord)
+            .toList();
+    }
+
+    /**
+     * Build a valid instance of a type: records from samples of their components,
+     * other value objects from a factory, plain JDK types from a fixed value.
+     */
+    private static Object sample(Type type, String name) {
+        if (type instanceof ParameterizedType parameterized) {
+            Class<?> raw = (Class<?>) parameterized.getRawType();
+            Type[] arguments = parameterized.getActualTypeArguments();
+            if (List.class.isAssignableFrom(raw)) {
+                return List.of(sample(arguments[0], name));
+            }
+            if (Set.class.isAssignableFrom(raw)) {
+                return Set.of(sample(arguments[0], name));
+            }
+            if (Map.class.isAssignableFrom(raw)) {
+                return Map.of(sample(arguments[0], name), sample(arguments[1], name));
+            }
+            return sample(raw, name);
+        }
+        Class<?> valueType = (Class<?>) type;
+        // Free-form settings hold plain JSON values, so a string stands in for Object
+        if (valueType == String.class || valueType == Object.class) {
+            return sampleString(name.toLowerCase(Locale.ROOT));
+        }
+        if (valueType == int.class || valueType == Integer.class) {
+            return 3;
+        }
+        if (valueType == long.class || valueType == Long.class) {
+            return 3L;
+        }
+        if (valueType == double.class || valueType == Double.class) {
+            return 3.0;
+        }
+        if (valueType == boolean.class || valueType == Boolean.class) {
+            return true;
+        }
+        if (valueType == BigDecimal.class) {
+            return new BigDecimal("12.50");
+        }
+        if (valueType == UUID.class) {
+            return UUID.fromString("1c9e4f2a-7b3d-4a8e-9f0c-5d6e7a8b9c0d");
+        }
+        if (valueType == Instant.class) {
+            return NOW;
+        }
+        if (valueType == Duration.class) {
+            return Duration.ofMinutes(5);
+        }
+        if (valueType == LocalDate.class) {
+            return LocalDate.of(2026, 1, 1);
+        }
+        if (valueType == LocalDateTime.class) {
+            return LocalDateTime.of(2026, 1, 1, 12, 0);
+        }
+        if (valueType == LocalTime.class) {
+            return LocalTime.NOON;
+        }
+        if (valueType == Currency.class) {
+            return Currency.getInstance("MZN");
+        }
+        if (valueType == Location.class) {
+            return Location.of(-25.9692, 32.5732);
+        }
+        if (valueType.isEnum()) {
+            return valueType.getEnumConstants()[0];
+        }
+        Object fromFactory = fromFactory(valueType);
+        if (fromFactory != null) {
+            return fromFactory;
+        }
+        if (valueType.isRecord()) {
+            RecordComponent[] components = valueType.getRecordComponents();
+            Class<?>[] parameterTypes = new Class<?>[components.length];
+            Object[] arguments = new Object[components.length];
+            for (int i = 0; i < components.length; i++) {
+                parameterTypes[i] = components[i].getType();
+                arguments[i] = sample(components[i].getGenericType(), components[i].getName());
+            }
+            try {
+                return valueType.getDeclaredConstructor(parameterTypes).newInstance(arguments);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot build a sample " + valueType.getName(), e);
+            }
+        }
+        throw new IllegalStateException("No sample for " + valueType.getName());
+    }
+
+    /**
+     * Strings that are validated get a value in their expected format.
+     */
+    private static String sampleString(String name) {
+        if (name.contains("email")) {
+            return "guest@example.com";
+        }
+        if (name.contains("phone")) {
+            return "+258841234567";
+        }
+        if (name.contains("currency")) {
+            return "MZN";
+        }
+        return "sample";
+    }
+
+    /**
+     * Value objects that validate their content provide a no-argument factory
+     * for a valid instance, such as {@code generate()} or {@code defaults()}.
+     */
+    private static Object fromFactory(Class<?> type) {
+        for (Method method : type.getDeclaredMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) && Modifier.isPublic(method.getModifiers())
+                    && method.getParameterCount() == 0 && method.getReturnType() == type) {
+                try {
+                    return method.invoke(null);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot build a sample " + type.getName(), e);
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,285 @@
+package com.xavier.mozdeliveryapi.shared.infra.outbox;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.xavier.mozdeliveryapi.catalog.domain.event.ProductCreatedEvent;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.CategoryId;
+import com.xavier.mozdeliveryapi.catalog.domain.valueobject.ProductId;
+import com.xavier.mozdeliveryapi.shared.domain.event.DomainEvent;
+import com.xavier.mozdeliveryapi.shared.domain.valueobject.MerchantId;
+
+class OutboxRelayTest {
+
+    private static final Instant START = Instant.parse("2024-03-01T10:00:00Z");
+
+    private InMemoryOutboxRepository outboxRepository;
+    private OutboxEventCodec codec;
+    private SettableClock clock;
+    private MeterRegistry meterRegistry;
+    private RecordingSink sink;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = new InMemoryOutboxRepository();
+        codec = new OutboxEventCodec(new ObjectMapper().findAndRegisterModules());
+        clock = new SettableClock(START);
+        meterRegistry = new SimpleMeterRegistry();
+        sink = new RecordingSink();
+        relay = new OutboxRelay(outboxRepository, codec, List.of(sink),
+            new OutboxRelayPolicy(50, 4, 3, Duration.ofSeconds(15), Duration.ofSeconds(1), Duration.ofSeconds(30)),
+            meterRegistry, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.shutdown();
+    }
+
+    @Test
+    void shouldDeliverPublishedEventsInOrderPerAggregate() {
+        // Given
+        OutboxDomainEventPublisher publisher = new OutboxDomainEventPublisher(outboxRepository, codec, relay, clock);
+        List<ProductCreatedEvent> published = new ArrayList<>();
+        List<ProductId> products = List.of(ProductId.generate(), ProductId.generate(), ProductId.generate());
+        for (int sequence = 0; sequence < 40; sequence++) {
+            published.add(productCreated(products.get(sequence % products.size()), "v" + sequence));
+        }
+
+        // When: published outside a transaction, so the relay is woken straight away
+        publisher.publishAll(published.subList(0, 20));
+        published.subList(20, 40).forEach(publisher::publish);
+
+        // Then
+        awaitUntil(() -> sink.events.size() == published.size());
+        assertThat(sink.events).containsExactlyInAnyOrderElementsOf(published);
+        for (ProductId product : products) {
+            assertThat(sink.events.stream().filter(event -> event.getAggregateId().equals(product.toString())))
+                .containsExactlyElementsOf(published.stream()
+                    .filter(event -> event.productId().equals(product)).toList());
+        }
+        awaitUntil(() -> outboxRepository.pending().isEmpty());
+        assertThat(meterRegistry.get("events.outbox.delivered").counter().count()).isEqualTo(40.0);
+        assertThat(meterRegistry.get("events.outbox.delivery.lag").timer().count()).isEqualTo(40);
+    }
+
+    @Test
+    void shouldRetryFailedEventAfterBackoffAndHoldBackTheRestOfItsAggregate() {
+        // Given
+        ProductId failing = ProductId.generate();
+        ProductId healthy = ProductId.generate();
+        ProductCreatedEvent first = productCreated(failing, "first");
+        ProductCreatedEvent second = productCreated(failing, "second");
+        ProductCreatedEvent other = productCreated(healthy, "other");
+        append(first, other, second);
+        sink.failOnce(event -> event.equals(first));
+
+        // When
+        relay.relay();
+
+        // Then: only the other aggregate got through
+        assertThat(sink.events).containsExactly(other);
+        assertThat(outboxRepository.pending()).hasSize(2);
+        assertThat(outboxRepository.pending().get(0).attempts()).isEqualTo(1);
+        assertThat(outboxRepository.pending().get(0).nextAttemptAt()).isEqualTo(START.plusSeconds(1));
+        assertThat(meterRegistry.get("events.outbox.retried").counter().count()).isEqualTo(1.0);
+
+        // When: relayed again before the backoff is over
+        clock.advance(Duration.ofMillis(500));
+        relay.relay();
+
+        // Then
+        assertThat(sink.events).containsExactly(other);
+
+        // When: relayed once it is over
+        clock.advance(Duration.ofMillis(500));
+        relay.relay();
+
+        // Then
+        assertThat(sink.events).containsExactly(other, first, second);
+        assertThat(outboxRepository.pending()).isEmpty();
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttemptsAndMoveOnToTheNextEvent() {
+        // Given
+        ProductId product = ProductId.generate();
+        ProductCreatedEvent poison = productCreated(product, "poison");
+        ProductCreatedEvent next = productCreated(product, "next");
+        append(poison, next);
+        sink.failAlways(event -> event.equals(poison));
+
+        // When: attempts at 0s, 1s and 3s
+        relay.relay();
+        clock.advance(Duration.ofSeconds(1));
+        relay.relay();
+        clock.advance(Duration.ofSeconds(2));
+        relay.relay();
+
+        // Then
+        assertThat(sink.events).containsExactly(next);
+        assertThat(outboxRepository.pending()).isEmpty();
+        long poisonId = outboxRepository.failedIds().get(0);
+        assertThat(outboxRepository.errorOf(poisonId)).contains("Sink unavailable");
+        assertThat(meterRegistry.get("events.outbox.retried").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("events.outbox.dead_lettered").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldGiveUpStraightAwayOnEventsThatCannotBeRead() {
+        // Given
+        outboxRepository.append(List.of(OutboxMessage.pending("order-1", "com.example.RemovedEvent", "{}",
+                                                              START, START)));
+
+        // When
+        relay.relay();
+
+        // Then
+        assertThat(sink.events).isEmpty();
+        assertThat(outboxRepository.failedIds()).hasSize(1);
+        assertThat(meterRegistry.get("events.outbox.dead_lettered").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldOnlyRelayWhileHoldingTheLease() {
+        // Given: another instance holds the lease
+        outboxRepository.holdLease("other-instance", START.plusSeconds(10));
+        ProductCreatedEvent event = productCreated(ProductId.generate(), "waiting");
+        append(event);
+
+        // When
+        relay.relay();
+
+        // Then
+        assertThat(sink.events).isEmpty();
+        assertThat(meterRegistry.get("events.outbox.leader").gauge().value()).isEqualTo(0.0);
+
+        // When: the other instance stops renewing it
+        clock.advance(Duration.ofSeconds(11));
+        relay.relay();
+
+        // Then
+        assertThat(sink.events).containsExactly(event);
+        assertThat(meterRegistry.get("events.outbox.leader").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldReportAgeOfOldestPendingEvent() {
+        // Given
+        ProductCreatedEvent event = productCreated(ProductId.generate(), "slow");
+        append(event);
+        sink.failOnce(pending -> true);
+
+        // When
+        relay.relay();
+        clock.advance(Duration.ofSeconds(1));
+
+        // Then
+        assertThat(meterRegistry.get("events.outbox.lag.seconds").gauge().value()).isEqualTo(1.0);
+
+        // When
+        relay.relay();
+
+        // Then
+        assertThat(meterRegistry.get("events.outbox.lag.seconds").gauge().value()).isEqualTo(0.0);
+        assertThat(meterRegistry.get("events.outbox.delivery.lag").timer().totalTime(TimeUnit.SECONDS))
+            .isEqualTo(1.0);
+    }
+
+    private void append(DomainEvent... events) {
+        List<OutboxMessage> messages = new ArrayList<>();
+        for (DomainEvent event : events) {
+            messages.add(codec.encode(event, clock.instant()));
+        }
+        outboxRepository.append(messages);
+    }
+
+    private static ProductCreatedEvent productCreated(ProductId productId, String name) {
+        return new ProductCreatedEvent(productId, MerchantId.generate(), CategoryId.generate(), name, START);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 5 seconds");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class RecordingSink implements OutboxEventSink {
+
+        private final List<DomainEvent> events = new CopyOnWriteArrayList<>();
+        private volatile Predicate<DomainEvent> failing = event -> false;
+        private volatile boolean failOnce;
+
+        void failOnce(Predicate<DomainEvent> predicate) {
+            failing = predicate;
+            failOnce = true;
+        }
+
+        void failAlways(Predicate<DomainEvent> predicate) {
+            failing = predicate;
+            failOnce = false;
+        }
+
+        @Override
+        public void deliver(DomainEvent event) {
+            if (failing.test(event)) {
+                if (failOnce) {
+                    failing = pending -> false;
+                }
+                throw new IllegalStateException("Sink unavailable");
+            }
+            events.add(event);
+        }
+    }
+
+    private static final class SettableClock extends Clock {
+
+        private volatile Instant now;
+
+        SettableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}